@@ -0,0 +1,114 @@
+package de.otto.rx.composer.benchmarks;
+
+import com.google.common.base.Strings;
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.ContentPipeline;
+import de.otto.rx.composer.content.Contents;
+import de.otto.rx.composer.content.Headers;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.PositionIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.otto.rx.composer.content.AbcPosition.values;
+import static de.otto.rx.composer.content.ContentPipeline.contentPipeline;
+import static de.otto.rx.composer.content.ContentMappers.htmlBody;
+import static de.otto.rx.composer.content.Contents.contentsBuilder;
+import static de.otto.rx.composer.content.PositionIndex.positionIndex;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Benchmarks the handling of {@link Content}: copying {@link Headers}, extracting the HTML body of a content,
+ * transforming it using a {@link ContentPipeline}, and building {@link Contents}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+public class ContentBenchmark {
+
+    @Param({"1024", "65536"})
+    public int bodySize;
+
+    @Param({"16"})
+    public int numContents;
+
+    private Map<String, List<String>> responseHeaders;
+    private Content htmlContent;
+    private Content[] contents;
+    private PositionIndex positionIndex;
+    private ContentPipeline pipeline;
+
+    @Setup
+    public void setup() {
+        responseHeaders = new LinkedHashMap<>();
+        responseHeaders.put("Content-Type", singletonList("text/html; charset=utf-8"));
+        responseHeaders.put("Cache-Control", singletonList("max-age=60"));
+        responseHeaders.put("Date", singletonList("Tue, 15 Nov 1994 08:12:31 GMT"));
+        responseHeaders.put("ETag", singletonList("\"737060cd8c284d8af7ad3082f209582d\""));
+        responseHeaders.put("Vary", asList("Accept", "Accept-Encoding"));
+        responseHeaders.put("X-Request-Id", singletonList("f058ebd6-02f7-4d3f-942e-904344e8cde5"));
+
+        final String html = "<html><head><title>Benchmark</title></head><body>"
+                + Strings.repeat("<p>Lorem ipsum dolor sit amet</p>", bodySize / 33)
+                + "</body></html>";
+        htmlContent = staticTextContent("benchmark", values()[0], html);
+
+        contents = new Content[numContents];
+        final List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < numContents; i++) {
+            final Position position = values()[i];
+            positions.add(position);
+            contents[i] = staticTextContent("benchmark", position, "<p>" + position.name() + "</p>");
+        }
+        positionIndex = positionIndex(positions);
+        pipeline = contentPipeline()
+                .extractBody()
+                .stripComments()
+                .rewriteUrls(url -> "/proxy" + url)
+                .minify();
+    }
+
+    @Benchmark
+    public Headers headersOf() {
+        return Headers.of(responseHeaders);
+    }
+
+    @Benchmark
+    public String htmlBodyOfContent() {
+        return htmlBody(htmlContent).getBody();
+    }
+
+    @Benchmark
+    public String transformContent() {
+        return pipeline.apply(htmlContent).getBody();
+    }
+
+    @Benchmark
+    public int buildContents() {
+        return buildAndGet(contentsBuilder());
+    }
+
+    @Benchmark
+    public int buildIndexedContents() {
+        return buildAndGet(contentsBuilder(positionIndex));
+    }
+
+    private int buildAndGet(final Contents.Builder builder) {
+        for (final Content content : contents) {
+            builder.add(content);
+        }
+        final Contents built = builder.build();
+        int length = 0;
+        for (final Content content : contents) {
+            length += built.getBody(content.getPosition()).length();
+        }
+        return length;
+    }
+}
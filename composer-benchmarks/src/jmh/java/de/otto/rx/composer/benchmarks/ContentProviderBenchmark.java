@@ -0,0 +1,61 @@
+package de.otto.rx.composer.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.client.ServiceClient;
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.providers.ContentProvider;
+import org.openjdk.jmh.annotations.*;
+
+import static de.otto.rx.composer.benchmarks.StubServiceClient.stubClient;
+import static de.otto.rx.composer.client.ClientConfig.noResiliency;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.providers.ContentProviders.contentFrom;
+import static de.otto.rx.composer.providers.ContentProviders.withFirst;
+import static de.otto.rx.composer.providers.ContentProviders.withQuickest;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static javax.ws.rs.core.MediaType.TEXT_HTML;
+
+/**
+ * Benchmarks the SelectingContentProvider ({@code withFirst}) and the QuickestWinsContentProvider
+ * ({@code withQuickest}) for different numbers of alternative providers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+public class ContentProviderBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int fanOut;
+
+    private ServiceClient serviceClient;
+    private ContentProvider first;
+    private ContentProvider quickest;
+
+    @Setup
+    public void setup() {
+        serviceClient = stubClient(noResiliency(), "<p>Content of {uri}</p>");
+        final ImmutableList.Builder<ContentProvider> providers = ImmutableList.builder();
+        for (int i = 0; i < fanOut; i++) {
+            providers.add(contentFrom(serviceClient, "http://stub/" + i, TEXT_HTML));
+        }
+        first = withFirst(providers.build());
+        quickest = withQuickest(providers.build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        serviceClient.close();
+    }
+
+    @Benchmark
+    public Content withFirstProvider() {
+        return first.getContent(A, noOpTracer(), emptyParameters()).toBlocking().single();
+    }
+
+    @Benchmark
+    public Content withQuickestProvider() {
+        return quickest.getContent(A, noOpTracer(), emptyParameters()).toBlocking().single();
+    }
+}
@@ -0,0 +1,108 @@
+package de.otto.rx.composer.benchmarks;
+
+import de.otto.rx.composer.client.ServiceClient;
+import de.otto.rx.composer.content.Contents;
+import de.otto.rx.composer.page.BlockingEngine;
+import de.otto.rx.composer.page.ExecutionEngine;
+import de.otto.rx.composer.page.Fragment;
+import de.otto.rx.composer.page.Page;
+import org.openjdk.jmh.annotations.*;
+
+import static com.damnhandy.uri.template.UriTemplate.fromTemplate;
+import static com.google.common.collect.ImmutableMap.of;
+import static de.otto.rx.composer.benchmarks.StubServiceClient.stubClient;
+import static de.otto.rx.composer.client.ClientConfig.noResiliency;
+import static de.otto.rx.composer.content.AbcPosition.values;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.content.Parameters.parameters;
+import static de.otto.rx.composer.page.BlockingEngine.blockingEngine;
+import static de.otto.rx.composer.page.Fragments.followedBy;
+import static de.otto.rx.composer.page.Fragments.fragment;
+import static de.otto.rx.composer.page.RxEngine.rxEngine;
+import static de.otto.rx.composer.providers.ContentProviders.contentFrom;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static javax.ws.rs.core.MediaType.TEXT_HTML;
+
+/**
+ * Compares the {@link de.otto.rx.composer.page.RxEngine} and the {@link BlockingEngine} executing the same pages.
+ * <p>
+ *     Throughput is measured in pages per millisecond, and the tail latency is reported by the percentiles
+ *     of the {@code SampleTime} mode. Allocations per page are reported by the GC profiler as
+ *     {@code gc.alloc.rate.norm}.
+ * </p>
+ * <p>
+ *     With {@code latencyMillis} greater than zero, the stub client is blocking its thread for every request, so
+ *     the benchmark is dominated by the number of concurrently waiting threads. Run it with multiple benchmark
+ *     threads, for example {@code -t 8}, to compare the engines under concurrent load.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(MILLISECONDS)
+public class EngineBenchmark {
+
+    @Param({"rx", "blocking"})
+    public String engine;
+
+    @Param({"flat", "nested"})
+    public String shape;
+
+    @Param({"4", "16"})
+    public int numFragments;
+
+    @Param({"0", "2"})
+    public long latencyMillis;
+
+    private ServiceClient serviceClient;
+    private BlockingEngine blockingEngine;
+    private ExecutionEngine executionEngine;
+    private Page page;
+
+    @Setup
+    public void setup() {
+        serviceClient = stubClient(noResiliency(), "<html><body><p>Content of {uri}</p></body></html>", latencyMillis);
+        blockingEngine = blockingEngine();
+        executionEngine = "blocking".equals(engine) ? blockingEngine : rxEngine();
+        page = "flat".equals(shape) ? flatPage() : nestedPage();
+    }
+
+    @TearDown
+    public void tearDown() {
+        blockingEngine.close();
+        serviceClient.close();
+    }
+
+    @Benchmark
+    public Contents fetchPage() {
+        return page.fetchWith(emptyParameters(), noOpTracer(), executionEngine);
+    }
+
+    private Page flatPage() {
+        final Fragment[] fragments = new Fragment[numFragments];
+        for (int i = 0; i < numFragments; i++) {
+            fragments[i] = fragment(values()[i], contentFrom(serviceClient, "http://stub/" + i, TEXT_HTML));
+        }
+        return Page.consistsOf(fragments[0], tail(fragments));
+    }
+
+    private Page nestedPage() {
+        final Fragment[] nested = new Fragment[numFragments - 1];
+        for (int i = 0; i < nested.length; i++) {
+            nested[i] = fragment(values()[i + 1], contentFrom(serviceClient, fromTemplate("http://stub/{first}/" + i), TEXT_HTML));
+        }
+        return Page.consistsOf(
+                fragment(
+                        values()[0],
+                        contentFrom(serviceClient, "http://stub/first", TEXT_HTML),
+                        followedBy(content -> parameters(of("first", content.getSource().length())), nested[0], tail(nested))
+                )
+        );
+    }
+
+    private static Fragment[] tail(final Fragment[] fragments) {
+        final Fragment[] tail = new Fragment[fragments.length - 1];
+        System.arraycopy(fragments, 1, tail, 0, tail.length);
+        return tail;
+    }
+}
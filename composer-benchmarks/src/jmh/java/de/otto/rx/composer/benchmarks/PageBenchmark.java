@@ -0,0 +1,103 @@
+package de.otto.rx.composer.benchmarks;
+
+import de.otto.rx.composer.client.ClientConfig;
+import de.otto.rx.composer.client.ServiceClient;
+import de.otto.rx.composer.content.Contents;
+import de.otto.rx.composer.page.Fragment;
+import de.otto.rx.composer.page.Page;
+import org.openjdk.jmh.annotations.*;
+
+import static com.damnhandy.uri.template.UriTemplate.fromTemplate;
+import static com.google.common.collect.ImmutableMap.of;
+import static de.otto.rx.composer.benchmarks.StubServiceClient.stubClient;
+import static de.otto.rx.composer.client.ClientConfig.noResiliency;
+import static de.otto.rx.composer.client.ClientConfig.singleRetry;
+import static de.otto.rx.composer.content.AbcPosition.values;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.content.Parameters.parameters;
+import static de.otto.rx.composer.page.Fragments.followedBy;
+import static de.otto.rx.composer.page.Fragments.fragment;
+import static de.otto.rx.composer.providers.ContentProviders.contentFrom;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static de.otto.rx.composer.tracer.TracerBuilder.loggingStatisticsTracer;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static javax.ws.rs.core.MediaType.TEXT_HTML;
+
+/**
+ * Benchmarks {@link Page#fetchWith} for pages consisting of {@code numFragments} fragments.
+ * <p>
+ *     A {@code flat} page is fetching all fragments in parallel, while a {@code nested} page is fetching the
+ *     first fragment and then the others, using a parameter extracted from the first content. The
+ *     {@code singleRetry} client config is executing requests using Hystrix, {@code noResiliency} is not.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+public class PageBenchmark {
+
+    @Param({"flat", "nested"})
+    public String shape;
+
+    @Param({"1", "4", "16"})
+    public int numFragments;
+
+    @Param({"noResiliency", "singleRetry"})
+    public String clientConfig;
+
+    private ServiceClient serviceClient;
+    private Page page;
+
+    @Setup
+    public void setup() {
+        final ClientConfig config = "singleRetry".equals(clientConfig) ? singleRetry() : noResiliency();
+        serviceClient = stubClient(config, "<html><body><p>Content of {uri}</p></body></html>");
+        page = "flat".equals(shape) ? flatPage() : nestedPage();
+    }
+
+    @TearDown
+    public void tearDown() {
+        serviceClient.close();
+    }
+
+    @Benchmark
+    public Contents fetchWithNoOpTracer() {
+        return page.fetchWith(emptyParameters(), noOpTracer());
+    }
+
+    @Benchmark
+    public Contents fetchWithLoggingStatisticsTracer() {
+        return page.fetchWith(emptyParameters(), loggingStatisticsTracer());
+    }
+
+    private Page flatPage() {
+        final Fragment[] fragments = new Fragment[numFragments];
+        for (int i = 0; i < numFragments; i++) {
+            fragments[i] = fragment(values()[i], contentFrom(serviceClient, "http://stub/" + i, TEXT_HTML));
+        }
+        return Page.consistsOf(fragments[0], tail(fragments));
+    }
+
+    private Page nestedPage() {
+        if (numFragments == 1) {
+            return flatPage();
+        }
+        final Fragment[] nested = new Fragment[numFragments - 1];
+        for (int i = 0; i < nested.length; i++) {
+            nested[i] = fragment(values()[i + 1], contentFrom(serviceClient, fromTemplate("http://stub/{first}/" + i), TEXT_HTML));
+        }
+        return Page.consistsOf(
+                fragment(
+                        values()[0],
+                        contentFrom(serviceClient, "http://stub/first", TEXT_HTML),
+                        followedBy(content -> parameters(of("first", content.getSource().length())), nested[0], tail(nested))
+                )
+        );
+    }
+
+    private static Fragment[] tail(final Fragment[] fragments) {
+        final Fragment[] tail = new Fragment[fragments.length - 1];
+        System.arraycopy(fragments, 1, tail, 0, tail.length);
+        return tail;
+    }
+}
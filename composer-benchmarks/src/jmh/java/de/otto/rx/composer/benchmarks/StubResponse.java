@@ -0,0 +1,166 @@
+package de.otto.rx.composer.benchmarks;
+
+import org.glassfish.jersey.internal.util.collection.StringKeyIgnoreCaseMultivaluedMap;
+
+import javax.ws.rs.core.*;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+
+/**
+ * An in-memory {@link Response} with a String entity, used to benchmark the composer without network I/O.
+ * <p>
+ *     Only the methods used by the composer are supported.
+ * </p>
+ */
+final class StubResponse extends Response {
+
+    private final int status;
+    private final String body;
+    private final MultivaluedMap<String, String> headers = new StringKeyIgnoreCaseMultivaluedMap<>();
+
+    StubResponse(final int status, final String body) {
+        this.status = status;
+        this.body = body;
+        headers.put("Content-Type", singletonList("text/html"));
+        headers.put("Cache-Control", singletonList("max-age=60"));
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public StatusType getStatusInfo() {
+        return Status.fromStatusCode(status);
+    }
+
+    @Override
+    public Object getEntity() {
+        return body;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T readEntity(final Class<T> entityType) {
+        return (T) body;
+    }
+
+    @Override
+    public <T> T readEntity(final GenericType<T> entityType) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T readEntity(final Class<T> entityType, final Annotation[] annotations) {
+        return readEntity(entityType);
+    }
+
+    @Override
+    public <T> T readEntity(final GenericType<T> entityType, final Annotation[] annotations) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean hasEntity() {
+        return body != null;
+    }
+
+    @Override
+    public boolean bufferEntity() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MediaType.TEXT_HTML_TYPE;
+    }
+
+    @Override
+    public Locale getLanguage() {
+        return null;
+    }
+
+    @Override
+    public int getLength() {
+        return body != null ? body.length() : -1;
+    }
+
+    @Override
+    public Set<String> getAllowedMethods() {
+        return emptySet();
+    }
+
+    @Override
+    public Map<String, NewCookie> getCookies() {
+        return emptyMap();
+    }
+
+    @Override
+    public EntityTag getEntityTag() {
+        return null;
+    }
+
+    @Override
+    public Date getDate() {
+        return null;
+    }
+
+    @Override
+    public Date getLastModified() {
+        return null;
+    }
+
+    @Override
+    public URI getLocation() {
+        return null;
+    }
+
+    @Override
+    public Set<Link> getLinks() {
+        return emptySet();
+    }
+
+    @Override
+    public boolean hasLink(final String relation) {
+        return false;
+    }
+
+    @Override
+    public Link getLink(final String relation) {
+        return null;
+    }
+
+    @Override
+    public Link.Builder getLinkBuilder(final String relation) {
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public MultivaluedMap<String, Object> getMetadata() {
+        return (MultivaluedMap) headers;
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getStringHeaders() {
+        return headers;
+    }
+
+    @Override
+    public String getHeaderString(final String name) {
+        return headers.getFirst(name);
+    }
+}
@@ -0,0 +1,57 @@
+package de.otto.rx.composer.benchmarks;
+
+import de.otto.rx.composer.client.ClientConfig;
+import de.otto.rx.composer.client.ServiceClient;
+import rx.Observable;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * A {@link ServiceClient} that is returning {@link StubResponse in-memory responses}, so benchmarks are
+ * measuring the composer instead of the network.
+ * <p>
+ *     The body of the returned responses is the {@code body} template, with every {@code {uri}} replaced by
+ *     the requested URI. Optionally, the stub is blocking the requesting thread for some latency, like a
+ *     synchronous HTTP client waiting for the response.
+ * </p>
+ */
+final class StubServiceClient implements ServiceClient {
+
+    private final ClientConfig clientConfig;
+    private final String body;
+    private final long latencyMillis;
+
+    private StubServiceClient(final ClientConfig clientConfig, final String body, final long latencyMillis) {
+        this.clientConfig = clientConfig;
+        this.body = body;
+        this.latencyMillis = latencyMillis;
+    }
+
+    static ServiceClient stubClient(final ClientConfig clientConfig, final String body) {
+        return new StubServiceClient(clientConfig, body, 0);
+    }
+
+    static ServiceClient stubClient(final ClientConfig clientConfig, final String body, final long latencyMillis) {
+        return new StubServiceClient(clientConfig, body, latencyMillis);
+    }
+
+    @Override
+    public ClientConfig getClientConfig() {
+        return clientConfig;
+    }
+
+    @Override
+    public Observable<Response> get(final String uri, final MediaType accept) {
+        return Observable.fromCallable(() -> {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            return new StubResponse(200, body.replace("{uri}", uri));
+        });
+    }
+
+    @Override
+    public void close() {
+    }
+}
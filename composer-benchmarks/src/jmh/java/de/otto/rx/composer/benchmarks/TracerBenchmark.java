@@ -0,0 +1,83 @@
+package de.otto.rx.composer.benchmarks;
+
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.Statistics;
+import de.otto.rx.composer.metrics.Metrics;
+import de.otto.rx.composer.tracer.Tracer;
+import org.openjdk.jmh.annotations.*;
+
+import static de.otto.rx.composer.content.AbcPosition.values;
+import static de.otto.rx.composer.metrics.PrometheusMetrics.prometheusMetrics;
+import static de.otto.rx.composer.tracer.EventType.COMPLETED;
+import static de.otto.rx.composer.tracer.EventType.RESPONSE_RECEIVED;
+import static de.otto.rx.composer.tracer.EventType.STARTED;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static de.otto.rx.composer.tracer.StatisticsTracer.statisticsTracer;
+import static de.otto.rx.composer.tracer.TracerBuilder.loggingStatisticsTracer;
+import static de.otto.rx.composer.tracer.TracerBuilder.tracerBuilder;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Benchmarks the {@link Tracer tracers} by tracing the events of a page with {@code numFragments} fragments.
+ * <p>
+ *     Logging is disabled by the logback.xml of the benchmarks, so the logging tracers are only paying for
+ *     checking the log level.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+public class TracerBenchmark {
+
+    @Param({"noOp", "statistics", "loggingStatistics", "metrics", "tailSampling"})
+    public String tracer;
+
+    @Param({"8"})
+    public int numFragments;
+
+    private Metrics metrics;
+    private Position[] positions;
+    private String[] sources;
+
+    @Setup
+    public void setup() {
+        metrics = prometheusMetrics();
+        positions = new Position[numFragments];
+        sources = new String[numFragments];
+        for (int i = 0; i < numFragments; i++) {
+            positions[i] = values()[i];
+            sources[i] = "http://stub/" + i;
+        }
+    }
+
+    @Benchmark
+    public Statistics tracePage() {
+        final Tracer tracer = newTracer();
+        for (int i = 0; i < numFragments; i++) {
+            tracer.trace(STARTED, positions[i], sources[i], false, "");
+        }
+        for (int i = 0; i < numFragments; i++) {
+            tracer.trace(RESPONSE_RECEIVED, positions[i], sources[i], false, "");
+            tracer.trace(COMPLETED, positions[i], sources[i], true, "");
+        }
+        tracer.pageCompleted();
+        return tracer.getStatistics();
+    }
+
+    private Tracer newTracer() {
+        switch (tracer) {
+            case "noOp":
+                return noOpTracer();
+            case "statistics":
+                return statisticsTracer();
+            case "loggingStatistics":
+                return loggingStatisticsTracer();
+            case "metrics":
+                return tracerBuilder().withDelegate(statisticsTracer()).withMetrics(metrics).build();
+            case "tailSampling":
+                return tracerBuilder().withDelegate(statisticsTracer()).withTailSampling(1000).build();
+            default:
+                throw new IllegalStateException("Unknown tracer " + tracer);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package de.otto.rx.composer.cache;
+
+import de.otto.rx.composer.content.Content;
+
+/**
+ * Storage of the contents cached by {@link de.otto.rx.composer.providers.ContentProviders#cached(
+ * de.otto.rx.composer.providers.ContentProvider, long, ContentCache, de.otto.rx.composer.providers.KeyParams)
+ * cached ContentProviders}.
+ * <p>
+ *     Implementations are bounded and thread-safe. A ContentCache may be shared by several ContentProviders, which
+ *     are responsible to use distinct keys.
+ * </p>
+ * <ul>
+ *     <li>{@link HeapContentCache}: stores the Content instances on the heap.</li>
+ *     <li>{@link OffHeapContentCache}: stores the bodies of the contents in direct memory, outside of the heap.</li>
+ * </ul>
+ */
+public interface ContentCache {
+
+    /**
+     * Returns the cached content for the key, or null if there is no content, or if the content is expired.
+     *
+     * @param key the key of the content
+     * @return Content or null
+     */
+    Content get(Object key);
+
+    /**
+     * Caches the content for the given time-to-live. Contents that can not be cached, for example because they
+     * are too large, are ignored.
+     *
+     * @param key the key of the content
+     * @param content the available content
+     * @param ttlMillis time-to-live of the content in milliseconds
+     */
+    void put(Object key, Content content, long ttlMillis);
+
+}
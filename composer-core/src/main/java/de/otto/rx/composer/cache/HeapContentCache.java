@@ -0,0 +1,88 @@
+package de.otto.rx.composer.cache;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import de.otto.rx.composer.content.Content;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This implementation is storing the Content instances on the heap, using a cache with a maximum number of
+ *     entries. If the cache is full, entries that were not used recently are evicted. Every entry expires after
+ *     its own time-to-live.
+ * </p>
+ */
+public final class HeapContentCache implements ContentCache {
+
+    private final Cache<Object, Entry> cache;
+    private final Ticker ticker;
+
+    private HeapContentCache(final int maxEntries, final Ticker ticker) {
+        checkArgument(maxEntries > 0, "maxEntries must be greater than 0");
+        this.ticker = checkNotNull(ticker, "ticker must not be null");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Creates a HeapContentCache with the given maximum number of entries.
+     *
+     * @param maxEntries the maximum number of cached contents
+     * @return HeapContentCache
+     */
+    public static HeapContentCache heapContentCache(final int maxEntries) {
+        return new HeapContentCache(maxEntries, Ticker.systemTicker());
+    }
+
+    /**
+     * Creates a HeapContentCache with the given maximum number of entries, using the ticker to expire entries.
+     *
+     * @param maxEntries the maximum number of cached contents
+     * @param ticker the source of time, for example a fake ticker in tests
+     * @return HeapContentCache
+     */
+    public static HeapContentCache heapContentCache(final int maxEntries, final Ticker ticker) {
+        return new HeapContentCache(maxEntries, ticker);
+    }
+
+    @Override
+    public Content get(final Object key) {
+        final Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ticker.read() - entry.expiresAtNanos >= 0) {
+            cache.asMap().remove(key, entry);
+            return null;
+        }
+        return entry.content;
+    }
+
+    @Override
+    public void put(final Object key, final Content content, final long ttlMillis) {
+        cache.put(key, new Entry(content, ticker.read() + MILLISECONDS.toNanos(ttlMillis)));
+    }
+
+    /**
+     * @return the number of cached contents, including expired contents that are not yet evicted.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    private static final class Entry {
+        private final Content content;
+        private final long expiresAtNanos;
+
+        private Entry(final Content content, final long expiresAtNanos) {
+            this.content = content;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
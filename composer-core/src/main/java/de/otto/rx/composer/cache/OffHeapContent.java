@@ -0,0 +1,117 @@
+package de.otto.rx.composer.cache;
+
+import de.otto.rx.composer.content.Headers;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.SingleContent;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A content returned by the {@link OffHeapContentCache}, with a body that is stored in direct memory.
+ * <p>
+ *     The body is decoded when {@link #getBody()} is called for the first time. {@link #getBodyBuffer()} returns
+ *     the UTF-8 encoded body without copying it, for example to write it to a response or to process it using
+ *     the {@link de.otto.rx.composer.content.HtmlScanner}.
+ * </p>
+ * <p>
+ *     Like all contents returned by a cache, OffHeapContents are short-lived: the body must be read within the
+ *     grace period of the cache. Afterwards, the memory of an evicted entry may be reused, and reading the body
+ *     fails with an IllegalStateException.
+ * </p>
+ */
+public final class OffHeapContent extends SingleContent {
+
+    private final OffHeapContentCache cache;
+    private final OffHeapContentCache.Entry entry;
+    private volatile String body;
+
+    OffHeapContent(final OffHeapContentCache cache, final OffHeapContentCache.Entry entry) {
+        this.cache = cache;
+        this.entry = entry;
+    }
+
+    @Override
+    public String getSource() {
+        return entry.source;
+    }
+
+    @Override
+    public Position getPosition() {
+        return entry.position;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the memory of the evicted entry was already reused.
+     */
+    @Override
+    public String getBody() {
+        String body = this.body;
+        if (body == null) {
+            body = cache.decode(entry);
+            if (body == null) {
+                throw new IllegalStateException("The cached body of " + entry.source + " was evicted");
+            }
+            this.body = body;
+        }
+        return body;
+    }
+
+    /**
+     * Returns the UTF-8 encoded body. Uncompressed bodies are returned as a read-only view of the direct memory
+     * of the cache, without copying them. The view is only valid as long as the content {@link #isValid() is valid}.
+     *
+     * @return read-only ByteBuffer
+     * @throws IllegalStateException if the memory of the evicted entry was already reused.
+     */
+    public ByteBuffer getBodyBuffer() {
+        if (entry.compressed || body != null) {
+            return ByteBuffer.wrap(getBody().getBytes(UTF_8)).asReadOnlyBuffer();
+        }
+        if (!isValid()) {
+            throw new IllegalStateException("The cached body of " + entry.source + " was evicted");
+        }
+        return cache.view(entry);
+    }
+
+    /**
+     * Returns true, if the body is still stored in the memory of the cache, or if it was already decoded.
+     *
+     * @return validity of the body
+     */
+    public boolean isValid() {
+        return body != null || !entry.reclaimed;
+    }
+
+    @Override
+    public Headers getHeaders() {
+        return entry.headers;
+    }
+
+    @Override
+    public long getStartedTs() {
+        return entry.startedTs;
+    }
+
+    @Override
+    public long getCompletedTs() {
+        return entry.completedTs;
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapContent{" +
+                "source='" + entry.source + '\'' +
+                ", position=" + entry.position +
+                ", length=" + entry.rawLength +
+                '}';
+    }
+}
@@ -0,0 +1,537 @@
+package de.otto.rx.composer.cache;
+
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Headers;
+import de.otto.rx.composer.content.Position;
+import org.slf4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.System.nanoTime;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This implementation is storing the UTF-8 encoded bodies of the contents in direct memory, so large HTML
+ *     fragments are not promoted to the old generation of the heap. Only small metadata like the source, the
+ *     position and the headers of a content are kept on the heap.
+ * </p>
+ * <p>
+ *     The memory is allocated in slabs of {@link #withSlabSize(int) slabSize} bytes, up to the capacity of the
+ *     cache. Every slab is split into chunks of one power-of-two size class, and a body is stored in the smallest
+ *     chunk that is large enough. If there is no free chunk of the required class and the capacity is exhausted,
+ *     entries of the same class are evicted using a second-chance FIFO: entries that were read since they were
+ *     queued are re-queued once. If the class has no entry that can be evicted, for example because the memory
+ *     was used by bodies of other sizes so far, the entries of a slab of another class are evicted and the slab is
+ *     reassigned to the required class. Bodies larger than a slab are not cached. Bodies are optionally
+ *     {@link #withCompression() compressed}.
+ * </p>
+ * <p>
+ *     {@link #get(Object) Cache hits} are returning {@link OffHeapContent}s that are decoding the body lazily, or
+ *     provide a zero-copy view using {@link OffHeapContent#getBodyBuffer()}. The chunk of an evicted entry that was
+ *     read within the {@link #withGracePeriod(long) grace period} is only reused after the grace period, so contents
+ *     returned by the cache remain valid while the page is rendered, even if their entries are evicted in the
+ *     meantime. Entries read within the grace period are not evicted to make room for entries of their own class,
+ *     because their chunks could not be reused immediately.
+ * </p>
+ * <p>
+ *     Reading is lock-free, using the optimistic reads of a {@link StampedLock}; writes and evictions are
+ *     serialized.
+ * </p>
+ */
+public final class OffHeapContentCache implements ContentCache {
+
+    private static final Logger LOG = getLogger(OffHeapContentCache.class);
+
+    /** Default size of the slabs: 1 MiB. */
+    public static final int DEFAULT_SLAB_SIZE = 1 << 20;
+    /** Size of the smallest chunks: 1 KiB. */
+    public static final int MIN_CHUNK_SIZE = 1 << 10;
+    /** Default time the chunks of read entries are kept after they are evicted. */
+    public static final long DEFAULT_GRACE_PERIOD_MILLIS = 10000;
+
+    private final long capacityBytes;
+    private final int slabSize;
+    private final boolean compressed;
+    private final long gracePeriodNanos;
+
+    private final StampedLock lock = new StampedLock();
+    private final ConcurrentMap<Object, Entry> index = new ConcurrentHashMap<>();
+    private final SlabAllocator allocator;
+    private final ArrayDeque<Entry>[] queues;
+    private final int[] queuedEntries;
+    private final ArrayDeque<Entry> evicted = new ArrayDeque<>();
+    private long usedBytes;
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private OffHeapContentCache(final long capacityBytes,
+                                final int slabSize,
+                                final boolean compressed,
+                                final long gracePeriodNanos) {
+        checkArgument(gracePeriodNanos >= 0, "gracePeriod must not be negative");
+        this.capacityBytes = capacityBytes;
+        this.slabSize = slabSize;
+        this.compressed = compressed;
+        this.gracePeriodNanos = gracePeriodNanos;
+        this.allocator = new SlabAllocator(slabSize, Math.min(MIN_CHUNK_SIZE, slabSize), capacityBytes);
+        this.queues = new ArrayDeque[allocator.numChunkClasses()];
+        this.queuedEntries = new int[queues.length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Creates an OffHeapContentCache with the given capacity, using uncompressed slabs of {@link #DEFAULT_SLAB_SIZE},
+     * or smaller slabs if the capacity is less than the default slab size. Slabs are allocated when they are needed.
+     *
+     * @param capacityBytes the maximum number of bytes of direct memory used by the cache
+     * @return OffHeapContentCache
+     */
+    public static OffHeapContentCache offHeapContentCache(final long capacityBytes) {
+        checkArgument(capacityBytes > 0, "capacityBytes must be greater than 0");
+        final int slabSize = (int) Math.min(DEFAULT_SLAB_SIZE, Long.highestOneBit(capacityBytes));
+        return new OffHeapContentCache(capacityBytes, slabSize, false, MILLISECONDS.toNanos(DEFAULT_GRACE_PERIOD_MILLIS));
+    }
+
+    /**
+     * Returns a copy of this cache using slabs of the given size, which is also the maximum size of a cached body.
+     * <p>
+     *     The returned cache has its own memory, so it should be configured before it is used.
+     * </p>
+     *
+     * @param slabSize the size of the slabs in bytes, a power of two
+     * @return OffHeapContentCache
+     */
+    public OffHeapContentCache withSlabSize(final int slabSize) {
+        return new OffHeapContentCache(capacityBytes, slabSize, compressed, gracePeriodNanos);
+    }
+
+    /**
+     * Returns a copy of this cache that is compressing the bodies using {@link Deflater}, trading CPU time for
+     * memory. Zero-copy views are not available for compressed bodies.
+     * <p>
+     *     The returned cache has its own memory, so it should be configured before it is used.
+     * </p>
+     *
+     * @return OffHeapContentCache
+     */
+    public OffHeapContentCache withCompression() {
+        return new OffHeapContentCache(capacityBytes, slabSize, true, gracePeriodNanos);
+    }
+
+    /**
+     * Returns a copy of this cache that is reusing the chunks of evicted entries once they were not read for the
+     * grace period. Contents returned by the cache must be read within the grace period; it should be longer than
+     * the deadline of the pages.
+     * <p>
+     *     The returned cache has its own memory, so it should be configured before it is used.
+     * </p>
+     *
+     * @param gracePeriodMillis the grace period in milliseconds
+     * @return OffHeapContentCache
+     */
+    public OffHeapContentCache withGracePeriod(final long gracePeriodMillis) {
+        return new OffHeapContentCache(capacityBytes, slabSize, compressed, MILLISECONDS.toNanos(gracePeriodMillis));
+    }
+
+    @Override
+    public Content get(final Object key) {
+        final Entry entry = index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoTime() - entry.expiresAtNanos >= 0) {
+            final long stamp = lock.writeLock();
+            try {
+                if (index.remove(key, entry)) {
+                    evict(entry);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return null;
+        }
+        // publish the read before checking the eviction, so an evicting thread either sees the read and keeps
+        // the chunk for the grace period, or this thread sees the eviction:
+        entry.lastReadNanos = nanoTime();
+        if (entry.evicted) {
+            return null;
+        }
+        entry.referenced = true;
+        return new OffHeapContent(this, entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     Only {@link Content#isAvailable() available}, single contents are cached.
+     * </p>
+     */
+    @Override
+    public void put(final Object key, final Content content, final long ttlMillis) {
+        if (!content.isAvailable() || content.isComposite()) {
+            rejected.increment();
+            return;
+        }
+        final byte[] raw = content.getBody().getBytes(UTF_8);
+        final byte[] deflated = compressed ? deflate(raw) : null;
+        final byte[] bytes = deflated != null ? deflated : raw;
+        final int chunkClass = allocator.chunkClassOf(bytes.length);
+        if (chunkClass < 0) {
+            LOG.debug("Not caching body of {} bytes: exceeding slab size", bytes.length);
+            rejected.increment();
+            return;
+        }
+        final long now = nanoTime();
+        final long stamp = lock.writeLock();
+        try {
+            reclaimEvicted();
+            final Entry previous = index.remove(key);
+            if (previous != null) {
+                evict(previous);
+            }
+            long chunk = allocator.allocate(chunkClass);
+            if (chunk < 0 && evictFrom(chunkClass)) {
+                chunk = allocator.allocate(chunkClass);
+            }
+            if (chunk < 0 && rebalance(chunkClass)) {
+                chunk = allocator.allocate(chunkClass);
+            }
+            if (chunk < 0) {
+                LOG.debug("Not caching body of {} bytes: no free chunk", bytes.length);
+                rejected.increment();
+                return;
+            }
+            final ByteBuffer slab = allocator.slabOf(chunk).duplicate();
+            slab.position(SlabAllocator.offsetOf(chunk));
+            slab.put(bytes);
+            final Entry entry = new Entry(key, chunk, chunkClass, bytes.length, raw.length, deflated != null,
+                    now + MILLISECONDS.toNanos(ttlMillis), now - gracePeriodNanos, content);
+            usedBytes += allocator.chunkSize(chunkClass);
+            enqueue(entry);
+            index.put(key, entry);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the maximum number of bytes of direct memory used by the cache
+     */
+    public long getCapacityBytes() {
+        return allocator.getCapacityBytes();
+    }
+
+    /**
+     * @return the number of bytes of the slabs that are allocated so far
+     */
+    public long getAllocatedBytes() {
+        final long stamp = lock.readLock();
+        try {
+            return allocator.getAllocatedBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return the number of bytes of the chunks used by cached entries, and by evicted entries within their grace period
+     */
+    public long getUsedBytes() {
+        final long stamp = lock.readLock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return the number of entries evicted to free memory, or because they were expired or replaced
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of contents that were not cached, because they were too large, or no memory was available
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Copies the stored bytes of the entry.
+     *
+     * @param entry the entry
+     * @return stored bytes, or null if the chunk of the entry was already reused
+     */
+    byte[] read(final Entry entry) {
+        final byte[] bytes = new byte[entry.length];
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0 && !entry.reclaimed) {
+            copy(entry, bytes);
+            if (lock.validate(stamp)) {
+                return bytes;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            if (entry.reclaimed) {
+                return null;
+            }
+            copy(entry, bytes);
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the decoded body of the entry.
+     *
+     * @param entry the entry
+     * @return body, or null if the chunk of the entry was already reused
+     */
+    String decode(final Entry entry) {
+        final byte[] bytes = read(entry);
+        if (bytes == null) {
+            return null;
+        }
+        return new String(entry.compressed ? inflate(bytes, entry.rawLength) : bytes, UTF_8);
+    }
+
+    /**
+     * Returns a read-only view of the stored bytes of the entry, without copying them.
+     *
+     * @param entry the entry
+     * @return ByteBuffer
+     */
+    ByteBuffer view(final Entry entry) {
+        final ByteBuffer slab = allocator.slabOf(entry.chunk).duplicate();
+        slab.position(SlabAllocator.offsetOf(entry.chunk));
+        slab.limit(SlabAllocator.offsetOf(entry.chunk) + entry.length);
+        return slab.slice().asReadOnlyBuffer();
+    }
+
+    private void copy(final Entry entry, final byte[] bytes) {
+        final ByteBuffer slab = allocator.slabOf(entry.chunk).duplicate();
+        slab.position(SlabAllocator.offsetOf(entry.chunk));
+        slab.get(bytes, 0, entry.length);
+    }
+
+    /** Must be called holding the write lock. */
+    private void enqueue(final Entry entry) {
+        final ArrayDeque<Entry> queue = queues[entry.chunkClass];
+        queue.add(entry);
+        ++queuedEntries[entry.chunkClass];
+        // evicted entries are removed lazily; compact the queue if they are the majority:
+        if (queue.size() > 2 * queuedEntries[entry.chunkClass] + 16) {
+            queue.removeIf(queued -> queued.evicted);
+        }
+    }
+
+    /**
+     * Evicts an entry of the given class whose chunk can be reused immediately, giving recently read entries a
+     * second chance. Entries that were read within the grace period are not evicted, as their chunks could not be
+     * reused for the new entry. Must be called holding the write lock.
+     *
+     * @param chunkClass the class of the evicted entry
+     * @return true if an entry was evicted
+     */
+    private boolean evictFrom(final int chunkClass) {
+        final ArrayDeque<Entry> queue = queues[chunkClass];
+        Entry entry;
+        for (int i = 2 * queue.size(); i > 0 && (entry = queue.poll()) != null; i--) {
+            if (entry.evicted) {
+                // removed lazily after it was expired or replaced
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                queue.add(entry);
+            } else if (isReclaimable(entry)) {
+                index.remove(entry.key, entry);
+                evict(entry);
+                return true;
+            } else {
+                queue.add(entry);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reassigns a slab of another chunk class to the given class, evicting the entries of the slab with the
+     * fewest used chunks. If some of these entries were read within the grace period, the slab is reassigned by a
+     * later call, after their chunks are reclaimed. Must be called holding the write lock.
+     *
+     * @param chunkClass the class that needs a slab
+     * @return true if a slab was reassigned
+     */
+    private boolean rebalance(final int chunkClass) {
+        final int slab = allocator.victimSlab(chunkClass);
+        if (slab < 0) {
+            return false;
+        }
+        for (final Entry entry : queues[allocator.chunkClassOfSlab(slab)]) {
+            if (!entry.evicted && SlabAllocator.slabIndexOf(entry.chunk) == slab) {
+                index.remove(entry.key, entry);
+                evict(entry);
+            }
+        }
+        final boolean reassigned = allocator.reassign(slab, chunkClass);
+        if (reassigned) {
+            LOG.debug("Reassigned slab {} to chunks of {} bytes", slab, allocator.chunkSize(chunkClass));
+        }
+        return reassigned;
+    }
+
+    /**
+     * Marks the entry as evicted, and reclaims its chunk immediately if the entry was not read within the grace
+     * period. Must be called holding the write lock.
+     */
+    private void evict(final Entry entry) {
+        entry.evicted = true;
+        --queuedEntries[entry.chunkClass];
+        evictions.increment();
+        if (isReclaimable(entry)) {
+            reclaim(entry);
+        } else {
+            entry.evictedAtNanos = nanoTime();
+            evicted.add(entry);
+        }
+    }
+
+    /** Must be called holding the write lock. */
+    private void reclaimEvicted() {
+        final long now = nanoTime();
+        while (!evicted.isEmpty() && now - evicted.peek().evictedAtNanos >= gracePeriodNanos) {
+            reclaim(evicted.poll());
+        }
+    }
+
+    /** Must be called holding the write lock. */
+    private void reclaim(final Entry entry) {
+        entry.reclaimed = true;
+        allocator.free(entry.chunk, entry.chunkClass);
+        usedBytes -= allocator.chunkSize(entry.chunkClass);
+    }
+
+    private boolean isReclaimable(final Entry entry) {
+        return nanoTime() - entry.lastReadNanos >= gracePeriodNanos;
+    }
+
+    /**
+     * Compresses the bytes.
+     *
+     * @param raw uncompressed bytes
+     * @return compressed bytes, or null if compressing is not reducing the size
+     */
+    private static byte[] deflate(final byte[] raw) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            final byte[] buffer = new byte[raw.length];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    return null;
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            final byte[] result = new byte[length];
+            System.arraycopy(buffer, 0, result, 0, length);
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(final byte[] bytes, final int rawLength) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            final byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                length += inflater.inflate(raw, length, rawLength - length);
+            }
+            return raw;
+        } catch (final DataFormatException e) {
+            throw new IllegalStateException("Unable to decompress cached body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * A cached entry: the reference to the chunk storing the body, and the metadata of the content.
+     */
+    static final class Entry {
+        final Object key;
+        final long chunk;
+        final int chunkClass;
+        final int length;
+        final int rawLength;
+        final boolean compressed;
+        final long expiresAtNanos;
+        final String source;
+        final Position position;
+        final Headers headers;
+        final long startedTs;
+        final long completedTs;
+        volatile boolean referenced;
+        volatile boolean evicted;
+        volatile boolean reclaimed;
+        volatile long lastReadNanos;
+        long evictedAtNanos;
+
+        private Entry(final Object key,
+                      final long chunk,
+                      final int chunkClass,
+                      final int length,
+                      final int rawLength,
+                      final boolean compressed,
+                      final long expiresAtNanos,
+                      final long lastReadNanos,
+                      final Content content) {
+            this.key = key;
+            this.chunk = chunk;
+            this.chunkClass = chunkClass;
+            this.length = length;
+            this.rawLength = rawLength;
+            this.compressed = compressed;
+            this.expiresAtNanos = expiresAtNanos;
+            this.lastReadNanos = lastReadNanos;
+            this.source = content.getSource();
+            this.position = content.getPosition();
+            this.headers = content.getHeaders();
+            this.startedTs = content.getStartedTs();
+            this.completedTs = content.getCompletedTs();
+        }
+    }
+}
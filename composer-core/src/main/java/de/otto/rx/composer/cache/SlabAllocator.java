@@ -0,0 +1,198 @@
+package de.otto.rx.composer.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Allocates chunks of direct memory from slabs of a fixed size.
+ * <p>
+ *     Chunks are grouped into classes of power-of-two sizes, from the minimum chunk size up to the size of a slab.
+ *     A slab is assigned to a single chunk class when it is allocated, and split into chunks of this class. Slabs
+ *     are allocated lazily, until the capacity is exhausted. Slabs are never released, so the memory of the
+ *     allocator is bounded by its capacity, but a slab without used chunks may be
+ *     {@link #reassign(int, int) reassigned} to another class.
+ * </p>
+ * <p>
+ *     Chunks are referenced by a long containing the index of the slab in the upper and the offset of the chunk
+ *     in the lower 32 bits. The allocator is not thread-safe.
+ * </p>
+ */
+final class SlabAllocator {
+
+    private final int slabSize;
+    private final int minChunkShift;
+    private final int maxSlabs;
+    private final ByteBuffer[] slabs;
+    private int numSlabs;
+    private final int[] slabClasses;
+    private final int[] usedChunks;
+    private final long[][] freeChunks;
+    private final int[] numFreeChunks;
+
+    SlabAllocator(final int slabSize, final int minChunkSize, final long capacityBytes) {
+        checkArgument(Integer.bitCount(slabSize) == 1, "slabSize must be a power of two");
+        checkArgument(Integer.bitCount(minChunkSize) == 1 && minChunkSize <= slabSize, "minChunkSize must be a power of two not greater than slabSize");
+        checkArgument(capacityBytes >= slabSize, "capacityBytes must not be less than slabSize");
+        this.slabSize = slabSize;
+        this.minChunkShift = Integer.numberOfTrailingZeros(minChunkSize);
+        this.maxSlabs = (int) Math.min(Integer.MAX_VALUE - 8, capacityBytes / slabSize);
+        this.slabs = new ByteBuffer[maxSlabs];
+        this.slabClasses = new int[maxSlabs];
+        this.usedChunks = new int[maxSlabs];
+        final int numClasses = Integer.numberOfTrailingZeros(slabSize) - minChunkShift + 1;
+        this.freeChunks = new long[numClasses][];
+        this.numFreeChunks = new int[numClasses];
+        for (int i = 0; i < numClasses; i++) {
+            freeChunks[i] = new long[16];
+        }
+    }
+
+    /**
+     * Returns the class of chunks that are large enough to store the given number of bytes.
+     *
+     * @param length number of bytes
+     * @return chunk class, or -1 if length is exceeding the size of a slab.
+     */
+    int chunkClassOf(final int length) {
+        if (length > slabSize) {
+            return -1;
+        }
+        final int shift = length <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(length - 1);
+        return Math.max(0, shift - minChunkShift);
+    }
+
+    int chunkSize(final int chunkClass) {
+        return 1 << (chunkClass + minChunkShift);
+    }
+
+    int numChunkClasses() {
+        return freeChunks.length;
+    }
+
+    /**
+     * Allocates a chunk of the given class, allocating a new slab if there is no free chunk of this class.
+     *
+     * @param chunkClass the class of the chunk
+     * @return reference to the chunk, or -1 if there is no free chunk and the capacity is exhausted
+     */
+    long allocate(final int chunkClass) {
+        if (numFreeChunks[chunkClass] == 0 && !allocateSlab(chunkClass)) {
+            return -1;
+        }
+        final long chunk = freeChunks[chunkClass][--numFreeChunks[chunkClass]];
+        ++usedChunks[slabIndexOf(chunk)];
+        return chunk;
+    }
+
+    /**
+     * Returns a chunk to the free chunks of its class.
+     *
+     * @param chunk the reference of the chunk
+     * @param chunkClass the class of the chunk
+     */
+    void free(final long chunk, final int chunkClass) {
+        --usedChunks[slabIndexOf(chunk)];
+        push(chunkClass, chunk);
+    }
+
+    /**
+     * Returns the slab of another chunk class that has the fewest used chunks, as a candidate to be
+     * {@link #reassign(int, int) reassigned} to the given class.
+     *
+     * @param chunkClass the class that needs a slab
+     * @return index of the slab, or -1 if all slabs are assigned to the given class
+     */
+    int victimSlab(final int chunkClass) {
+        int victim = -1;
+        for (int slab = 0; slab < numSlabs; slab++) {
+            if (slabClasses[slab] != chunkClass && (victim < 0 || usedChunks[slab] < usedChunks[victim])) {
+                victim = slab;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Assigns a slab without used chunks to another chunk class.
+     *
+     * @param slab the index of the slab
+     * @param chunkClass the new class of the slab
+     * @return true if the slab was reassigned, false if some chunks of the slab are still used
+     */
+    boolean reassign(final int slab, final int chunkClass) {
+        if (usedChunks[slab] > 0) {
+            return false;
+        }
+        final int previousClass = slabClasses[slab];
+        final long[] chunks = freeChunks[previousClass];
+        int remaining = 0;
+        for (int i = 0; i < numFreeChunks[previousClass]; i++) {
+            if (slabIndexOf(chunks[i]) != slab) {
+                chunks[remaining++] = chunks[i];
+            }
+        }
+        numFreeChunks[previousClass] = remaining;
+        split(slab, chunkClass);
+        return true;
+    }
+
+    int chunkClassOfSlab(final int slab) {
+        return slabClasses[slab];
+    }
+
+    /**
+     * Returns the slab of the chunk. The buffer must not be modified; use {@link ByteBuffer#duplicate()}.
+     * <p>
+     *     Slabs are never replaced, so this method may be called without synchronization by threads that have
+     *     safely obtained a reference to an allocated chunk.
+     * </p>
+     *
+     * @param chunk the reference of the chunk
+     * @return slab
+     */
+    ByteBuffer slabOf(final long chunk) {
+        return slabs[slabIndexOf(chunk)];
+    }
+
+    static int offsetOf(final long chunk) {
+        return (int) chunk;
+    }
+
+    static int slabIndexOf(final long chunk) {
+        return (int) (chunk >>> 32);
+    }
+
+    long getAllocatedBytes() {
+        return (long) numSlabs * slabSize;
+    }
+
+    long getCapacityBytes() {
+        return (long) maxSlabs * slabSize;
+    }
+
+    private boolean allocateSlab(final int chunkClass) {
+        if (numSlabs >= maxSlabs) {
+            return false;
+        }
+        slabs[numSlabs] = ByteBuffer.allocateDirect(slabSize);
+        split(numSlabs++, chunkClass);
+        return true;
+    }
+
+    private void split(final int slab, final int chunkClass) {
+        slabClasses[slab] = chunkClass;
+        final int chunkSize = chunkSize(chunkClass);
+        for (int offset = slabSize - chunkSize; offset >= 0; offset -= chunkSize) {
+            push(chunkClass, (long) slab << 32 | offset);
+        }
+    }
+
+    private void push(final int chunkClass, final long chunk) {
+        if (numFreeChunks[chunkClass] == freeChunks[chunkClass].length) {
+            freeChunks[chunkClass] = Arrays.copyOf(freeChunks[chunkClass], freeChunks[chunkClass].length * 2);
+        }
+        freeChunks[chunkClass][numFreeChunks[chunkClass]++] = chunk;
+    }
+}
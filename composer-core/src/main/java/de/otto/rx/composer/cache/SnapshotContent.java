@@ -0,0 +1,102 @@
+package de.otto.rx.composer.cache;
+
+import de.otto.rx.composer.content.Headers;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.SingleContent;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A content returned by the {@link SnapshotStore}, with a body and headers that are read from the memory-mapped
+ * snapshot file.
+ * <p>
+ *     The body is decoded when {@link #getBody()} is called for the first time. {@link #getBodyBuffer()} returns
+ *     the UTF-8 encoded body without copying it. The {@link #getCompletedTs() completed timestamp} is the time
+ *     the snapshot was stored, or last confirmed by fetching an equal content.
+ * </p>
+ */
+public final class SnapshotContent extends SingleContent {
+
+    private final ByteBuffer buffer;
+    private final SnapshotStore.Snapshot snapshot;
+    private final Position position;
+    private final long timestamp;
+    private volatile String body;
+    private volatile Headers headers;
+
+    SnapshotContent(final ByteBuffer buffer, final SnapshotStore.Snapshot snapshot, final Position position) {
+        this.buffer = buffer;
+        this.snapshot = snapshot;
+        this.position = position;
+        this.timestamp = snapshot.timestamp;
+    }
+
+    @Override
+    public String getSource() {
+        return snapshot.source;
+    }
+
+    @Override
+    public Position getPosition() {
+        return position;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return snapshot.bodyLength > 0;
+    }
+
+    @Override
+    public String getBody() {
+        String body = this.body;
+        if (body == null) {
+            final ByteBuffer bodyBuffer = getBodyBuffer();
+            final byte[] bytes = new byte[bodyBuffer.remaining()];
+            bodyBuffer.get(bytes);
+            body = new String(bytes, UTF_8);
+            this.body = body;
+        }
+        return body;
+    }
+
+    /**
+     * Returns the UTF-8 encoded body as a read-only view of the memory-mapped snapshot file, without copying it.
+     *
+     * @return read-only ByteBuffer
+     */
+    public ByteBuffer getBodyBuffer() {
+        return SnapshotStore.bodyOf(buffer, snapshot);
+    }
+
+    @Override
+    public Headers getHeaders() {
+        Headers headers = this.headers;
+        if (headers == null) {
+            headers = SnapshotStore.decodeHeaders(buffer, snapshot);
+            this.headers = headers;
+        }
+        return headers;
+    }
+
+    @Override
+    public long getStartedTs() {
+        return timestamp;
+    }
+
+    @Override
+    public long getCompletedTs() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotContent{" +
+                "source='" + snapshot.source + '\'' +
+                ", position=" + position +
+                ", length=" + snapshot.bodyLength +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,506 @@
+package de.otto.rx.composer.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import de.otto.rx.composer.client.Ref;
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Headers;
+import de.otto.rx.composer.content.Position;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A persistent store of the last good content per {@link Ref} and URL, used to start with warm contents after a
+ * restart, and as a fallback if a service is not available.
+ * <p>
+ *     The snapshots are stored in a memory-mapped append log: every snapshot is appended as a record containing
+ *     the ref, the URL, the headers and the body of the content, protected by a CRC32 checksum. An index of the
+ *     latest record per ref and URL is kept on the heap, while the bodies are only read from the mapped file when
+ *     they are needed. Opening the store only maps the file and scans the record headers to rebuild the index, so
+ *     the snapshots of the previous run are available almost immediately. A torn or corrupted tail of the log,
+ *     for example after a crash, is ignored and overwritten by the next snapshot.
+ * </p>
+ * <p>
+ *     Storing a content that is equal to the latest snapshot only updates the timestamp of the snapshot, so
+ *     frequently fetched contents do not grow the log. If the log is full, the latest snapshots are copied into a
+ *     new file that atomically replaces the old one. If the snapshots would fill more than three quarters of the
+ *     new file, the snapshots that were stored or confirmed least recently are dropped, so the log is only
+ *     compacted again after a quarter of its capacity was appended.
+ * </p>
+ * <p>
+ *     Writes are serialized; reading snapshots is lock-free. The mapped memory is released by the garbage
+ *     collector, after the store and all {@link SnapshotContent}s are unreachable.
+ * </p>
+ */
+public final class SnapshotStore implements AutoCloseable {
+
+    private static final Logger LOG = getLogger(SnapshotStore.class);
+
+    /** Default capacity of the snapshot file: 64 MiB. */
+    public static final int DEFAULT_CAPACITY_BYTES = 64 << 20;
+
+    private static final int MAGIC = 0x52584353;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    /** Length of the payload, checksum of the payload and timestamp of a record. */
+    private static final int RECORD_HEADER_SIZE = 16;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int END_MARKER_SIZE = 4;
+    /** Maximum fill ratio of the log after it was compacted. */
+    private static final double COMPACTED_FILL_RATIO = 0.75;
+
+    private final Path file;
+    private final int capacityBytes;
+    private final Lock writeLock = new ReentrantLock();
+    private volatile Segment segment;
+    private boolean closed;
+
+    private SnapshotStore(final Path file, final int capacityBytes) {
+        checkArgument(capacityBytes >= FILE_HEADER_SIZE + RECORD_HEADER_SIZE + END_MARKER_SIZE,
+                "capacityBytes is too small");
+        this.file = checkNotNull(file, "file must not be null");
+        this.capacityBytes = capacityBytes;
+        this.segment = load();
+    }
+
+    /**
+     * Opens or creates the SnapshotStore in the given file, using a capacity of {@link #DEFAULT_CAPACITY_BYTES}.
+     *
+     * @param file the file containing the snapshots
+     * @return SnapshotStore
+     * @throws UncheckedIOException if the file can not be opened
+     */
+    public static SnapshotStore snapshotStore(final Path file) {
+        return new SnapshotStore(file, DEFAULT_CAPACITY_BYTES);
+    }
+
+    /**
+     * Opens or creates the SnapshotStore in the given file.
+     *
+     * @param file the file containing the snapshots
+     * @param capacityBytes the size of the snapshot file in bytes
+     * @return SnapshotStore
+     * @throws UncheckedIOException if the file can not be opened
+     */
+    public static SnapshotStore snapshotStore(final Path file, final int capacityBytes) {
+        return new SnapshotStore(file, capacityBytes);
+    }
+
+    /**
+     * Returns the latest snapshot of the content of an URL.
+     *
+     * @param ref the reference of the client configuration used to fetch the content
+     * @param url the URL of the content
+     * @param position the position of the returned content
+     * @return SnapshotContent, or null if there is no snapshot
+     */
+    public SnapshotContent get(final Ref ref, final String url, final Position position) {
+        final Segment segment = this.segment;
+        final Snapshot snapshot = segment.index.get(keyOf(ref.name(), url));
+        return snapshot != null
+                ? new SnapshotContent(segment.buffer, snapshot, position)
+                : null;
+    }
+
+    /**
+     * Stores a snapshot of the content of an URL, replacing the previous snapshot. Only
+     * {@link Content#isAvailable() available}, single contents are stored.
+     *
+     * @param ref the reference of the client configuration used to fetch the content
+     * @param url the URL of the content
+     * @param content the content
+     */
+    public void put(final Ref ref, final String url, final Content content) {
+        if (!content.isAvailable() || content.isErrorContent() || content.isComposite()) {
+            return;
+        }
+        final String key = keyOf(ref.name(), url);
+        final byte[] body = content.getBody().getBytes(UTF_8);
+        final byte[] payload = encode(ref.name(), url, content.getHeaders(), body);
+        final int checksum = checksum(ByteBuffer.wrap(payload));
+        final long now = currentTimeMillis();
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            Segment segment = this.segment;
+            final Snapshot previous = segment.index.get(key);
+            if (previous != null && previous.length == payload.length && previous.checksum == checksum
+                    && payloadOf(segment.buffer, previous).equals(ByteBuffer.wrap(payload))) {
+                previous.timestamp = now;
+                segment.buffer.putLong(previous.offset + TIMESTAMP_OFFSET, now);
+                return;
+            }
+            final int recordSize = RECORD_HEADER_SIZE + payload.length;
+            if (segment.writePosition + recordSize + END_MARKER_SIZE > segment.buffer.capacity()) {
+                if (FILE_HEADER_SIZE + recordSize + END_MARKER_SIZE > capacityBytes) {
+                    LOG.debug("Not storing snapshot of {}: {} bytes exceeding the capacity", url, recordSize);
+                    return;
+                }
+                segment = compact(segment, key, recordSize + END_MARKER_SIZE);
+            }
+            final int offset = segment.writePosition;
+            final ByteBuffer target = segment.buffer.duplicate();
+            target.position(offset + RECORD_HEADER_SIZE);
+            target.put(payload);
+            target.putInt(0);
+            segment.buffer.putInt(offset + 4, checksum);
+            segment.buffer.putLong(offset + TIMESTAMP_OFFSET, now);
+            // the length is written last, so the record is only visible after it was written completely:
+            segment.buffer.putInt(offset, payload.length);
+            segment.writePosition = offset + recordSize;
+            segment.index.put(key, new Snapshot(key, url, offset, payload.length, checksum,
+                    offset + RECORD_HEADER_SIZE + headersOffsetOf(payload),
+                    offset + RECORD_HEADER_SIZE + payload.length - body.length, body.length, now));
+        } catch (final UncheckedIOException e) {
+            LOG.error("Failed to store snapshot of {} in {}: {}", url, file, e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of snapshots
+     */
+    public int size() {
+        return segment.index.size();
+    }
+
+    /**
+     * @return the number of bytes of the snapshot file that are used by the log
+     */
+    public long getUsedBytes() {
+        return segment.writePosition;
+    }
+
+    /**
+     * @return the size of the snapshot file in bytes
+     */
+    public long getCapacityBytes() {
+        return capacityBytes;
+    }
+
+    /**
+     * Writes the snapshots to the storage device. Snapshots are written by the operating system even without
+     * flushing them, unless the operating system itself is crashing.
+     */
+    public void flush() {
+        segment.buffer.force();
+    }
+
+    /**
+     * Flushes the snapshots and stops storing new snapshots. Stored snapshots are still readable.
+     */
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            closed = true;
+            flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Maps the snapshot file and rebuilds the index from the valid records of the log.
+     */
+    private Segment load() {
+        final long started = nanoTime();
+        try (final FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            final long size = Math.max(channel.size(), capacityBytes);
+            checkArgument(size <= Integer.MAX_VALUE, "snapshot file is too large");
+            final MappedByteBuffer buffer = channel.map(READ_WRITE, 0, size);
+            final ConcurrentMap<String, Snapshot> index = new ConcurrentHashMap<>();
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                if (buffer.getInt(0) != 0) {
+                    LOG.warn("Ignoring snapshots in {}: unknown file format", file);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(FILE_HEADER_SIZE, 0);
+                return new Segment(buffer, index, FILE_HEADER_SIZE);
+            }
+            int position = FILE_HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE + END_MARKER_SIZE <= buffer.capacity()) {
+                final int length = buffer.getInt(position);
+                if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER_SIZE - END_MARKER_SIZE) {
+                    break;
+                }
+                final Snapshot snapshot = decode(buffer, position);
+                if (snapshot == null) {
+                    LOG.warn("Ignoring corrupted snapshots in {} after offset {}", file, position);
+                    break;
+                }
+                index.put(snapshot.key, snapshot);
+                position += RECORD_HEADER_SIZE + length;
+            }
+            buffer.putInt(position, 0);
+            LOG.info("Loaded {} snapshots from {} in {}ms", index.size(), file, NANOSECONDS.toMillis(nanoTime() - started));
+            return new Segment(buffer, index, position);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Copies the latest snapshots, except the snapshot of the given key, into a new file replacing the snapshot file.
+     * <p>
+     *     If the live snapshots and the required bytes would use more than three quarters of the capacity, the
+     *     oldest snapshots are dropped, so the following snapshots can be appended without compacting the log again.
+     * </p>
+     */
+    private Segment compact(final Segment segment, final String replacedKey, final int requiredBytes) {
+        final List<Snapshot> snapshots = new ArrayList<>(segment.index.values());
+        snapshots.removeIf(snapshot -> snapshot.key.equals(replacedKey));
+        snapshots.sort(comparingLong(snapshot -> snapshot.timestamp));
+        long liveBytes = 0;
+        for (final Snapshot snapshot : snapshots) {
+            liveBytes += RECORD_HEADER_SIZE + snapshot.length;
+        }
+        final long budget = (long) (capacityBytes * COMPACTED_FILL_RATIO) - FILE_HEADER_SIZE - requiredBytes;
+        int dropped = 0;
+        while (dropped < snapshots.size() && liveBytes > budget) {
+            liveBytes -= RECORD_HEADER_SIZE + snapshots.get(dropped++).length;
+        }
+        final Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final FileChannel channel = FileChannel.open(compacted, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            final MappedByteBuffer buffer = channel.map(READ_WRITE, 0, capacityBytes);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            final ConcurrentMap<String, Snapshot> index = new ConcurrentHashMap<>();
+            int position = FILE_HEADER_SIZE;
+            for (final Snapshot snapshot : snapshots.subList(dropped, snapshots.size())) {
+                final int recordSize = RECORD_HEADER_SIZE + snapshot.length;
+                final ByteBuffer source = segment.buffer.duplicate();
+                source.position(snapshot.offset);
+                source.limit(snapshot.offset + recordSize);
+                final ByteBuffer target = buffer.duplicate();
+                target.position(position);
+                target.put(source);
+                buffer.putLong(position + TIMESTAMP_OFFSET, snapshot.timestamp);
+                index.put(snapshot.key, snapshot.movedTo(position));
+                position += recordSize;
+            }
+            buffer.putInt(position, 0);
+            buffer.force();
+            Files.move(compacted, file, REPLACE_EXISTING, ATOMIC_MOVE);
+            LOG.info("Compacted {} snapshots in {} to {} bytes, dropping the {} oldest snapshots", index.size(), file, position, dropped);
+            final Segment result = new Segment(buffer, index, position);
+            this.segment = result;
+            return result;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes the record at the given position, or returns null if the record is corrupted.
+     */
+    private static Snapshot decode(final ByteBuffer buffer, final int offset) {
+        final int length = buffer.getInt(offset);
+        final int checksum = buffer.getInt(offset + 4);
+        final ByteBuffer payload = buffer.duplicate();
+        payload.position(offset + RECORD_HEADER_SIZE);
+        payload.limit(offset + RECORD_HEADER_SIZE + length);
+        if (checksum(payload.duplicate()) != checksum) {
+            return null;
+        }
+        try {
+            final String refName = readString(payload);
+            final String url = readString(payload);
+            final int headersOffset = payload.position();
+            final int numHeaders = payload.getInt();
+            for (int i = 0; i < numHeaders; i++) {
+                skipString(payload);
+                final int numValues = payload.getInt();
+                for (int j = 0; j < numValues; j++) {
+                    skipString(payload);
+                }
+            }
+            final int bodyLength = payload.getInt();
+            final int bodyOffset = payload.position();
+            checkArgument(bodyOffset + bodyLength == payload.limit(), "invalid body length");
+            return new Snapshot(keyOf(refName, url), url, offset, length, checksum, headersOffset, bodyOffset,
+                    bodyLength, buffer.getLong(offset + TIMESTAMP_OFFSET));
+        } catch (final RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static byte[] encode(final String refName, final String url, final Headers headers, final byte[] body) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+            final DataOutputStream out = new DataOutputStream(bytes);
+            writeString(out, refName);
+            writeString(out, url);
+            final ImmutableMap<String, ImmutableList<String>> headerMap = headers.asImmutableMap();
+            out.writeInt(headerMap.size());
+            for (final Map.Entry<String, ImmutableList<String>> header : headerMap.entrySet()) {
+                writeString(out, header.getKey());
+                out.writeInt(header.getValue().size());
+                for (final String value : header.getValue()) {
+                    writeString(out, value);
+                }
+            }
+            out.writeInt(body.length);
+            out.write(body);
+            return bytes.toByteArray();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the offset of the encoded headers inside the payload, following the ref and the URL.
+     */
+    private static int headersOffsetOf(final byte[] payload) {
+        final ByteBuffer buffer = ByteBuffer.wrap(payload);
+        skipString(buffer);
+        skipString(buffer);
+        return buffer.position();
+    }
+
+    static Headers decodeHeaders(final ByteBuffer buffer, final Snapshot snapshot) {
+        final ByteBuffer view = buffer.duplicate();
+        view.position(snapshot.headersOffset);
+        final int numHeaders = view.getInt();
+        final Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < numHeaders; i++) {
+            final String name = readString(view);
+            final int numValues = view.getInt();
+            final ImmutableList.Builder<String> values = ImmutableList.builder();
+            for (int j = 0; j < numValues; j++) {
+                values.add(readString(view));
+            }
+            headers.put(name, values.build());
+        }
+        return Headers.of(headers);
+    }
+
+    private static ByteBuffer payloadOf(final ByteBuffer buffer, final Snapshot snapshot) {
+        final ByteBuffer view = buffer.duplicate();
+        view.position(snapshot.offset + RECORD_HEADER_SIZE);
+        view.limit(snapshot.offset + RECORD_HEADER_SIZE + snapshot.length);
+        return view;
+    }
+
+    static ByteBuffer bodyOf(final ByteBuffer buffer, final Snapshot snapshot) {
+        final ByteBuffer view = buffer.duplicate();
+        view.position(snapshot.bodyOffset);
+        view.limit(snapshot.bodyOffset + snapshot.bodyLength);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static void skipString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        checkArgument(length >= 0 && length <= buffer.remaining(), "invalid string length");
+        buffer.position(buffer.position() + length);
+    }
+
+    private static int checksum(final ByteBuffer bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static String keyOf(final String refName, final String url) {
+        return refName + ' ' + url;
+    }
+
+    /**
+     * The mapped snapshot file and the index of its latest snapshots.
+     */
+    private static final class Segment {
+        final MappedByteBuffer buffer;
+        final ConcurrentMap<String, Snapshot> index;
+        volatile int writePosition;
+
+        Segment(final MappedByteBuffer buffer, final ConcurrentMap<String, Snapshot> index, final int writePosition) {
+            this.buffer = buffer;
+            this.index = index;
+            this.writePosition = writePosition;
+        }
+    }
+
+    /**
+     * The location of a record in the snapshot file.
+     */
+    static final class Snapshot {
+        final String key;
+        final String source;
+        final int offset;
+        final int length;
+        final int checksum;
+        final int headersOffset;
+        final int bodyOffset;
+        final int bodyLength;
+        volatile long timestamp;
+
+        Snapshot(final String key, final String source, final int offset, final int length, final int checksum,
+                 final int headersOffset, final int bodyOffset, final int bodyLength, final long timestamp) {
+            this.key = key;
+            this.source = source;
+            this.offset = offset;
+            this.length = length;
+            this.checksum = checksum;
+            this.headersOffset = headersOffset;
+            this.bodyOffset = bodyOffset;
+            this.bodyLength = bodyLength;
+            this.timestamp = timestamp;
+        }
+
+        Snapshot movedTo(final int newOffset) {
+            final int delta = newOffset - offset;
+            return new Snapshot(key, source, newOffset, length, checksum, headersOffset + delta, bodyOffset + delta,
+                    bodyLength, timestamp);
+        }
+    }
+}
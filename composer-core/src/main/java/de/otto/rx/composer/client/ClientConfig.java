@@ -3,6 +3,8 @@ package de.otto.rx.composer.client;
 
 import java.util.Objects;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static de.otto.rx.composer.client.ClientScheduler.ioScheduler;
 import static de.otto.rx.composer.client.DefaultRef.noResiliency;
 import static de.otto.rx.composer.client.DefaultRef.noRetries;
 import static de.otto.rx.composer.client.DefaultRef.singleRetry;
@@ -14,17 +16,28 @@ public final class ClientConfig {
     private final int readTimeout;
     private final boolean resilient;
     private final int retries;
+    private final ClientScheduler scheduler;
 
     public ClientConfig(final Ref key,
                          final int connectTimeout,
                          final int readTimeout,
                          final boolean resilient,
                          final int retries) {
+        this(key, connectTimeout, readTimeout, resilient, retries, ioScheduler());
+    }
+
+    public ClientConfig(final Ref key,
+                        final int connectTimeout,
+                        final int readTimeout,
+                        final boolean resilient,
+                        final int retries,
+                        final ClientScheduler scheduler) {
         this.key = key;
         this.connectTimeout = connectTimeout;
         this.readTimeout = readTimeout;
         this.retries = retries;
         this.resilient = retries > 0 || resilient;
+        this.scheduler = checkNotNull(scheduler, "scheduler must not be null");
     }
 
     public static ClientConfig singleRetry() {
@@ -83,6 +96,25 @@ public final class ClientConfig {
         return retries;
     }
 
+    /**
+     * Returns the scheduler used to execute the requests of this client configuration.
+     *
+     * @return ClientScheduler, {@link ClientScheduler#ioScheduler()} by default
+     */
+    public ClientScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns a copy of this configuration, using the specified scheduler to execute requests.
+     *
+     * @param scheduler the scheduler
+     * @return ClientConfig
+     */
+    public ClientConfig withScheduler(final ClientScheduler scheduler) {
+        return new ClientConfig(key, connectTimeout, readTimeout, resilient, retries, scheduler);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -92,12 +124,13 @@ public final class ClientConfig {
                 readTimeout == that.readTimeout &&
                 resilient == that.resilient &&
                 retries == that.retries &&
-                Objects.equals(key, that.key);
+                Objects.equals(key, that.key) &&
+                Objects.equals(scheduler, that.scheduler);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(key, connectTimeout, readTimeout, resilient, retries);
+        return Objects.hash(key, connectTimeout, readTimeout, resilient, retries, scheduler);
     }
 
     @Override
@@ -108,6 +141,7 @@ public final class ClientConfig {
                 ", readTimeout=" + readTimeout +
                 ", resilient=" + resilient +
                 ", retries=" + retries +
+                ", scheduler=" + scheduler.getName() +
                 '}';
     }
 }
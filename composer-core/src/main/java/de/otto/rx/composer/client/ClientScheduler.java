@@ -0,0 +1,168 @@
+package de.otto.rx.composer.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.otto.rx.composer.util.VirtualThreads;
+import org.slf4j.Logger;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static de.otto.rx.composer.util.VirtualThreads.newVirtualThreadPerTaskExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * The {@link Scheduler} used to execute the requests of a {@link ServiceClient}.
+ * <p>
+ *     By default, requests are executed using {@link Schedulers#io()}, an unbounded pool of cached threads that is
+ *     growing with the number of concurrent requests. Using {@link ClientConfig#withScheduler(ClientScheduler)},
+ *     a different scheduler can be configured for every {@link Ref}:
+ * </p>
+ * <ul>
+ *     <li>{@link #boundedScheduler(String, int, int)}: a fixed number of threads with a bounded queue. If the queue
+ *     is full, requests are rejected and fail with a {@link RejectedExecutionException}, so resilient clients will
+ *     return the fallback. Using a separate bounded scheduler per Ref isolates slow services from each other.</li>
+ *     <li>{@link #virtualThreadScheduler(String)}: a new virtual thread per request, if supported by the JDK.</li>
+ * </ul>
+ * <p>
+ *     The size of the queue, the number of active threads and the number of rejected requests are available for
+ *     monitoring, for example using {@link de.otto.rx.composer.metrics.PrometheusMetrics#monitor(ClientScheduler)}.
+ *     Schedulers owning an executor should be {@link #close() closed} on shutdown; {@link ServiceClients#close()}
+ *     is closing the schedulers of all managed clients.
+ * </p>
+ */
+public final class ClientScheduler implements AutoCloseable {
+
+    private static final Logger LOG = getLogger(ClientScheduler.class);
+
+    private static final ClientScheduler IO_SCHEDULER = new ClientScheduler("io", Schedulers.io(), null, null);
+
+    private final String name;
+    private final Scheduler scheduler;
+    private final ExecutorService executor;
+    private final AtomicLong rejected;
+
+    private ClientScheduler(final String name,
+                            final Scheduler scheduler,
+                            final ExecutorService executor,
+                            final AtomicLong rejected) {
+        this.name = checkNotNull(name, "name must not be null");
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Returns the default scheduler, using {@link Schedulers#io()}.
+     *
+     * @return ClientScheduler
+     */
+    public static ClientScheduler ioScheduler() {
+        return IO_SCHEDULER;
+    }
+
+    /**
+     * Creates a scheduler using a fixed number of threads and a bounded queue of waiting requests.
+     *
+     * @param name the name of the scheduler, used to name the threads and to identify the scheduler in metrics
+     * @param threads the number of threads
+     * @param queueCapacity the maximum number of requests waiting for a thread
+     * @return ClientScheduler
+     */
+    public static ClientScheduler boundedScheduler(final String name, final int threads, final int queueCapacity) {
+        checkArgument(threads > 0, "threads must be greater than zero");
+        checkArgument(queueCapacity > 0, "queueCapacity must be greater than zero");
+        final AtomicLong rejected = new AtomicLong();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("rxc-" + name + "-%d").setDaemon(true).build(),
+                (runnable, pool) -> {
+                    rejected.incrementAndGet();
+                    throw new RejectedExecutionException("Queue of scheduler " + name + " is full");
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return new ClientScheduler(name, Schedulers.from(executor), executor, rejected);
+    }
+
+    /**
+     * Creates a scheduler that is executing every request in a new virtual thread.
+     * <p>
+     *     Virtual threads are only available on JDK 21 or later. On older JDKs, a warning is logged and the
+     *     {@link #ioScheduler() default scheduler} is returned.
+     * </p>
+     *
+     * @param name the name of the scheduler, used to identify the scheduler in metrics
+     * @return ClientScheduler
+     */
+    public static ClientScheduler virtualThreadScheduler(final String name) {
+        final ExecutorService executor = newVirtualThreadPerTaskExecutor().orElse(null);
+        if (executor == null) {
+            LOG.warn("Virtual threads are not supported by this JDK. Using io scheduler instead of {}", name);
+            return IO_SCHEDULER;
+        }
+        return new ClientScheduler(name, Schedulers.from(executor), executor, new AtomicLong());
+    }
+
+    /**
+     * @return true, if the JDK supports virtual threads.
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return the number of requests waiting for a thread, or -1 if unknown.
+     */
+    public int getQueueSize() {
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : -1;
+    }
+
+    /**
+     * @return the number of threads currently executing requests, or -1 if unknown.
+     */
+    public int getActiveThreads() {
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getActiveCount() : -1;
+    }
+
+    /**
+     * @return the number of requests that were rejected because the queue was full.
+     */
+    public long getRejectedRequests() {
+        return rejected != null ? rejected.get() : 0;
+    }
+
+    /**
+     * Shuts down the executor of the scheduler, if the scheduler owns one. Requests that are already executed
+     * are completed.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ClientScheduler{" +
+                "name='" + name + '\'' +
+                '}';
+    }
+}
@@ -1,12 +1,15 @@
 package de.otto.rx.composer.client;
 
+import org.glassfish.jersey.client.rx.RxInvocationBuilder;
 import org.glassfish.jersey.client.rx.rxjava.RxObservable;
+import org.glassfish.jersey.client.rx.rxjava.RxObservableInvoker;
 import org.slf4j.Logger;
 import rx.Observable;
 
 import javax.ws.rs.client.Client;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.Map;
 
 import static de.otto.rx.composer.client.ClientConfig.noResiliency;
 import static de.otto.rx.composer.client.ClientConfig.noRetries;
@@ -16,7 +19,9 @@ import static org.glassfish.jersey.client.ClientProperties.ASYNC_THREADPOOL_SIZE
 import static org.glassfish.jersey.client.ClientProperties.CONNECT_TIMEOUT;
 import static org.glassfish.jersey.client.ClientProperties.FOLLOW_REDIRECTS;
 import static org.glassfish.jersey.client.ClientProperties.READ_TIMEOUT;
+import static java.util.Collections.emptyMap;
 import static org.slf4j.LoggerFactory.getLogger;
+import static rx.Observable.defer;
 
 public class HttpServiceClient implements ServiceClient {
 
@@ -33,6 +38,7 @@ public class HttpServiceClient implements ServiceClient {
         jerseyConfig.property(CONNECT_TIMEOUT, config.getConnectTimeout());
         jerseyConfig.property(READ_TIMEOUT, config.getReadTimeout());
         jerseyConfig.property(FOLLOW_REDIRECTS, true);
+        jerseyConfig.register(new PhaseTimingFilter());
         client = newClient(jerseyConfig);
         this.clientConfig = config;
         LOG.info("Client created with {}", clientConfig);
@@ -107,14 +113,42 @@ public class HttpServiceClient implements ServiceClient {
         return clientConfig;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     The returned responses are {@link TimedResponse TimedResponses}, providing timestamps of the
+     *     different phases of the request.
+     * </p>
+     */
     public Observable<Response> get(final String uri,
                                     final MediaType accept) {
-        return RxObservable.from(client)
-                .target(uri)
-                .request()
-                .accept(accept)
-                .rx()
-                .get();
+        return get(uri, accept, emptyMap());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     The returned responses are {@link TimedResponse TimedResponses}, providing timestamps of the
+     *     different phases of the request.
+     * </p>
+     */
+    @Override
+    public Observable<Response> get(final String uri,
+                                    final MediaType accept,
+                                    final Map<String, String> headers) {
+        return defer(() -> {
+            final PhaseTimer timer = new PhaseTimer();
+            final RxInvocationBuilder<RxObservableInvoker> request = RxObservable.from(client)
+                    .target(uri)
+                    .request()
+                    .accept(accept)
+                    .property(PhaseTimer.PROPERTY, timer);
+            headers.forEach(request::header);
+            return request
+                    .rx()
+                    .get()
+                    .map(response -> (Response) new TimedResponse(response, timer));
+        });
     }
 
     @Override
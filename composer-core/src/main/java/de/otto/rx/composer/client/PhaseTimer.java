@@ -0,0 +1,20 @@
+package de.otto.rx.composer.client;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Records the {@link System#nanoTime() nanoTime} timestamps of a single HTTP request.
+ * <p>
+ *     The timer is passed to the {@link PhaseTimingFilter} as a request property.
+ * </p>
+ */
+final class PhaseTimer {
+
+    /** Name of the request property used to pass the PhaseTimer to the filter. */
+    static final String PROPERTY = PhaseTimer.class.getName();
+
+    final long subscribedNanos = nanoTime();
+    volatile long requestSentNanos = -1;
+    volatile long responseReceivedNanos = -1;
+
+}
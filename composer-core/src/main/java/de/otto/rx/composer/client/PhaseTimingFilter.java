@@ -0,0 +1,34 @@
+package de.otto.rx.composer.client;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Jersey filter that is recording the time when a request is sent by the connector, and the time when the status
+ * and headers of the response are received.
+ * <p>
+ *     Requests without a {@link PhaseTimer} property are ignored.
+ * </p>
+ */
+final class PhaseTimingFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    @Override
+    public void filter(final ClientRequestContext requestContext) {
+        final Object timer = requestContext.getProperty(PhaseTimer.PROPERTY);
+        if (timer instanceof PhaseTimer) {
+            ((PhaseTimer) timer).requestSentNanos = nanoTime();
+        }
+    }
+
+    @Override
+    public void filter(final ClientRequestContext requestContext, final ClientResponseContext responseContext) {
+        final Object timer = requestContext.getProperty(PhaseTimer.PROPERTY);
+        if (timer instanceof PhaseTimer) {
+            ((PhaseTimer) timer).responseReceivedNanos = nanoTime();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import rx.Observable;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.Map;
 
 /**
  * A client used to fetch content from some remote service.
@@ -29,6 +30,22 @@ public interface ServiceClient extends AutoCloseable {
      */
     Observable<Response> get(final String uri, final MediaType accept);
 
+    /**
+     * Fetches content from the specified uri, sending additional request headers like the W3C
+     * {@code traceparent} header.
+     * <p>
+     *     The default implementation is ignoring the headers.
+     * </p>
+     *
+     * @param uri the URI of the content
+     * @param accept the accepted media type
+     * @param headers additional request headers
+     * @return oberservable response. Must not be null.
+     */
+    default Observable<Response> get(final String uri, final MediaType accept, final Map<String, String> headers) {
+        return get(uri, accept);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -130,7 +130,8 @@ public class ServiceClients implements AutoCloseable {
     /**
      * {@inheritDoc}
      *
-     * This implementation closes all {@link ServiceClient} instances created by the serviceClients.
+     * This implementation closes all {@link ServiceClient} instances created by the serviceClients, and the
+     * {@link ClientScheduler schedulers} of their client configurations.
      *
      */
     @Override
@@ -141,6 +142,7 @@ public class ServiceClients implements AutoCloseable {
             } catch (final Exception e) {
                 LOG.error(e.getMessage(), e);
             }
+            serviceClient.getClientConfig().getScheduler().close();
         });
     }
 
@@ -0,0 +1,199 @@
+package de.otto.rx.composer.client;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Link;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.core.Response;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link Response} returned by the {@link HttpServiceClient}, that is providing the timestamps of the
+ * different phases of the request.
+ * <p>
+ *     All timestamps are {@link System#nanoTime() nanoTime} values, or -1 if the timestamp is not available.
+ *     All other methods are delegated to the original response.
+ * </p>
+ */
+public final class TimedResponse extends Response {
+
+    private final Response response;
+    private final PhaseTimer timer;
+
+    TimedResponse(final Response response, final PhaseTimer timer) {
+        this.response = response;
+        this.timer = timer;
+    }
+
+    /**
+     * The time when the HttpServiceClient was subscribed to execute the request. The time between subscription
+     * and {@link #getRequestSentNanos() sending the request} is spent waiting for a thread of the HTTP client.
+     *
+     * @return nanoTime timestamp
+     */
+    public long getSubscribedNanos() {
+        return timer.subscribedNanos;
+    }
+
+    /**
+     * The time when the request was handed over to the HTTP connector. The time between sending the request and
+     * {@link #getResponseReceivedNanos() receiving the response} includes connecting, server processing and
+     * transferring the first bytes of the response.
+     *
+     * @return nanoTime timestamp
+     */
+    public long getRequestSentNanos() {
+        return timer.requestSentNanos;
+    }
+
+    /**
+     * The time when status and headers of the response were received.
+     *
+     * @return nanoTime timestamp
+     */
+    public long getResponseReceivedNanos() {
+        return timer.responseReceivedNanos;
+    }
+
+    @Override
+    public int getStatus() {
+        return response.getStatus();
+    }
+
+    @Override
+    public StatusType getStatusInfo() {
+        return response.getStatusInfo();
+    }
+
+    @Override
+    public Object getEntity() {
+        return response.getEntity();
+    }
+
+    @Override
+    public <T> T readEntity(final Class<T> entityType) {
+        return response.readEntity(entityType);
+    }
+
+    @Override
+    public <T> T readEntity(final GenericType<T> entityType) {
+        return response.readEntity(entityType);
+    }
+
+    @Override
+    public <T> T readEntity(final Class<T> entityType, final Annotation[] annotations) {
+        return response.readEntity(entityType, annotations);
+    }
+
+    @Override
+    public <T> T readEntity(final GenericType<T> entityType, final Annotation[] annotations) {
+        return response.readEntity(entityType, annotations);
+    }
+
+    @Override
+    public boolean hasEntity() {
+        return response.hasEntity();
+    }
+
+    @Override
+    public boolean bufferEntity() {
+        return response.bufferEntity();
+    }
+
+    @Override
+    public void close() {
+        response.close();
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return response.getMediaType();
+    }
+
+    @Override
+    public Locale getLanguage() {
+        return response.getLanguage();
+    }
+
+    @Override
+    public int getLength() {
+        return response.getLength();
+    }
+
+    @Override
+    public Set<String> getAllowedMethods() {
+        return response.getAllowedMethods();
+    }
+
+    @Override
+    public Map<String, NewCookie> getCookies() {
+        return response.getCookies();
+    }
+
+    @Override
+    public EntityTag getEntityTag() {
+        return response.getEntityTag();
+    }
+
+    @Override
+    public Date getDate() {
+        return response.getDate();
+    }
+
+    @Override
+    public Date getLastModified() {
+        return response.getLastModified();
+    }
+
+    @Override
+    public URI getLocation() {
+        return response.getLocation();
+    }
+
+    @Override
+    public Set<Link> getLinks() {
+        return response.getLinks();
+    }
+
+    @Override
+    public boolean hasLink(final String relation) {
+        return response.hasLink(relation);
+    }
+
+    @Override
+    public Link getLink(final String relation) {
+        return response.getLink(relation);
+    }
+
+    @Override
+    public Link.Builder getLinkBuilder(final String relation) {
+        return response.getLinkBuilder(relation);
+    }
+
+    @Override
+    public MultivaluedMap<String, Object> getMetadata() {
+        return response.getMetadata();
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getStringHeaders() {
+        return response.getStringHeaders();
+    }
+
+    @Override
+    public String getHeaderString(final String name) {
+        return response.getHeaderString(name);
+    }
+
+    @Override
+    public String toString() {
+        return response.toString();
+    }
+}
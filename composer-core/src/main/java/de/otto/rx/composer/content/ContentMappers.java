@@ -1,16 +1,13 @@
 package de.otto.rx.composer.content;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import static de.otto.rx.composer.content.HtmlScanner.bodyOf;
+import static de.otto.rx.composer.content.HtmlScanner.headOf;
 
 /**
  * Utility class providing mappers for {@link Content}.
  */
 public class ContentMappers {
 
-    /** Pattern used to extract the content. */
-    private static final Pattern BODY_PATTERN = Pattern.compile("\\<body[^>]*?>([\\w|\\W]*?)<\\/body>(.*)");
-
     /**
      * Returns a {@link Content} instance that is only replacing {@link Content#getBody()} with the &lt;body&gt; of the
      * embedded {@code content} parameter.
@@ -18,33 +15,53 @@ public class ContentMappers {
      *     If Content is a {@link Content#isComposite() composite}, the concatenated bodies of all embedded contents
      *     is returned.
      * </p>
+     * <p>
+     *     The body is extracted by the {@link HtmlScanner} when it is accessed for the first time, and memoized
+     *     for subsequent calls.
+     * </p>
      * @param content the content delegate
      * @return content that is extracting the html body.
      */
     public static Content htmlBody(final Content content) {
         return new DelegatingContent(content) {
+            private volatile String body;
+
             @Override
             public String getBody() {
-                return extractHtmlBody(content.getBody(), false);
+                String result = body;
+                if (result == null) {
+                    result = bodyOf(content.getBody());
+                    body = result;
+                }
+                return result;
             }
         };
     }
 
-    private static String extractHtmlBody(final String body,
-                                          final boolean onlyWithBodyElement) {
-        final Matcher matcher = BODY_PATTERN.matcher(body);
+    /**
+     * Returns a {@link Content} instance that is only replacing {@link Content#getBody()} with the &lt;head&gt; of the
+     * embedded {@code content} parameter, or an empty String if there is no head element.
+     * <p>
+     *     The head is extracted by the {@link HtmlScanner} when it is accessed for the first time, and memoized
+     *     for subsequent calls.
+     * </p>
+     * @param content the content delegate
+     * @return content that is extracting the html head.
+     */
+    public static Content htmlHead(final Content content) {
+        return new DelegatingContent(content) {
+            private volatile String head;
 
-        if (matcher.find()) {
-            final String firstBody = matcher.group(1);
-            if (matcher.groupCount() == 1) {
-                return firstBody;
-            } else {
-                final String remainingBodies = matcher.group(2);
-                return firstBody + extractHtmlBody(remainingBodies, true);
+            @Override
+            public String getBody() {
+                String result = head;
+                if (result == null) {
+                    result = headOf(content.getBody());
+                    head = result;
+                }
+                return result;
             }
-        } else {
-            return onlyWithBodyElement ? "" : body;
-        }
+        };
     }
 
 }
@@ -0,0 +1,292 @@
+package de.otto.rx.composer.content;
+
+import java.util.function.UnaryOperator;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static de.otto.rx.composer.content.HtmlScanner.findEndTag;
+import static de.otto.rx.composer.content.HtmlScanner.findStartTag;
+import static de.otto.rx.composer.content.HtmlScanner.indexOfTag;
+import static de.otto.rx.composer.content.HtmlScanner.isCommentAt;
+import static de.otto.rx.composer.content.HtmlScanner.isTagNameAt;
+import static de.otto.rx.composer.content.HtmlScanner.skipComment;
+import static de.otto.rx.composer.content.HtmlScanner.skipTag;
+
+/**
+ * A declarative pipeline of HTML transformations that is applied to the body of {@link Content}.
+ * <p>
+ *     All configured steps are fused into a single pass over the body:
+ * </p>
+ * <ul>
+ *     <li>{@link #extractBody()}: only the contents of the &lt;body&gt; elements are kept,
+ *     like {@link HtmlScanner#bodyOf(CharSequence)}.</li>
+ *     <li>{@link #stripComments()}: &lt;!-- comments --&gt; are removed.</li>
+ *     <li>{@link #rewriteUrls(UnaryOperator)}: the values of href, src and action attributes are rewritten.</li>
+ *     <li>{@link #minify()}: runs of whitespace are collapsed into a single space.</li>
+ * </ul>
+ * <p>
+ *     The contents of &lt;script&gt;, &lt;style&gt;, &lt;pre&gt; and &lt;textarea&gt; elements are copied
+ *     unchanged.
+ * </p>
+ * <p>
+ *     ContentPipelines are immutable and thread-safe. Example:
+ * </p>
+ * <pre><code>
+ *     transformed(
+ *          contentFrom(client, "http://example.com/somePage", TEXT_HTML),
+ *          contentPipeline().extractBody().stripComments().minify()
+ *     )
+ * </code></pre>
+ */
+public final class ContentPipeline {
+
+    private static final ContentPipeline EMPTY_PIPELINE = new ContentPipeline(false, false, null, false);
+    private static final String[] RAW_TEXT_ELEMENTS = {"script", "style", "pre", "textarea"};
+    private static final String[] URL_ATTRIBUTES = {"href", "src", "action"};
+
+    private final boolean extractBody;
+    private final boolean stripComments;
+    private final UnaryOperator<String> urlRewriter;
+    private final boolean minify;
+
+    private ContentPipeline(final boolean extractBody,
+                            final boolean stripComments,
+                            final UnaryOperator<String> urlRewriter,
+                            final boolean minify) {
+        this.extractBody = extractBody;
+        this.stripComments = stripComments;
+        this.urlRewriter = urlRewriter;
+        this.minify = minify;
+    }
+
+    /**
+     * Returns a pipeline without any transformations.
+     *
+     * @return ContentPipeline
+     */
+    public static ContentPipeline contentPipeline() {
+        return EMPTY_PIPELINE;
+    }
+
+    /**
+     * @return a copy of this pipeline that is extracting the contents of the &lt;body&gt; elements.
+     */
+    public ContentPipeline extractBody() {
+        return new ContentPipeline(true, stripComments, urlRewriter, minify);
+    }
+
+    /**
+     * @return a copy of this pipeline that is removing HTML comments.
+     */
+    public ContentPipeline stripComments() {
+        return new ContentPipeline(extractBody, true, urlRewriter, minify);
+    }
+
+    /**
+     * Returns a copy of this pipeline that is rewriting the values of href, src and action attributes.
+     *
+     * @param urlRewriter function used to rewrite the URLs
+     * @return ContentPipeline
+     */
+    public ContentPipeline rewriteUrls(final UnaryOperator<String> urlRewriter) {
+        return new ContentPipeline(extractBody, stripComments, checkNotNull(urlRewriter), minify);
+    }
+
+    /**
+     * @return a copy of this pipeline that is collapsing runs of whitespace.
+     */
+    public ContentPipeline minify() {
+        return new ContentPipeline(extractBody, stripComments, urlRewriter, true);
+    }
+
+    /**
+     * Applies the pipeline to the content and returns a content with the transformed body.
+     * <p>
+     *     The transformation is executed immediately, and the transformed body is stored in the returned content.
+     *     Unavailable contents are returned unchanged.
+     * </p>
+     *
+     * @param content the content
+     * @return transformed content
+     */
+    public Content apply(final Content content) {
+        if (!content.isAvailable()) {
+            return content;
+        }
+        final String body = apply(content.getBody());
+        return new DelegatingContent(content) {
+            @Override
+            public String getBody() {
+                return body;
+            }
+        };
+    }
+
+    /**
+     * Applies the pipeline to a HTML document or fragment.
+     *
+     * @param html the html
+     * @return transformed html
+     */
+    public String apply(final String html) {
+        final int length = html.length();
+        int pos = 0;
+        boolean bodyOnly = false;
+        if (extractBody) {
+            final int bodyStart = findStartTag(html, "body", 0);
+            if (bodyStart >= 0) {
+                pos = bodyStart;
+                bodyOnly = true;
+            }
+        }
+        final StringBuilder out = new StringBuilder(length - pos);
+        boolean whitespace = false;
+        while (pos < length) {
+            final char c = html.charAt(pos);
+            if (c == '<') {
+                if (isCommentAt(html, pos)) {
+                    final int end = skipComment(html, pos);
+                    if (!stripComments) {
+                        out.append(html, pos, end);
+                        whitespace = false;
+                    }
+                    pos = end;
+                } else if (bodyOnly && pos + 1 < length && html.charAt(pos + 1) == '/' && isTagNameAt(html, pos + 2, "body")) {
+                    // continue with the next body, if there is any:
+                    pos = findStartTag(html, "body", pos);
+                    if (pos < 0) {
+                        break;
+                    }
+                } else {
+                    final int end = skipTag(html, pos + 1);
+                    appendTag(out, html, pos, end);
+                    whitespace = false;
+                    final String rawTextElement = rawTextElementAt(html, pos);
+                    pos = end;
+                    if (rawTextElement != null) {
+                        final int rawEnd = findEndTag(html, rawTextElement, end);
+                        pos = rawEnd >= 0 ? rawEnd : length;
+                        out.append(html, end, pos);
+                    }
+                }
+            } else if (minify && Character.isWhitespace(c)) {
+                if (!whitespace) {
+                    out.append(' ');
+                    whitespace = true;
+                }
+                ++pos;
+            } else {
+                whitespace = false;
+                final int end = minify ? endOfWord(html, pos) : nextTagOrEnd(html, pos);
+                out.append(html, pos, end);
+                pos = end;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Appends the tag from start to end, rewriting URL attributes if configured.
+     */
+    private void appendTag(final StringBuilder out, final String html, final int start, final int end) {
+        if (urlRewriter == null) {
+            out.append(html, start, end);
+            return;
+        }
+        int copyFrom = start;
+        int pos = start + 1;
+        // skip the tag name:
+        while (pos < end && !Character.isWhitespace(html.charAt(pos)) && html.charAt(pos) != '>') {
+            ++pos;
+        }
+        while (pos < end) {
+            while (pos < end && (Character.isWhitespace(html.charAt(pos)) || html.charAt(pos) == '/')) {
+                ++pos;
+            }
+            final int nameStart = pos;
+            while (pos < end && !Character.isWhitespace(html.charAt(pos)) && "=>/".indexOf(html.charAt(pos)) < 0) {
+                ++pos;
+            }
+            final int nameEnd = pos;
+            while (pos < end && Character.isWhitespace(html.charAt(pos))) {
+                ++pos;
+            }
+            if (pos >= end || html.charAt(pos) != '=') {
+                if (nameStart == nameEnd) {
+                    ++pos;
+                }
+                continue;
+            }
+            ++pos;
+            while (pos < end && Character.isWhitespace(html.charAt(pos))) {
+                ++pos;
+            }
+            final int valueStart;
+            final int valueEnd;
+            if (pos < end && (html.charAt(pos) == '"' || html.charAt(pos) == '\'')) {
+                final char quote = html.charAt(pos);
+                valueStart = pos + 1;
+                int closingQuote = html.indexOf(quote, valueStart);
+                valueEnd = closingQuote >= 0 && closingQuote < end ? closingQuote : end;
+                pos = valueEnd + 1;
+            } else {
+                valueStart = pos;
+                while (pos < end && !Character.isWhitespace(html.charAt(pos)) && html.charAt(pos) != '>') {
+                    ++pos;
+                }
+                valueEnd = pos;
+            }
+            if (isUrlAttribute(html, nameStart, nameEnd)) {
+                out.append(html, copyFrom, valueStart);
+                out.append(urlRewriter.apply(html.substring(valueStart, valueEnd)));
+                copyFrom = valueEnd;
+            }
+        }
+        out.append(html, copyFrom, end);
+    }
+
+    private static boolean isUrlAttribute(final String html, final int nameStart, final int nameEnd) {
+        for (final String attribute : URL_ATTRIBUTES) {
+            if (attribute.length() == nameEnd - nameStart && html.regionMatches(true, nameStart, attribute, 0, attribute.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the name of the raw-text element, if the tag starting at {@code tagStart} is a start tag of
+     * such an element, or null.
+     */
+    private static String rawTextElementAt(final String html, final int tagStart) {
+        for (final String element : RAW_TEXT_ELEMENTS) {
+            if (isTagNameAt(html, tagStart + 1, element)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static int endOfWord(final String html, final int from) {
+        final int length = html.length();
+        int pos = from;
+        while (pos < length && html.charAt(pos) != '<' && !Character.isWhitespace(html.charAt(pos))) {
+            ++pos;
+        }
+        return pos;
+    }
+
+    private static int nextTagOrEnd(final String html, final int from) {
+        final int next = indexOfTag(html, from);
+        return next >= 0 ? next : html.length();
+    }
+
+    @Override
+    public String toString() {
+        return "ContentPipeline{" +
+                "extractBody=" + extractBody +
+                ", stripComments=" + stripComments +
+                ", rewriteUrls=" + (urlRewriter != null) +
+                ", minify=" + minify +
+                '}';
+    }
+}
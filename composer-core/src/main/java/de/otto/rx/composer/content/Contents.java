@@ -1,63 +1,123 @@
 package de.otto.rx.composer.content;
 
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import de.otto.rx.composer.page.Page;
 
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-import static com.google.common.collect.ImmutableList.copyOf;
 import static com.google.common.collect.Maps.uniqueIndex;
 import static de.otto.rx.composer.content.MissingContent.missingContent;
+import static de.otto.rx.composer.content.PositionIndex.emptyPositionIndex;
 
 /**
  * Threadsafe container used to gather {@link Content}s when executing a {@link Page}.
+ * <p>
+ *     Contents of positions known by the {@link PositionIndex} of the page are stored in an array, using the
+ *     slot of the position. Getting the content of such a position is an array access, and if no content is
+ *     available, a shared {@link MissingContent} instance is returned. Contents of other positions are stored
+ *     in a map.
+ * </p>
  */
 public final class Contents {
 
     public static class Builder {
 
-        private final Queue<Content> results = new ConcurrentLinkedQueue<>();
+        private final PositionIndex positionIndex;
+        private final AtomicReferenceArray<Content> slots;
+        private final Queue<Content> unindexed = new ConcurrentLinkedQueue<>();
         private Statistics stats;
 
+        private Builder(final PositionIndex positionIndex) {
+            this.positionIndex = positionIndex;
+            this.slots = new AtomicReferenceArray<>(positionIndex.size());
+        }
+
         /**
          * Add a content item to the collection of contents if content is available.
+         * <p>
+         *     If more than one content is added for the same indexed position, the first one is kept.
+         * </p>
          *
          * @param content the added content item.
          * @return this
          */
         public Builder add(final Content content) {
             if (content.isAvailable()) {
-                results.add(content);
+                final int slot = positionIndex.slotOf(content.getPosition());
+                if (slot >= 0) {
+                    slots.compareAndSet(slot, null, content);
+                } else {
+                    unindexed.add(content);
+                }
             }
             return this;
         }
 
+        /**
+         * Returns the content added to the given slot of the PositionIndex so far, or null.
+         */
+        Content contentAt(final int slot) {
+            return slots.get(slot);
+        }
+
         public Builder setStats(Statistics stats) {
             this.stats = stats;
             return this;
         }
 
         public Contents build() {
+            final Content[] contents = new Content[slots.length()];
+            for (int i = 0; i < contents.length; i++) {
+                contents[i] = slots.get(i);
+            }
             return new Contents(
                     stats,
-                    uniqueIndex(results, (Content c) -> c.getPosition().name())
+                    positionIndex,
+                    contents,
+                    unindexed.isEmpty()
+                            ? ImmutableMap.of()
+                            : uniqueIndex(unindexed, (Content c) -> c.getPosition().name())
             );
         }
 
     }
 
     private final Statistics stats;
-    private final ImmutableMap<String, Content> results;
-
-    private Contents(final Statistics stats, final ImmutableMap<String, Content> results) {
+    private final PositionIndex positionIndex;
+    private final Content[] contents;
+    private final ImmutableMap<String, Content> unindexed;
+
+    private Contents(final Statistics stats,
+                     final PositionIndex positionIndex,
+                     final Content[] contents,
+                     final ImmutableMap<String, Content> unindexed) {
         this.stats = stats != null ? stats : Statistics.emptyStats();
-        this.results = results;
+        this.positionIndex = positionIndex;
+        this.contents = contents;
+        this.unindexed = unindexed;
     }
 
+    /**
+     * Creates a Builder for Contents of positions that are not known in advance.
+     *
+     * @return Builder
+     */
     public static Contents.Builder contentsBuilder() {
-        return new Builder();
+        return new Builder(emptyPositionIndex());
+    }
+
+    /**
+     * Creates a Builder for the Contents of a {@link Page}, using the PositionIndex of the page.
+     *
+     * @param positionIndex the index of the positions of the page
+     * @return Builder
+     */
+    public static Contents.Builder contentsBuilder(final PositionIndex positionIndex) {
+        return new Builder(positionIndex);
     }
 
     /**
@@ -67,7 +127,13 @@ public final class Contents {
      * @return Immutable collection of available contents.
      */
     public ImmutableCollection<Content> getAll() {
-        return copyOf(results.values());
+        final ImmutableList.Builder<Content> all = ImmutableList.builder();
+        for (final Content content : contents) {
+            if (content != null) {
+                all.add(content);
+            }
+        }
+        return all.addAll(unindexed.values()).build();
     }
 
     /**
@@ -78,13 +144,23 @@ public final class Contents {
      * @return possibly empty content
      */
     public Content get(final Position position) {
-        final Content content = results.get(position.name());
-        return content != null ? content : missingContent(position, stats.getStartedTs());
+        final int slot = positionIndex.slotOf(position);
+        if (slot >= 0) {
+            return contentAt(slot);
+        } else {
+            final Content content = unindexed.get(position.name());
+            return content != null ? content : missingContent(position, stats.getStartedTs());
+        }
     }
 
     public Content get(final String position) {
-        final Content content = results.get(position);
-        return content != null ? content : missingContent(() -> position, stats.getStartedTs());
+        final int slot = positionIndex.slotOf(position);
+        if (slot >= 0) {
+            return contentAt(slot);
+        } else {
+            final Content content = unindexed.get(position);
+            return content != null ? content : missingContent(() -> position, stats.getStartedTs());
+        }
     }
 
     /**
@@ -107,4 +183,9 @@ public final class Contents {
         return stats;
     }
 
+    private Content contentAt(final int slot) {
+        final Content content = contents[slot];
+        return content != null ? content : positionIndex.missingContentAt(slot);
+    }
+
 }
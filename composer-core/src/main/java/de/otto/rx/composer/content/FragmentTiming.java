@@ -0,0 +1,179 @@
+package de.otto.rx.composer.content;
+
+/**
+ * Timing information about fetching the content of a single {@link Position} of a page.
+ * <p>
+ *     All timestamps are given in milliseconds, relative to the start of the page. Timestamps that are
+ *     not available (for example, the first byte of content that is not fetched using HTTP), are -1.
+ * </p>
+ */
+public final class FragmentTiming {
+
+    private final String position;
+    private final String dependsOn;
+    private final long startedMillis;
+    private final long firstByteMillis;
+    private final long completedMillis;
+    private final long queuedMillis;
+    private final int numRetries;
+    private final long fallbackMillis;
+    private final boolean available;
+    private final boolean failed;
+
+    private FragmentTiming(final TimingBuilder builder, final long queuedMillis) {
+        this.position = builder.position;
+        this.dependsOn = builder.dependsOn;
+        this.startedMillis = builder.startedMillis;
+        this.firstByteMillis = builder.firstByteMillis;
+        this.completedMillis = builder.completedMillis;
+        this.queuedMillis = queuedMillis;
+        this.numRetries = builder.numRetries;
+        this.fallbackMillis = builder.fallbackMillis;
+        this.available = builder.available;
+        this.failed = builder.failed;
+    }
+
+    /**
+     * The name of the position.
+     *
+     * @return position name
+     */
+    public String getPosition() {
+        return position;
+    }
+
+    /**
+     * The name of the position that had to be fetched before this position was started, or an empty String,
+     * if the position was started together with the page.
+     *
+     * @return name of the preceding position
+     */
+    public String getDependsOn() {
+        return dependsOn;
+    }
+
+    public long getStartedMillis() {
+        return startedMillis;
+    }
+
+    public long getFirstByteMillis() {
+        return firstByteMillis;
+    }
+
+    public long getCompletedMillis() {
+        return completedMillis;
+    }
+
+    /**
+     * The time between the completion of the preceding position (or the start of the page) and the start of
+     * this position.
+     *
+     * @return queueing time in milliseconds
+     */
+    public long getQueuedMillis() {
+        return queuedMillis;
+    }
+
+    /**
+     * The time between start and completion of this position, or -1 if the position did not complete.
+     *
+     * @return duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return startedMillis >= 0 && completedMillis >= 0 ? completedMillis - startedMillis : -1;
+    }
+
+    public int getNumRetries() {
+        return numRetries;
+    }
+
+    /**
+     * The time spent to fetch fallback content.
+     *
+     * @return fallback time in milliseconds
+     */
+    public long getFallbackMillis() {
+        return fallbackMillis;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "FragmentTiming{" +
+                "position='" + position + '\'' +
+                ", dependsOn='" + dependsOn + '\'' +
+                ", startedMillis=" + startedMillis +
+                ", firstByteMillis=" + firstByteMillis +
+                ", completedMillis=" + completedMillis +
+                ", queuedMillis=" + queuedMillis +
+                ", numRetries=" + numRetries +
+                ", fallbackMillis=" + fallbackMillis +
+                ", available=" + available +
+                ", failed=" + failed +
+                '}';
+    }
+
+    /**
+     * Mutable builder used to gather the timing of a position.
+     */
+    public static class TimingBuilder {
+        public final String position;
+        public String dependsOn = "";
+        public long startedMillis = -1;
+        public long firstByteMillis = -1;
+        public long completedMillis = -1;
+        public long fallbackStartedMillis = -1;
+        public int numRetries = 0;
+        public long fallbackMillis = 0;
+        public boolean available = false;
+        public boolean failed = false;
+
+        TimingBuilder(final String position) {
+            this.position = position;
+        }
+
+        /**
+         * Records the start of the position. If the position is started multiple times, the first start is used.
+         *
+         * @param millis milliseconds since the start of the page.
+         */
+        public void started(final long millis) {
+            if (startedMillis < 0 || millis < startedMillis) {
+                startedMillis = millis;
+            }
+        }
+
+        /**
+         * Records the first byte received for the position. The earliest response is used.
+         *
+         * @param millis milliseconds since the start of the page.
+         */
+        public void firstByte(final long millis) {
+            if (firstByteMillis < 0 || millis < firstByteMillis) {
+                firstByteMillis = millis;
+            }
+        }
+
+        /**
+         * Records the completion of the position. The latest completion is used.
+         *
+         * @param millis milliseconds since the start of the page.
+         */
+        public void completed(final long millis) {
+            if (millis > completedMillis) {
+                completedMillis = millis;
+            }
+        }
+
+        FragmentTiming build(final long queuedMillis) {
+            return new FragmentTiming(this, queuedMillis);
+        }
+    }
+}
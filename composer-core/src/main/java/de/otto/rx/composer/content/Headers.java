@@ -78,6 +78,15 @@ public final class Headers {
         return values != null ? values : ImmutableList.of();
     }
 
+    /**
+     * Returns all headers as an immutable map with lower-case keys.
+     *
+     * @return immutable map of headers
+     */
+    public ImmutableMap<String, ImmutableList<String>> asImmutableMap() {
+        return headers;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,306 @@
+package de.otto.rx.composer.content;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A single-pass scanner used to extract the content of HTML elements like &lt;body&gt; or &lt;head&gt;.
+ * <p>
+ *     In contrast to regular expressions, the scanner is running in linear time, also for malformed HTML, and it
+ *     is only allocating the extracted result. It is not a full HTML parser: elements of the same name must not
+ *     be nested. The scanner is
+ * </p>
+ * <ul>
+ *     <li>matching tag names case-insensitive,</li>
+ *     <li>skipping &lt;!-- comments --&gt;,</li>
+ *     <li>skipping quoted attribute values, that may contain '&gt;' characters,</li>
+ *     <li>concatenating the contents of all elements with the requested name, and</li>
+ *     <li>returning the remaining document, if an element is not closed.</li>
+ * </ul>
+ * <p>
+ *     Because tags only consist of ASCII characters, that are never part of multi-byte UTF-8 sequences, the scanner
+ *     is also able to operate on {@link ByteBuffer byte buffers} containing UTF-8 encoded HTML without decoding them.
+ * </p>
+ */
+public final class HtmlScanner {
+
+    private HtmlScanner() {
+    }
+
+    /**
+     * Returns the concatenated contents of all &lt;body&gt; elements, or the html itself if there is no
+     * body element.
+     *
+     * @param html the HTML document or fragment
+     * @return body
+     */
+    public static String bodyOf(final CharSequence html) {
+        final String body = contentOf(html, "body");
+        return body != null ? body : html.toString();
+    }
+
+    /**
+     * Returns the concatenated contents of all &lt;body&gt; elements of a UTF-8 encoded document, or the
+     * remaining bytes of the buffer if there is no body element.
+     * <p>
+     *     If there is a single body element, the returned buffer is sharing the content of the buffer.
+     *     The position of {@code utf8Html} is not changed.
+     * </p>
+     *
+     * @param utf8Html UTF-8 encoded HTML
+     * @return buffer containing the UTF-8 encoded body
+     */
+    public static ByteBuffer bodyOf(final ByteBuffer utf8Html) {
+        final Ranges ranges = scan(new ByteSequence(utf8Html), "body");
+        if (ranges.size == 0) {
+            return utf8Html.slice();
+        } else if (ranges.size == 1) {
+            return slice(utf8Html, ranges.start(0), ranges.end(0));
+        } else {
+            final ByteBuffer body = ByteBuffer.allocate(ranges.totalLength());
+            for (int i = 0; i < ranges.size; ++i) {
+                body.put(slice(utf8Html, ranges.start(i), ranges.end(i)));
+            }
+            body.flip();
+            return body;
+        }
+    }
+
+    /**
+     * Returns the content of the &lt;head&gt; element, or an empty String if there is no head element.
+     *
+     * @param html the HTML document
+     * @return head
+     */
+    public static String headOf(final CharSequence html) {
+        final String head = contentOf(html, "head");
+        return head != null ? head : "";
+    }
+
+    /**
+     * Returns the concatenated contents of all elements with the given tag name, or null if there is no
+     * such element.
+     *
+     * @param html the HTML document or fragment
+     * @param tagName the lower-case name of the element, for example "section"
+     * @return content or null
+     */
+    public static String contentOf(final CharSequence html, final String tagName) {
+        final Ranges ranges = scan(html, tagName);
+        if (ranges.size == 0) {
+            return null;
+        } else if (ranges.size == 1) {
+            return html.subSequence(ranges.start(0), ranges.end(0)).toString();
+        } else {
+            final StringBuilder sb = new StringBuilder(ranges.totalLength());
+            for (int i = 0; i < ranges.size; ++i) {
+                sb.append(html, ranges.start(i), ranges.end(i));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Scans the html and returns the ranges of the contents of all elements with the given tag name.
+     */
+    private static Ranges scan(final CharSequence html, final String tagName) {
+        final Ranges ranges = new Ranges();
+        final int length = html.length();
+        int pos = 0;
+        while (pos < length) {
+            final int contentStart = findStartTag(html, tagName, pos);
+            if (contentStart < 0) {
+                break;
+            }
+            final int contentEnd = findEndTag(html, tagName, contentStart);
+            if (contentEnd < 0) {
+                ranges.add(contentStart, length);
+                break;
+            }
+            ranges.add(contentStart, contentEnd);
+            pos = contentEnd + tagName.length() + 2;
+        }
+        return ranges;
+    }
+
+    /**
+     * Returns the index after the start tag of the element, or -1 if there is no such start tag.
+     */
+    static int findStartTag(final CharSequence html, final String tagName, final int from) {
+        int pos = indexOfTag(html, from);
+        while (pos >= 0) {
+            if (isCommentAt(html, pos)) {
+                pos = indexOfTag(html, skipComment(html, pos));
+            } else if (isTagNameAt(html, pos + 1, tagName)) {
+                return skipTag(html, pos + 1 + tagName.length());
+            } else {
+                pos = indexOfTag(html, pos + 1);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the '&lt;' of the end tag of the element, or -1 if there is no such end tag.
+     */
+    static int findEndTag(final CharSequence html, final String tagName, final int from) {
+        int pos = indexOfTag(html, from);
+        while (pos >= 0 && pos < html.length() - 1) {
+            if (isCommentAt(html, pos)) {
+                pos = indexOfTag(html, skipComment(html, pos));
+            } else if (html.charAt(pos + 1) == '/' && isTagNameAt(html, pos + 2, tagName)) {
+                return pos;
+            } else {
+                pos = indexOfTag(html, pos + 1);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the next '&lt;', or -1. Strings are using the intrinsic {@link String#indexOf(int, int)}.
+     */
+    static int indexOfTag(final CharSequence html, final int from) {
+        if (html instanceof String) {
+            return ((String) html).indexOf('<', from);
+        }
+        final int length = html.length();
+        for (int pos = from; pos < length; ++pos) {
+            if (html.charAt(pos) == '<') {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true, if the tag name is found at the given index, followed by whitespace, '&gt;' or '/'.
+     */
+    static boolean isTagNameAt(final CharSequence html, final int pos, final String tagName) {
+        final int end = pos + tagName.length();
+        if (end >= html.length()) {
+            return false;
+        }
+        for (int i = 0; i < tagName.length(); ++i) {
+            if (Character.toLowerCase(html.charAt(pos + i)) != tagName.charAt(i)) {
+                return false;
+            }
+        }
+        final char next = html.charAt(end);
+        return next == '>' || next == '/' || Character.isWhitespace(next);
+    }
+
+    /**
+     * Skips the attributes of a tag and returns the index after the closing '&gt;', or the length of the
+     * html if the tag is not closed.
+     */
+    static int skipTag(final CharSequence html, final int from) {
+        final int length = html.length();
+        char quote = 0;
+        for (int pos = from; pos < length; ++pos) {
+            final char c = html.charAt(pos);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return pos + 1;
+            }
+        }
+        return length;
+    }
+
+    static boolean isCommentAt(final CharSequence html, final int pos) {
+        return pos + 3 < html.length()
+                && html.charAt(pos + 1) == '!'
+                && html.charAt(pos + 2) == '-'
+                && html.charAt(pos + 3) == '-';
+    }
+
+    /**
+     * Returns the index after the end of the comment starting at the given index, or the length of the html if
+     * the comment is not closed.
+     */
+    static int skipComment(final CharSequence html, final int from) {
+        final int length = html.length();
+        for (int pos = from + 4; pos < length - 2; ++pos) {
+            if (html.charAt(pos) == '-' && html.charAt(pos + 1) == '-' && html.charAt(pos + 2) == '>') {
+                return pos + 3;
+            }
+        }
+        return length;
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int start, final int end) {
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(buffer.position() + start);
+        duplicate.limit(buffer.position() + end);
+        return duplicate.slice();
+    }
+
+    /**
+     * Start and end indexes of the extracted contents.
+     */
+    private static final class Ranges {
+        private int[] bounds = new int[2];
+        private int size;
+
+        void add(final int start, final int end) {
+            if (2 * size == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[2 * size] = start;
+            bounds[2 * size + 1] = end;
+            ++size;
+        }
+
+        int start(final int i) {
+            return bounds[2 * i];
+        }
+
+        int end(final int i) {
+            return bounds[2 * i + 1];
+        }
+
+        int totalLength() {
+            int length = 0;
+            for (int i = 0; i < size; ++i) {
+                length += end(i) - start(i);
+            }
+            return length;
+        }
+    }
+
+    /**
+     * A CharSequence view of the remaining bytes of a buffer. Bytes of multi-byte UTF-8 sequences are mapped to
+     * chars &gt;= 0x80, that are never matching the ASCII characters of tags.
+     */
+    private static final class ByteSequence implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+
+        ByteSequence(final ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.offset = buffer.position();
+            this.length = buffer.remaining();
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
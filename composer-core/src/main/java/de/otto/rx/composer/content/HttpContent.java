@@ -1,5 +1,6 @@
 package de.otto.rx.composer.content;
 
+import de.otto.rx.composer.client.TimedResponse;
 import de.otto.rx.composer.page.Page;
 
 import javax.ws.rs.core.Response;
@@ -8,7 +9,9 @@ import java.util.Objects;
 import static de.otto.rx.composer.content.ErrorContent.errorContent;
 import static de.otto.rx.composer.content.ErrorContent.httpErrorContent;
 import static de.otto.rx.composer.content.Headers.of;
+import static de.otto.rx.composer.content.PhaseTimings.phaseTimings;
 import static java.lang.String.format;
+import static java.lang.System.nanoTime;
 
 public final class HttpContent extends SingleContent {
 
@@ -19,6 +22,7 @@ public final class HttpContent extends SingleContent {
     private final boolean available;
     private final long startedTs;
     private final long completedTs = System.currentTimeMillis();
+    private final PhaseTimings phaseTimings;
 
     /**
      * Create a HttpContent element, representing {@link Content} retrieved from a (micro)service.
@@ -30,10 +34,13 @@ public final class HttpContent extends SingleContent {
     private HttpContent(final String source,
                         final Position position,
                         final Response response,
-                        final long startedTs) {
+                        final long startedTs,
+                        final long subscribedNanos) {
         this.source = source;
         this.position = position;
+        final long bodyReadStartedNanos = nanoTime();
         this.body = response.readEntity(String.class);
+        this.phaseTimings = phaseTimingsOf(response, subscribedNanos, nanoTime() - bodyReadStartedNanos);
         this.available = response.getStatus() < 300 && body != null && !body.isEmpty();
         this.headers = of(response.getStringHeaders());
         this.startedTs = startedTs;
@@ -53,6 +60,28 @@ public final class HttpContent extends SingleContent {
                                       final Position position,
                                       final Response response,
                                       final long startedTs) {
+        return httpContent(source, position, response, startedTs, -1);
+    }
+
+    /**
+     * Create a Content element, representing {@link Content} retrieved from a (micro)service, including the
+     * {@link PhaseTimings} of the request.
+     * <p>
+     *     Depending on the HTTP response status, an ErrorContent or HttpContent instance is created.
+     * </p>
+     *
+     * @param source The URI of the requested service
+     * @param position The content position inside of the {@link Page}.
+     * @param response The HTTP response returned from a different (micro)service.
+     * @param startedTs The time stamp when fetching the content was started.
+     * @param subscribedNanos The {@link System#nanoTime() nanoTime} when the request was subscribed, before
+     *                        waiting for a scheduler thread, or -1 if unknown.
+     */
+    public static Content httpContent(final String source,
+                                      final Position position,
+                                      final Response response,
+                                      final long startedTs,
+                                      final long subscribedNanos) {
         final Content content;
         switch (response.getStatusInfo().getFamily()) {
             case CLIENT_ERROR:
@@ -69,7 +98,7 @@ public final class HttpContent extends SingleContent {
                         startedTs);
                 break;
             default:
-                content = new HttpContent(source, position, response, startedTs);
+                content = new HttpContent(source, position, response, startedTs, subscribedNanos);
                 break;
         }
         return content;
@@ -131,6 +160,15 @@ public final class HttpContent extends SingleContent {
         return headers;
     }
 
+    /**
+     * The durations of the different phases of fetching the content.
+     *
+     * @return PhaseTimings
+     */
+    public PhaseTimings getPhaseTimings() {
+        return phaseTimings;
+    }
+
     @Override
     public long getStartedTs() {
         return startedTs;
@@ -149,6 +187,25 @@ public final class HttpContent extends SingleContent {
         return completedTs;
     }
 
+    private static PhaseTimings phaseTimingsOf(final Response response,
+                                               final long subscribedNanos,
+                                               final long bodyReadNanos) {
+        if (response instanceof TimedResponse) {
+            final TimedResponse timed = (TimedResponse) response;
+            return phaseTimings(
+                    subscribedNanos >= 0 ? timed.getSubscribedNanos() - subscribedNanos : -1,
+                    between(timed.getSubscribedNanos(), timed.getRequestSentNanos()),
+                    between(timed.getRequestSentNanos(), timed.getResponseReceivedNanos()),
+                    bodyReadNanos);
+        } else {
+            return phaseTimings(-1, -1, -1, bodyReadNanos);
+        }
+    }
+
+    private static long between(final long fromNanos, final long toNanos) {
+        return fromNanos >= 0 && toNanos >= 0 ? toNanos - fromNanos : -1;
+    }
+
     @Override
     public String toString() {
         return "HttpContent{" +
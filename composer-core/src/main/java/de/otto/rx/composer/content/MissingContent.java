@@ -2,15 +2,11 @@ package de.otto.rx.composer.content;
 
 import de.otto.rx.composer.page.Page;
 import de.otto.rx.composer.providers.ContentProvider;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import static de.otto.rx.composer.content.Headers.emptyHeaders;
 
 public final class MissingContent extends SingleContent {
 
-    private static final Logger LOG = LoggerFactory.getLogger(MissingContent.class);
-
     private final Position position;
     private final long startedTs;
     private final long completedTs;
@@ -19,7 +15,6 @@ public final class MissingContent extends SingleContent {
         this.position = position;
         this.startedTs = ts;
         this.completedTs = ts;
-        LOG.info("Created MissingContent for position {}", position.name());
     }
 
     public static MissingContent missingContent(final Position position, final long ts) {
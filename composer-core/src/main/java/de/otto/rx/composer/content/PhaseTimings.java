@@ -0,0 +1,81 @@
+package de.otto.rx.composer.content;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The durations of the different phases of fetching {@link HttpContent}.
+ * <p>
+ *     All durations are measured using {@link System#nanoTime()}. Durations that are unknown - for example, because
+ *     the response was not returned by the {@link de.otto.rx.composer.client.HttpServiceClient} - are -1.
+ * </p>
+ * <ul>
+ *     <li>{@code queueWait}: waiting for a thread of the scheduler used to execute the request.</li>
+ *     <li>{@code poolWait}: waiting for a thread of the HTTP client.</li>
+ *     <li>{@code server}: connecting, server processing and receiving status and headers of the response.</li>
+ *     <li>{@code bodyRead}: reading and decoding the body of the response.</li>
+ * </ul>
+ * <p>
+ *     Large queueWait or poolWait durations indicate saturation of the composer, while large server
+ *     durations indicate slow services.
+ * </p>
+ */
+public final class PhaseTimings {
+
+    private static final PhaseTimings UNKNOWN = new PhaseTimings(-1, -1, -1, -1);
+
+    private final long queueWaitNanos;
+    private final long poolWaitNanos;
+    private final long serverNanos;
+    private final long bodyReadNanos;
+
+    private PhaseTimings(final long queueWaitNanos,
+                         final long poolWaitNanos,
+                         final long serverNanos,
+                         final long bodyReadNanos) {
+        this.queueWaitNanos = queueWaitNanos;
+        this.poolWaitNanos = poolWaitNanos;
+        this.serverNanos = serverNanos;
+        this.bodyReadNanos = bodyReadNanos;
+    }
+
+    public static PhaseTimings phaseTimings(final long queueWaitNanos,
+                                            final long poolWaitNanos,
+                                            final long serverNanos,
+                                            final long bodyReadNanos) {
+        return new PhaseTimings(queueWaitNanos, poolWaitNanos, serverNanos, bodyReadNanos);
+    }
+
+    public static PhaseTimings unknownPhaseTimings() {
+        return UNKNOWN;
+    }
+
+    public long getQueueWaitNanos() {
+        return queueWaitNanos;
+    }
+
+    public long getPoolWaitNanos() {
+        return poolWaitNanos;
+    }
+
+    public long getServerNanos() {
+        return serverNanos;
+    }
+
+    public long getBodyReadNanos() {
+        return bodyReadNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PhaseTimings{" +
+                "queueWaitMillis=" + millis(queueWaitNanos) +
+                ", poolWaitMillis=" + millis(poolWaitNanos) +
+                ", serverMillis=" + millis(serverNanos) +
+                ", bodyReadMillis=" + millis(bodyReadNanos) +
+                '}';
+    }
+
+    private static long millis(final long nanos) {
+        return nanos >= 0 ? NANOSECONDS.toMillis(nanos) : -1;
+    }
+}
@@ -0,0 +1,112 @@
+package de.otto.rx.composer.content;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import de.otto.rx.composer.page.Page;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static de.otto.rx.composer.content.MissingContent.missingContent;
+
+/**
+ * Assigns dense integer slots to the {@link Position positions} of a {@link Page}.
+ * <p>
+ *     The index is computed once, when the Page is created. {@link Contents} are using the slots to store the
+ *     fetched contents in an array, instead of building a map for every request. The {@link Position#name() names}
+ *     of the positions must be unique.
+ * </p>
+ * <p>
+ *     For every slot, an immutable {@link MissingContent} is created up front, that is returned by
+ *     {@link Contents#get(Position)} if no content is available for the position. Because these instances are
+ *     shared by all requests of the page, their started and completed timestamps are always 0 and do not
+ *     carry any timing information.
+ * </p>
+ */
+public final class PositionIndex {
+
+    private static final PositionIndex EMPTY_POSITION_INDEX = new PositionIndex(ImmutableList.of());
+
+    private final ImmutableMap<String, Integer> slots;
+    private final ImmutableList<MissingContent> missingContents;
+
+    private PositionIndex(final Iterable<? extends Position> positions) {
+        final Map<String, Integer> slots = new LinkedHashMap<>();
+        final ImmutableList.Builder<MissingContent> missingContents = ImmutableList.builder();
+        for (final Position position : positions) {
+            checkArgument(!slots.containsKey(position.name()), "Duplicate position %s", position.name());
+            slots.put(position.name(), slots.size());
+            missingContents.add(missingContent(position, 0L));
+        }
+        this.slots = ImmutableMap.copyOf(slots);
+        this.missingContents = missingContents.build();
+    }
+
+    /**
+     * Creates a PositionIndex for the given positions. The slots are assigned in iteration order.
+     *
+     * @param positions the positions of a page
+     * @return PositionIndex
+     * @throws IllegalArgumentException if two positions have the same name
+     */
+    public static PositionIndex positionIndex(final Iterable<? extends Position> positions) {
+        return new PositionIndex(positions);
+    }
+
+    /**
+     * Returns a PositionIndex without any positions.
+     *
+     * @return empty PositionIndex
+     */
+    public static PositionIndex emptyPositionIndex() {
+        return EMPTY_POSITION_INDEX;
+    }
+
+    /**
+     * The number of slots of the index.
+     *
+     * @return number of slots
+     */
+    public int size() {
+        return missingContents.size();
+    }
+
+    /**
+     * Returns the slot of the position, or -1 if the position is not indexed.
+     *
+     * @param position the position
+     * @return slot or -1
+     */
+    public int slotOf(final Position position) {
+        return slotOf(position.name());
+    }
+
+    /**
+     * Returns the slot of the position with the given name, or -1 if the position is not indexed.
+     *
+     * @param positionName the name of the position
+     * @return slot or -1
+     */
+    public int slotOf(final String positionName) {
+        final Integer slot = slots.get(positionName);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Returns the shared MissingContent of a slot. The timestamps of the MissingContent are 0.
+     *
+     * @param slot the slot
+     * @return MissingContent
+     */
+    MissingContent missingContentAt(final int slot) {
+        return missingContents.get(slot);
+    }
+
+    @Override
+    public String toString() {
+        return "PositionIndex{" +
+                "slots=" + slots +
+                '}';
+    }
+}
@@ -1,7 +1,17 @@
 package de.otto.rx.composer.content;
 
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.FragmentTiming.TimingBuilder;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.reverse;
 import static java.lang.System.currentTimeMillis;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -20,11 +30,15 @@ public class Statistics {
     private final String slowestFragment;
     private final int numFallbacksRequested;
     private final int numNonEmptyFallbacks;
+    private final ImmutableList<FragmentTiming> timeline;
+    private final ImmutableList<String> criticalPath;
+    private final long criticalPathMillis;
 
     Statistics(final long startedTs, final int numRequested, final int numEmpty, final int numErrors,
                final int numNonEmpty, final long avgNonEmptyMillis, final long slowestNonEmptyMillis,
                final long runtime, final String slowestFragment, final int numFallbacksRequested,
-               final int numNonEmptyFallbacks) {
+               final int numNonEmptyFallbacks, final ImmutableList<FragmentTiming> timeline,
+               final ImmutableList<String> criticalPath, final long criticalPathMillis) {
         this.startedTs = startedTs;
         this.numRequested = numRequested;
         this.numEmpty = numEmpty;
@@ -36,6 +50,9 @@ public class Statistics {
         this.slowestFragment = slowestFragment;
         this.numFallbacksRequested = numFallbacksRequested;
         this.numNonEmptyFallbacks = numNonEmptyFallbacks;
+        this.timeline = timeline;
+        this.criticalPath = criticalPath;
+        this.criticalPathMillis = criticalPathMillis;
     }
 
     public static Statistics emptyStats() {
@@ -94,6 +111,35 @@ public class Statistics {
         return numNonEmptyFallbacks;
     }
 
+    /**
+     * Returns the timing of every {@link Position} of the page, in the order the positions were started.
+     *
+     * @return list of FragmentTimings
+     */
+    public ImmutableList<FragmentTiming> getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Returns the names of the positions on the critical path of the page: the chain of positions - connected
+     * by continuations of nested fragments - that ends with the position completed last.
+     *
+     * @return names of the positions on the critical path, starting with the first position.
+     */
+    public ImmutableList<String> getCriticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * Returns the time between the start of the page and the completion of the last position on the
+     * {@link #getCriticalPath() critical path}.
+     *
+     * @return runtime of the critical path in milliseconds
+     */
+    public long getCriticalPathMillis() {
+        return criticalPathMillis;
+    }
+
     public void logStats() {
         LOG.info(toString());
     }
@@ -112,6 +158,8 @@ public class Statistics {
                 ", slowestFragment='" + slowestFragment + '\'' +
                 ", numFallbacksRequested=" + numFallbacksRequested +
                 ", numNonEmptyFallbacks=" + numNonEmptyFallbacks +
+                ", criticalPath=" + criticalPath +
+                ", criticalPathMillis=" + criticalPathMillis +
                 '}';
     }
 
@@ -127,13 +175,49 @@ public class Statistics {
         public String slowestFragment = "";
         public int numFallbacksRequested = 0;
         public int numNonEmptyFallbacks = 0;
+        public final Map<String, TimingBuilder> timings = new LinkedHashMap<>();
 
         private StatsBuilder() {
         }
 
+        /**
+         * Returns the TimingBuilder for the given position, creating it if necessary.
+         *
+         * @param position name of the position
+         * @return TimingBuilder
+         */
+        public TimingBuilder timingOf(final String position) {
+            return timings.computeIfAbsent(position, TimingBuilder::new);
+        }
+
         public Statistics build() {
             final long avgNonEmptyMillis = numNonEmpty != 0L ? sumNonEmptyMillis / numNonEmpty : 0L;
-            return new Statistics(startedTs, numRequested, numEmpty, numErrors, numNonEmpty, avgNonEmptyMillis, slowestNonEmptyMillis, runtime, slowestFragment, numFallbacksRequested, numNonEmptyFallbacks);
+            final ImmutableList.Builder<FragmentTiming> timeline = ImmutableList.builder();
+            TimingBuilder last = null;
+            for (final TimingBuilder timing : timings.values()) {
+                final TimingBuilder preceding = timings.get(timing.dependsOn);
+                final long queuedSince = preceding != null && preceding.completedMillis >= 0 ? preceding.completedMillis : 0;
+                timeline.add(timing.build(timing.startedMillis >= 0 ? Math.max(0, timing.startedMillis - queuedSince) : 0));
+                if (last == null || timing.completedMillis > last.completedMillis) {
+                    last = timing;
+                }
+            }
+            final ImmutableList<String> criticalPath = criticalPathTo(last);
+            final long criticalPathMillis = last != null ? Math.max(0, last.completedMillis) : 0;
+            return new Statistics(startedTs, numRequested, numEmpty, numErrors, numNonEmpty, avgNonEmptyMillis,
+                    slowestNonEmptyMillis, runtime, slowestFragment, numFallbacksRequested, numNonEmptyFallbacks,
+                    timeline.build(), criticalPath, criticalPathMillis);
+        }
+
+        private ImmutableList<String> criticalPathTo(final TimingBuilder last) {
+            final List<String> path = new ArrayList<>();
+            final Set<String> visited = new HashSet<>();
+            TimingBuilder current = last;
+            while (current != null && visited.add(current.position)) {
+                path.add(current.position);
+                current = timings.get(current.dependsOn);
+            }
+            return ImmutableList.copyOf(reverse(path));
         }
     }
 
@@ -0,0 +1,250 @@
+package de.otto.rx.composer.content;
+
+import com.google.common.collect.ImmutableCollection;
+import de.otto.rx.composer.page.Page;
+import org.slf4j.Logger;
+import rx.Observable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static de.otto.rx.composer.content.Contents.contentsBuilder;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Threadsafe container of the {@link Content}s of a {@link Page} that is still executed.
+ * <p>
+ *     In contrast to {@link Contents}, StreamingContents are available as soon as the execution of the page
+ *     has started. Getting the content of a position is blocking only until the content for this position has
+ *     arrived, or until the execution of the page is completed. This way, rendering a page can overlap with
+ *     fetching the contents of the page.
+ * </p>
+ * <p>
+ *     Lazy positions are only fetched when their content is requested for the first time, or when they are
+ *     {@link #prefetch(Position) prefetched}.
+ * </p>
+ * <p>
+ *     Positions that are not part of the {@link PositionIndex} of the page, as well as {@link #getAll()} and
+ *     {@link #getStats()}, are waiting for the completion of the page.
+ * </p>
+ */
+public final class StreamingContents {
+
+    private static final Logger LOG = getLogger(StreamingContents.class);
+
+    private final PositionIndex positionIndex;
+    private final Contents.Builder builder;
+    private final CountDownLatch[] arrived;
+    private final boolean[] lazySlots;
+    private final AtomicReferenceArray<Observable<Content>> lazyContents;
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final CompletableFuture<Contents> completion = new CompletableFuture<>();
+    private volatile Contents contents;
+
+    private StreamingContents(final PositionIndex positionIndex) {
+        this.positionIndex = positionIndex;
+        this.builder = contentsBuilder(positionIndex);
+        this.arrived = new CountDownLatch[positionIndex.size()];
+        this.lazySlots = new boolean[positionIndex.size()];
+        this.lazyContents = new AtomicReferenceArray<>(positionIndex.size());
+        for (int i = 0; i < arrived.length; i++) {
+            arrived[i] = new CountDownLatch(1);
+        }
+    }
+
+    /**
+     * Creates StreamingContents for the positions of a page.
+     *
+     * @param positionIndex the index of the positions of the page
+     * @return StreamingContents
+     */
+    public static StreamingContents streamingContents(final PositionIndex positionIndex) {
+        return new StreamingContents(positionIndex);
+    }
+
+    /**
+     * Adds a content and releases the threads waiting for the position of the content, if the content is available.
+     *
+     * @param content the added content item.
+     */
+    public void add(final Content content) {
+        builder.add(content);
+        if (content.isAvailable()) {
+            final int slot = positionIndex.slotOf(content.getPosition());
+            if (slot >= 0) {
+                arrived[slot].countDown();
+            }
+        }
+    }
+
+    /**
+     * Registers the content of a position that is only fetched, if the content of the position is requested, or if
+     * the position is {@link #prefetch(Position) prefetched}.
+     * <p>
+     *     Lazy positions must be registered before the StreamingContents are shared with other threads.
+     * </p>
+     *
+     * @param position the lazy position, which must be part of the PositionIndex
+     * @param content the cold observable used to fetch the content
+     */
+    public void addLazy(final Position position, final Observable<Content> content) {
+        final int slot = positionIndex.slotOf(position);
+        checkArgument(slot >= 0, "Lazy position %s is not part of the PositionIndex", position.name());
+        lazySlots[slot] = true;
+        lazyContents.set(slot, content);
+    }
+
+    /**
+     * Starts to fetch the content of a lazy position without waiting for the result. Nothing happens, if the
+     * position is not lazy or already fetched.
+     *
+     * @param position the content position
+     */
+    public void prefetch(final Position position) {
+        final int slot = positionIndex.slotOf(position);
+        if (slot >= 0) {
+            fetchLazy(slot);
+        }
+    }
+
+    /**
+     * Completes the contents and releases all threads waiting for positions that are not lazy.
+     *
+     * @param stats the statistics of the page execution
+     */
+    public void complete(final Statistics stats) {
+        contents = builder.setStats(stats).build();
+        completed.countDown();
+        completion.complete(contents);
+        for (int slot = 0; slot < arrived.length; slot++) {
+            if (!lazySlots[slot]) {
+                arrived[slot].countDown();
+            }
+        }
+    }
+
+    /**
+     * @return true, if the execution of the page is completed.
+     */
+    public boolean isCompleted() {
+        return contents != null;
+    }
+
+    /**
+     * Waits for the completion of the page and returns all Contents.
+     *
+     * @return Contents
+     */
+    public Contents awaitAll() {
+        await(completed);
+        return snapshot();
+    }
+
+    /**
+     * Returns a CompletionStage that is completed with all Contents when the page is completed, without blocking
+     * the calling thread.
+     *
+     * @return CompletionStage of the Contents
+     */
+    public CompletionStage<Contents> whenCompleted() {
+        return completion;
+    }
+
+    /**
+     * Returns the Contents that have arrived so far, without waiting for the completion of the page.
+     * <p>
+     *     If the page is not yet completed, the returned Contents have no statistics.
+     * </p>
+     *
+     * @return Contents
+     */
+    public Contents snapshot() {
+        return contents != null ? contents : builder.build();
+    }
+
+    /**
+     * Returns the {@link Content} for the specified {@link Position} as soon as it has arrived, or
+     * {@link MissingContent empty content} if the page is completed without content for the position.
+     *
+     * @param position the content position
+     * @return possibly empty content
+     */
+    public Content get(final Position position) {
+        final int slot = positionIndex.slotOf(position);
+        if (slot >= 0) {
+            return contentAt(slot);
+        } else {
+            return awaitAll().get(position);
+        }
+    }
+
+    public Content get(final String position) {
+        final int slot = positionIndex.slotOf(position);
+        if (slot >= 0) {
+            return contentAt(slot);
+        } else {
+            return awaitAll().get(position);
+        }
+    }
+
+    /**
+     * Returns the body of the {@link Content} for the specified {@link Position} as soon as it has arrived.
+     *
+     * @param position the content position
+     * @return body or empty string
+     */
+    public String getBody(final Position position) {
+        return get(position).getBody();
+    }
+
+    /**
+     * Waits for the completion of the page and returns all available contents.
+     *
+     * @return Immutable collection of available contents.
+     */
+    public ImmutableCollection<Content> getAll() {
+        return awaitAll().getAll();
+    }
+
+    /**
+     * Waits for the completion of the page and returns execution-time statistics of the whole page.
+     *
+     * @return Stats
+     */
+    public Statistics getStats() {
+        return awaitAll().getStats();
+    }
+
+    private Content contentAt(final int slot) {
+        fetchLazy(slot);
+        await(arrived[slot]);
+        final Content content = builder.contentAt(slot);
+        return content != null ? content : positionIndex.missingContentAt(slot);
+    }
+
+    private void fetchLazy(final int slot) {
+        final Observable<Content> lazyContent = lazyContents.getAndSet(slot, null);
+        if (lazyContent != null) {
+            lazyContent.subscribe(
+                    this::add,
+                    (t) -> {
+                        LOG.error(t.getMessage(), t);
+                        arrived[slot].countDown();
+                    },
+                    arrived[slot]::countDown
+            );
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            LOG.error("Interrupted waiting for Contents: {}", e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+    }
+}
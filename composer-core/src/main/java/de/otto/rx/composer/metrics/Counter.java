@@ -0,0 +1,35 @@
+package de.otto.rx.composer.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe counter that does not allocate memory when it is updated.
+ * <p>
+ *     Counters are normally only incremented. Counters used to track the number of in-flight
+ *     requests are also decremented.
+ * </p>
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void inc() {
+        value.increment();
+    }
+
+    public void inc(final long amount) {
+        value.add(amount);
+    }
+
+    public void dec() {
+        value.decrement();
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+}
@@ -0,0 +1,34 @@
+package de.otto.rx.composer.metrics;
+
+import com.google.common.collect.ImmutableSortedMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A family of {@link Counter counters} that are distinguished by the value of a single label.
+ * <p>
+ *     Counters are created on first access. After this, getting the counter for a label value is
+ *     a lookup in a ConcurrentHashMap that is not allocating memory.
+ * </p>
+ */
+final class CounterFamily {
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    Counter labels(final String labelValue) {
+        final Counter counter = counters.get(labelValue);
+        return counter != null
+                ? counter
+                : counters.computeIfAbsent(labelValue, v -> new Counter());
+    }
+
+    /**
+     * Returns the counters of the family, ordered by label value.
+     *
+     * @return map of label value to counter
+     */
+    ImmutableSortedMap<String, Counter> snapshot() {
+        return ImmutableSortedMap.copyOf(counters);
+    }
+}
@@ -0,0 +1,85 @@
+package de.otto.rx.composer.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A histogram of durations with fixed bucket boundaries.
+ * <p>
+ *     Observing a value is a linear scan over the (few) bucket boundaries, followed by incrementing a
+ *     {@link LongAdder}. No memory is allocated when values are observed.
+ * </p>
+ */
+public final class Histogram {
+
+    /** Default bucket boundaries in milliseconds. */
+    static final long[] DEFAULT_BUCKETS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    /** Bucket boundaries in milliseconds, used for the phases of single requests. */
+    static final long[] PHASE_BUCKETS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500};
+
+    private final long[] upperBoundsNanos;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    Histogram(final long[] upperBoundsMillis) {
+        checkArgument(upperBoundsMillis.length > 0, "At least one bucket is required");
+        this.upperBoundsNanos = new long[upperBoundsMillis.length];
+        this.buckets = new LongAdder[upperBoundsMillis.length + 1];
+        for (int i = 0; i < upperBoundsMillis.length; i++) {
+            checkArgument(i == 0 || upperBoundsMillis[i] > upperBoundsMillis[i - 1], "Buckets must be sorted");
+            upperBoundsNanos[i] = MILLISECONDS.toNanos(upperBoundsMillis[i]);
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void observe(final long nanos) {
+        int i = 0;
+        while (i < upperBoundsNanos.length && nanos > upperBoundsNanos[i]) {
+            ++i;
+        }
+        buckets[i].increment();
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    int getNumBuckets() {
+        return upperBoundsNanos.length;
+    }
+
+    long getUpperBoundNanos(final int bucket) {
+        return upperBoundsNanos[bucket];
+    }
+
+    /**
+     * Returns the cumulative number of observations that are less than or equal to the upper bound of the bucket.
+     *
+     * @param bucket index of the bucket
+     * @return cumulative count
+     */
+    long getCumulativeCount(final int bucket) {
+        long sum = 0;
+        for (int i = 0; i <= bucket; i++) {
+            sum += buckets[i].sum();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,39 @@
+package de.otto.rx.composer.metrics;
+
+import com.google.common.collect.ImmutableSortedMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A family of {@link Histogram histograms} with equal buckets, that are distinguished by the value of a single label.
+ * <p>
+ *     Histograms are created on first access. After this, getting the histogram for a label value is
+ *     a lookup in a ConcurrentHashMap that is not allocating memory.
+ * </p>
+ */
+final class HistogramFamily {
+
+    private final long[] upperBoundsMillis;
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    HistogramFamily(final long[] upperBoundsMillis) {
+        this.upperBoundsMillis = upperBoundsMillis.clone();
+    }
+
+    Histogram labels(final String labelValue) {
+        final Histogram histogram = histograms.get(labelValue);
+        return histogram != null
+                ? histogram
+                : histograms.computeIfAbsent(labelValue, v -> new Histogram(upperBoundsMillis));
+    }
+
+    /**
+     * Returns the histograms of the family, ordered by label value.
+     *
+     * @return map of label value to histogram
+     */
+    ImmutableSortedMap<String, Histogram> snapshot() {
+        return ImmutableSortedMap.copyOf(histograms);
+    }
+}
@@ -0,0 +1,111 @@
+package de.otto.rx.composer.metrics;
+
+import de.otto.rx.composer.client.Ref;
+import de.otto.rx.composer.content.PhaseTimings;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.page.Page;
+
+/**
+ * Service-provider interface used to record process-wide metrics about fetching {@link Page pages}.
+ * <p>
+ *     In contrast to {@link de.otto.rx.composer.content.Statistics}, that are gathered for a single request,
+ *     Metrics are aggregated over all requests of the composer. Implementations are called on the hot path of
+ *     every fragment, so they must be thread-safe and should not allocate memory when recording values.
+ * </p>
+ * <p>
+ *     Metrics are made available to the fetching code by the {@link de.otto.rx.composer.tracer.Tracer}, using
+ *     {@link de.otto.rx.composer.tracer.TracerBuilder#withMetrics(Metrics)}.
+ * </p>
+ */
+public interface Metrics {
+
+    /**
+     * Records that fetching content for a position has been started.
+     *
+     * @param position the position of the fragment
+     */
+    void fragmentRequested(Position position);
+
+    /**
+     * Records that fetching content for a position has been completed.
+     *
+     * @param position the position of the fragment
+     * @param available true, if the content is available, false otherwise.
+     */
+    void fragmentCompleted(Position position, boolean available);
+
+    /**
+     * Records that fetching content for a position has failed.
+     *
+     * @param position the position of the fragment
+     */
+    void fragmentFailed(Position position);
+
+    /**
+     * Records that fetching fallback content for a position has been started.
+     *
+     * @param position the position of the fragment
+     */
+    void fallbackRequested(Position position);
+
+    /**
+     * Records that fetching fallback content for a position has been completed.
+     *
+     * @param position the position of the fragment
+     * @param available true, if the fallback content is available, false otherwise.
+     */
+    void fallbackCompleted(Position position, boolean available);
+
+    /**
+     * Records that a request to the service referred by {@code ref} has been started and is now in flight.
+     *
+     * @param ref the reference of the client configuration used to access the service.
+     */
+    void requestStarted(Ref ref);
+
+    /**
+     * Records that a request to the service referred by {@code ref} is not in flight anymore.
+     *
+     * @param ref the reference of the client configuration used to access the service.
+     */
+    void requestFinished(Ref ref);
+
+    /**
+     * Records the durations of the different phases of a request to the service referred by {@code ref}.
+     * <p>
+     *     Durations that are unknown are -1 and should be ignored.
+     * </p>
+     *
+     * @param ref the reference of the client configuration used to access the service.
+     * @param timings the durations of the phases of the request.
+     */
+    void httpPhasesRecorded(Ref ref, PhaseTimings timings);
+
+    /**
+     * Records a cache hit.
+     *
+     * @param cache the name of the cache
+     */
+    void cacheHit(String cache);
+
+    /**
+     * Records a cache miss.
+     *
+     * @param cache the name of the cache
+     */
+    void cacheMiss(String cache);
+
+    /**
+     * Records the time it took to fetch all fragments of a page.
+     *
+     * @param nanos runtime in nanoseconds.
+     */
+    void pageFetched(long nanos);
+
+    /**
+     * Records that a trace event was dropped, because the queue of an
+     * {@link de.otto.rx.composer.tracer.AsyncEventWriter} was full.
+     */
+    void traceEventDropped();
+
+}
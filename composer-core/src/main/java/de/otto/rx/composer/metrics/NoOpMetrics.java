@@ -0,0 +1,71 @@
+package de.otto.rx.composer.metrics;
+
+import de.otto.rx.composer.client.Ref;
+import de.otto.rx.composer.content.PhaseTimings;
+import de.otto.rx.composer.content.Position;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This implementation is doing nothing.
+ * </p>
+ */
+public final class NoOpMetrics implements Metrics {
+
+    private static final NoOpMetrics NO_OP_METRICS = new NoOpMetrics();
+
+    private NoOpMetrics() {
+    }
+
+    public static Metrics noOpMetrics() {
+        return NO_OP_METRICS;
+    }
+
+    @Override
+    public void fragmentRequested(final Position position) {
+    }
+
+    @Override
+    public void fragmentCompleted(final Position position, final boolean available) {
+    }
+
+    @Override
+    public void fragmentFailed(final Position position) {
+    }
+
+    @Override
+    public void fallbackRequested(final Position position) {
+    }
+
+    @Override
+    public void fallbackCompleted(final Position position, final boolean available) {
+    }
+
+    @Override
+    public void requestStarted(final Ref ref) {
+    }
+
+    @Override
+    public void requestFinished(final Ref ref) {
+    }
+
+    @Override
+    public void httpPhasesRecorded(final Ref ref, final PhaseTimings timings) {
+    }
+
+    @Override
+    public void cacheHit(final String cache) {
+    }
+
+    @Override
+    public void cacheMiss(final String cache) {
+    }
+
+    @Override
+    public void pageFetched(final long nanos) {
+    }
+
+    @Override
+    public void traceEventDropped() {
+    }
+}
@@ -0,0 +1,444 @@
+package de.otto.rx.composer.metrics;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.netflix.hystrix.HystrixCircuitBreaker;
+import de.otto.rx.composer.cache.OffHeapContentCache;
+import de.otto.rx.composer.client.ClientScheduler;
+import de.otto.rx.composer.client.Ref;
+import de.otto.rx.composer.content.PhaseTimings;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.page.AdmissionController;
+import de.otto.rx.composer.page.LoadShedder;
+import de.otto.rx.composer.page.Priority;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.netflix.hystrix.HystrixCommandKey.Factory.asKey;
+import static de.otto.rx.composer.metrics.Histogram.DEFAULT_BUCKETS_MILLIS;
+import static de.otto.rx.composer.metrics.Histogram.PHASE_BUCKETS_MILLIS;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This implementation is aggregating metrics in memory and exposes them in the
+ *     <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus text format</a>.
+ * </p>
+ * <p>
+ *     Recording metrics is lock-free and does not allocate memory, once a {@link Position} or {@link Ref} has been
+ *     recorded for the first time. Formatting the metrics using {@link #writeTo(Writer)} is done on the thread
+ *     that is scraping the metrics.
+ * </p>
+ * <p>
+ *     The {@link PhaseTimings} of HTTP requests are exposed as histogram {@code rxc_http_phase_seconds}, labeled
+ *     by ref and phase, using finer buckets than the page latency histogram.
+ * </p>
+ * <p>
+ *     The state of the Hystrix circuit breakers is read when the metrics are scraped, for all Refs that have been
+ *     used to request content. The same applies to the {@link ClientScheduler schedulers}, the
+ *     {@link LoadShedder} and the {@link AdmissionController} that are registered using one of the
+ *     {@code monitor()} methods.
+ * </p>
+ */
+public final class PrometheusMetrics implements Metrics {
+
+    /** Content type of the Prometheus text exposition format. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final CounterFamily fragmentRequests = new CounterFamily();
+    private final CounterFamily fragmentsAvailable = new CounterFamily();
+    private final CounterFamily fragmentsUnavailable = new CounterFamily();
+    private final CounterFamily fragmentErrors = new CounterFamily();
+    private final CounterFamily fallbackRequests = new CounterFamily();
+    private final CounterFamily fallbacksAvailable = new CounterFamily();
+    private final CounterFamily fallbacksUnavailable = new CounterFamily();
+    private final CounterFamily clientRequests = new CounterFamily();
+    private final CounterFamily clientRequestsInFlight = new CounterFamily();
+    private final CounterFamily cacheHits = new CounterFamily();
+    private final CounterFamily cacheMisses = new CounterFamily();
+    private final HistogramFamily queueWaitDuration = new HistogramFamily(PHASE_BUCKETS_MILLIS);
+    private final HistogramFamily poolWaitDuration = new HistogramFamily(PHASE_BUCKETS_MILLIS);
+    private final HistogramFamily serverDuration = new HistogramFamily(PHASE_BUCKETS_MILLIS);
+    private final HistogramFamily bodyReadDuration = new HistogramFamily(PHASE_BUCKETS_MILLIS);
+    private final Histogram pageFetchDuration;
+    private final Counter traceEventsDropped = new Counter();
+    private final List<ClientScheduler> schedulers = new CopyOnWriteArrayList<>();
+    private volatile LoadShedder loadShedder;
+    private volatile AdmissionController admissionController;
+    private volatile OffHeapContentCache offHeapCache;
+
+    private PrometheusMetrics(final long[] pageBucketsMillis) {
+        this.pageFetchDuration = new Histogram(pageBucketsMillis);
+    }
+
+    /**
+     * Creates PrometheusMetrics using default buckets for the page latency histogram.
+     *
+     * @return PrometheusMetrics
+     */
+    public static PrometheusMetrics prometheusMetrics() {
+        return new PrometheusMetrics(DEFAULT_BUCKETS_MILLIS);
+    }
+
+    /**
+     * Creates PrometheusMetrics using the specified buckets for the page latency histogram.
+     *
+     * @param pageBucketsMillis sorted upper bounds of the histogram buckets in milliseconds.
+     * @return PrometheusMetrics
+     */
+    public static PrometheusMetrics prometheusMetrics(final long... pageBucketsMillis) {
+        return new PrometheusMetrics(pageBucketsMillis);
+    }
+
+    /**
+     * Registers a scheduler, so the size of its queue, the number of active threads and the number of rejected
+     * requests are exposed when the metrics are scraped.
+     *
+     * @param scheduler the monitored scheduler
+     * @return this
+     */
+    public PrometheusMetrics monitor(final ClientScheduler scheduler) {
+        schedulers.add(scheduler);
+        return this;
+    }
+
+    /**
+     * Registers the LoadShedder of the pages, so the number of fragments in flight, the saturation and the number
+     * of skipped fragments per priority are exposed when the metrics are scraped.
+     *
+     * @param loadShedder the monitored LoadShedder
+     * @return this
+     */
+    public PrometheusMetrics monitor(final LoadShedder loadShedder) {
+        this.loadShedder = loadShedder;
+        return this;
+    }
+
+    /**
+     * Registers the AdmissionController of the pages, so the limit, the number of pages in flight and waiting for
+     * admission, and the number of rejected pages are exposed when the metrics are scraped.
+     *
+     * @param admissionController the monitored AdmissionController
+     * @return this
+     */
+    public PrometheusMetrics monitor(final AdmissionController admissionController) {
+        this.admissionController = admissionController;
+        return this;
+    }
+
+    /**
+     * Registers an OffHeapContentCache, so the used and allocated direct memory, the number of entries and the
+     * number of evicted and rejected contents are exposed when the metrics are scraped.
+     *
+     * @param offHeapCache the monitored OffHeapContentCache
+     * @return this
+     */
+    public PrometheusMetrics monitor(final OffHeapContentCache offHeapCache) {
+        this.offHeapCache = offHeapCache;
+        return this;
+    }
+
+    @Override
+    public void fragmentRequested(final Position position) {
+        fragmentRequests.labels(position.name()).inc();
+    }
+
+    @Override
+    public void fragmentCompleted(final Position position, final boolean available) {
+        (available ? fragmentsAvailable : fragmentsUnavailable).labels(position.name()).inc();
+    }
+
+    @Override
+    public void fragmentFailed(final Position position) {
+        fragmentErrors.labels(position.name()).inc();
+    }
+
+    @Override
+    public void fallbackRequested(final Position position) {
+        fallbackRequests.labels(position.name()).inc();
+    }
+
+    @Override
+    public void fallbackCompleted(final Position position, final boolean available) {
+        (available ? fallbacksAvailable : fallbacksUnavailable).labels(position.name()).inc();
+    }
+
+    @Override
+    public void requestStarted(final Ref ref) {
+        clientRequests.labels(ref.name()).inc();
+        clientRequestsInFlight.labels(ref.name()).inc();
+    }
+
+    @Override
+    public void requestFinished(final Ref ref) {
+        clientRequestsInFlight.labels(ref.name()).dec();
+    }
+
+    @Override
+    public void httpPhasesRecorded(final Ref ref, final PhaseTimings timings) {
+        observe(queueWaitDuration, ref, timings.getQueueWaitNanos());
+        observe(poolWaitDuration, ref, timings.getPoolWaitNanos());
+        observe(serverDuration, ref, timings.getServerNanos());
+        observe(bodyReadDuration, ref, timings.getBodyReadNanos());
+    }
+
+    private static void observe(final HistogramFamily family, final Ref ref, final long nanos) {
+        if (nanos >= 0) {
+            family.labels(ref.name()).observe(nanos);
+        }
+    }
+
+    @Override
+    public void cacheHit(final String cache) {
+        cacheHits.labels(cache).inc();
+        cacheMisses.labels(cache);
+    }
+
+    @Override
+    public void cacheMiss(final String cache) {
+        cacheMisses.labels(cache).inc();
+        cacheHits.labels(cache);
+    }
+
+    @Override
+    public void pageFetched(final long nanos) {
+        pageFetchDuration.observe(nanos);
+    }
+
+    @Override
+    public void traceEventDropped() {
+        traceEventsDropped.inc();
+    }
+
+    /**
+     * Returns the current metrics in Prometheus text format.
+     *
+     * @return metrics
+     */
+    public String scrape() {
+        final StringWriter writer = new StringWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+
+    /**
+     * Writes the current metrics in Prometheus text format.
+     *
+     * @param writer the writer used to write the metrics
+     * @throws UncheckedIOException if writing fails
+     */
+    public void writeTo(final Writer writer) {
+        try {
+            writeCounters(writer, "rxc_fragment_requests_total", "Number of requested fragments.",
+                    "position", fragmentRequests);
+            writeAvailability(writer, "rxc_fragment_completed_total", "Number of completed fragments.",
+                    fragmentsAvailable, fragmentsUnavailable);
+            writeCounters(writer, "rxc_fragment_errors_total", "Number of fragments that failed with an error.",
+                    "position", fragmentErrors);
+            writeCounters(writer, "rxc_fallback_requests_total", "Number of requested fallbacks.",
+                    "position", fallbackRequests);
+            writeAvailability(writer, "rxc_fallback_completed_total", "Number of completed fallbacks.",
+                    fallbacksAvailable, fallbacksUnavailable);
+            writeCounters(writer, "rxc_client_requests_total", "Number of requests sent to services.",
+                    "ref", clientRequests);
+            writeGauges(writer, "rxc_client_requests_in_flight", "Number of requests currently in flight.",
+                    "ref", clientRequestsInFlight);
+            writeCircuitBreakers(writer);
+            writeSchedulers(writer);
+            writeLoadShedder(writer);
+            writeAdmissionController(writer);
+            writeOffHeapCache(writer);
+            writeCounters(writer, "rxc_cache_hits_total", "Number of cache hits.", "cache", cacheHits);
+            writeCounters(writer, "rxc_cache_misses_total", "Number of cache misses.", "cache", cacheMisses);
+            writeCacheHitRatios(writer);
+            writeHistogram(writer, "rxc_page_fetch_seconds", "Time to fetch all fragments of a page.",
+                    pageFetchDuration);
+            writePhaseHistograms(writer);
+            writeHeader(writer, "rxc_trace_events_dropped_total", "Number of trace events dropped by asynchronous logging.", "counter");
+            writer.write("rxc_trace_events_dropped_total " + traceEventsDropped.get() + "\n");
+            writer.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCounters(final Writer writer, final String name, final String help,
+                               final String label, final CounterFamily family) throws IOException {
+        writeFamily(writer, name, help, "counter", label, family);
+    }
+
+    private void writeGauges(final Writer writer, final String name, final String help,
+                             final String label, final CounterFamily family) throws IOException {
+        writeFamily(writer, name, help, "gauge", label, family);
+    }
+
+    private void writeFamily(final Writer writer, final String name, final String help, final String type,
+                             final String label, final CounterFamily family) throws IOException {
+        writeHeader(writer, name, help, type);
+        for (final Map.Entry<String, Counter> entry : family.snapshot().entrySet()) {
+            writeSample(writer, name, label, entry.getKey(), entry.getValue().get());
+        }
+    }
+
+    private void writeAvailability(final Writer writer, final String name, final String help,
+                                   final CounterFamily available, final CounterFamily unavailable) throws IOException {
+        writeHeader(writer, name, help, "counter");
+        for (final Map.Entry<String, Counter> entry : available.snapshot().entrySet()) {
+            writer.write(name + "{position=\"" + escape(entry.getKey()) + "\",available=\"true\"} " + entry.getValue().get() + "\n");
+        }
+        for (final Map.Entry<String, Counter> entry : unavailable.snapshot().entrySet()) {
+            writer.write(name + "{position=\"" + escape(entry.getKey()) + "\",available=\"false\"} " + entry.getValue().get() + "\n");
+        }
+    }
+
+    private void writeCircuitBreakers(final Writer writer) throws IOException {
+        final String name = "rxc_circuit_breaker_open";
+        writeHeader(writer, name, "1 if the circuit breaker of the service is open, 0 otherwise.", "gauge");
+        for (final String ref : clientRequests.snapshot().keySet()) {
+            final HystrixCircuitBreaker circuitBreaker = HystrixCircuitBreaker.Factory.getInstance(asKey(ref));
+            if (circuitBreaker != null) {
+                writeSample(writer, name, "ref", ref, circuitBreaker.isOpen() ? 1 : 0);
+            }
+        }
+    }
+
+    private void writeSchedulers(final Writer writer) throws IOException {
+        writeHeader(writer, "rxc_scheduler_queue_size", "Number of requests waiting for a thread of the scheduler.", "gauge");
+        for (final ClientScheduler scheduler : schedulers) {
+            if (scheduler.getQueueSize() >= 0) {
+                writeSample(writer, "rxc_scheduler_queue_size", "scheduler", scheduler.getName(), scheduler.getQueueSize());
+            }
+        }
+        writeHeader(writer, "rxc_scheduler_active_threads", "Number of threads of the scheduler executing requests.", "gauge");
+        for (final ClientScheduler scheduler : schedulers) {
+            if (scheduler.getActiveThreads() >= 0) {
+                writeSample(writer, "rxc_scheduler_active_threads", "scheduler", scheduler.getName(), scheduler.getActiveThreads());
+            }
+        }
+        writeHeader(writer, "rxc_scheduler_rejected_total", "Number of requests rejected by the scheduler.", "counter");
+        for (final ClientScheduler scheduler : schedulers) {
+            writeSample(writer, "rxc_scheduler_rejected_total", "scheduler", scheduler.getName(), scheduler.getRejectedRequests());
+        }
+    }
+
+    private void writeLoadShedder(final Writer writer) throws IOException {
+        final LoadShedder loadShedder = this.loadShedder;
+        if (loadShedder == null) {
+            return;
+        }
+        writeHeader(writer, "rxc_fragments_in_flight", "Number of fragments currently fetched.", "gauge");
+        writer.write("rxc_fragments_in_flight " + loadShedder.getInFlight() + "\n");
+        writeHeader(writer, "rxc_load_shedder_saturated", "1 if optional fragments are skipped, 0 otherwise.", "gauge");
+        writer.write("rxc_load_shedder_saturated " + (loadShedder.isSaturated() ? 1 : 0) + "\n");
+        writeHeader(writer, "rxc_fragments_shed_total", "Number of fragments skipped because of overload.", "counter");
+        for (final Priority priority : Priority.values()) {
+            writeSample(writer, "rxc_fragments_shed_total", "priority", priority.name().toLowerCase(), loadShedder.getShedFragments(priority));
+        }
+    }
+
+    private void writeAdmissionController(final Writer writer) throws IOException {
+        final AdmissionController admissionController = this.admissionController;
+        if (admissionController == null) {
+            return;
+        }
+        writeHeader(writer, "rxc_page_admission_limit", "Maximum number of pages executed concurrently.", "gauge");
+        writer.write("rxc_page_admission_limit " + admissionController.getLimit() + "\n");
+        writeHeader(writer, "rxc_pages_in_flight", "Number of pages currently executed.", "gauge");
+        writer.write("rxc_pages_in_flight " + admissionController.getInFlight() + "\n");
+        writeHeader(writer, "rxc_page_queue_size", "Number of pages waiting for admission.", "gauge");
+        writer.write("rxc_page_queue_size " + admissionController.getQueueSize() + "\n");
+        writeHeader(writer, "rxc_pages_rejected_total", "Number of pages rejected by the admission control.", "counter");
+        writeSample(writer, "rxc_pages_rejected_total", "reason", "queue_full", admissionController.getRejectedQueueFull());
+        writeSample(writer, "rxc_pages_rejected_total", "reason", "timeout", admissionController.getRejectedTimeout());
+    }
+
+    private void writeOffHeapCache(final Writer writer) throws IOException {
+        final OffHeapContentCache offHeapCache = this.offHeapCache;
+        if (offHeapCache == null) {
+            return;
+        }
+        writeHeader(writer, "rxc_offheap_cache_bytes", "Bytes of direct memory of the off-heap cache.", "gauge");
+        writeSample(writer, "rxc_offheap_cache_bytes", "area", "used", offHeapCache.getUsedBytes());
+        writeSample(writer, "rxc_offheap_cache_bytes", "area", "allocated", offHeapCache.getAllocatedBytes());
+        writeSample(writer, "rxc_offheap_cache_bytes", "area", "capacity", offHeapCache.getCapacityBytes());
+        writeHeader(writer, "rxc_offheap_cache_entries", "Number of contents stored in the off-heap cache.", "gauge");
+        writer.write("rxc_offheap_cache_entries " + offHeapCache.size() + "\n");
+        writeHeader(writer, "rxc_offheap_cache_evictions_total", "Number of contents evicted from the off-heap cache.", "counter");
+        writer.write("rxc_offheap_cache_evictions_total " + offHeapCache.getEvictions() + "\n");
+        writeHeader(writer, "rxc_offheap_cache_rejected_total", "Number of contents not stored in the off-heap cache.", "counter");
+        writer.write("rxc_offheap_cache_rejected_total " + offHeapCache.getRejected() + "\n");
+    }
+
+    private void writeCacheHitRatios(final Writer writer) throws IOException {
+        final String name = "rxc_cache_hit_ratio";
+        writeHeader(writer, name, "Ratio of cache hits to all cache accesses.", "gauge");
+        final ImmutableSortedMap<String, Counter> misses = cacheMisses.snapshot();
+        for (final Map.Entry<String, Counter> entry : cacheHits.snapshot().entrySet()) {
+            final long hits = entry.getValue().get();
+            final long total = hits + (misses.containsKey(entry.getKey()) ? misses.get(entry.getKey()).get() : 0);
+            final double ratio = total > 0 ? (double) hits / total : 0.0;
+            writer.write(name + "{cache=\"" + escape(entry.getKey()) + "\"} " + ratio + "\n");
+        }
+    }
+
+    private void writeHistogram(final Writer writer, final String name, final String help,
+                                final Histogram histogram) throws IOException {
+        writeHeader(writer, name, help, "histogram");
+        for (int i = 0; i < histogram.getNumBuckets(); i++) {
+            writer.write(name + "_bucket{le=\"" + seconds(histogram.getUpperBoundNanos(i)) + "\"} " + histogram.getCumulativeCount(i) + "\n");
+        }
+        writer.write(name + "_bucket{le=\"+Inf\"} " + histogram.getCumulativeCount(histogram.getNumBuckets()) + "\n");
+        writer.write(name + "_sum " + seconds(histogram.getSumNanos()) + "\n");
+        writer.write(name + "_count " + histogram.getCount() + "\n");
+    }
+
+    private void writePhaseHistograms(final Writer writer) throws IOException {
+        final String name = "rxc_http_phase_seconds";
+        writeHeader(writer, name, "Duration of the phases of requests sent to services.", "histogram");
+        writePhaseHistogram(writer, name, "queue_wait", queueWaitDuration);
+        writePhaseHistogram(writer, name, "pool_wait", poolWaitDuration);
+        writePhaseHistogram(writer, name, "server", serverDuration);
+        writePhaseHistogram(writer, name, "body_read", bodyReadDuration);
+    }
+
+    private static void writePhaseHistogram(final Writer writer, final String name, final String phase,
+                                            final HistogramFamily family) throws IOException {
+        for (final Map.Entry<String, Histogram> entry : family.snapshot().entrySet()) {
+            final String labels = "ref=\"" + escape(entry.getKey()) + "\",phase=\"" + phase + "\"";
+            final Histogram histogram = entry.getValue();
+            for (int i = 0; i < histogram.getNumBuckets(); i++) {
+                writer.write(name + "_bucket{" + labels + ",le=\"" + seconds(histogram.getUpperBoundNanos(i)) + "\"} " + histogram.getCumulativeCount(i) + "\n");
+            }
+            writer.write(name + "_bucket{" + labels + ",le=\"+Inf\"} " + histogram.getCumulativeCount(histogram.getNumBuckets()) + "\n");
+            writer.write(name + "_sum{" + labels + "} " + seconds(histogram.getSumNanos()) + "\n");
+            writer.write(name + "_count{" + labels + "} " + histogram.getCount() + "\n");
+        }
+    }
+
+    private static void writeHeader(final Writer writer, final String name, final String help,
+                                    final String type) throws IOException {
+        writer.write("# HELP " + name + " " + help + "\n");
+        writer.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    private static void writeSample(final Writer writer, final String name, final String label,
+                                    final String labelValue, final long value) throws IOException {
+        writer.write(name + "{" + label + "=\"" + escape(labelValue) + "\"} " + value + "\n");
+    }
+
+    private static String seconds(final long nanos) {
+        return Double.toString(nanos / 1.0E9);
+    }
+
+    private static String escape(final String labelValue) {
+        return labelValue
+                .replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,289 @@
+package de.otto.rx.composer.page;
+
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.tracer.Tracer;
+import org.slf4j.Logger;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static de.otto.rx.composer.content.Statistics.emptyStats;
+import static de.otto.rx.composer.content.StreamingContents.streamingContents;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     An engine that is limiting the number of pages executed concurrently by another ExecutionEngine. Pages
+ *     exceeding the limit are waiting in a bounded queue until a running page is completed. If the queue is full,
+ *     or if the page is not admitted before the queue timeout, the page is rejected with a
+ *     {@link RejectedExecutionException} or, if the controller is {@link #degrading() degrading}, it is completed
+ *     immediately without fetching any fragments, so the page is rendered without the contents of the fragments.
+ * </p>
+ * <p>
+ *     The limit is either fixed, or it is {@link #withAdaptiveLimit(int, int, long) adapted} to the latency of the
+ *     pages: it is decreased multiplicatively if a page takes longer than the latency target, and increased by one
+ *     if a page was completed in time while at least half of the limit was used.
+ * </p>
+ * <p>
+ *     Waiting for admission is blocking the thread calling {@link Page#fetchWith(Parameters, Tracer, ExecutionEngine)}
+ *     or {@link Page#streamWith(Parameters, Tracer, ExecutionEngine)}, so the queue timeout should be short.
+ *     The size of the queue, the limit and the number of rejected pages are available for monitoring, for example
+ *     using {@link de.otto.rx.composer.metrics.PrometheusMetrics#monitor(AdmissionController)}.
+ * </p>
+ */
+public final class AdmissionController implements ExecutionEngine {
+
+    private static final Logger LOG = getLogger(AdmissionController.class);
+
+    /** Factor used to decrease the adaptive limit if a page exceeds the latency target. */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final ExecutionEngine engine;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final int maxQueueSize;
+    private final long queueTimeoutNanos;
+    private final boolean degrading;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition admitted = lock.newCondition();
+    private int limit;
+    private int inFlight;
+    private int queueSize;
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+
+    private AdmissionController(final ExecutionEngine engine,
+                                final int initialLimit,
+                                final int minLimit,
+                                final int maxLimit,
+                                final long latencyTargetNanos,
+                                final int maxQueueSize,
+                                final long queueTimeoutNanos,
+                                final boolean degrading) {
+        this.engine = checkNotNull(engine, "engine must not be null");
+        checkArgument(minLimit > 0 && minLimit <= initialLimit && initialLimit <= maxLimit, "limits must satisfy 0 < minLimit <= limit <= maxLimit");
+        checkArgument(maxQueueSize >= 0, "maxQueueSize must not be negative");
+        checkArgument(queueTimeoutNanos >= 0, "queueTimeout must not be negative");
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.maxQueueSize = maxQueueSize;
+        this.queueTimeoutNanos = queueTimeoutNanos;
+        this.degrading = degrading;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Creates an AdmissionController with a fixed limit and without a queue, that is rejecting pages exceeding
+     * the limit.
+     *
+     * @param engine the engine used to execute the admitted pages
+     * @param limit the maximum number of pages executed concurrently
+     * @return AdmissionController
+     */
+    public static AdmissionController admissionController(final ExecutionEngine engine, final int limit) {
+        return new AdmissionController(engine, limit, limit, limit, 0, 0, 0, false);
+    }
+
+    /**
+     * Returns a copy of this AdmissionController with a queue of pages waiting for admission.
+     * <p>
+     *     The returned AdmissionController has its own state, so it should be configured before it is used.
+     * </p>
+     *
+     * @param maxQueueSize the maximum number of waiting pages
+     * @param queueTimeoutMillis the maximum time a page is waiting for admission
+     * @return AdmissionController
+     */
+    public AdmissionController withQueue(final int maxQueueSize, final long queueTimeoutMillis) {
+        return new AdmissionController(engine, initialLimit, minLimit, maxLimit, latencyTargetNanos,
+                maxQueueSize, MILLISECONDS.toNanos(queueTimeoutMillis), degrading);
+    }
+
+    /**
+     * Returns a copy of this AdmissionController, starting with the current limit, that is adapting the limit
+     * to the latency of the pages.
+     * <p>
+     *     The returned AdmissionController has its own state, so it should be configured before it is used.
+     * </p>
+     *
+     * @param minLimit the lower bound of the limit
+     * @param maxLimit the upper bound of the limit
+     * @param latencyTargetMillis pages slower than the latency target are decreasing the limit
+     * @return AdmissionController
+     */
+    public AdmissionController withAdaptiveLimit(final int minLimit, final int maxLimit, final long latencyTargetMillis) {
+        checkArgument(latencyTargetMillis > 0, "latencyTargetMillis must be greater than 0");
+        return new AdmissionController(engine, initialLimit, minLimit, maxLimit, MILLISECONDS.toNanos(latencyTargetMillis),
+                maxQueueSize, queueTimeoutNanos, degrading);
+    }
+
+    /**
+     * Returns a copy of this AdmissionController that is degrading rejected pages instead of throwing a
+     * RejectedExecutionException: no fragments of rejected pages are fetched, and the returned contents are
+     * completed immediately, so the page is rendered using the fallbacks of the template.
+     * <p>
+     *     The returned AdmissionController has its own state, so it should be configured before it is used.
+     * </p>
+     *
+     * @return AdmissionController
+     */
+    public AdmissionController degrading() {
+        return new AdmissionController(engine, initialLimit, minLimit, maxLimit, latencyTargetNanos,
+                maxQueueSize, queueTimeoutNanos, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws RejectedExecutionException if the page is not admitted and the AdmissionController is not degrading.
+     */
+    @Override
+    public StreamingContents execute(final Page page, final Parameters params, final Tracer tracer) {
+        if (!tryAdmit()) {
+            if (degrading) {
+                final StreamingContents contents = streamingContents(page.getPositionIndex());
+                contents.complete(emptyStats());
+                return contents;
+            }
+            throw new RejectedExecutionException("Page rejected because of too many pages in flight");
+        }
+        final long startedNanos = nanoTime();
+        final StreamingContents contents;
+        try {
+            contents = engine.execute(page, params, tracer);
+        } catch (final RuntimeException e) {
+            release(startedNanos);
+            throw e;
+        }
+        contents.whenCompleted().whenComplete((c, t) -> release(startedNanos));
+        return contents;
+    }
+
+    /**
+     * Returns the current limit of concurrently executed pages.
+     *
+     * @return limit
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of pages currently executed.
+     *
+     * @return pages in flight
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of pages waiting for admission.
+     *
+     * @return size of the queue
+     */
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return queueSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of pages rejected because the queue was full.
+     *
+     * @return number of rejected pages
+     */
+    public long getRejectedQueueFull() {
+        return rejectedQueueFull.sum();
+    }
+
+    /**
+     * Returns the number of pages rejected because they were not admitted before the queue timeout.
+     *
+     * @return number of rejected pages
+     */
+    public long getRejectedTimeout() {
+        return rejectedTimeout.sum();
+    }
+
+    private boolean tryAdmit() {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                ++inFlight;
+                return true;
+            }
+            if (queueSize >= maxQueueSize) {
+                rejectedQueueFull.increment();
+                LOG.debug("Rejecting page: queue is full");
+                return false;
+            }
+            ++queueSize;
+            try {
+                long remainingNanos = queueTimeoutNanos;
+                while (inFlight >= limit) {
+                    if (remainingNanos <= 0) {
+                        rejectedTimeout.increment();
+                        LOG.debug("Rejecting page: queue timeout exceeded");
+                        return false;
+                    }
+                    remainingNanos = admitted.awaitNanos(remainingNanos);
+                }
+                ++inFlight;
+                return true;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectedTimeout.increment();
+                return false;
+            } finally {
+                --queueSize;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(final long startedNanos) {
+        final long latencyNanos = nanoTime() - startedNanos;
+        lock.lock();
+        try {
+            if (latencyTargetNanos > 0) {
+                if (latencyNanos > latencyTargetNanos) {
+                    limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+                } else if (inFlight * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            }
+            --inFlight;
+            admitted.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package de.otto.rx.composer.page;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.page.CompositeFragment.FragmentContinuation;
+import de.otto.rx.composer.tracer.Tracer;
+import org.slf4j.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.builder;
+import static de.otto.rx.composer.content.StreamingContents.streamingContents;
+import static de.otto.rx.composer.tracer.EventType.CONTINUED;
+import static de.otto.rx.composer.util.VirtualThreads.newVirtualThreadPerTaskExecutor;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+import static rx.Observable.defer;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This engine is executing every fragment of a page as a blocking task, instead of composing the fragments
+ *     into a single Observable. The tasks of a page are forked into a {@link TaskScope}: the page is completed
+ *     as soon as all tasks are completed, including the tasks of nested fragments that are forked after the
+ *     content of their parent has arrived. If a {@link #withDeadline(long) deadline} is configured, the tasks that
+ *     are still running when the deadline is exceeded are cancelled, and the page is completed with the contents
+ *     that have arrived so far.
+ * </p>
+ * <p>
+ *     Tasks are blocking their thread while the {@link de.otto.rx.composer.providers.ContentProvider} is fetching
+ *     the content, so the executor must not have a bounded number of threads. By default, a virtual thread is
+ *     started for every task on JDKs supporting virtual threads, and a cached thread pool is used otherwise.
+ * </p>
+ * <p>
+ *     {@link Fragments#lazyFragment(de.otto.rx.composer.content.Position, de.otto.rx.composer.providers.ContentProvider)
+ *     Lazy fragments} are fetched like in the {@link RxEngine}.
+ * </p>
+ */
+public final class BlockingEngine implements ExecutionEngine, AutoCloseable {
+
+    private static final Logger LOG = getLogger(BlockingEngine.class);
+
+    private final ExecutorService executor;
+    private final long deadlineMillis;
+
+    private BlockingEngine(final ExecutorService executor, final long deadlineMillis) {
+        this.executor = checkNotNull(executor, "executor must not be null");
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * Creates a BlockingEngine using virtual threads, if supported by the JDK, or a cached thread pool otherwise.
+     * <p>
+     *     The engine should be {@link #close() closed} on shutdown.
+     * </p>
+     *
+     * @return BlockingEngine without deadline
+     */
+    public static BlockingEngine blockingEngine() {
+        final ExecutorService executor = newVirtualThreadPerTaskExecutor().orElseGet(() -> newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("rxc-engine-%d").setDaemon(true).build()));
+        return new BlockingEngine(executor, 0);
+    }
+
+    /**
+     * Creates a BlockingEngine using the specified executor. The number of threads of the executor must not be
+     * bounded.
+     *
+     * @param executor the executor used to execute the tasks of the pages
+     * @return BlockingEngine without deadline
+     */
+    public static BlockingEngine blockingEngine(final ExecutorService executor) {
+        return new BlockingEngine(executor, 0);
+    }
+
+    /**
+     * Returns a BlockingEngine sharing the executor of this engine, that is cancelling the fragments of a page
+     * that are not completed before the deadline.
+     *
+     * @param deadlineMillis maximum time in milliseconds to fetch the fragments of a page
+     * @return BlockingEngine
+     */
+    public BlockingEngine withDeadline(final long deadlineMillis) {
+        checkArgument(deadlineMillis > 0, "deadlineMillis must be greater than zero");
+        return new BlockingEngine(executor, deadlineMillis);
+    }
+
+    /**
+     * @return the deadline of pages in milliseconds, or 0 if there is no deadline
+     */
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    @Override
+    public StreamingContents execute(final Page page, final Parameters params, final Tracer tracer) {
+        final long startedNanos = nanoTime();
+        final StreamingContents contents = streamingContents(page.getPositionIndex());
+        final ImmutableList.Builder<Fragment> eagerFragments = builder();
+        for (final Fragment fragment : page.getFragments()) {
+            if (fragment instanceof LazyFragment) {
+                contents.addLazy(fragment.getPosition(), defer(() -> fragment.fetchWith(tracer, params)));
+            } else {
+                eagerFragments.add(fragment);
+            }
+        }
+        try {
+            executor.execute(() -> executeAll(eagerFragments.build(), params, tracer, contents, startedNanos));
+        } catch (final RejectedExecutionException e) {
+            LOG.error("Unable to execute page: {}", e.getMessage());
+            Page.complete(contents, tracer, startedNanos);
+        }
+        return contents;
+    }
+
+    /**
+     * Shuts down the executor of the engine, and of all engines {@link #withDeadline(long) derived} from it.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private void executeAll(final ImmutableList<Fragment> fragments,
+                            final Parameters params,
+                            final Tracer tracer,
+                            final StreamingContents contents,
+                            final long startedNanos) {
+        final long deadlineNanos = deadlineMillis > 0
+                ? startedNanos + MILLISECONDS.toNanos(deadlineMillis)
+                : Long.MAX_VALUE;
+        try (final TaskScope scope = new TaskScope(executor)) {
+            for (final Fragment fragment : fragments) {
+                scope.fork(() -> fetch(fragment, params, tracer, contents, scope));
+            }
+            if (!scope.joinUntil(deadlineNanos)) {
+                LOG.warn("Page not completed after {}ms, cancelling the remaining fragments", deadlineMillis);
+            }
+        } finally {
+            Page.complete(contents, tracer, startedNanos);
+        }
+    }
+
+    private static void fetch(final Fragment fragment,
+                              final Parameters params,
+                              final Tracer tracer,
+                              final StreamingContents contents,
+                              final TaskScope scope) {
+        if (fragment instanceof CompositeFragment) {
+            final CompositeFragment composite = (CompositeFragment) fragment;
+            final Content content = fetchContent(composite.getFirst(), params, tracer);
+            if (content != null && content.isAvailable()) {
+                contents.add(content);
+                final FragmentContinuation continuation = composite.getContinuation();
+                final Parameters nestedParams = params.with(continuation.paramExtractor.apply(content));
+                for (final Fragment nested : continuation.nested) {
+                    tracer.trace(CONTINUED, nested.getPosition(), composite.getPosition().name(), false, "");
+                    scope.fork(() -> fetch(nested, nestedParams, tracer, contents, scope));
+                }
+            }
+        } else if (fragment instanceof SingleFragment) {
+            final Content content = ((SingleFragment) fragment).fetchBlocking(tracer, params);
+            if (content != null && content.isAvailable()) {
+                contents.add(content);
+            }
+        } else {
+            fragment.fetchWith(tracer, params)
+                    .toBlocking()
+                    .forEach(contents::add);
+        }
+    }
+
+    private static Content fetchContent(final Fragment fragment, final Parameters params, final Tracer tracer) {
+        if (fragment instanceof SingleFragment) {
+            return ((SingleFragment) fragment).fetchBlocking(tracer, params);
+        } else {
+            return fragment.fetchWith(tracer, params)
+                    .filter(Content::isAvailable)
+                    .toBlocking()
+                    .firstOrDefault(null);
+        }
+    }
+}
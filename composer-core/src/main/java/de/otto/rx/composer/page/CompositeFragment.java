@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import static de.otto.rx.composer.content.ErrorContent.errorContent;
+import static de.otto.rx.composer.tracer.EventType.CONTINUED;
 import static java.util.stream.Collectors.toList;
 import static org.slf4j.LoggerFactory.getLogger;
 import static rx.Observable.just;
@@ -74,11 +75,13 @@ class CompositeFragment implements Fragment {
                     final Parameters nestedParams = parameters.with(continuation.paramExtractor.apply(content));
                     final List<Observable<Content>> observables = this.continuation.nested
                             .stream()
-                            .map(fragment -> fragment
-                                    .fetchWith(tracer, nestedParams)
-                                    .onErrorReturn(e -> errorContent(fragment.getPosition(), e, startedTs))
-                                    .filter(Content::isAvailable)
-                            )
+                            .map(fragment -> {
+                                tracer.trace(CONTINUED, fragment.getPosition(), first.getPosition().name(), false, "");
+                                return fragment
+                                        .fetchWith(tracer, nestedParams)
+                                        .onErrorReturn(e -> errorContent(fragment.getPosition(), e, startedTs))
+                                        .filter(Content::isAvailable);
+                            })
                             .collect(toList());
                     // Add the content, so we can retrieve the content from the first fragment:
                     observables.add(just(content));
@@ -91,4 +94,16 @@ class CompositeFragment implements Fragment {
     public Position getPosition() {
         return first.getPosition();
     }
+
+    Fragment getFirst() {
+        return first;
+    }
+
+    FragmentContinuation getContinuation() {
+        return continuation;
+    }
+
+    CompositeFragment withContinuation(final FragmentContinuation continuation) {
+        return new CompositeFragment(first, continuation);
+    }
 }
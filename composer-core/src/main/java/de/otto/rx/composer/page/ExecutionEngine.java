@@ -0,0 +1,35 @@
+package de.otto.rx.composer.page;
+
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.tracer.Tracer;
+
+/**
+ * Strategy used to execute the {@link Fragment fragments} of a {@link Page}.
+ * <p>
+ *     The same Page definitions can be executed by different engines, selected when the page is
+ *     {@link Page#streamWith(Parameters, Tracer, ExecutionEngine) fetched}:
+ * </p>
+ * <ul>
+ *     <li>{@link RxEngine#rxEngine()}: the default engine, composing the fragments of the page into a single
+ *     Observable.</li>
+ *     <li>{@link BlockingEngine#blockingEngine()}: executes every fragment as a blocking task, preferably on a
+ *     virtual thread, with a scope of tasks per page that supports deadlines and cancellation.</li>
+ *     <li>{@link AdmissionController#admissionController(ExecutionEngine, int)}: limits the number of pages
+ *     executed concurrently by another engine, and rejects or degrades pages exceeding the limit.</li>
+ * </ul>
+ */
+public interface ExecutionEngine {
+
+    /**
+     * Starts to fetch the fragments of the page and immediately returns {@link StreamingContents} that are
+     * populated as soon as the contents of the fragments arrive.
+     *
+     * @param page the page to fetch
+     * @param params Parameters used to fetch the content
+     * @param tracer the Tracer used to trace the execution of the page
+     * @return StreamingContents
+     */
+    StreamingContents execute(Page page, Parameters params, Tracer tracer);
+
+}
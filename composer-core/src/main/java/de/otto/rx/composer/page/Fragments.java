@@ -8,6 +8,7 @@ import de.otto.rx.composer.providers.ContentProvider;
 
 import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static de.otto.rx.composer.page.CompositeFragment.FragmentContinuation;
 import static java.util.Arrays.asList;
 
@@ -30,6 +31,37 @@ public final class Fragments {
         return new SingleFragment(position, contentProvider);
     }
 
+    /**
+     * Create a {@link SingleFragment} with the given Priority for the specified Position and use the
+     * ContentProvider to fetch the Content.
+     * <p>
+     *     The Priority is used to skip fragments, if the {@link LoadShedder} of the {@link Page} detects an overload.
+     * </p>
+     *
+     * @param position the Position inside the Plan
+     * @param contentProvider the ContentProvider used to fetch the Content.
+     * @param priority the Priority of the Fragment
+     * @return Fragment
+     */
+    public static Fragment fragment(final Position position,
+                                    final ContentProvider contentProvider,
+                                    final Priority priority)   {
+        return new SingleFragment(position, contentProvider, checkNotNull(priority, "priority must not be null"), null);
+    }
+
+    /**
+     * Create a {@link LazyFragment} for the specified Position, that is only fetched, if the content of the position
+     * is requested from the {@link de.otto.rx.composer.content.StreamingContents} of the page, for example by a
+     * template branch that is actually rendered.
+     *
+     * @param position the Position inside the Plan
+     * @param contentProvider the ContentProvider used to fetch the Content.
+     * @return Fragment
+     */
+    public static Fragment lazyFragment(final Position position, final ContentProvider contentProvider)   {
+        return new LazyFragment(fragment(position, contentProvider));
+    }
+
     /**
      * Create a {@link CompositeFragment} used to fetch Content for the specified Position. Depending on
      * this Content, use the FragmentContinuation to fetch one or more followup Contents.
@@ -49,6 +81,31 @@ public final class Fragments {
         }
     }
 
+    /**
+     * Create a {@link CompositeFragment} with the given Priority used to fetch Content for the specified Position.
+     * Depending on this Content, use the FragmentContinuation to fetch one or more followup Contents.
+     * <p>
+     *     If the initial Fragment is skipped by the {@link LoadShedder} of the {@link Page}, the followup Fragments
+     *     are skipped as well.
+     * </p>
+     *
+     * @param position the Position of the initial Content.
+     * @param contentProvider the ContentProvider used to fetch the Content for the given Position.
+     * @param priority the Priority of the initial Fragment
+     * @param then the continuation that is fetching more Content depending on the results of the initial Fragment.
+     * @return Fragment
+     */
+    public static Fragment fragment(final Position position,
+                                    final ContentProvider contentProvider,
+                                    final Priority priority,
+                                    final FragmentContinuation then)   {
+        if (then == null || then.nested.isEmpty()) {
+            throw new IllegalArgumentException("FragmentContinuation provided by param 'followedBy' must not be null or empty.");
+        } else {
+            return new CompositeFragment(fragment(position, contentProvider, priority), then);
+        }
+    }
+
     /**
      * Create a FragmentContinuation that is used to specify the followup Fragments for a CompositeFragment.
      * <p>
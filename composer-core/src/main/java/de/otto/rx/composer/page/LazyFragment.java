@@ -0,0 +1,44 @@
+package de.otto.rx.composer.page;
+
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.tracer.Tracer;
+import rx.Observable;
+
+/**
+ * {@inheritDoc}
+ *
+ * <p>
+ *     A Fragment that is not fetched together with the other fragments of a {@link Page}, but only if the content
+ *     of its position is requested from the {@link StreamingContents} of the page, or if it is
+ *     {@link StreamingContents#prefetch(Position) prefetched}.
+ * </p>
+ * <p>
+ *     Lazy fragments are only supported as top-level fragments of a Page. Nested in a {@link CompositeFragment},
+ *     they are fetched like any other fragment.
+ * </p>
+ */
+class LazyFragment implements Fragment {
+
+    private final Fragment delegate;
+
+    LazyFragment(final Fragment delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Observable<Content> fetchWith(final Tracer tracer, final Parameters parameters) {
+        return delegate.fetchWith(tracer, parameters);
+    }
+
+    @Override
+    public Position getPosition() {
+        return delegate.getPosition();
+    }
+
+    Fragment getDelegate() {
+        return delegate;
+    }
+}
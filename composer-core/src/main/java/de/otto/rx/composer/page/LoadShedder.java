@@ -0,0 +1,226 @@
+package de.otto.rx.composer.page;
+
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.client.ClientScheduler;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Limits the number of fragments that are fetched concurrently, and skips fragments depending on their
+ * {@link Priority} if the composer is overloaded.
+ * <p>
+ *     A LoadShedder is shared by all pages of an application and is attached to a page using
+ *     {@link Page#withLoadShedder(LoadShedder)}. Skipped fragments are treated like fragments without content.
+ * </p>
+ * <ul>
+ *     <li>{@link Priority#CRITICAL Critical} fragments are never skipped. The reserved capacity of the
+ *     LoadShedder can only be used by critical fragments.</li>
+ *     <li>{@link Priority#NORMAL Normal} fragments are skipped if the number of fragments in flight has reached
+ *     the capacity, not including the reserved capacity.</li>
+ *     <li>{@link Priority#OPTIONAL Optional} fragments are skipped if the LoadShedder {@link #isSaturated() is
+ *     saturated}: if normal fragments are skipped, if the queue of a {@link #withQueueLimit(ClientScheduler, int)
+ *     monitored scheduler} is exceeding its limit, or if the average latency of the fragments is exceeding the
+ *     {@link #withLatencyThreshold(long) latency threshold}.</li>
+ * </ul>
+ * <p>
+ *     The average latency is an exponentially weighted moving average of the durations of the admitted fragments.
+ * </p>
+ */
+public final class LoadShedder {
+
+    private static final Logger LOG = getLogger(LoadShedder.class);
+
+    /** Weight of the latest sample in the moving average of the latency is 1 / 2^LATENCY_SMOOTHING. */
+    private static final int LATENCY_SMOOTHING = 3;
+
+    private final int capacity;
+    private final int reservedCapacity;
+    private final long latencyThresholdNanos;
+    private final ImmutableList<QueueLimit> queueLimits;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong averageLatencyNanos = new AtomicLong();
+    private final LongAdder[] shedFragments = new LongAdder[Priority.values().length];
+
+    private LoadShedder(final int capacity,
+                        final int reservedCapacity,
+                        final long latencyThresholdNanos,
+                        final ImmutableList<QueueLimit> queueLimits) {
+        checkArgument(capacity > 0, "capacity must be greater than 0");
+        checkArgument(reservedCapacity >= 0 && reservedCapacity < capacity, "reservedCapacity must be positive and less than capacity");
+        this.capacity = capacity;
+        this.reservedCapacity = reservedCapacity;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.queueLimits = queueLimits;
+        for (int i = 0; i < shedFragments.length; i++) {
+            shedFragments[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Creates a LoadShedder that is limiting the number of fragments in flight.
+     *
+     * @param capacity the maximum number of fragments in flight, including the reserved capacity
+     * @param reservedCapacity the part of the capacity that is reserved for critical fragments
+     * @return LoadShedder
+     */
+    public static LoadShedder loadShedder(final int capacity, final int reservedCapacity) {
+        return new LoadShedder(capacity, reservedCapacity, 0, ImmutableList.of());
+    }
+
+    /**
+     * Returns a copy of this LoadShedder that is saturated, if the number of requests waiting in the queue of
+     * the scheduler is exceeding the limit.
+     * <p>
+     *     The returned LoadShedder has its own counters, so it should be configured before it is used.
+     * </p>
+     *
+     * @param scheduler the monitored scheduler
+     * @param maxQueueSize the maximum number of waiting requests
+     * @return LoadShedder
+     */
+    public LoadShedder withQueueLimit(final ClientScheduler scheduler, final int maxQueueSize) {
+        checkNotNull(scheduler, "scheduler must not be null");
+        checkArgument(maxQueueSize >= 0, "maxQueueSize must not be negative");
+        return new LoadShedder(capacity, reservedCapacity, latencyThresholdNanos, ImmutableList.<QueueLimit>builder()
+                .addAll(queueLimits)
+                .add(new QueueLimit(scheduler, maxQueueSize))
+                .build());
+    }
+
+    /**
+     * Returns a copy of this LoadShedder that is saturated, if the average latency of the fragments is
+     * exceeding the threshold.
+     * <p>
+     *     The returned LoadShedder has its own counters, so it should be configured before it is used.
+     * </p>
+     *
+     * @param thresholdMillis the latency threshold in milliseconds
+     * @return LoadShedder
+     */
+    public LoadShedder withLatencyThreshold(final long thresholdMillis) {
+        checkArgument(thresholdMillis > 0, "thresholdMillis must be greater than 0");
+        return new LoadShedder(capacity, reservedCapacity, MILLISECONDS.toNanos(thresholdMillis), queueLimits);
+    }
+
+    /**
+     * Returns true, if optional fragments are skipped.
+     *
+     * @return true if saturated, false otherwise
+     */
+    public boolean isSaturated() {
+        if (inFlight.get() >= capacity - reservedCapacity) {
+            return true;
+        }
+        if (latencyThresholdNanos > 0 && averageLatencyNanos.get() > latencyThresholdNanos) {
+            return true;
+        }
+        for (final QueueLimit queueLimit : queueLimits) {
+            if (queueLimit.scheduler.getQueueSize() > queueLimit.maxQueueSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tries to admit a fragment with the given priority.
+     *
+     * @param priority the priority of the fragment
+     * @return a Permit that must be released after the fragment was fetched, or null if the fragment is skipped.
+     */
+    Permit tryAcquire(final Priority priority) {
+        if (priority == Priority.OPTIONAL && isSaturated()) {
+            return shed(priority);
+        }
+        final int current = inFlight.incrementAndGet();
+        if (priority != Priority.CRITICAL && current > capacity - reservedCapacity) {
+            inFlight.decrementAndGet();
+            return shed(priority);
+        }
+        return new Permit(nanoTime());
+    }
+
+    /**
+     * Returns the number of fragments that are currently fetched.
+     *
+     * @return fragments in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the moving average of the durations of the fetched fragments.
+     *
+     * @return average latency in milliseconds
+     */
+    public long getAverageLatencyMillis() {
+        return NANOSECONDS.toMillis(averageLatencyNanos.get());
+    }
+
+    /**
+     * Returns the number of fragments with the given priority that were skipped.
+     *
+     * @param priority the priority of the fragments
+     * @return number of skipped fragments
+     */
+    public long getShedFragments(final Priority priority) {
+        return shedFragments[priority.ordinal()].sum();
+    }
+
+    private Permit shed(final Priority priority) {
+        shedFragments[priority.ordinal()].increment();
+        LOG.debug("Skipping {} fragment: {} fragments in flight", priority, inFlight.get());
+        return null;
+    }
+
+    private void record(final long latencyNanos) {
+        averageLatencyNanos.accumulateAndGet(latencyNanos, (average, latency) -> average == 0
+                ? latency
+                : average + ((latency - average) >> LATENCY_SMOOTHING));
+    }
+
+    /**
+     * The admission of a fragment, released after the fragment was fetched or cancelled.
+     */
+    final class Permit {
+        private final long startedNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(final long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+
+        /**
+         * Releases the permit and records the latency of the fragment. Subsequent calls are ignored.
+         */
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                record(nanoTime() - startedNanos);
+            }
+        }
+    }
+
+    private static final class QueueLimit {
+        private final ClientScheduler scheduler;
+        private final int maxQueueSize;
+
+        private QueueLimit(final ClientScheduler scheduler, final int maxQueueSize) {
+            this.scheduler = scheduler;
+            this.maxQueueSize = maxQueueSize;
+        }
+    }
+}
@@ -2,21 +2,28 @@ package de.otto.rx.composer.page;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
+import com.google.common.collect.ImmutableSet;
 import de.otto.rx.composer.content.Content;
 import de.otto.rx.composer.content.Contents;
 import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.PositionIndex;
 import de.otto.rx.composer.content.Statistics;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.page.CompositeFragment.FragmentContinuation;
 import de.otto.rx.composer.tracer.TraceEvent;
 import de.otto.rx.composer.tracer.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableList.builder;
-import static de.otto.rx.composer.content.Contents.contentsBuilder;
-import static rx.Observable.from;
+import static de.otto.rx.composer.content.PositionIndex.positionIndex;
+import static de.otto.rx.composer.page.RxEngine.rxEngine;
+import static java.lang.System.nanoTime;
 
 /**
  * A plan describes how to gather {@link de.otto.rx.composer.content.Content} from one or more
@@ -62,9 +69,13 @@ public final class Page {
     private static final Logger LOG = LoggerFactory.getLogger(Page.class);
 
     private final ImmutableList<Fragment> fragments;
+    private final PositionIndex positionIndex;
 
     private Page(final ImmutableList<Fragment> fragments) {
         this.fragments = fragments;
+        final ImmutableList.Builder<Position> positions = builder();
+        fragments.forEach(fragment -> collectPositions(fragment, positions));
+        this.positionIndex = positionIndex(positions.build());
     }
 
     /**
@@ -108,38 +119,227 @@ public final class Page {
 
     /**
      * Concurrently fetches the fragments of the page and returns the {@link Content#isAvailable() available} {@link Contents}.
+     * <p>
+     *     {@link Fragments#lazyFragment(Position, de.otto.rx.composer.providers.ContentProvider) Lazy fragments}
+     *     are not fetched.
+     * </p>
      *
      * @param params Parameters used to fetch the content
      * @param tracer the Tracer used to process {@link TraceEvent trace events}.
      * @return available Contents
      */
     public Contents fetchWith(final Parameters params, final Tracer tracer) {
+        return streamWith(params, tracer).awaitAll();
+    }
 
-        // use a latch to await execution of all fragments:
-        final CountDownLatch latch = new CountDownLatch(1);
-        final Contents.Builder contents = contentsBuilder();
-        from(fragments)
-                .flatMap((fragment) -> fragment.fetchWith(tracer, params))
-                .subscribe(
-                        contents::add,
-                        (t) -> LOG.error(t.getMessage(), t),
-                        latch::countDown
-                );
-        try {
-            // wait for completion of the plan execution:
-            latch.await();
-        } catch (final InterruptedException e) {
-            LOG.error("Interrupted waiting for Contents: {}", e.getMessage());
-        }
+    /**
+     * Concurrently fetches the fragments of the page using the specified {@link ExecutionEngine}, and returns the
+     * {@link Content#isAvailable() available} {@link Contents}.
+     *
+     * @param params Parameters used to fetch the content
+     * @param tracer the Tracer used to process {@link TraceEvent trace events}.
+     * @param engine the engine used to execute the fragments
+     * @return available Contents
+     */
+    public Contents fetchWith(final Parameters params, final Tracer tracer, final ExecutionEngine engine) {
+        return streamWith(params, tracer, engine).awaitAll();
+    }
+
+    /**
+     * Starts to concurrently fetch the fragments of the page and immediately returns {@link StreamingContents}
+     * that are populated as soon as the contents of the fragments arrive.
+     * <p>
+     *     Getting the content of a position from the returned StreamingContents is blocking until the content of
+     *     this position has arrived, so the page can be rendered while fragments are still fetched.
+     * </p>
+     * <p>
+     *     {@link Fragments#lazyFragment(Position, de.otto.rx.composer.providers.ContentProvider) Lazy fragments}
+     *     are only fetched when their content is requested or prefetched. The lazy fragments are not part of
+     *     the {@link Statistics} of the page.
+     * </p>
+     * <p>
+     *     The fragments are executed by the {@link RxEngine#rxEngine() RxEngine}.
+     * </p>
+     *
+     * @param params Parameters used to fetch the content
+     * @param tracer the Tracer used to process {@link TraceEvent trace events}.
+     * @return StreamingContents
+     */
+    public StreamingContents streamWith(final Parameters params, final Tracer tracer) {
+        return streamWith(params, tracer, rxEngine());
+    }
+
+    /**
+     * Starts to concurrently fetch the fragments of the page using the specified {@link ExecutionEngine}, and
+     * immediately returns {@link StreamingContents} that are populated as soon as the contents of the fragments
+     * arrive.
+     *
+     * @param params Parameters used to fetch the content
+     * @param tracer the Tracer used to process {@link TraceEvent trace events}.
+     * @param engine the engine used to execute the fragments
+     * @return StreamingContents
+     */
+    public StreamingContents streamWith(final Parameters params, final Tracer tracer, final ExecutionEngine engine) {
+        return engine.execute(this, params, tracer);
+    }
+
+    /**
+     * Completes the contents of the page after all fragments were fetched by an {@link ExecutionEngine}.
+     *
+     * @param contents the contents of the page
+     * @param tracer the Tracer used to trace the execution of the page
+     * @param startedNanos the time the execution of the page was started
+     */
+    static void complete(final StreamingContents contents, final Tracer tracer, final long startedNanos) {
+        tracer.getMetrics().pageFetched(nanoTime() - startedNanos);
+        tracer.pageCompleted();
         final Statistics statistics = tracer.getStatistics();
-        LOG.info(statistics.toString());
-        return contents
-                .setStats(statistics)
-                .build();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(statistics.toString());
+        }
+        contents.complete(statistics);
+    }
+
+    /**
+     * Returns a Page that is only fetching the fragments of the given positions, for example the positions that are
+     * referenced by the template used to render the page.
+     * <p>
+     *     Fragments of other positions are skipped, unless they are followed by nested fragments of used positions:
+     *     in this case, they are still fetched, because the nested fragments need their content.
+     *     The skipped positions are logged as a warning, so unused fragment definitions can be removed.
+     * </p>
+     * <p>
+     *     {@link Fragments#lazyFragment(Position, de.otto.rx.composer.providers.ContentProvider) Lazy fragments}
+     *     are always kept: they are only fetched on demand anyway, and their content may be requested by code
+     *     that is not visible to a scan of the template, like lazy context variables.
+     * </p>
+     *
+     * @param usedPositions the names of the positions that are used
+     * @return Page
+     * @throws IllegalArgumentException if none of the fragments is used, because a Page must not be empty.
+     */
+    public Page withOnlyPositions(final Set<String> usedPositions) {
+        final ImmutableList.Builder<Fragment> usedFragments = builder();
+        for (final Fragment fragment : fragments) {
+            final Fragment usedFragment = usedFragmentOf(fragment, usedPositions);
+            if (usedFragment != null) {
+                usedFragments.add(usedFragment);
+            }
+        }
+        final ImmutableList<Fragment> used = usedFragments.build();
+        checkArgument(!used.isEmpty(), "None of the fragments is used by the positions %s", usedPositions);
+        final ImmutableSet<String> unusedPositions = unusedPositions(usedPositions);
+        if (!unusedPositions.isEmpty()) {
+            LOG.warn("Positions {} are not used and will not be fetched", unusedPositions);
+        }
+        return new Page(used);
+    }
+
+    /**
+     * Returns a Page that is using the LoadShedder to limit the number of fragments fetched concurrently. If the
+     * composer is overloaded, fragments are skipped depending on their {@link Priority}, and treated as
+     * fragments without content.
+     * <p>
+     *     The same LoadShedder should be used by all pages of an application.
+     * </p>
+     *
+     * @param loadShedder the LoadShedder used by the fragments of the page, including nested fragments.
+     * @return Page
+     */
+    public Page withLoadShedder(final LoadShedder loadShedder) {
+        checkNotNull(loadShedder, "loadShedder must not be null");
+        final ImmutableList.Builder<Fragment> shedFragments = builder();
+        for (final Fragment fragment : fragments) {
+            shedFragments.add(withLoadShedder(fragment, loadShedder));
+        }
+        return new Page(shedFragments.build());
+    }
+
+    /**
+     * Returns the names of the positions of the page, including nested fragments, that are not contained in the
+     * given set of used positions. Positions of lazy fragments are not returned, because they are never skipped.
+     *
+     * @param usedPositions the names of the positions that are used
+     * @return unused positions
+     */
+    public ImmutableSet<String> unusedPositions(final Set<String> usedPositions) {
+        final ImmutableList.Builder<Position> positions = builder();
+        fragments.stream()
+                .filter(fragment -> !(fragment instanceof LazyFragment))
+                .forEach(fragment -> collectPositions(fragment, positions));
+        final ImmutableSet.Builder<String> unused = ImmutableSet.builder();
+        for (final Position position : positions.build()) {
+            if (!usedPositions.contains(position.name())) {
+                unused.add(position.name());
+            }
+        }
+        return unused.build();
     }
 
     ImmutableList<Fragment> getFragments() {
         return fragments;
     }
 
+    /**
+     * Returns the index of all positions of the page, including the positions of nested fragments.
+     *
+     * @return PositionIndex
+     */
+    public PositionIndex getPositionIndex() {
+        return positionIndex;
+    }
+
+    private static Fragment usedFragmentOf(final Fragment fragment, final Set<String> usedPositions) {
+        if (fragment instanceof LazyFragment) {
+            return fragment;
+        }
+        final boolean used = fragment.getPosition() == null || usedPositions.contains(fragment.getPosition().name());
+        if (fragment instanceof CompositeFragment) {
+            final CompositeFragment composite = (CompositeFragment) fragment;
+            final FragmentContinuation continuation = composite.getContinuation();
+            final ImmutableList.Builder<Fragment> usedNested = builder();
+            for (final Fragment nested : continuation.nested) {
+                final Fragment usedFragment = usedFragmentOf(nested, usedPositions);
+                if (usedFragment != null) {
+                    usedNested.add(usedFragment);
+                }
+            }
+            final ImmutableList<Fragment> nested = usedNested.build();
+            if (nested.size() == continuation.nested.size()) {
+                return fragment;
+            } else if (used || !nested.isEmpty()) {
+                return composite.withContinuation(new FragmentContinuation(continuation.paramExtractor, nested));
+            } else {
+                return null;
+            }
+        }
+        return used ? fragment : null;
+    }
+
+    private static Fragment withLoadShedder(final Fragment fragment, final LoadShedder loadShedder) {
+        if (fragment instanceof SingleFragment) {
+            return ((SingleFragment) fragment).withLoadShedder(loadShedder);
+        } else if (fragment instanceof LazyFragment) {
+            return new LazyFragment(withLoadShedder(((LazyFragment) fragment).getDelegate(), loadShedder));
+        } else if (fragment instanceof CompositeFragment) {
+            final CompositeFragment composite = (CompositeFragment) fragment;
+            final FragmentContinuation continuation = composite.getContinuation();
+            final ImmutableList.Builder<Fragment> nested = builder();
+            continuation.nested.forEach(nestedFragment -> nested.add(withLoadShedder(nestedFragment, loadShedder)));
+            return new CompositeFragment(
+                    withLoadShedder(composite.getFirst(), loadShedder),
+                    new FragmentContinuation(continuation.paramExtractor, nested.build()));
+        }
+        return fragment;
+    }
+
+    private static void collectPositions(final Fragment fragment, final ImmutableList.Builder<Position> positions) {
+        if (fragment.getPosition() != null) {
+            positions.add(fragment.getPosition());
+        }
+        if (fragment instanceof CompositeFragment) {
+            ((CompositeFragment) fragment).getContinuation().nested.forEach(nested -> collectPositions(nested, positions));
+        }
+    }
+
 }
@@ -0,0 +1,23 @@
+package de.otto.rx.composer.page;
+
+/**
+ * The priority of a {@link Fragment}, used by the {@link LoadShedder} of a {@link Page} to decide which fragments
+ * are skipped if the composer is overloaded.
+ */
+public enum Priority {
+    /**
+     * The main content of a page. Critical fragments are never skipped, and they are able to use the reserved
+     * capacity of the LoadShedder.
+     */
+    CRITICAL,
+    /**
+     * The default priority of fragments. Normal fragments are skipped if the capacity of the LoadShedder, not
+     * including the reserved capacity, is exhausted.
+     */
+    NORMAL,
+    /**
+     * Fragments that are not required to render the page, like recommendations or "recently viewed" widgets.
+     * Optional fragments are skipped as soon as the LoadShedder detects saturation.
+     */
+    OPTIONAL
+}
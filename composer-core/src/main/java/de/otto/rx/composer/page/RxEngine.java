@@ -0,0 +1,61 @@
+package de.otto.rx.composer.page;
+
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.tracer.Tracer;
+import org.slf4j.Logger;
+
+import static com.google.common.collect.ImmutableList.builder;
+import static de.otto.rx.composer.content.StreamingContents.streamingContents;
+import static java.lang.System.nanoTime;
+import static org.slf4j.LoggerFactory.getLogger;
+import static rx.Observable.defer;
+import static rx.Observable.from;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This is the default engine: the Observables of all fragments are merged using {@code flatMap}, and the page is
+ *     completed when the merged Observable is completed.
+ * </p>
+ */
+public final class RxEngine implements ExecutionEngine {
+
+    private static final Logger LOG = getLogger(RxEngine.class);
+
+    private static final RxEngine RX_ENGINE = new RxEngine();
+
+    private RxEngine() {
+    }
+
+    public static ExecutionEngine rxEngine() {
+        return RX_ENGINE;
+    }
+
+    @Override
+    public StreamingContents execute(final Page page, final Parameters params, final Tracer tracer) {
+        final long startedNanos = nanoTime();
+        final StreamingContents contents = streamingContents(page.getPositionIndex());
+        final ImmutableList.Builder<Fragment> eagerFragments = builder();
+        for (final Fragment fragment : page.getFragments()) {
+            if (fragment instanceof LazyFragment) {
+                contents.addLazy(fragment.getPosition(), defer(() -> fragment.fetchWith(tracer, params)));
+            } else {
+                eagerFragments.add(fragment);
+            }
+        }
+        from(eagerFragments.build())
+                .flatMap((fragment) -> fragment.fetchWith(tracer, params))
+                .subscribe(
+                        contents::add,
+                        (t) -> {
+                            LOG.error(t.getMessage(), t);
+                            Page.complete(contents, tracer, startedNanos);
+                        },
+                        () -> Page.complete(contents, tracer, startedNanos)
+                );
+        return contents;
+    }
+
+}
@@ -4,14 +4,21 @@ import de.otto.rx.composer.content.Content;
 import de.otto.rx.composer.content.ErrorContent;
 import de.otto.rx.composer.content.Parameters;
 import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.providers.ContentCallback;
 import de.otto.rx.composer.providers.ContentProvider;
+import de.otto.rx.composer.providers.SingleValuedContentProvider;
 import de.otto.rx.composer.tracer.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
+import rx.Subscription;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static de.otto.rx.composer.content.ErrorContent.errorContent;
-import static de.otto.rx.composer.tracer.TraceEvent.exception;
+import static rx.Observable.defer;
+import static rx.Observable.empty;
 import static rx.Observable.just;
 
 /**
@@ -29,6 +36,14 @@ class SingleFragment implements Fragment {
      * The Fragment's Position in the Plan.
      */
     private final Position position;
+    /**
+     * The Priority used by the LoadShedder to decide whether or not the Fragment is skipped.
+     */
+    private final Priority priority;
+    /**
+     * The optional LoadShedder of the Page.
+     */
+    private final LoadShedder loadShedder;
 
     /**
      * Create a SingleFragment instance for a Position using a ContentProvider.
@@ -38,8 +53,25 @@ class SingleFragment implements Fragment {
      */
     SingleFragment(final Position position,
                    final ContentProvider contentProvider) {
+        this(position, contentProvider, Priority.NORMAL, null);
+    }
+
+    /**
+     * Create a SingleFragment instance for a Position using a ContentProvider.
+     *
+     * @param position the resulting Content's Position.
+     * @param contentProvider the ContentProvider used to actually fetch the Content.
+     * @param priority the Priority of the Fragment.
+     * @param loadShedder the LoadShedder deciding whether or not the Fragment is fetched, or null.
+     */
+    SingleFragment(final Position position,
+                   final ContentProvider contentProvider,
+                   final Priority priority,
+                   final LoadShedder loadShedder) {
         this.position = position;
         this.contentProvider = contentProvider;
+        this.priority = priority;
+        this.loadShedder = loadShedder;
     }
 
     /**
@@ -48,25 +80,144 @@ class SingleFragment implements Fragment {
      *     This implementation is forwarding the Parameters to the ContentProvider.
      *     Exceptions are logged and returned as an {@link ErrorContent}.
      * </p>
+     * <p>
+     *     {@link SingleValuedContentProvider Single-valued} ContentProviders are called using their callback,
+     *     so no operators are needed to handle errors and unavailable content.
+     * </p>
+     * <p>
+     *     If the Page has a {@link LoadShedder}, the Fragment is skipped and does not emit any content, if it is
+     *     not admitted by the LoadShedder.
+     * </p>
      */
     @Override
     public Observable<Content> fetchWith(final Tracer tracer, final Parameters parameters) {
+        if (loadShedder != null) {
+            return defer(() -> {
+                final LoadShedder.Permit permit = loadShedder.tryAcquire(priority);
+                if (permit == null) {
+                    return empty();
+                }
+                return fetch(tracer, parameters)
+                        .doOnTerminate(permit::release)
+                        .doOnUnsubscribe(permit::release);
+            });
+        }
+        return fetch(tracer, parameters);
+    }
+
+    private Observable<Content> fetch(final Tracer tracer, final Parameters parameters) {
+        if (contentProvider instanceof SingleValuedContentProvider) {
+            final SingleValuedContentProvider singleValued = (SingleValuedContentProvider) contentProvider;
+            return Observable.create(subscriber -> {
+                final long startedTs = System.currentTimeMillis();
+                try {
+                    subscriber.add(singleValued.fetchContent(position, tracer, parameters, new ContentCallback() {
+                        @Override
+                        public void onContent(final Content content) {
+                            if (content != null && content.isAvailable()) {
+                                subscriber.onNext(content);
+                            }
+                            subscriber.onCompleted();
+                        }
+
+                        @Override
+                        public void onError(final Throwable throwable) {
+                            tracer.traceException(position, "", throwable);
+                            subscriber.onCompleted();
+                        }
+                    }));
+                } catch (final RuntimeException e) {
+                    tracer.traceException(position, "", e);
+                    subscriber.onNext(errorContent(position, e, startedTs));
+                    subscriber.onCompleted();
+                }
+            });
+        }
         final long startedTs = System.currentTimeMillis();
         try {
             return contentProvider
                     .getContent(position, tracer, parameters)
                     .onErrorReturn(e -> {
                         final ErrorContent errorContent = errorContent(position, e, startedTs);
-                        tracer.trace(exception(position, "", e));
+                        tracer.traceException(position, "", e);
                         return errorContent;
                     })
                     .filter(Content::isAvailable);
         } catch (final Exception e) {
-            tracer.trace(exception(position, e));
+            tracer.traceException(position, "", e);
             return just(errorContent(position, e, startedTs));
         }
     }
 
+    /**
+     * Fetches the content by blocking the current thread until the ContentProvider has emitted the content, as
+     * done by the {@link BlockingEngine}.
+     * <p>
+     *     Exceptions are logged and returned as an {@link ErrorContent}.
+     * </p>
+     *
+     * @param tracer the current request context
+     * @param parameters parameters provided when fetching the {@link Page}
+     * @return content, or null if the ContentProvider did not emit a content or the Fragment was skipped
+     */
+    Content fetchBlocking(final Tracer tracer, final Parameters parameters) {
+        if (loadShedder != null) {
+            final LoadShedder.Permit permit = loadShedder.tryAcquire(priority);
+            if (permit == null) {
+                return null;
+            }
+            try {
+                return fetchBlockingUnlimited(tracer, parameters);
+            } finally {
+                permit.release();
+            }
+        }
+        return fetchBlockingUnlimited(tracer, parameters);
+    }
+
+    private Content fetchBlockingUnlimited(final Tracer tracer, final Parameters parameters) {
+        final long startedTs = System.currentTimeMillis();
+        if (contentProvider instanceof SingleValuedContentProvider) {
+            final CompletableFuture<Content> result = new CompletableFuture<>();
+            final Subscription subscription;
+            try {
+                subscription = ((SingleValuedContentProvider) contentProvider).fetchContent(position, tracer, parameters, new ContentCallback() {
+                    @Override
+                    public void onContent(final Content content) {
+                        result.complete(content);
+                    }
+
+                    @Override
+                    public void onError(final Throwable throwable) {
+                        result.completeExceptionally(throwable);
+                    }
+                });
+            } catch (final RuntimeException e) {
+                tracer.traceException(position, "", e);
+                return errorContent(position, e, startedTs);
+            }
+            try {
+                return result.get();
+            } catch (final InterruptedException e) {
+                subscription.unsubscribe();
+                Thread.currentThread().interrupt();
+                return errorContent(position, e, startedTs);
+            } catch (final ExecutionException e) {
+                tracer.traceException(position, "", e.getCause());
+                return errorContent(position, e.getCause(), startedTs);
+            }
+        }
+        try {
+            return contentProvider
+                    .getContent(position, tracer, parameters)
+                    .toBlocking()
+                    .singleOrDefault(null);
+        } catch (final Exception e) {
+            tracer.traceException(position, "", e);
+            return errorContent(position, e, startedTs);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -74,4 +225,12 @@ class SingleFragment implements Fragment {
     public Position getPosition() {
         return position;
     }
+
+    Priority getPriority() {
+        return priority;
+    }
+
+    SingleFragment withLoadShedder(final LoadShedder loadShedder) {
+        return new SingleFragment(position, contentProvider, priority, loadShedder);
+    }
 }
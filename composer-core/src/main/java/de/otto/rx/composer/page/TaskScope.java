@@ -0,0 +1,124 @@
+package de.otto.rx.composer.page;
+
+import org.slf4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * The scope of the tasks that are executed to fetch a single page using the {@link BlockingEngine}.
+ * <p>
+ *     Tasks are {@link #fork(Runnable) forked} into the scope, also by other tasks of the same scope. The owner of
+ *     the scope is {@link #joinUntil(long) joining} all tasks and {@link #close() closes} the scope afterwards, which
+ *     is cancelling the tasks that are still running, for example because the deadline of the page is exceeded.
+ *     Tasks forked into a closed scope are ignored.
+ * </p>
+ * <p>
+ *     This is a minimal variant of the structured task scopes of newer JDKs, running on Java 8.
+ * </p>
+ */
+final class TaskScope implements AutoCloseable {
+
+    private static final Logger LOG = getLogger(TaskScope.class);
+
+    private final ExecutorService executor;
+    private final Queue<Future<?>> futures = new ConcurrentLinkedQueue<>();
+    private final Object lock = new Object();
+    private int pending;
+    private boolean closed;
+
+    TaskScope(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Executes the task in a separate thread of the executor of the scope.
+     * <p>
+     *     Exceptions thrown by the task, or by the executor when the task is rejected, are logged.
+     * </p>
+     *
+     * @param task the task
+     */
+    void fork(final Runnable task) {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            ++pending;
+        }
+        try {
+            futures.add(executor.submit(() -> {
+                try {
+                    task.run();
+                } catch (final RuntimeException e) {
+                    LOG.error(e.getMessage(), e);
+                } finally {
+                    taskCompleted();
+                }
+            }));
+        } catch (final RejectedExecutionException e) {
+            LOG.error("Task rejected: {}", e.getMessage());
+            taskCompleted();
+        }
+    }
+
+    /**
+     * Waits until all forked tasks are completed, including the tasks forked by other tasks, or until the
+     * deadline is exceeded.
+     *
+     * @param deadlineNanos the deadline as returned by {@link System#nanoTime()}, or {@link Long#MAX_VALUE} to
+     *                      wait without deadline.
+     * @return true if all tasks are completed, false if the deadline is exceeded or the thread was interrupted.
+     */
+    boolean joinUntil(final long deadlineNanos) {
+        synchronized (lock) {
+            try {
+                while (pending > 0) {
+                    if (deadlineNanos == Long.MAX_VALUE) {
+                        lock.wait();
+                    } else {
+                        final long remainingNanos = deadlineNanos - nanoTime();
+                        if (remainingNanos <= 0) {
+                            return false;
+                        }
+                        NANOSECONDS.timedWait(lock, remainingNanos);
+                    }
+                }
+                return true;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Closes the scope and interrupts all tasks that are still running.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        for (final Future<?> future : futures) {
+            if (!future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void taskCompleted() {
+        synchronized (lock) {
+            if (--pending == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package de.otto.rx.composer.providers;
+
+import de.otto.rx.composer.cache.ContentCache;
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.metrics.Metrics;
+import de.otto.rx.composer.tracer.Tracer;
+import rx.Subscription;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static rx.subscriptions.Subscriptions.unsubscribed;
+
+/**
+ * A {@link ContentProvider} that is caching the contents of another ContentProvider, independent of the
+ * caching headers of the responses.
+ * <p>
+ *     Contents are cached per {@link Position} and the values of the {@link KeyParams}, and expire after the
+ *     time-to-live since they were fetched. The contents are stored in a bounded {@link ContentCache} that may be
+ *     shared with other CachingContentProviders, so the keys also contain this provider. Only
+ *     {@link Content#isAvailable() available} contents are cached, so errors and missing contents are fetched
+ *     again with the next request.
+ * </p>
+ * <p>
+ *     Cache hits and misses are recorded by the {@link Metrics} of the {@link Tracer}, using the name of the
+ *     position as the name of the cache. Concurrent misses of the same key are not coalesced.
+ * </p>
+ */
+final class CachingContentProvider implements SingleValuedContentProvider {
+
+    private final SingleValuedContentProvider delegate;
+    private final long ttlMillis;
+    private final KeyParams keyParams;
+    private final ContentCache cache;
+
+    CachingContentProvider(final ContentProvider delegate,
+                           final long ttlMillis,
+                           final KeyParams keyParams,
+                           final ContentCache cache) {
+        checkArgument(ttlMillis > 0, "ttlMillis must be greater than 0");
+        this.delegate = ContentProviders.singleValued(checkNotNull(delegate, "delegate must not be null"));
+        this.ttlMillis = ttlMillis;
+        this.keyParams = checkNotNull(keyParams, "keyParams must not be null");
+        this.cache = checkNotNull(cache, "cache must not be null");
+    }
+
+    @Override
+    public Subscription fetchContent(final Position position,
+                                     final Tracer tracer,
+                                     final Parameters parameters,
+                                     final ContentCallback callback) {
+        final List<Object> key = keyParams.keyOf(this, position, parameters);
+        final Metrics metrics = tracer.getMetrics();
+        final Content cached = cache.get(key);
+        if (cached != null) {
+            metrics.cacheHit(position.name());
+            callback.onContent(cached);
+            return unsubscribed();
+        }
+        metrics.cacheMiss(position.name());
+        return delegate.fetchContent(position, tracer, parameters, new ContentCallback() {
+            @Override
+            public void onContent(final Content content) {
+                if (content != null && content.isAvailable() && !content.isErrorContent()) {
+                    cache.put(key, content, ttlMillis);
+                }
+                callback.onContent(content);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                callback.onError(throwable);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,27 @@
+package de.otto.rx.composer.providers;
+
+import de.otto.rx.composer.content.Content;
+
+/**
+ * Receives the result of a {@link SingleValuedContentProvider}.
+ * <p>
+ *     Exactly one of the methods is called exactly once, possibly in the thread that has requested the content.
+ * </p>
+ */
+public interface ContentCallback {
+
+    /**
+     * Called with the fetched content.
+     *
+     * @param content the content, or null if no content is available.
+     */
+    void onContent(Content content);
+
+    /**
+     * Called if fetching the content has failed.
+     *
+     * @param throwable the cause of the failure
+     */
+    void onError(Throwable throwable);
+
+}
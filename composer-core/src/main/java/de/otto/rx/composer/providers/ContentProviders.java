@@ -2,6 +2,8 @@ package de.otto.rx.composer.providers;
 
 import com.damnhandy.uri.template.UriTemplate;
 import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.cache.ContentCache;
+import de.otto.rx.composer.cache.SnapshotStore;
 import de.otto.rx.composer.client.ServiceClient;
 import de.otto.rx.composer.content.*;
 import de.otto.rx.composer.tracer.Tracer;
@@ -11,15 +13,21 @@ import rx.Observable;
 
 import java.util.function.Predicate;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static de.otto.rx.composer.cache.HeapContentCache.heapContentCache;
 import static de.otto.rx.composer.content.ContentMatcher.contentMatcher;
 import static java.util.Comparator.comparingInt;
-import static rx.Observable.just;
+import static rx.schedulers.Schedulers.computation;
+import static rx.subscriptions.Subscriptions.unsubscribed;
 
 public final class ContentProviders {
 
     private static final Logger LOG = LoggerFactory.getLogger(ContentProviders.class);
 
+    /** The maximum number of contents cached by {@link #cached(ContentProvider, long, KeyParams)}. */
+    public static final int DEFAULT_MAX_CACHED_CONTENTS = 1000;
+
     private ContentProviders() {}
 
     /**
@@ -164,7 +172,119 @@ public final class ContentProviders {
      * @return ContentProvider
      */
     public static ContentProvider fallbackTo(final Content fallbackContent) {
-        return (position, requestContext, parameters) -> just(fallbackContent);
+        final SingleValuedContentProvider contentProvider = (position, requestContext, parameters, callback) -> {
+            callback.onContent(fallbackContent);
+            return unsubscribed();
+        };
+        return contentProvider;
+    }
+
+    /**
+     * Returns a {@link SingleValuedContentProvider} for the specified ContentProvider.
+     * <p>
+     *     Single-valued ContentProviders are returned as-is, others are adapted by subscribing to the Observable
+     *     returned by the ContentProvider. Only the first available content emitted by the Observable is used.
+     * </p>
+     *
+     * @param contentProvider the ContentProvider
+     * @return SingleValuedContentProvider
+     */
+    public static SingleValuedContentProvider singleValued(final ContentProvider contentProvider) {
+        checkNotNull(contentProvider, "Parameter must not be null");
+        return contentProvider instanceof SingleValuedContentProvider
+                ? (SingleValuedContentProvider) contentProvider
+                : new SingleValuedAdapter(contentProvider);
+    }
+
+    /**
+     * Returns a ContentProvider that is storing the contents fetched by a ContentProvider created using
+     * {@link #contentFrom(ServiceClient, UriTemplate, String) contentFrom()} in the given SnapshotStore, so the
+     * last good content of every URL is available after a restart.
+     * <p>
+     *     Snapshots younger than {@code maxAgeMillis} are returned without fetching the content. Older snapshots
+     *     are returned if fetching the content fails, or if the content is not available. Use a maxAgeMillis of 0
+     *     to use the snapshots only as fallback contents.
+     * </p>
+     *
+     * @param contentProvider the ContentProvider created using contentFrom()
+     * @param store the store of the snapshots
+     * @param maxAgeMillis the maximum age of snapshots that are returned instead of fetching the content
+     * @return ContentProvider
+     * @throws IllegalArgumentException if the contentProvider was not created using contentFrom()
+     */
+    public static ContentProvider snapshotted(final ContentProvider contentProvider,
+                                              final SnapshotStore store,
+                                              final long maxAgeMillis) {
+        checkArgument(contentProvider instanceof HttpContentProvider, "contentProvider must be created using contentFrom()");
+        return new SnapshottingContentProvider((HttpContentProvider) contentProvider, store, maxAgeMillis);
+    }
+
+    /**
+     * Returns a ContentProvider that is caching the available contents of the specified ContentProvider for the
+     * time-to-live, even if the responses of the service have no caching headers. At most
+     * {@link #DEFAULT_MAX_CACHED_CONTENTS} contents are cached.
+     * <p>
+     *     Example:
+     * </p>
+     * <pre><code>
+     *     fragment(X,
+     *          cached(
+     *                  contentFrom(client, fromTemplate("http://example.com/teaser{?category,lang}"), TEXT_HTML),
+     *                  60000,
+     *                  keyParams("category", "lang"))
+     *     )
+     * </code></pre>
+     * <p>
+     *     The contents are cached per position and the values of the key parameters. Other parameters are not part
+     *     of the key, so the KeyParams must contain all parameters the ContentProvider depends on.
+     * </p>
+     *
+     * @param contentProvider the cached ContentProvider
+     * @param ttlMillis the time-to-live of the cached contents in milliseconds
+     * @param keyParams the names of the parameters used by the ContentProvider
+     * @return ContentProvider
+     */
+    public static ContentProvider cached(final ContentProvider contentProvider,
+                                         final long ttlMillis,
+                                         final KeyParams keyParams) {
+        return cached(contentProvider, ttlMillis, DEFAULT_MAX_CACHED_CONTENTS, keyParams);
+    }
+
+    /**
+     * Returns a ContentProvider that is caching at most maxEntries available contents of the specified
+     * ContentProvider for the time-to-live, even if the responses of the service have no caching headers.
+     *
+     * @param contentProvider the cached ContentProvider
+     * @param ttlMillis the time-to-live of the cached contents in milliseconds
+     * @param maxEntries the maximum number of cached contents
+     * @param keyParams the names of the parameters used by the ContentProvider
+     * @return ContentProvider
+     * @see #cached(ContentProvider, long, KeyParams)
+     */
+    public static ContentProvider cached(final ContentProvider contentProvider,
+                                         final long ttlMillis,
+                                         final int maxEntries,
+                                         final KeyParams keyParams) {
+        return new CachingContentProvider(contentProvider, ttlMillis, keyParams, heapContentCache(maxEntries));
+    }
+
+    /**
+     * Returns a ContentProvider that is caching the available contents of the specified ContentProvider in the
+     * given ContentCache, for example an {@link de.otto.rx.composer.cache.OffHeapContentCache} shared by several
+     * ContentProviders.
+     *
+     * @param contentProvider the cached ContentProvider
+     * @param ttlMillis the time-to-live of the cached contents in milliseconds
+     * @param cache the cache used to store the contents
+     * @param keyParams the names of the parameters used by the ContentProvider
+     * @return ContentProvider
+     * @see #cached(ContentProvider, long, KeyParams)
+     */
+    public static ContentProvider cached(final ContentProvider contentProvider,
+                                         final long ttlMillis,
+                                         final ContentCache cache,
+                                         final KeyParams keyParams) {
+        return new CachingContentProvider(contentProvider, ttlMillis, keyParams, cache);
     }
 
     /**
@@ -198,6 +318,36 @@ public final class ContentProviders {
         return (position, tracer, parameters) -> contentProvider.getContent(position, tracer, parameters).map(ContentMappers::htmlBody);
     }
 
+    /**
+     * Returns a ContentProvider that is transforming the contents of the wrapped ContentProvider using a
+     * {@link ContentPipeline}.
+     * <p>
+     *     The transformation is executed on the bounded computation scheduler, so CPU-intensive transformations
+     *     do not block the I/O threads. The transformed body is stored in the returned {@link Content}, so the
+     *     transformation is executed only once per content.
+     * </p>
+     * <pre><code>
+     *     fragment(X,
+     *          transformed(
+     *                  contentFrom(client, "http://example.com/somePage", TEXT_HTML),
+     *                  contentPipeline().extractBody().stripComments().minify()
+     *          )
+     *     )
+     * </code></pre>
+     *
+     * @param contentProvider the wrapped ContentProvider
+     * @param pipeline the pipeline used to transform the contents
+     * @return ContentProvider enriched with the transformation of the content.
+     */
+    public static ContentProvider transformed(final ContentProvider contentProvider,
+                                              final ContentPipeline pipeline) {
+        checkNotNull(pipeline, "Parameter must not be null");
+        return (position, tracer, parameters) -> contentProvider
+                .getContent(position, tracer, parameters)
+                .observeOn(computation())
+                .map(pipeline::apply);
+    }
+
     /**
      * Fetch the {@link Content#isAvailable() available and non-empty} content from the quickest-responding
      * ContentProviders.
@@ -2,28 +2,48 @@ package de.otto.rx.composer.providers;
 
 import com.damnhandy.uri.template.UriTemplate;
 import de.otto.rx.composer.client.ClientConfig;
+import de.otto.rx.composer.client.Ref;
 import de.otto.rx.composer.client.ServiceClient;
 import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.HttpContent;
 import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.PhaseTimings;
 import de.otto.rx.composer.content.Position;
-import de.otto.rx.composer.tracer.TraceEvent;
+import de.otto.rx.composer.metrics.Metrics;
+import de.otto.rx.composer.tracer.Span;
 import de.otto.rx.composer.tracer.Tracer;
 import org.slf4j.Logger;
 import rx.Observable;
-import rx.schedulers.Schedulers;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.Subscriptions;
 
 import javax.ws.rs.ServerErrorException;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.damnhandy.uri.template.UriTemplate.fromTemplate;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableMap.of;
 import static de.otto.rx.composer.content.HttpContent.httpContent;
-import static de.otto.rx.composer.tracer.TraceEvent.*;
+import static de.otto.rx.composer.tracer.EventType.*;
+import static de.otto.rx.composer.tracer.Span.Kind.CLIENT;
+import static de.otto.rx.composer.tracer.Span.Kind.INTERNAL;
+import static de.otto.rx.composer.tracer.TraceContext.TRACEPARENT;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static javax.ws.rs.core.MediaType.WILDCARD_TYPE;
 import static javax.ws.rs.core.MediaType.valueOf;
 import static javax.ws.rs.core.Response.Status.Family.SERVER_ERROR;
 import static org.slf4j.LoggerFactory.getLogger;
+import static rx.Observable.defer;
+import static rx.subscriptions.Subscriptions.unsubscribed;
 
 /**
  * A ContentProvider that is fetching content using HTTP GET.
@@ -33,10 +53,11 @@ import static org.slf4j.LoggerFactory.getLogger;
  * </p>
  * <p>
  *     The HttpContentProvider supports resilient access to other services. Depending on the {@link ServiceClient}
- *     configuration, timeouts, retries and fallbacks are supported by this implementation.
+ *     configuration, timeouts, retries and fallbacks are supported by this implementation. Requests are executed
+ *     using the {@link de.otto.rx.composer.client.ClientScheduler} of the client configuration.
  * </p>
  */
-final class HttpContentProvider implements ContentProvider {
+final class HttpContentProvider implements SingleValuedContentProvider {
 
     private static final Logger LOG = getLogger(HttpContentProvider.class);
 
@@ -79,39 +100,120 @@ final class HttpContentProvider implements ContentProvider {
     public Observable<Content> getContent(final Position position,
                                           final Tracer tracer,
                                           final Parameters parameters) {
-        final String url = this.uriTemplate != null
-                ? resolveUrl(parameters)
-                : this.url;
-        final TraceEvent traceEvent = fragmentStarted(position, url);
-        tracer.trace(traceEvent);
-        final Observable<Content> contentObservable = serviceClient
-                .get(url, accept)
-                .subscribeOn(Schedulers.io())
-                .doOnNext(response -> {
-                    if (response.getStatusInfo().getFamily() == SERVER_ERROR) {
-                        /*
-                        Throw Exception so the circuit breaker is able to open the circuit,
-                        retry execution or return the fallback value.
-                        Don't do this for CLIENT_ERRORS as this is unlikely to be helpful in
-                        most situations:
-                            1. a non-existing ressource will most likely also be unavailable in the second try
-                            2. throwing an exception might forse the circuit breaker to open. This will have
-                             a bad effect not only on the requested resource, but also on all other resource served
-                             by the service!
-                        */
-                        tracer.trace(error(position, url, "HTTP Server Error: " + response.getStatusInfo().toString()));
-                        throw new ServerErrorException(response);
+        final String url = urlOf(parameters);
+        final long startedTs = currentTimeMillis();
+        tracer.trace(STARTED, position, url, false, "");
+        final Span fragmentSpan = startFragmentSpan(position, tracer, url);
+        return contentObservable(url, startedTs, fragmentSpan, position, tracer, parameters);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     Requests of {@link ClientConfig#isResilient() non-resilient} clients are executed using a single
+     *     subscriber to the response of the {@link ServiceClient}, without the operators needed by
+     *     {@link #getContent(Position, Tracer, Parameters)}. Resilient clients, and requests that are
+     *     recorded as {@link Span spans}, are using the Observable returned by getContent.
+     * </p>
+     */
+    @Override
+    public Subscription fetchContent(final Position position,
+                                     final Tracer tracer,
+                                     final Parameters parameters,
+                                     final ContentCallback callback) {
+        final String url;
+        try {
+            url = urlOf(parameters);
+        } catch (final RuntimeException e) {
+            callback.onError(e);
+            return unsubscribed();
+        }
+        final long startedTs = currentTimeMillis();
+        tracer.trace(STARTED, position, url, false, "");
+        final Span fragmentSpan = startFragmentSpan(position, tracer, url);
+        final ClientConfig clientConfig = serviceClient.getClientConfig();
+        if (clientConfig.isResilient() || fragmentSpan.isRecording()) {
+            return SingleValuedAdapter.subscribe(
+                    contentObservable(url, startedTs, fragmentSpan, position, tracer, parameters),
+                    callback);
+        }
+        final Metrics metrics = tracer.getMetrics();
+        final Ref ref = clientConfig.getRef();
+        final long subscribedNanos = nanoTime();
+        final Scheduler.Worker worker = clientConfig.getScheduler().getScheduler().createWorker();
+        final CompositeSubscription subscription = new CompositeSubscription(worker);
+        worker.schedule(() -> {
+            metrics.requestStarted(ref);
+            subscription.add(Subscriptions.create(() -> metrics.requestFinished(ref)));
+            final Subscriber<Response> responseSubscriber = new Subscriber<Response>() {
+                private boolean done;
+
+                @Override
+                public void onNext(final Response response) {
+                    if (!done) {
+                        done = true;
+                        final Content content;
+                        try {
+                            checkResponse(response, position, tracer, url);
+                            content = toContent(response, url, startedTs, subscribedNanos, position, tracer, fragmentSpan);
+                        } catch (final RuntimeException e) {
+                            failed(e);
+                            return;
+                        }
+                        callback.onContent(content.isAvailable() ? content : null);
+                        subscription.unsubscribe();
                     }
-                })
-                .map(response -> {
-                    final Content content = httpContent(url, position, response, traceEvent.getTimestamp());
-                    if (content.isErrorContent()) {
-                        tracer.trace(error(position, url, content.asErrorContent().getErrorReason()));
-                    } else {
-                        tracer.trace(fragmentCompleted(position, url, content.isAvailable()));
+                }
+
+                @Override
+                public void onCompleted() {
+                    if (!done) {
+                        done = true;
+                        callback.onContent(null);
+                        subscription.unsubscribe();
+                    }
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    if (!done) {
+                        done = true;
+                        failed(throwable);
                     }
-                    return content;
-                })
+                }
+
+                private void failed(final Throwable throwable) {
+                    tracer.traceException(position, url, throwable);
+                    callback.onError(throwable);
+                    subscription.unsubscribe();
+                }
+            };
+            subscription.add(responseSubscriber);
+            try {
+                serviceClient.get(url, accept).subscribe(responseSubscriber);
+            } catch (final RuntimeException e) {
+                responseSubscriber.onError(e);
+            }
+        });
+        return subscription;
+    }
+
+    private Observable<Content> contentObservable(final String url,
+                                                  final long startedTs,
+                                                  final Span fragmentSpan,
+                                                  final Position position,
+                                                  final Tracer tracer,
+                                                  final Parameters parameters) {
+        final Metrics metrics = tracer.getMetrics();
+        final Ref ref = serviceClient.getClientConfig().getRef();
+        final AtomicLong subscribedNanos = new AtomicLong(-1);
+        final Observable<Content> contentObservable = get(url, tracer, fragmentSpan)
+                .doOnSubscribe(() -> metrics.requestStarted(ref))
+                .doOnUnsubscribe(() -> metrics.requestFinished(ref))
+                .subscribeOn(serviceClient.getClientConfig().getScheduler().getScheduler())
+                .doOnSubscribe(() -> subscribedNanos.set(nanoTime()))
+                .doOnNext(response -> checkResponse(response, position, tracer, url))
+                .map(response -> toContent(response, url, startedTs, subscribedNanos.get(), position, tracer, fragmentSpan))
                 .flatMap(content -> {
                     if (content.isErrorContent()) {
                         if (fallback != null) {
@@ -133,21 +235,160 @@ final class HttpContentProvider implements ContentProvider {
                         contentObservable.retry(
                                 (retryCount, throwable) -> {
                                     final boolean retry = retryCount <= clientConfig.getRetries() && throwable instanceof ServerErrorException;
-                                    LOG.warn("Retrying to fetch content for {} from {}", position, url);
+                                    if (retry) {
+                                        LOG.warn("Retrying to fetch content for {} from {}", position, url);
+                                        tracer.trace(RETRY, position, url, false, "");
+                                    }
                                     return retry;
                                 }),
-                        getFallbackObservable(position, tracer, parameters),
+                        getFallbackObservable(position, tracer, parameters, fragmentSpan),
                         clientConfig.getRef(), clientConfig.getReadTimeout());
-            return observable
-                    .doOnError(t -> tracer.trace(exception(position, url, t)))
+            return withSpan(observable, fragmentSpan)
+                    .doOnError(t -> tracer.traceException(position, url, t))
                     .filter(Content::isAvailable);
         } else {
-            return contentObservable
-                    .doOnError(t -> tracer.trace(exception(position, url, t)))
+            return withSpan(contentObservable, fragmentSpan)
+                    .doOnError(t -> tracer.traceException(position, url, t))
                     .filter(Content::isAvailable);
         }
     }
 
+    private static Span startFragmentSpan(final Position position, final Tracer tracer, final String url) {
+        final Span fragmentSpan = tracer.startSpan("fragment", INTERNAL, null);
+        if (fragmentSpan.isRecording()) {
+            fragmentSpan
+                    .setAttribute("rx.position", position.name())
+                    .setAttribute("http.url", url);
+        }
+        return fragmentSpan;
+    }
+
+    /**
+     * Traces the received response and throws a ServerErrorException, if the service has responded with a
+     * server error.
+     */
+    private static void checkResponse(final Response response,
+                                      final Position position,
+                                      final Tracer tracer,
+                                      final String url) {
+        tracer.trace(RESPONSE_RECEIVED, position, url, false, "");
+        if (response.getStatusInfo().getFamily() == SERVER_ERROR) {
+            /*
+            Throw Exception so the circuit breaker is able to open the circuit,
+            retry execution or return the fallback value.
+            Don't do this for CLIENT_ERRORS as this is unlikely to be helpful in
+            most situations:
+                1. a non-existing ressource will most likely also be unavailable in the second try
+                2. throwing an exception might forse the circuit breaker to open. This will have
+                 a bad effect not only on the requested resource, but also on all other resource served
+                 by the service!
+            */
+            if (tracer.isEnabled()) {
+                tracer.trace(ERROR, position, url, false, "HTTP Server Error: " + response.getStatusInfo().toString());
+            }
+            throw new ServerErrorException(response);
+        }
+    }
+
+    private Content toContent(final Response response,
+                              final String url,
+                              final long startedTs,
+                              final long subscribedNanos,
+                              final Position position,
+                              final Tracer tracer,
+                              final Span fragmentSpan) {
+        final Content content = httpContent(url, position, response, startedTs, subscribedNanos);
+        if (content instanceof HttpContent) {
+            recordPhases(serviceClient.getClientConfig().getRef(), ((HttpContent) content).getPhaseTimings(), tracer.getMetrics(), fragmentSpan);
+        }
+        if (content.isErrorContent()) {
+            tracer.trace(ERROR, position, url, false, content.asErrorContent().getErrorReason());
+        } else {
+            tracer.trace(COMPLETED, position, url, content.isAvailable(), "");
+        }
+        return content;
+    }
+
+    /**
+     * Gets the response from the service client.
+     * <p>
+     *     If spans are recorded, every subscription - including retries - is recorded as a separate client span,
+     *     and the W3C traceparent header of the span is sent to the service.
+     * </p>
+     * @param url the url of the content
+     * @param tracer the Tracer used to start spans
+     * @param fragmentSpan the parent span
+     * @return observable response
+     */
+    private Observable<Response> get(final String url,
+                                     final Tracer tracer,
+                                     final Span fragmentSpan) {
+        if (!fragmentSpan.isRecording()) {
+            return serviceClient.get(url, accept);
+        }
+        final AtomicInteger attempts = new AtomicInteger();
+        return defer(() -> {
+            final Span span = tracer.startSpan("GET", CLIENT, fragmentSpan)
+                    .setAttribute("http.method", "GET")
+                    .setAttribute("http.url", url)
+                    .setAttribute("rx.attempt", String.valueOf(attempts.incrementAndGet()));
+            final Observable<Response> response = serviceClient
+                    .get(url, accept, of(TRACEPARENT, span.getContext().toTraceparent()))
+                    .doOnNext(r -> {
+                        span.setAttribute("http.status_code", String.valueOf(r.getStatus()));
+                        if (r.getStatusInfo().getFamily() == SERVER_ERROR) {
+                            span.endWithError("HTTP Server Error: " + r.getStatusInfo());
+                        }
+                    });
+            return withSpan(response, span);
+        });
+    }
+
+    /**
+     * Records the {@link PhaseTimings} of a request in the {@link Metrics} and, if recording, as attributes
+     * of the fragment span.
+     *
+     * @param ref the reference of the client configuration used to access the service
+     * @param timings the durations of the phases of the request
+     * @param metrics the metrics
+     * @param fragmentSpan the span of the fragment
+     */
+    private static void recordPhases(final Ref ref,
+                                     final PhaseTimings timings,
+                                     final Metrics metrics,
+                                     final Span fragmentSpan) {
+        metrics.httpPhasesRecorded(ref, timings);
+        if (fragmentSpan.isRecording()) {
+            fragmentSpan
+                    .setAttribute("rx.queue_wait_ms", millis(timings.getQueueWaitNanos()))
+                    .setAttribute("rx.pool_wait_ms", millis(timings.getPoolWaitNanos()))
+                    .setAttribute("rx.server_ms", millis(timings.getServerNanos()))
+                    .setAttribute("rx.body_read_ms", millis(timings.getBodyReadNanos()));
+        }
+    }
+
+    private static String millis(final long nanos) {
+        return String.valueOf(nanos >= 0 ? NANOSECONDS.toMillis(nanos) : -1);
+    }
+
+    /**
+     * Ends the span when the observable is terminated or unsubscribed.
+     *
+     * @param observable the observable
+     * @param span the span
+     * @param <T> the type of the observed items
+     * @return observable
+     */
+    private static <T> Observable<T> withSpan(final Observable<T> observable, final Span span) {
+        if (!span.isRecording()) {
+            return observable;
+        }
+        return observable
+                .doOnError(t -> span.endWithError(t.getMessage()))
+                .doOnCompleted(span::end)
+                .doOnUnsubscribe(span::end);
+    }
+
     /**
      * The observable content used as a fallback if the actual content is not available, or null if there is no fallback.
      * <p>
@@ -157,25 +398,56 @@ final class HttpContentProvider implements ContentProvider {
      * @param position the fragment position of the observed contents.
      * @param tracer the Tracer used to trace execution of the fallback
      * @param parameters parameters used to request fallback content.
+     * @param fragmentSpan the span of the fragment; used as parent of the fallback span.
      * @return observable fallback content
      */
     private Observable<Content> getFallbackObservable(final Position position,
                                                       final Tracer tracer,
-                                                      final Parameters parameters) {
+                                                      final Parameters parameters,
+                                                      final Span fragmentSpan) {
         if (fallback == null) {
             return null;
         } else {
-            return fallback
+            final Observable<Content> fallbackObservable = fallback
                     .getContent(position, tracer, parameters)
                     .doOnSubscribe(() -> tracer.trace(
-                            fallbackFragmentStarted(position)))
-                    .doOnNext(fallbackContent -> tracer.trace(
-                            fallbackFragmentCompleted(position, fallbackContent.getSource(), fallbackContent.isAvailable())))
-                    .doOnError(t -> tracer.trace(
-                            exception(position, url, t)));
+                            FALLBACK_STARTED, position, "", false, ""))
+                    .doOnNext(fallbackContent -> {
+                        if (tracer.isEnabled()) {
+                            tracer.trace(FALLBACK_COMPLETED, position, fallbackContent.getSource(), fallbackContent.isAvailable(), "");
+                        }
+                    })
+                    .doOnError(t -> tracer.traceException(position, url, t));
+            if (fragmentSpan.isRecording()) {
+                return defer(() -> withSpan(fallbackObservable, tracer.startSpan("fallback", INTERNAL, fragmentSpan)));
+            } else {
+                return fallbackObservable;
+            }
         }
     }
 
+    /**
+     * Returns the reference of the client configuration used to access the service.
+     *
+     * @return Ref
+     */
+    Ref getRef() {
+        return serviceClient.getClientConfig().getRef();
+    }
+
+    /**
+     * Returns the URL of the content requested using the given parameters.
+     *
+     * @param parameters parameters used to expand the uriTemplate
+     * @return URL
+     * @throws IllegalArgumentException if parameters are missing
+     */
+    String urlOf(final Parameters parameters) {
+        return this.uriTemplate != null
+                ? resolveUrl(parameters)
+                : this.url;
+    }
+
     /**
      * Expands the {@code uriTemplate} using the given parameters and returns the URI.
      * <p>
@@ -0,0 +1,93 @@
+package de.otto.rx.composer.providers;
+
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.Position;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The names of the {@link Parameters} a ContentProvider depends on, used to build the keys of the contents
+ * cached by {@link ContentProviders#cached(ContentProvider, long, KeyParams)}.
+ * <p>
+ *     Parameters that are not part of the KeyParams are ignored, so requests differing only in such parameters
+ *     are sharing the same cached content.
+ * </p>
+ */
+public final class KeyParams {
+
+    private static final KeyParams NO_KEY_PARAMS = new KeyParams(ImmutableList.of());
+
+    private final ImmutableList<String> names;
+
+    private KeyParams(final ImmutableList<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Creates KeyParams from the names of the parameters.
+     *
+     * @param names the names of the parameters used by the ContentProvider
+     * @return KeyParams
+     */
+    public static KeyParams keyParams(final String... names) {
+        return names.length == 0 ? NO_KEY_PARAMS : new KeyParams(ImmutableList.copyOf(names));
+    }
+
+    /**
+     * KeyParams of a ContentProvider that does not depend on any parameters.
+     *
+     * @return KeyParams
+     */
+    public static KeyParams noKeyParams() {
+        return NO_KEY_PARAMS;
+    }
+
+    /**
+     * @return the names of the parameters
+     */
+    public ImmutableList<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Returns the key of the content of a position, consisting of the owner of the cache entries, the position and
+     * the values of the key parameters. Missing parameters are part of the key as null values.
+     *
+     * @param owner the owner of the cache entries, for example the ContentProvider
+     * @param position the position of the content
+     * @param parameters the parameters used to fetch the content
+     * @return key
+     */
+    List<Object> keyOf(final Object owner, final Position position, final Parameters parameters) {
+        final Object[] key = new Object[names.size() + 2];
+        key[0] = owner;
+        key[1] = checkNotNull(position, "position must not be null");
+        for (int i = 0; i < names.size(); i++) {
+            key[i + 2] = parameters.asImmutableMap().get(names.get(i));
+        }
+        return Arrays.asList(key);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return names.equals(((KeyParams) o).names);
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "KeyParams{" +
+                "names=" + names +
+                '}';
+    }
+}
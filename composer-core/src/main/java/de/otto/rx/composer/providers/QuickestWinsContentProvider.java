@@ -8,48 +8,89 @@ import de.otto.rx.composer.content.Position;
 import de.otto.rx.composer.tracer.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import rx.Observable;
+import rx.Subscription;
+import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.Subscriptions;
 
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static de.otto.rx.composer.content.ErrorContent.errorContent;
-import static rx.Observable.merge;
+import static de.otto.rx.composer.util.Collectors.toImmutableList;
 
 /**
  * Fetches the {@link Content} of the quickest responding {@link ContentProvider} that is available and does
  * not fail with an exception.
  */
-final class QuickestWinsContentProvider implements ContentProvider {
+final class QuickestWinsContentProvider implements SingleValuedContentProvider {
 
     private static final Logger LOG = LoggerFactory.getLogger(QuickestWinsContentProvider.class);
 
-    private final ImmutableList<ContentProvider> contentProviders;
+    private final ImmutableList<SingleValuedContentProvider> contentProviders;
     private final ContentMatcher contentMatcher;
 
     QuickestWinsContentProvider(final ImmutableList<ContentProvider> contentProviders,
                                 final ContentMatcher contentMatcher) {
-        this.contentProviders = contentProviders;
+        this.contentProviders = contentProviders
+                .stream()
+                .map(ContentProviders::singleValued)
+                .collect(toImmutableList());
         this.contentMatcher = contentMatcher;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     The contents of all ContentProviders are fetched concurrently, using their
+     *     {@link ContentProviders#singleValued(ContentProvider) single-valued} contract. The first matching
+     *     content is selected, and fetching the other contents is cancelled.
+     * </p>
+     */
     @Override
-    public Observable<Content> getContent(final Position position,
-                                          final Tracer tracer,
-                                          final Parameters parameters) {
+    public Subscription fetchContent(final Position position,
+                                     final Tracer tracer,
+                                     final Parameters parameters,
+                                     final ContentCallback callback) {
+        traceSelectQuickest(position);
+        final int numProviders = contentProviders.size();
+        if (numProviders == 0) {
+            callback.onContent(null);
+            return Subscriptions.empty();
+        }
         final long startedTs = System.currentTimeMillis();
-        final Observable<Content> mergedContent = merge(contentProviders
-                .stream()
-                .map(contentProvider -> contentProvider
-                        .getContent(position, tracer, parameters)
-                        .doOnError(this::traceError)
-                        .onErrorReturn((Throwable t) -> errorContent(position, t, startedTs)))
-                .collect(Collectors.toList()));
-        return mergedContent
-                .filter(contentMatcher::test)
-                .take(1)
-                .doOnSubscribe(() -> traceSelectQuickest(position))
-                .doOnError(this::traceError)
-                .doOnNext(this::traceSelected);
+        final AtomicInteger remaining = new AtomicInteger(numProviders);
+        final AtomicBoolean selected = new AtomicBoolean(false);
+        final CompositeSubscription subscription = new CompositeSubscription();
+        for (final SingleValuedContentProvider contentProvider : contentProviders) {
+            if (selected.get()) {
+                break;
+            }
+            subscription.add(contentProvider.fetchContent(position, tracer, parameters, new ContentCallback() {
+                @Override
+                public void onContent(final Content content) {
+                    if (content != null && contentMatcher.test(content) && selected.compareAndSet(false, true)) {
+                        traceSelected(content);
+                        callback.onContent(content);
+                        subscription.unsubscribe();
+                    } else {
+                        completed();
+                    }
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    traceError(throwable);
+                    onContent(errorContent(position, throwable, startedTs));
+                }
+
+                private void completed() {
+                    if (remaining.decrementAndGet() == 0 && selected.compareAndSet(false, true)) {
+                        callback.onContent(null);
+                    }
+                }
+            }));
+        }
+        return subscription;
     }
 
     private void traceError(Throwable t) {
@@ -5,8 +5,11 @@ import de.otto.rx.composer.content.*;
 import de.otto.rx.composer.tracer.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import rx.Observable;
+import rx.Subscription;
+import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.Subscriptions;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -19,9 +22,6 @@ import static de.otto.rx.composer.content.IndexedContent.indexed;
 import static de.otto.rx.composer.util.Collectors.toImmutableList;
 import static java.lang.Math.min;
 import static java.util.stream.Collectors.toList;
-import static rx.Observable.empty;
-import static rx.Observable.just;
-import static rx.Observable.merge;
 
 /**
  * Selects the most appropriate Content returned from one or more ContentProviders.
@@ -29,10 +29,10 @@ import static rx.Observable.merge;
  *     The content is selected by a Predicate&lt;Content&gt; and ordered by a Comparator&lt;IndexedContent&gt;.
  * </p>
  */
-final class SelectingContentProvider implements ContentProvider {
+final class SelectingContentProvider implements SingleValuedContentProvider {
     private static final Logger LOG = LoggerFactory.getLogger(SelectingContentProvider.class);
 
-    private final ImmutableList<ContentProvider> contentProviders;
+    private final ImmutableList<SingleValuedContentProvider> contentProviders;
     private final ContentMatcher contentMatcher;
     private final Comparator<IndexedContent> comparator;
     private final int count;
@@ -51,40 +51,88 @@ final class SelectingContentProvider implements ContentProvider {
                              final Comparator<IndexedContent> comparator,
                              final int count) {
         this.contentMatcher = contentMatcher;
-        this.contentProviders = contentProviders;
+        this.contentProviders = contentProviders
+                .stream()
+                .map(ContentProviders::singleValued)
+                .collect(toImmutableList());
         this.comparator = comparator;
         this.count = count;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     The contents of all ContentProviders are fetched concurrently, using their
+     *     {@link ContentProviders#singleValued(ContentProvider) single-valued} contract. When all of them are
+     *     completed, the matching contents are ordered and selected. Without any ContentProviders, the callback
+     *     is immediately called without content.
+     * </p>
+     */
     @Override
-    public Observable<Content> getContent(final Position position,
-                                          final Tracer tracer,
-                                          final Parameters parameters) {
-        final AtomicInteger subIndex = new AtomicInteger();
+    public Subscription fetchContent(final Position position,
+                                     final Tracer tracer,
+                                     final Parameters parameters,
+                                     final ContentCallback callback) {
         final long startedTs = System.currentTimeMillis();
-        final Observable<IndexedContent> mergedContent = merge(contentProviders
-                .stream()
-                .map(contentProvider -> {
-                    final int pos = subIndex.getAndIncrement();
-                    return contentProvider
-                            .getContent(position, tracer, parameters)
-                            .map(content -> indexed(content, pos))
-                            .doOnError(throwable -> LOG.error(throwable.getMessage(), throwable))
-                            .onErrorReturn(throwable -> indexed(errorContent(position, throwable, startedTs), pos));
-                })
-                .collect(toList()));
-        return mergedContent
-                .filter(contentMatcher::test)
-                .toSortedList(comparator::compare)
-                .flatMap(list -> list.isEmpty()
-                        ? noMatchesFor(position)
-                        : just(select(list, count)))
-                .doOnError((t) -> LOG.error(t.getMessage(), t));
+        final int numProviders = contentProviders.size();
+        if (numProviders == 0) {
+            LOG.trace("No providers: nothing selected for {}", position.name());
+            callback.onContent(null);
+            return Subscriptions.empty();
+        }
+        final IndexedContent[] results = new IndexedContent[numProviders];
+        final AtomicInteger remaining = new AtomicInteger(numProviders);
+        final CompositeSubscription subscription = new CompositeSubscription();
+        for (int i = 0; i < numProviders; i++) {
+            final int pos = i;
+            subscription.add(contentProviders.get(i).fetchContent(position, tracer, parameters, new ContentCallback() {
+                @Override
+                public void onContent(final Content content) {
+                    if (content != null) {
+                        results[pos] = indexed(content, pos);
+                    }
+                    completed();
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    LOG.error(throwable.getMessage(), throwable);
+                    results[pos] = indexed(errorContent(position, throwable, startedTs), pos);
+                    completed();
+                }
+
+                private void completed() {
+                    if (remaining.decrementAndGet() == 0) {
+                        selectFrom(results, position, callback);
+                    }
+                }
+            }));
+        }
+        return subscription;
     }
 
-    private Observable<Content> noMatchesFor(final Position position) {
-        LOG.trace("No matches: nothing selected for {}", position.name());
-        return empty();
+    private void selectFrom(final IndexedContent[] results, final Position position, final ContentCallback callback) {
+        final List<IndexedContent> matches = new ArrayList<>(results.length);
+        for (final IndexedContent result : results) {
+            if (result != null && contentMatcher.test(result)) {
+                matches.add(result);
+            }
+        }
+        if (matches.isEmpty()) {
+            LOG.trace("No matches: nothing selected for {}", position.name());
+            callback.onContent(null);
+        } else {
+            final Content selected;
+            try {
+                matches.sort(comparator);
+                selected = select(matches, count);
+            } catch (final RuntimeException e) {
+                LOG.error(e.getMessage(), e);
+                callback.onError(e);
+                return;
+            }
+            callback.onContent(selected);
+        }
     }
 
     private Content select(final List<IndexedContent> contents, final int count) {
@@ -0,0 +1,91 @@
+package de.otto.rx.composer.providers;
+
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.tracer.Tracer;
+import rx.Observable;
+import rx.Subscriber;
+import rx.Subscription;
+
+import static rx.subscriptions.Subscriptions.unsubscribed;
+
+/**
+ * Adapts a {@link ContentProvider} to the {@link SingleValuedContentProvider} contract by subscribing to the
+ * Observable returned by the ContentProvider.
+ * <p>
+ *     The first {@link Content#isAvailable() available} content is delivered to the callback; if the Observable
+ *     emits more than one content, the remaining items are ignored.
+ * </p>
+ */
+final class SingleValuedAdapter implements SingleValuedContentProvider {
+
+    private final ContentProvider delegate;
+
+    SingleValuedAdapter(final ContentProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Subscription fetchContent(final Position position,
+                                     final Tracer tracer,
+                                     final Parameters parameters,
+                                     final ContentCallback callback) {
+        try {
+            return subscribe(delegate.getContent(position, tracer, parameters), callback);
+        } catch (final RuntimeException e) {
+            callback.onError(e);
+            return unsubscribed();
+        }
+    }
+
+    /**
+     * Subscribes to the Observable content and delivers the first available content to the callback.
+     *
+     * @param content the observable content
+     * @param callback the callback
+     * @return Subscription
+     */
+    static Subscription subscribe(final Observable<Content> content, final ContentCallback callback) {
+        return content.subscribe(new CallbackSubscriber(callback));
+    }
+
+    @Override
+    public Observable<Content> getContent(final Position position, final Tracer tracer, final Parameters parameters) {
+        return delegate.getContent(position, tracer, parameters);
+    }
+
+    private static final class CallbackSubscriber extends Subscriber<Content> {
+        private final ContentCallback callback;
+        private boolean delivered;
+
+        private CallbackSubscriber(final ContentCallback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void onNext(final Content content) {
+            if (!delivered && content.isAvailable()) {
+                delivered = true;
+                callback.onContent(content);
+                unsubscribe();
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (!delivered) {
+                delivered = true;
+                callback.onContent(null);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            if (!delivered) {
+                delivered = true;
+                callback.onError(throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package de.otto.rx.composer.providers;
+
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.tracer.Tracer;
+import rx.Observable;
+import rx.Subscription;
+
+/**
+ * A {@link ContentProvider} that is able to deliver its single Content using a {@link ContentCallback}, without
+ * creating an Observable and the operators, subscriptions and queues needed to emit a single item.
+ * <p>
+ *     {@link de.otto.rx.composer.page.Fragments#fragment(Position, ContentProvider) Fragments} and the selecting
+ *     content providers like {@link ContentProviders#withFirst(com.google.common.collect.ImmutableList)} are
+ *     using {@link #fetchContent(Position, Tracer, Parameters, ContentCallback)} if their providers are
+ *     single-valued. Other ContentProviders can be adapted using {@link ContentProviders#singleValued(ContentProvider)}.
+ * </p>
+ * <p>
+ *     {@link #getContent(Position, Tracer, Parameters)} is implemented by emitting the result of the callback.
+ * </p>
+ */
+@FunctionalInterface
+public interface SingleValuedContentProvider extends ContentProvider {
+
+    /**
+     * Starts to fetch the content for the given Position and Parameters and calls the callback when the content
+     * is available, or when fetching the content has failed.
+     * <p>
+     *     Implementations must not throw exceptions, but report them using {@link ContentCallback#onError(Throwable)}.
+     * </p>
+     *
+     * @param position the Position of the content inside the {@link de.otto.rx.composer.page.Page}.
+     * @param tracer the current request context.
+     * @param parameters Parameters used by the ContentProvider to fetch the Content.
+     * @param callback the callback receiving the content.
+     * @return Subscription used to cancel fetching the content.
+     */
+    Subscription fetchContent(Position position, Tracer tracer, Parameters parameters, ContentCallback callback);
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     This implementation is emitting the content delivered to the {@link ContentCallback}, if it is
+     *     {@link Content#isAvailable() available}.
+     * </p>
+     */
+    @Override
+    default Observable<Content> getContent(final Position position, final Tracer tracer, final Parameters parameters) {
+        return Observable.create(subscriber -> subscriber.add(fetchContent(position, tracer, parameters, new ContentCallback() {
+            @Override
+            public void onContent(final Content content) {
+                if (content != null && content.isAvailable()) {
+                    subscriber.onNext(content);
+                }
+                subscriber.onCompleted();
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+        })));
+    }
+
+}
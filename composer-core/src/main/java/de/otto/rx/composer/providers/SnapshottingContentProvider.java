@@ -0,0 +1,83 @@
+package de.otto.rx.composer.providers;
+
+import de.otto.rx.composer.cache.SnapshotContent;
+import de.otto.rx.composer.cache.SnapshotStore;
+import de.otto.rx.composer.client.Ref;
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.tracer.Tracer;
+import rx.Subscription;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.System.currentTimeMillis;
+import static rx.subscriptions.Subscriptions.unsubscribed;
+
+/**
+ * A {@link ContentProvider} that is storing the contents fetched by a {@link HttpContentProvider} in a
+ * {@link SnapshotStore}, keyed by the {@link Ref} of the client and the URL of the content.
+ * <p>
+ *     Snapshots younger than the maximum age are returned without fetching the content, so an application that
+ *     is restarted does not have to fetch all contents at once. Older snapshots are returned if fetching the
+ *     content fails, or if the content is not available.
+ * </p>
+ */
+final class SnapshottingContentProvider implements SingleValuedContentProvider {
+
+    private final HttpContentProvider delegate;
+    private final SnapshotStore store;
+    private final long maxAgeMillis;
+
+    SnapshottingContentProvider(final HttpContentProvider delegate,
+                                final SnapshotStore store,
+                                final long maxAgeMillis) {
+        checkArgument(maxAgeMillis >= 0, "maxAgeMillis must not be negative");
+        this.delegate = checkNotNull(delegate, "delegate must not be null");
+        this.store = checkNotNull(store, "store must not be null");
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    @Override
+    public Subscription fetchContent(final Position position,
+                                     final Tracer tracer,
+                                     final Parameters parameters,
+                                     final ContentCallback callback) {
+        final String url;
+        try {
+            url = delegate.urlOf(parameters);
+        } catch (final RuntimeException e) {
+            callback.onError(e);
+            return unsubscribed();
+        }
+        final Ref ref = delegate.getRef();
+        final SnapshotContent snapshot = store.get(ref, url, position);
+        if (snapshot != null && currentTimeMillis() - snapshot.getCompletedTs() < maxAgeMillis) {
+            callback.onContent(snapshot);
+            return unsubscribed();
+        }
+        return delegate.fetchContent(position, tracer, parameters, new ContentCallback() {
+            @Override
+            public void onContent(final Content content) {
+                if (content != null && content.isAvailable()) {
+                    if (url.equals(content.getSource())) {
+                        store.put(ref, url, content);
+                    }
+                    callback.onContent(content);
+                } else {
+                    callback.onContent(snapshot);
+                }
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                if (snapshot != null) {
+                    callback.onContent(snapshot);
+                } else {
+                    callback.onError(throwable);
+                }
+            }
+        });
+    }
+
+}
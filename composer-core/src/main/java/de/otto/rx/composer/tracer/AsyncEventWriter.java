@@ -0,0 +1,279 @@
+package de.otto.rx.composer.tracer;
+
+import de.otto.rx.composer.content.Position;
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static de.otto.rx.composer.tracer.EventType.ERROR;
+import static java.lang.Integer.bitCount;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Forwards trace events to a target {@link Tracer} on a background thread.
+ * <p>
+ *     Events are enqueued into a bounded, lock-free queue of preallocated slots. A single daemon thread drains the
+ *     queue in batches and forwards the events to the target Tracer - typically a {@link LoggingTracer}, so
+ *     formatting and writing log messages is moved off the threads that are fetching content.
+ * </p>
+ * <p>
+ *     Enqueuing an event never blocks: if the queue is full, the event is dropped according to the
+ *     {@link DropPolicy} and counted in {@link #getNumDropped()}.
+ * </p>
+ * <p>
+ *     An AsyncEventWriter is normally shared by all requests. {@link #defaultEventWriter()} returns a process-wide
+ *     instance that is started on first use.
+ * </p>
+ */
+public final class AsyncEventWriter implements AutoCloseable {
+
+    private static final Logger LOG = getLogger(AsyncEventWriter.class);
+
+    /** Default max number of queued events. */
+    public static final int DEFAULT_CAPACITY = 8192;
+    /** Default max number of events written in a single batch. */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    /**
+     * What to do with events if the queue is filling up.
+     */
+    public enum DropPolicy {
+        /** Events are dropped, if the queue is full. */
+        DROP_NEWEST,
+        /**
+         * Events other than {@link EventType#ERROR errors} are dropped, if the queue is more than 3/4 full. The
+         * remaining capacity is reserved for errors.
+         */
+        RESERVE_FOR_ERRORS
+    }
+
+    private static class DefaultHolder {
+        static final AsyncEventWriter DEFAULT = asyncEventWriter(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DropPolicy.DROP_NEWEST);
+    }
+
+    private final int mask;
+    private final int batchSize;
+    private final DropPolicy dropPolicy;
+    private final int nonErrorLimit;
+
+    private final Tracer[] targets;
+    private final byte[] types;
+    private final Position[] positions;
+    private final String[] sources;
+    private final boolean[] nonEmptyContents;
+    private final String[] errorMessages;
+    /** Per-slot sequence numbers used to hand over slots between producers and the consumer. */
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head = 0;
+
+    private final AtomicLong numDropped = new AtomicLong();
+    private final AtomicLong numWritten = new AtomicLong();
+    private long numDroppedReported = 0;
+
+    private final Thread worker;
+    private volatile boolean running;
+
+    AsyncEventWriter(final int capacity,
+                     final int batchSize,
+                     final DropPolicy dropPolicy,
+                     final boolean start) {
+        checkArgument(capacity > 1 && bitCount(capacity) == 1, "capacity must be a power of two");
+        checkArgument(batchSize > 0, "batchSize must be positive");
+        this.mask = capacity - 1;
+        this.batchSize = batchSize;
+        this.dropPolicy = checkNotNull(dropPolicy, "dropPolicy must not be null.");
+        this.nonErrorLimit = dropPolicy == DropPolicy.RESERVE_FOR_ERRORS ? capacity - capacity / 4 : capacity;
+        this.targets = new Tracer[capacity];
+        this.types = new byte[capacity];
+        this.positions = new Position[capacity];
+        this.sources = new String[capacity];
+        this.nonEmptyContents = new boolean[capacity];
+        this.errorMessages = new String[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.worker = new Thread(this::run, "rx-composer-async-tracer");
+        this.worker.setDaemon(true);
+        if (start) {
+            this.running = true;
+            this.worker.start();
+        }
+    }
+
+    /**
+     * Returns the process-wide AsyncEventWriter, using the default capacity, batch size and
+     * {@link DropPolicy#DROP_NEWEST}.
+     *
+     * @return default AsyncEventWriter
+     */
+    public static AsyncEventWriter defaultEventWriter() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Creates and starts a new AsyncEventWriter.
+     *
+     * @param capacity max number of queued events. Must be a power of two.
+     * @param batchSize max number of events written in a single batch.
+     * @param dropPolicy what to do if the queue is filling up
+     * @return AsyncEventWriter
+     */
+    public static AsyncEventWriter asyncEventWriter(final int capacity,
+                                                    final int batchSize,
+                                                    final DropPolicy dropPolicy) {
+        return new AsyncEventWriter(capacity, batchSize, dropPolicy, true);
+    }
+
+    /**
+     * Enqueues an event that is later forwarded to {@code target}. This method never blocks.
+     *
+     * @param target the Tracer that is processing the event on the background thread
+     * @param type the type of the event
+     * @param position the position of the fragment
+     * @param source the source of the content, or an empty String
+     * @param nonEmptyContent true, if non-empty content is available
+     * @param errorMessage the error message, or an empty String
+     * @return true if the event was enqueued, false if it was dropped
+     */
+    public boolean offer(final Tracer target,
+                         final EventType type,
+                         final Position position,
+                         final String source,
+                         final boolean nonEmptyContent,
+                         final String errorMessage) {
+        final int limit = type == ERROR ? mask + 1 : nonErrorLimit;
+        long pos;
+        while (true) {
+            pos = tail.get();
+            if (pos - head >= limit) {
+                numDropped.incrementAndGet();
+                return false;
+            }
+            final long seq = sequences.get((int) pos & mask);
+            if (seq == pos) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (seq < pos) {
+                // slot is still occupied by the consumer:
+                numDropped.incrementAndGet();
+                return false;
+            }
+        }
+        final int slot = (int) pos & mask;
+        targets[slot] = target;
+        types[slot] = (byte) type.ordinal();
+        positions[slot] = position;
+        sources[slot] = source;
+        nonEmptyContents[slot] = nonEmptyContent;
+        errorMessages[slot] = errorMessage;
+        sequences.lazySet(slot, pos + 1);
+        return true;
+    }
+
+    /**
+     * Returns the number of events that were dropped because the queue was full.
+     *
+     * @return number of dropped events
+     */
+    public long getNumDropped() {
+        return numDropped.get();
+    }
+
+    /**
+     * Returns the number of events that were forwarded to their target Tracer.
+     *
+     * @return number of written events
+     */
+    public long getNumWritten() {
+        return numWritten.get();
+    }
+
+    public DropPolicy getDropPolicy() {
+        return dropPolicy;
+    }
+
+    /**
+     * Stops the background thread after writing all queued events.
+     */
+    @Override
+    public void close() {
+        if (running) {
+            running = false;
+            LockSupport.unpark(worker);
+            try {
+                worker.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            if (drain(batchSize) == 0) {
+                LockSupport.parkNanos(this, IDLE_NANOS);
+            }
+        }
+        while (drain(batchSize) > 0) {
+            // write remaining events before terminating
+        }
+    }
+
+    /**
+     * Forwards up to {@code maxEvents} queued events to their targets. Must only be called by a single thread.
+     *
+     * @param maxEvents max number of events
+     * @return number of forwarded events
+     */
+    int drain(final int maxEvents) {
+        int count = 0;
+        long pos = head;
+        while (count < maxEvents) {
+            final int slot = (int) pos & mask;
+            if (sequences.get(slot) != pos + 1) {
+                break;
+            }
+            final Tracer target = targets[slot];
+            final EventType type = EVENT_TYPES[types[slot]];
+            final Position position = positions[slot];
+            final String source = sources[slot];
+            final boolean nonEmptyContent = nonEmptyContents[slot];
+            final String errorMessage = errorMessages[slot];
+            targets[slot] = null;
+            positions[slot] = null;
+            sources[slot] = null;
+            errorMessages[slot] = null;
+            sequences.lazySet(slot, pos + mask + 1);
+            head = ++pos;
+            try {
+                target.trace(type, position, source, nonEmptyContent, errorMessage);
+            } catch (final RuntimeException e) {
+                LOG.error("Failed to write trace event: {}", e.getMessage());
+            }
+            ++count;
+        }
+        numWritten.addAndGet(count);
+        reportDroppedEvents();
+        return count;
+    }
+
+    private void reportDroppedEvents() {
+        final long dropped = numDropped.get();
+        if (dropped != numDroppedReported) {
+            LOG.warn("Dropped {} trace events because the queue was full", dropped - numDroppedReported);
+            numDroppedReported = dropped;
+        }
+    }
+
+}
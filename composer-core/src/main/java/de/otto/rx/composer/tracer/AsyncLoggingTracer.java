@@ -0,0 +1,104 @@
+package de.otto.rx.composer.tracer;
+
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.Statistics;
+import de.otto.rx.composer.metrics.Metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This implementation is logging {@link TraceEvent traced events} asynchronously: events are synchronously
+ *     delegated to the delegate Tracer, but formatting and writing log messages is done by the background thread
+ *     of an {@link AsyncEventWriter}, using a {@link LoggingTracer}.
+ * </p>
+ * <p>
+ *     Only events that are logged using an enabled log level of the LoggingTracer are enqueued. If the queue of the
+ *     AsyncEventWriter is full, log messages are dropped instead of slowing down the fetching of fragments. Dropped
+ *     events are recorded using {@link Metrics#traceEventDropped()}.
+ * </p>
+ */
+public final class AsyncLoggingTracer implements Tracer {
+
+    private final LoggingTracer logging;
+    private final AsyncEventWriter writer;
+    private final Tracer delegate;
+
+    /**
+     * Creates an AsyncLoggingTracer.
+     *
+     * @param logging the LoggingTracer used to write log messages on the background thread. The delegate of this
+     *                tracer is ignored.
+     * @param writer the AsyncEventWriter
+     * @param delegate the delegate Tracer
+     */
+    public AsyncLoggingTracer(final LoggingTracer logging,
+                              final AsyncEventWriter writer,
+                              final Tracer delegate) {
+        this.logging = checkNotNull(logging, "logging must not be null.");
+        this.writer = checkNotNull(writer, "writer must not be null.");
+        this.delegate = checkNotNull(delegate, "delegate must not be null.");
+    }
+
+    @Override
+    public void trace(final TraceEvent event) {
+        delegate.trace(event);
+        offer(event.getType(), event.getPosition(), event.getSource(), event.isNonEmptyContent(), event.getErrorMessage());
+    }
+
+    @Override
+    public void trace(final EventType type,
+                      final Position position,
+                      final String source,
+                      final boolean nonEmptyContent,
+                      final String errorMessage) {
+        delegate.trace(type, position, source, nonEmptyContent, errorMessage);
+        offer(type, position, source, nonEmptyContent, errorMessage);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return delegate.isEnabled() || logging.isEnabled();
+    }
+
+    @Override
+    public Span startSpan(final String name, final Span.Kind kind, final Span parent) {
+        return delegate.startSpan(name, kind, parent);
+    }
+
+    @Override
+    public void pageCompleted() {
+        delegate.pageCompleted();
+    }
+
+    @Override
+    public ImmutableList<TraceEvent> getEvents() {
+        return delegate.getEvents();
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    /**
+     * Enqueues the event, if the LoggingTracer would log it. Events that are dropped by the AsyncEventWriter
+     * are recorded in the {@link Metrics}.
+     */
+    private void offer(final EventType type,
+                       final Position position,
+                       final String source,
+                       final boolean nonEmptyContent,
+                       final String errorMessage) {
+        if (logging.isLogEnabled(type) && !writer.offer(logging, type, position, source, nonEmptyContent, errorMessage)) {
+            delegate.getMetrics().traceEventDropped();
+        }
+    }
+}
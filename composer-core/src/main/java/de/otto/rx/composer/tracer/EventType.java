@@ -7,5 +7,14 @@ package de.otto.rx.composer.tracer;
  * </p>
  */
 public enum EventType {
-    STARTED, COMPLETED, FALLBACK_STARTED, FALLBACK_COMPLETED, ERROR
+    STARTED, COMPLETED, FALLBACK_STARTED, FALLBACK_COMPLETED, ERROR,
+    /** The response of a remote service was received, but the content is not yet read. */
+    RESPONSE_RECEIVED,
+    /** A request is retried. */
+    RETRY,
+    /**
+     * A nested fragment of a continuation is started. The source of the event is the name of the
+     * position that was fetched before.
+     */
+    CONTINUED
 }
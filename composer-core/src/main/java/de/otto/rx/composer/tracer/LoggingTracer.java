@@ -1,7 +1,9 @@
 package de.otto.rx.composer.tracer;
 
 import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.Position;
 import de.otto.rx.composer.content.Statistics;
+import de.otto.rx.composer.metrics.Metrics;
 import org.slf4j.Logger;
 
 /**
@@ -54,32 +56,83 @@ public final class LoggingTracer implements Tracer {
 
     public void trace(final TraceEvent event) {
         delegate.trace(event);
+        log(event.getType(), event.getPosition(), event.getSource(), event.isNonEmptyContent(), event.getErrorMessage());
+    }
+
+    @Override
+    public void trace(final EventType type,
+                      final Position position,
+                      final String source,
+                      final boolean nonEmptyContent,
+                      final String errorMessage) {
+        delegate.trace(type, position, source, nonEmptyContent, errorMessage);
+        log(type, position, source, nonEmptyContent, errorMessage);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     The LoggingTracer is enabled, if either the delegate is enabled, or if the configured log levels
+     *     are enabled in the Logger.
+     * </p>
+     */
+    @Override
+    public boolean isEnabled() {
+        return delegate.isEnabled() || isLogEnabled(defaultLogLevel) || isLogEnabled(errorLogLevel);
+    }
 
-        switch (event.getType()) {
+    private void log(final EventType type,
+                     final Position position,
+                     final String source,
+                     final boolean nonEmptyContent,
+                     final String errorMessage) {
+        if (!isLogEnabled(type)) {
+            return;
+        }
+        switch (type) {
             case COMPLETED:
-                trace("COMPLETED fetching {} content for position {} from {}", event.isNonEmptyContent() ? "AVAILABLE" : "UNAVAILABLE", event.getPosition().name(), event.getSource());
+                trace("COMPLETED fetching {} content for position {} from {}", nonEmptyContent ? "AVAILABLE" : "UNAVAILABLE", position.name(), source);
                 break;
             case FALLBACK_COMPLETED:
-                trace("COMPLETED fetching {} FALLBACK content for position {} from {}", event.isNonEmptyContent() ? "AVAILABLE" : "UNAVAILABLE", event.getPosition().name(), event.getSource());
+                trace("COMPLETED fetching {} FALLBACK content for position {} from {}", nonEmptyContent ? "AVAILABLE" : "UNAVAILABLE", position.name(), source);
                 break;
             case ERROR:
-                if (event.getSource().isEmpty()) {
-                    error("ERROR fetching content for position: {}", event.getPosition().name());
+                if (source.isEmpty()) {
+                    error("ERROR fetching content for position: {}", position.name());
                 } else {
-                    error("ERROR fetching content for position {} from {}: {}", event.getPosition().name(), event.getSource(), event.getErrorMessage());
+                    error("ERROR fetching content for position {} from {}: {}", position.name(), source, errorMessage);
                 }
                 break;
             case STARTED:
-                trace("STARTED fetching content for position {} from {}", event.getPosition().name(), event.getSource());
+                trace("STARTED fetching content for position {} from {}", position.name(), source);
                 break;
             case FALLBACK_STARTED:
-                trace("STARTED fetching FALLBACK content for position {} from {}", event.getPosition().name(), event.getSource());
+                trace("STARTED fetching FALLBACK content for position {} from {}", position.name(), source);
+                break;
+            case RESPONSE_RECEIVED:
+                trace("RECEIVED response for position {} from {}", position.name(), source);
+                break;
+            case RETRY:
+                trace("RETRYING to fetch content for position {} from {}", position.name(), source);
+                break;
+            case CONTINUED:
+                trace("CONTINUING with position {} after {}", position.name(), source);
                 break;
             default:
-                throw new IllegalStateException("Unknown EventType " + event.getType());
+                throw new IllegalStateException("Unknown EventType " + type);
         }
     }
 
+    @Override
+    public Span startSpan(final String name, final Span.Kind kind, final Span parent) {
+        return delegate.startSpan(name, kind, parent);
+    }
+
+    @Override
+    public void pageCompleted() {
+        delegate.pageCompleted();
+    }
+
     public ImmutableList<TraceEvent> getEvents() {
         return delegate.getEvents();
     }
@@ -88,6 +141,24 @@ public final class LoggingTracer implements Tracer {
         return delegate.getStatistics();
     }
 
+    @Override
+    public Metrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    /**
+     * Returns true, if events of the given type are written to the Logger.
+     * <p>
+     *     Errors are logged using the error log level, all other events using the default log level.
+     * </p>
+     *
+     * @param type the type of the event
+     * @return true, if the log level of the event is enabled
+     */
+    boolean isLogEnabled(final EventType type) {
+        return isLogEnabled(type == EventType.ERROR ? errorLogLevel : defaultLogLevel);
+    }
+
     private void trace(final String msg, final Object... arguments) {
         log(defaultLogLevel, msg, arguments);
     }
@@ -96,6 +167,34 @@ public final class LoggingTracer implements Tracer {
         log(errorLogLevel, msg, arguments);
     }
 
+    private boolean isLogEnabled(final LogLevel logLevel) {
+        return isLogEnabled(logger, logLevel);
+    }
+
+    /**
+     * Returns true, if the given log level is enabled in the Logger.
+     *
+     * @param logger the SLF4J Logger
+     * @param logLevel the log level
+     * @return true, if the log level is enabled
+     */
+    static boolean isLogEnabled(final Logger logger, final LogLevel logLevel) {
+        switch (logLevel) {
+            case TRACE:
+                return logger.isTraceEnabled();
+            case DEBUG:
+                return logger.isDebugEnabled();
+            case INFO:
+                return logger.isInfoEnabled();
+            case WARN:
+                return logger.isWarnEnabled();
+            case ERROR:
+                return logger.isErrorEnabled();
+            default:
+                return false;
+        }
+    }
+
     private void log(final LogLevel logLevel, final String msg, final Object... arguments) {
         switch (logLevel) {
             case TRACE:
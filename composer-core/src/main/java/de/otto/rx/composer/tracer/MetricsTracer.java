@@ -0,0 +1,98 @@
+package de.otto.rx.composer.tracer;
+
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.Statistics;
+import de.otto.rx.composer.metrics.Metrics;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This implementation is recording {@link TraceEvent traced events} as {@link Metrics}. Just like
+ *     {@link LoggingTracer}, it is implemented as a delegate, so metrics can be combined with other Tracer
+ *     implementations.
+ * </p>
+ */
+public final class MetricsTracer implements Tracer {
+
+    private final Metrics metrics;
+    private final Tracer delegate;
+
+    /**
+     * Creates a MetricsTracer that is recording events using {@code metrics}. All events are delegated to the
+     * given {@link Tracer delegate}.
+     *
+     * @param metrics the Metrics used to record events
+     * @param delegate the delegate Tracer
+     */
+    public MetricsTracer(final Metrics metrics,
+                         final Tracer delegate) {
+        this.metrics = metrics;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void trace(final TraceEvent event) {
+        delegate.trace(event);
+        record(event.getType(), event.getPosition(), event.isNonEmptyContent());
+    }
+
+    @Override
+    public void trace(final EventType type,
+                      final Position position,
+                      final String source,
+                      final boolean nonEmptyContent,
+                      final String errorMessage) {
+        delegate.trace(type, position, source, nonEmptyContent, errorMessage);
+        record(type, position, nonEmptyContent);
+    }
+
+    private void record(final EventType type,
+                        final Position position,
+                        final boolean nonEmptyContent) {
+        switch (type) {
+            case STARTED:
+                metrics.fragmentRequested(position);
+                break;
+            case COMPLETED:
+                metrics.fragmentCompleted(position, nonEmptyContent);
+                break;
+            case FALLBACK_STARTED:
+                metrics.fallbackRequested(position);
+                break;
+            case FALLBACK_COMPLETED:
+                metrics.fallbackCompleted(position, nonEmptyContent);
+                break;
+            case ERROR:
+                metrics.fragmentFailed(position);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public Span startSpan(final String name, final Span.Kind kind, final Span parent) {
+        return delegate.startSpan(name, kind, parent);
+    }
+
+    @Override
+    public void pageCompleted() {
+        delegate.pageCompleted();
+    }
+
+    @Override
+    public ImmutableList<TraceEvent> getEvents() {
+        return delegate.getEvents();
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
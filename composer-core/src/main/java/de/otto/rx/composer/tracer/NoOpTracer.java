@@ -1,6 +1,7 @@
 package de.otto.rx.composer.tracer;
 
 import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.Position;
 import de.otto.rx.composer.content.Statistics;
 import de.otto.rx.composer.page.Page;
 
@@ -35,6 +36,30 @@ public final class NoOpTracer implements Tracer {
     public void trace(final TraceEvent event) {
     }
 
+    @Override
+    public void trace(final EventType type,
+                      final Position position,
+                      final String source,
+                      final boolean nonEmptyContent,
+                      final String errorMessage) {
+    }
+
+    @Override
+    public void traceException(final Position position,
+                               final String source,
+                               final Throwable t) {
+    }
+
+    /**
+     * The NoOpTracer is never enabled.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
     /**
      * Returns the traced events, or an empty list, of the Tracer implementation does not gather events.
      *
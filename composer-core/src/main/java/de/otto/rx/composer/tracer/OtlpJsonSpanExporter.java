@@ -0,0 +1,238 @@
+package de.otto.rx.composer.tracer;
+
+import org.slf4j.Logger;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static javax.ws.rs.client.ClientBuilder.newClient;
+import static javax.ws.rs.client.Entity.entity;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A {@link SpanExporter} that is exporting spans in the JSON encoding of the OpenTelemetry protocol (OTLP).
+ * <p>
+ *     The spans of a page are serialized into a single {@code ExportTraceServiceRequest}. Depending on the
+ *     factory method, requests are either appended to a file (one request per line), or sent to the
+ *     {@code /v1/traces} endpoint of an OTLP/HTTP collector.
+ * </p>
+ * <p>
+ *     Serialization and I/O are done by a single background thread. If the exporter can not keep up, the spans of
+ *     pages are dropped and counted in {@link #getNumDropped()}.
+ * </p>
+ */
+public final class OtlpJsonSpanExporter implements SpanExporter {
+
+    private static final Logger LOG = getLogger(OtlpJsonSpanExporter.class);
+
+    private static final int MAX_PENDING_EXPORTS = 1024;
+
+    private final String serviceName;
+    private final Consumer<String> writer;
+    private final Client client;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong numDropped = new AtomicLong();
+
+    private OtlpJsonSpanExporter(final String serviceName,
+                                 final Consumer<String> writer,
+                                 final Client client) {
+        this.serviceName = checkNotNull(serviceName, "serviceName must not be null.");
+        this.writer = writer;
+        this.client = client;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, SECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_EXPORTS),
+                r -> {
+                    final Thread thread = new Thread(r, "rx-composer-span-exporter");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (r, e) -> numDropped.incrementAndGet());
+    }
+
+    /**
+     * Creates an exporter that is appending spans to a file, using one line per page.
+     *
+     * @param file the file
+     * @param serviceName the name of the service, used as resource attribute {@code service.name}
+     * @return OtlpJsonSpanExporter
+     */
+    public static OtlpJsonSpanExporter fileExporter(final Path file, final String serviceName) {
+        checkNotNull(file, "file must not be null.");
+        return new OtlpJsonSpanExporter(serviceName, json -> {
+            try {
+                Files.write(file, (json + "\n").getBytes(UTF_8), CREATE, APPEND);
+            } catch (final IOException e) {
+                LOG.warn("Failed to export spans to {}: {}", file, e.getMessage());
+            }
+        }, null);
+    }
+
+    /**
+     * Creates an exporter that is sending spans to an OTLP/HTTP collector.
+     *
+     * @param tracesEndpoint the URL of the traces endpoint, like {@code http://localhost:4318/v1/traces}
+     * @param serviceName the name of the service, used as resource attribute {@code service.name}
+     * @return OtlpJsonSpanExporter
+     */
+    public static OtlpJsonSpanExporter collectorExporter(final String tracesEndpoint, final String serviceName) {
+        checkNotNull(tracesEndpoint, "tracesEndpoint must not be null.");
+        final Client client = newClient();
+        return new OtlpJsonSpanExporter(serviceName, json -> {
+            final Response response = client
+                    .target(tracesEndpoint)
+                    .request()
+                    .post(entity(json, APPLICATION_JSON_TYPE));
+            try {
+                if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                    LOG.warn("Failed to export spans to {}: {}", tracesEndpoint, response.getStatusInfo());
+                }
+            } finally {
+                response.close();
+            }
+        }, client);
+    }
+
+    @Override
+    public void export(final Collection<Span> spans) {
+        if (!spans.isEmpty()) {
+            executor.execute(() -> {
+                try {
+                    writer.accept(toOtlpJson(serviceName, spans));
+                } catch (final RuntimeException e) {
+                    LOG.warn("Failed to export spans: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of exports that were dropped, because too many exports were pending.
+     *
+     * @return number of dropped exports
+     */
+    public long getNumDropped() {
+        return numDropped.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    /**
+     * Serializes spans into an OTLP/JSON {@code ExportTraceServiceRequest}.
+     *
+     * @param serviceName the name of the service
+     * @param spans the spans
+     * @return JSON
+     */
+    static String toOtlpJson(final String serviceName, final Collection<Span> spans) {
+        final StringBuilder json = new StringBuilder(256 + spans.size() * 256);
+        json.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        appendAttribute(json, "service.name", serviceName);
+        json.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"rx-composer\"},\"spans\":[");
+        boolean first = true;
+        for (final Span span : spans) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendSpan(json, span);
+        }
+        json.append("]}]}]}");
+        return json.toString();
+    }
+
+    private static void appendSpan(final StringBuilder json, final Span span) {
+        json.append("{\"traceId\":\"").append(span.getContext().getTraceId()).append('"');
+        json.append(",\"spanId\":\"").append(span.getContext().getSpanId()).append('"');
+        if (span.getParentSpanId() != null) {
+            json.append(",\"parentSpanId\":\"").append(span.getParentSpanId()).append('"');
+        }
+        json.append(",\"name\":");
+        appendString(json, span.getName());
+        // SPAN_KIND_INTERNAL = 1, SPAN_KIND_CLIENT = 3
+        json.append(",\"kind\":").append(span.getKind() == Span.Kind.CLIENT ? 3 : 1);
+        json.append(",\"startTimeUnixNano\":\"").append(span.getStartEpochNanos()).append('"');
+        json.append(",\"endTimeUnixNano\":\"").append(span.getEndEpochNanos()).append('"');
+        json.append(",\"attributes\":[");
+        boolean first = true;
+        for (final Map.Entry<String, String> attribute : span.getAttributes().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendAttribute(json, attribute.getKey(), attribute.getValue());
+        }
+        json.append(']');
+        if (span.isError()) {
+            // STATUS_CODE_ERROR = 2
+            json.append(",\"status\":{\"code\":2,\"message\":");
+            appendString(json, span.getErrorMessage());
+            json.append('}');
+        }
+        json.append('}');
+    }
+
+    private static void appendAttribute(final StringBuilder json, final String key, final String value) {
+        json.append("{\"key\":");
+        appendString(json, key);
+        json.append(",\"value\":{\"stringValue\":");
+        appendString(json, value);
+        json.append("}}");
+    }
+
+    private static void appendString(final StringBuilder json, final String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,130 @@
+package de.otto.rx.composer.tracer;
+
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.Statistics;
+import de.otto.rx.composer.metrics.Metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static de.otto.rx.composer.tracer.TraceEvent.traceEvent;
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This implementation is doing tail-based sampling: all events are delegated to the delegate Tracer, and
+ *     additionally recorded into a preallocated buffer. When the {@link #pageCompleted() page is completed},
+ *     the buffered events are forwarded to the target Tracer (for example a {@link LoggingTracer}) if, and only if,
+ *     fetching the page was slower than the latency threshold, or if errors occurred or fallbacks were requested.
+ * </p>
+ * <p>
+ *     This way, the traces of slow or failing pages are available, without the costs of logging every page.
+ * </p>
+ */
+public final class SamplingTracer implements Tracer {
+
+    private final Tracer delegate;
+    private final Tracer target;
+    private final long latencyThresholdMillis;
+    private final TraceEventBuffer events = new TraceEventBuffer(StatisticsTracer.DEFAULT_CAPACITY);
+    private final long startedTs = currentTimeMillis();
+    private volatile boolean failedOrFallback = false;
+
+    /**
+     * Creates a SamplingTracer.
+     *
+     * @param delegate the delegate Tracer that is receiving all events
+     * @param target the Tracer that is receiving the events of sampled pages
+     * @param latencyThresholdMillis pages that took longer than this threshold are sampled
+     */
+    public SamplingTracer(final Tracer delegate,
+                          final Tracer target,
+                          final long latencyThresholdMillis) {
+        this.delegate = checkNotNull(delegate, "delegate must not be null.");
+        this.target = checkNotNull(target, "target must not be null.");
+        this.latencyThresholdMillis = latencyThresholdMillis;
+    }
+
+    @Override
+    public void trace(final TraceEvent event) {
+        delegate.trace(event);
+        if (target.isEnabled()) {
+            record(event.getType(), event.getTimestamp(), event.getPosition(), event.getSource(), event.isNonEmptyContent(), event.getErrorMessage());
+        }
+    }
+
+    @Override
+    public void trace(final EventType type,
+                      final Position position,
+                      final String source,
+                      final boolean nonEmptyContent,
+                      final String errorMessage) {
+        delegate.trace(type, position, source, nonEmptyContent, errorMessage);
+        if (target.isEnabled()) {
+            record(type, currentTimeMillis(), position, source, nonEmptyContent, errorMessage);
+        }
+    }
+
+    @Override
+    public Span startSpan(final String name, final Span.Kind kind, final Span parent) {
+        return delegate.startSpan(name, kind, parent);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     Forwards the buffered events to the target Tracer, if the page was slow, had errors or
+     *     needed fallbacks.
+     * </p>
+     */
+    @Override
+    public void pageCompleted() {
+        delegate.pageCompleted();
+        if (isSampled()) {
+            events.forEach((type, timestamp, position, source, nonEmptyContent, errorMessage) ->
+                    target.trace(traceEvent(type, timestamp, position, source, nonEmptyContent, errorMessage)));
+            target.pageCompleted();
+        }
+    }
+
+    /**
+     * Returns true, if the events of the page are forwarded to the target when the page is completed.
+     *
+     * @return true, if the page is slow, had errors or fallbacks.
+     */
+    public boolean isSampled() {
+        return failedOrFallback || currentTimeMillis() - startedTs > latencyThresholdMillis;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return delegate.isEnabled() || target.isEnabled();
+    }
+
+    @Override
+    public ImmutableList<TraceEvent> getEvents() {
+        return delegate.getEvents();
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    private void record(final EventType type,
+                        final long timestamp,
+                        final Position position,
+                        final String source,
+                        final boolean nonEmptyContent,
+                        final String errorMessage) {
+        if (type == EventType.ERROR || type == EventType.FALLBACK_STARTED) {
+            failedOrFallback = true;
+        }
+        events.record(type, timestamp, position, source, nonEmptyContent, errorMessage);
+    }
+}
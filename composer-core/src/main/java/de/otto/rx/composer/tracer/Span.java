@@ -0,0 +1,206 @@
+package de.otto.rx.composer.tracer;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A timed operation that is part of a distributed trace, like fetching a page, a single fragment or
+ * one attempt to get content from a remote service.
+ * <p>
+ *     Spans are created using {@link Tracer#startSpan(String, Kind, Span)}. If the Tracer is not recording spans,
+ *     a no-op Span is returned and all methods of the Span are doing nothing.
+ * </p>
+ * <p>
+ *     A span is ended exactly once; subsequent calls to {@link #end()} or {@link #endWithError(String)} are ignored.
+ * </p>
+ */
+public final class Span {
+
+    /**
+     * The kind of the span.
+     */
+    public enum Kind {
+        /** An operation inside of the composer. */
+        INTERNAL,
+        /** A request to a remote service. */
+        CLIENT
+    }
+
+    private static final Span NO_OP_SPAN = new Span();
+
+    private final String name;
+    private final Kind kind;
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final Map<String, String> attributes;
+    private final AtomicBoolean ended = new AtomicBoolean(false);
+    private final Consumer<Span> onEnd;
+    private volatile long endEpochNanos;
+    private volatile String errorMessage;
+
+    private Span() {
+        this.name = "";
+        this.kind = Kind.INTERNAL;
+        this.context = null;
+        this.parentSpanId = null;
+        this.startEpochNanos = 0;
+        this.startNanos = 0;
+        this.attributes = null;
+        this.onEnd = null;
+        this.ended.set(true);
+    }
+
+    Span(final String name,
+         final Kind kind,
+         final TraceContext context,
+         final String parentSpanId,
+         final Consumer<Span> onEnd) {
+        this.name = name;
+        this.kind = kind;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.startEpochNanos = MILLISECONDS.toNanos(currentTimeMillis());
+        this.startNanos = nanoTime();
+        this.attributes = new ConcurrentHashMap<>();
+        this.onEnd = onEnd;
+    }
+
+    /**
+     * Returns a Span that is not recording anything.
+     *
+     * @return no-op Span
+     */
+    public static Span noOpSpan() {
+        return NO_OP_SPAN;
+    }
+
+    /**
+     * Returns true, if the span is recorded. Callers may use this to skip the creation of attributes.
+     *
+     * @return true if recording, false otherwise.
+     */
+    public boolean isRecording() {
+        return this != NO_OP_SPAN;
+    }
+
+    /**
+     * Adds an attribute to the span.
+     *
+     * @param key the key of the attribute
+     * @param value the value of the attribute
+     * @return this
+     */
+    public Span setAttribute(final String key, final String value) {
+        if (attributes != null && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Ends the span successfully.
+     */
+    public void end() {
+        end(null);
+    }
+
+    /**
+     * Ends the span with an error.
+     *
+     * @param errorMessage the error message
+     */
+    public void endWithError(final String errorMessage) {
+        end(errorMessage != null ? errorMessage : "");
+    }
+
+    private void end(final String errorMessage) {
+        if (ended.compareAndSet(false, true)) {
+            this.errorMessage = errorMessage;
+            this.endEpochNanos = startEpochNanos + (nanoTime() - startNanos);
+            onEnd.accept(this);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the TraceContext of the span, or null if the span is not recording.
+     *
+     * @return TraceContext
+     */
+    public TraceContext getContext() {
+        return context;
+    }
+
+    /**
+     * Returns the span-id of the parent span, or null if this is a root span.
+     *
+     * @return parent span-id
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    /**
+     * Returns the end timestamp of the span, or 0 if the span is not yet ended.
+     *
+     * @return end timestamp in nanoseconds since the epoch
+     */
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    public ImmutableMap<String, String> getAttributes() {
+        return attributes != null ? ImmutableMap.copyOf(attributes) : ImmutableMap.of();
+    }
+
+    /**
+     * Returns true if the span was ended with an error.
+     *
+     * @return true if failed
+     */
+    public boolean isError() {
+        return errorMessage != null;
+    }
+
+    /**
+     * Returns the error message, or null if the span was not ended with an error.
+     *
+     * @return error message
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" +
+                "name='" + name + '\'' +
+                ", kind=" + kind +
+                ", context=" + context +
+                ", parentSpanId='" + parentSpanId + '\'' +
+                ", attributes=" + attributes +
+                ", errorMessage='" + errorMessage + '\'' +
+                '}';
+    }
+}
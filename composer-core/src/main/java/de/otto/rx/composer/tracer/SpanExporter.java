@@ -0,0 +1,25 @@
+package de.otto.rx.composer.tracer;
+
+import java.util.Collection;
+
+/**
+ * Exports the {@link Span spans} of a page to some tracing backend.
+ * <p>
+ *     Implementations must not block the calling thread for long, as spans are exported when a page is completed.
+ * </p>
+ */
+public interface SpanExporter extends AutoCloseable {
+
+    /**
+     * Exports the ended spans of a single page.
+     *
+     * @param spans the spans
+     */
+    void export(final Collection<Span> spans);
+
+    /**
+     * Flushes pending spans and releases system resources.
+     */
+    @Override
+    void close();
+}
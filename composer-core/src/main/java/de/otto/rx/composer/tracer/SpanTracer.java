@@ -0,0 +1,114 @@
+package de.otto.rx.composer.tracer;
+
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.Statistics;
+import de.otto.rx.composer.metrics.Metrics;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static de.otto.rx.composer.tracer.TraceContext.fromTraceparent;
+import static de.otto.rx.composer.tracer.TraceContext.newTraceContext;
+
+/**
+ * {@inheritDoc}
+ * <p>
+ *     This implementation is recording {@link Span spans} for a single page: a span for the page itself, and
+ *     child spans for fragments, HTTP requests (including retries) and fallbacks. When the page is
+ *     {@link #pageCompleted() completed}, the spans are handed over to a {@link SpanExporter}.
+ * </p>
+ * <p>
+ *     If the page was requested with a W3C {@code traceparent} header, the page span is a child of the
+ *     calling span, otherwise a new trace is started. Trace events are delegated to the delegate Tracer.
+ * </p>
+ */
+public final class SpanTracer implements Tracer {
+
+    private final Tracer delegate;
+    private final SpanExporter exporter;
+    private final ConcurrentLinkedQueue<Span> endedSpans = new ConcurrentLinkedQueue<>();
+    private final Span pageSpan;
+
+    /**
+     * Creates a SpanTracer.
+     *
+     * @param delegate the delegate Tracer
+     * @param exporter the SpanExporter used to export the spans of the page
+     * @param traceparent the traceparent header of the incoming request, or null
+     */
+    public SpanTracer(final Tracer delegate,
+                      final SpanExporter exporter,
+                      final String traceparent) {
+        this.delegate = checkNotNull(delegate, "delegate must not be null.");
+        this.exporter = checkNotNull(exporter, "exporter must not be null.");
+        final TraceContext parent = fromTraceparent(traceparent);
+        this.pageSpan = parent != null
+                ? new Span("page", Span.Kind.INTERNAL, parent.newChild(), parent.getSpanId(), endedSpans::add)
+                : new Span("page", Span.Kind.INTERNAL, newTraceContext(), null, endedSpans::add);
+    }
+
+    /**
+     * Returns the span of the page. The span is ended when the page is completed.
+     *
+     * @return page span
+     */
+    public Span getPageSpan() {
+        return pageSpan;
+    }
+
+    @Override
+    public Span startSpan(final String name, final Span.Kind kind, final Span parent) {
+        final Span parentSpan = parent != null && parent.isRecording() ? parent : pageSpan;
+        final TraceContext parentContext = parentSpan.getContext();
+        return new Span(name, kind, parentContext.newChild(), parentContext.getSpanId(), endedSpans::add);
+    }
+
+    @Override
+    public void trace(final TraceEvent event) {
+        delegate.trace(event);
+    }
+
+    @Override
+    public void trace(final EventType type,
+                      final Position position,
+                      final String source,
+                      final boolean nonEmptyContent,
+                      final String errorMessage) {
+        delegate.trace(type, position, source, nonEmptyContent, errorMessage);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     Ends the page span and exports all spans that are ended so far. Spans that are ended later - for example,
+     *     requests that are still running after a timeout - are not exported.
+     * </p>
+     */
+    @Override
+    public void pageCompleted() {
+        delegate.pageCompleted();
+        pageSpan.end();
+        exporter.export(ImmutableList.copyOf(endedSpans));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return delegate.isEnabled();
+    }
+
+    @Override
+    public ImmutableList<TraceEvent> getEvents() {
+        return delegate.getEvents();
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return delegate.getMetrics();
+    }
+}
@@ -1,13 +1,12 @@
 package de.otto.rx.composer.tracer;
 
 import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.FragmentTiming.TimingBuilder;
+import de.otto.rx.composer.content.Position;
 import de.otto.rx.composer.content.Statistics;
 import de.otto.rx.composer.content.Statistics.StatsBuilder;
 import org.slf4j.Logger;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
-
-import static com.google.common.collect.ImmutableList.copyOf;
 import static de.otto.rx.composer.content.Statistics.statsBuilder;
 import static de.otto.rx.composer.tracer.EventType.*;
 import static java.lang.System.currentTimeMillis;
@@ -15,37 +14,67 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Traces and gathers statistics for a single request execution.
+ * <p>
+ *     Events are recorded into a preallocated buffer of primitive fields, so tracing does not create
+ *     objects. {@link TraceEvent} instances are only created if {@link #getEvents()} is called. If more events
+ *     are traced than preallocated, the buffer grows, so the statistics always cover all traced events.
+ * </p>
  */
 public final class StatisticsTracer implements Tracer {
 
     private static final Logger LOG = getLogger(StatisticsTracer.class);
 
-    private final ConcurrentLinkedQueue<TraceEvent> events = new ConcurrentLinkedQueue<>();
+    /** Default number of events preallocated per request. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final TraceEventBuffer events;
     private final long startedTs = currentTimeMillis();
 
-    private StatisticsTracer() {
+    private StatisticsTracer(final int capacity) {
+        this.events = new TraceEventBuffer(capacity);
     }
 
     public static StatisticsTracer statisticsTracer() {
-        return new StatisticsTracer();
+        return new StatisticsTracer(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a StatisticsTracer that is preallocating space for {@code capacity} events. If more events are
+     * traced, the buffer grows by another {@code capacity} events.
+     *
+     * @param capacity number of preallocated events. Must be a power of two.
+     * @return StatisticsTracer
+     */
+    public static StatisticsTracer statisticsTracer(final int capacity) {
+        return new StatisticsTracer(capacity);
     }
 
     @Override
     public void trace(final TraceEvent event) {
-        events.add(event);
+        events.record(event.getType(), event.getTimestamp(), event.getPosition(), event.getSource(),
+                event.isNonEmptyContent(), event.getErrorMessage());
+    }
+
+    @Override
+    public void trace(final EventType type,
+                      final Position position,
+                      final String source,
+                      final boolean nonEmptyContent,
+                      final String errorMessage) {
+        events.record(type, currentTimeMillis(), position, source, nonEmptyContent, errorMessage);
     }
 
     @Override
     public ImmutableList<TraceEvent> getEvents() {
-        return copyOf(events);
+        return events.toTraceEvents();
     }
 
     @Override
     public Statistics getStatistics() {
-        StatsBuilder stats = statsBuilder();
+        final StatsBuilder stats = statsBuilder();
         stats.startedTs = startedTs;
-        for (final TraceEvent event : events) {
-            switch (event.getType()) {
+        events.forEach((type, timestamp, position, source, nonEmptyContent, errorMessage) -> {
+            switch (type) {
                 case STARTED:
                     ++stats.numRequested;
                     break;
@@ -54,7 +83,7 @@ public final class StatisticsTracer implements Tracer {
                     break;
                 case FALLBACK_COMPLETED:
                 case COMPLETED:
-                    gatherCompletedStatistics(stats, event);
+                    gatherCompletedStatistics(stats, type, timestamp, position, nonEmptyContent);
                     break;
                 case ERROR:
                     ++stats.numErrors;
@@ -62,30 +91,79 @@ public final class StatisticsTracer implements Tracer {
                 default:
                     break;
             }
-        }
+            gatherTimeline(stats, type, timestamp - startedTs, position, source, nonEmptyContent);
+        });
         stats.runtime = currentTimeMillis() - startedTs;
         return stats.build();
     }
 
-    private void gatherCompletedStatistics(final StatsBuilder stats, final TraceEvent event) {
-        if (event.isNonEmptyContent()) {
-            if (event.getType().equals(COMPLETED)) {
+    private void gatherTimeline(final StatsBuilder stats,
+                                final EventType type,
+                                final long millis,
+                                final Position position,
+                                final String source,
+                                final boolean nonEmptyContent) {
+        final TimingBuilder timing = stats.timingOf(position.name());
+        switch (type) {
+            case STARTED:
+                timing.started(millis);
+                break;
+            case CONTINUED:
+                timing.dependsOn = source;
+                timing.started(millis);
+                break;
+            case RESPONSE_RECEIVED:
+                timing.firstByte(millis);
+                break;
+            case RETRY:
+                ++timing.numRetries;
+                break;
+            case FALLBACK_STARTED:
+                timing.fallbackStartedMillis = millis;
+                break;
+            case FALLBACK_COMPLETED:
+                if (timing.fallbackStartedMillis >= 0) {
+                    timing.fallbackMillis += millis - timing.fallbackStartedMillis;
+                }
+                timing.available |= nonEmptyContent;
+                timing.completed(millis);
+                break;
+            case COMPLETED:
+                timing.available |= nonEmptyContent;
+                timing.completed(millis);
+                break;
+            case ERROR:
+                timing.failed = true;
+                timing.completed(millis);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void gatherCompletedStatistics(final StatsBuilder stats,
+                                           final EventType type,
+                                           final long timestamp,
+                                           final Position position,
+                                           final boolean nonEmptyContent) {
+        if (nonEmptyContent) {
+            if (type.equals(COMPLETED)) {
                 ++stats.numNonEmpty;
             } else {
                 ++stats.numNonEmptyFallbacks;
             }
 
-            long fragmentRuntime = event.getTimestamp() - startedTs;
+            long fragmentRuntime = timestamp - startedTs;
             stats.sumNonEmptyMillis += fragmentRuntime;
             if (fragmentRuntime > stats.slowestNonEmptyMillis) {
-                stats.slowestFragment = event.getPosition().name();
+                stats.slowestFragment = position.name();
                 stats.slowestNonEmptyMillis = fragmentRuntime;
             }
         } else {
             ++stats.numEmpty;
-            long fragmentRuntime = event.getTimestamp() - startedTs;
+            long fragmentRuntime = timestamp - startedTs;
             if (fragmentRuntime > stats.slowestNonEmptyMillis) {
-                stats.slowestFragment = event.getPosition().name();
+                stats.slowestFragment = position.name();
             }
         }
     }
@@ -0,0 +1,158 @@
+package de.otto.rx.composer.tracer;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The identity of a {@link Span} as defined by the W3C Trace Context specification.
+ * <p>
+ *     A TraceContext can be parsed from, and serialized to, the {@code traceparent} HTTP header, so traces can be
+ *     continued across service boundaries.
+ * </p>
+ *
+ * @see <a href="https://www.w3.org/TR/trace-context/">W3C Trace Context</a>
+ */
+public final class TraceContext {
+
+    /** The name of the HTTP header used to propagate the TraceContext. */
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final Pattern TRACEPARENT_PATTERN = Pattern.compile(
+            "^([0-9a-f]{2})-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})(-.*)?$");
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+
+    private TraceContext(final String traceId, final String spanId, final boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Creates a TraceContext that is starting a new trace.
+     *
+     * @return sampled TraceContext with random trace- and span-id.
+     */
+    public static TraceContext newTraceContext() {
+        return new TraceContext(randomId(2), randomId(1), true);
+    }
+
+    /**
+     * Creates a TraceContext from trace- and span-id.
+     *
+     * @param traceId 32 lower-case hex characters
+     * @param spanId 16 lower-case hex characters
+     * @param sampled the sampled flag
+     * @return TraceContext
+     */
+    public static TraceContext traceContext(final String traceId, final String spanId, final boolean sampled) {
+        checkNotNull(traceId, "traceId must not be null.");
+        checkNotNull(spanId, "spanId must not be null.");
+        checkArgument(traceId.matches("[0-9a-f]{32}") && !traceId.equals(INVALID_TRACE_ID), "invalid traceId");
+        checkArgument(spanId.matches("[0-9a-f]{16}") && !spanId.equals(INVALID_SPAN_ID), "invalid spanId");
+        return new TraceContext(traceId, spanId, sampled);
+    }
+
+    /**
+     * Parses a {@code traceparent} header.
+     *
+     * @param traceparent the header value, may be null
+     * @return TraceContext, or null if the header is missing or invalid.
+     */
+    public static TraceContext fromTraceparent(final String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        final Matcher matcher = TRACEPARENT_PATTERN.matcher(traceparent.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        final String version = matcher.group(1);
+        final String traceId = matcher.group(2);
+        final String spanId = matcher.group(3);
+        if (version.equals("ff")
+                || (version.equals("00") && matcher.group(5) != null)
+                || traceId.equals(INVALID_TRACE_ID)
+                || spanId.equals(INVALID_SPAN_ID)) {
+            return null;
+        }
+        final boolean sampled = (Integer.parseInt(matcher.group(4), 16) & 0x01) != 0;
+        return new TraceContext(traceId, spanId, sampled);
+    }
+
+    /**
+     * Creates the TraceContext of a child span: the trace-id is the same, but a new span-id is generated.
+     *
+     * @return TraceContext of a child span
+     */
+    public TraceContext newChild() {
+        return new TraceContext(traceId, randomId(1), sampled);
+    }
+
+    /**
+     * Returns the value of the {@code traceparent} header used to propagate this context.
+     *
+     * @return traceparent header value
+     */
+    public String toTraceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    private static String randomId(final int numLongs) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final StringBuilder sb = new StringBuilder(numLongs * 16);
+        for (int i = 0; i < numLongs; ++i) {
+            long value;
+            do {
+                value = random.nextLong();
+            } while (value == 0);
+            final String hex = Long.toHexString(value);
+            for (int pad = hex.length(); pad < 16; ++pad) {
+                sb.append('0');
+            }
+            sb.append(hex);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final TraceContext that = (TraceContext) o;
+        return sampled == that.sampled &&
+                Objects.equals(traceId, that.traceId) &&
+                Objects.equals(spanId, that.spanId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(traceId, spanId, sampled);
+    }
+
+    @Override
+    public String toString() {
+        return toTraceparent();
+    }
+}
@@ -11,60 +11,86 @@ import static java.lang.System.currentTimeMillis;
 public final class TraceEvent {
 
     private final EventType type;
-    private final long timestamp = currentTimeMillis();
+    private final long timestamp;
     private final Position position;
     private final String source;
     private final boolean nonEmptyContent;
     private final String errorMessage;
 
     private TraceEvent(final EventType type,
+                       final long timestamp,
                        final Position position,
                        final String source,
                        final boolean nonEmptyContent,
                        final String errorMessage) {
         this.type = type;
+        this.timestamp = timestamp;
         this.position = position;
         this.source = source;
         this.nonEmptyContent = nonEmptyContent;
         this.errorMessage = errorMessage;
     }
 
+    /**
+     * Creates a TraceEvent of the given type.
+     * <p>
+     *     Primarily used by {@link Tracer} implementations that are recording events in some other form, and that
+     *     need to create TraceEvent objects on demand.
+     * </p>
+     *
+     * @param type the type of the event
+     * @param timestamp the time in millis when the event occurred
+     * @param position the position of the fragment
+     * @param source the source of the content, or an empty String
+     * @param nonEmptyContent true, if non-empty content is available
+     * @param errorMessage the error message, or an empty String
+     * @return TraceEvent
+     */
+    public static TraceEvent traceEvent(final EventType type,
+                                        final long timestamp,
+                                        final Position position,
+                                        final String source,
+                                        final boolean nonEmptyContent,
+                                        final String errorMessage) {
+        return new TraceEvent(type, timestamp, position, source, nonEmptyContent, errorMessage);
+    }
+
     public static TraceEvent fragmentStarted(final Position position,
                                              final String source) {
-        return new TraceEvent(STARTED, position, source, false, "");
+        return new TraceEvent(STARTED, currentTimeMillis(), position, source, false, "");
     }
 
     public static TraceEvent fallbackFragmentStarted(final Position position) {
-        return new TraceEvent(FALLBACK_STARTED, position, "", false, "");
+        return new TraceEvent(FALLBACK_STARTED, currentTimeMillis(), position, "", false, "");
     }
 
     public static TraceEvent fragmentCompleted(final Position position,
                                                final String source,
                                                final boolean available) {
-        return new TraceEvent(COMPLETED, position, source, available, "");
+        return new TraceEvent(COMPLETED, currentTimeMillis(), position, source, available, "");
     }
 
     public static TraceEvent fallbackFragmentCompleted(final Position position,
                                                        final String source,
                                                        final boolean available) {
-        return new TraceEvent(FALLBACK_COMPLETED, position, source, available, "");
+        return new TraceEvent(FALLBACK_COMPLETED, currentTimeMillis(), position, source, available, "");
     }
 
     public static TraceEvent error(final Position position,
                                    final String source,
                                    final String reason) {
-        return new TraceEvent(ERROR, position, source, false, reason);
+        return new TraceEvent(ERROR, currentTimeMillis(), position, source, false, reason);
     }
 
     public static TraceEvent exception(final Position position,
                                        final Throwable t) {
-        return new TraceEvent(ERROR, position, "", false, t.getMessage());
+        return new TraceEvent(ERROR, currentTimeMillis(), position, "", false, t.getMessage());
     }
 
     public static TraceEvent exception(final Position position,
                                        final String source,
                                        final Throwable t) {
-        return new TraceEvent(ERROR, position, source, false, t.getMessage());
+        return new TraceEvent(ERROR, currentTimeMillis(), position, source, false, t.getMessage());
     }
 
     public final long getTimestamp() {
@@ -0,0 +1,160 @@
+package de.otto.rx.composer.tracer;
+
+import com.google.common.collect.ImmutableList;
+import de.otto.rx.composer.content.Position;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static de.otto.rx.composer.tracer.TraceEvent.traceEvent;
+import static java.lang.Integer.bitCount;
+import static java.lang.Integer.numberOfTrailingZeros;
+
+/**
+ * An append-only buffer of trace events, stored as primitive fields in parallel arrays.
+ * <p>
+ *     Recording an event is lock-free: a slot is claimed by incrementing a sequence number, the fields are written,
+ *     and the slot is published afterwards. The buffer is organized in chunks of {@code chunkSize} events. The
+ *     first chunk is preallocated; if more events are recorded, additional chunks are appended, so no event
+ *     is ever lost or overwritten.
+ * </p>
+ * <p>
+ *     Readers only see slots that are published with the sequence number of the recorded event. Because slots are
+ *     never reused, it is safe to read the buffer while events are still recorded.
+ * </p>
+ */
+final class TraceEventBuffer {
+
+    /**
+     * Callback used to read the events of the buffer without creating TraceEvent instances.
+     */
+    @FunctionalInterface
+    interface EventVisitor {
+        void visit(EventType type, long timestamp, Position position, String source,
+                   boolean nonEmptyContent, String errorMessage);
+    }
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private final int shift;
+    private final int mask;
+    private final Chunk head;
+    /** The last chunk known to be appended; only used as a starting point to find the chunk of a sequence. */
+    private volatile Chunk tail;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    /**
+     * Creates a TraceEventBuffer.
+     *
+     * @param chunkSize the number of events that are preallocated, and the number of events added if the
+     *                  buffer needs to grow. Must be a power of two.
+     */
+    TraceEventBuffer(final int chunkSize) {
+        checkArgument(chunkSize > 0 && bitCount(chunkSize) == 1, "chunkSize must be a power of two");
+        this.shift = numberOfTrailingZeros(chunkSize);
+        this.mask = chunkSize - 1;
+        this.head = new Chunk(0, chunkSize);
+        this.tail = head;
+    }
+
+    void record(final EventType type,
+                final long timestamp,
+                final Position position,
+                final String source,
+                final boolean nonEmptyContent,
+                final String errorMessage) {
+        final int seq = sequence.getAndIncrement();
+        final Chunk chunk = chunkOf(seq);
+        final int slot = seq & mask;
+        chunk.types[slot] = (byte) type.ordinal();
+        chunk.timestamps[slot] = timestamp;
+        chunk.positions[slot] = position;
+        chunk.sources[slot] = source;
+        chunk.nonEmptyContents[slot] = nonEmptyContent;
+        chunk.errorMessages[slot] = errorMessage;
+        chunk.published.lazySet(slot, seq + 1);
+    }
+
+    /**
+     * Visits all published events, in the order of recording.
+     *
+     * @param visitor the visitor
+     */
+    void forEach(final EventVisitor visitor) {
+        final int end = sequence.get();
+        int seq = 0;
+        for (Chunk chunk = head; chunk != null && seq < end; chunk = chunk.next) {
+            for (int slot = 0; slot <= mask && seq < end; ++slot, ++seq) {
+                if (chunk.published.get(slot) == seq + 1) {
+                    visitor.visit(EVENT_TYPES[chunk.types[slot]], chunk.timestamps[slot], chunk.positions[slot],
+                            chunk.sources[slot], chunk.nonEmptyContents[slot], chunk.errorMessages[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates TraceEvent instances for all events contained in the buffer.
+     *
+     * @return list of events
+     */
+    ImmutableList<TraceEvent> toTraceEvents() {
+        final ImmutableList.Builder<TraceEvent> events = ImmutableList.builder();
+        forEach((type, timestamp, position, source, nonEmptyContent, errorMessage) ->
+                events.add(traceEvent(type, timestamp, position, source, nonEmptyContent, errorMessage)));
+        return events.build();
+    }
+
+    /**
+     * Returns the chunk containing the slot of the given sequence number, appending chunks if necessary.
+     */
+    private Chunk chunkOf(final int seq) {
+        final int index = seq >>> shift;
+        Chunk chunk = tail;
+        if (chunk.index > index) {
+            chunk = head;
+        }
+        while (chunk.index < index) {
+            Chunk next = chunk.next;
+            if (next == null) {
+                final Chunk appended = new Chunk(chunk.index + 1, mask + 1);
+                next = Chunk.NEXT.compareAndSet(chunk, null, appended) ? appended : chunk.next;
+            }
+            chunk = next;
+        }
+        if (tail.index < index) {
+            tail = chunk;
+        }
+        return chunk;
+    }
+
+    private static final class Chunk {
+
+        private static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT =
+                AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next");
+
+        private final int index;
+        private final byte[] types;
+        private final long[] timestamps;
+        private final Position[] positions;
+        private final String[] sources;
+        private final boolean[] nonEmptyContents;
+        private final String[] errorMessages;
+        /** Contains sequence+1 of the event published in a slot; 0 if the slot is not yet published. */
+        private final AtomicIntegerArray published;
+        private volatile Chunk next;
+
+        private Chunk(final int index, final int size) {
+            this.index = index;
+            this.types = new byte[size];
+            this.timestamps = new long[size];
+            this.positions = new Position[size];
+            this.sources = new String[size];
+            this.nonEmptyContents = new boolean[size];
+            this.errorMessages = new String[size];
+            this.published = new AtomicIntegerArray(size);
+        }
+    }
+}
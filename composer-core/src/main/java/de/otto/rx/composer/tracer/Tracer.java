@@ -2,12 +2,25 @@ package de.otto.rx.composer.tracer;
 
 import com.google.common.collect.ImmutableList;
 import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.Position;
 import de.otto.rx.composer.content.Statistics;
+import de.otto.rx.composer.metrics.Metrics;
 import de.otto.rx.composer.page.Page;
 
+import static de.otto.rx.composer.metrics.NoOpMetrics.noOpMetrics;
+import static de.otto.rx.composer.tracer.EventType.ERROR;
+import static de.otto.rx.composer.tracer.Span.noOpSpan;
+import static de.otto.rx.composer.tracer.TraceEvent.traceEvent;
+import static java.lang.System.currentTimeMillis;
+
 /**
  * Traces and gathers information about {@link de.otto.rx.composer.page.Page#fetchWith(Parameters, Tracer)}  fetching}
  * a single {@link Page}.
+ * <p>
+ *     Code that is tracing events should use {@link #trace(EventType, Position, String, boolean, String)} instead of
+ *     creating {@link TraceEvent} instances, and should check {@link #isEnabled()} before doing anything expensive
+ *     (like building error messages) to create the arguments. This way, tracing has no costs if it is disabled.
+ * </p>
  */
 public interface Tracer {
 
@@ -18,6 +31,85 @@ public interface Tracer {
      */
     void trace(final TraceEvent event);
 
+    /**
+     * Processes a single event without requiring a {@link TraceEvent} instance.
+     * <p>
+     *     The default implementation is creating a TraceEvent if the Tracer {@link #isEnabled() is enabled}.
+     *     Implementations should override this method, if they are able to record events without creating
+     *     objects.
+     * </p>
+     *
+     * @param type the type of the event
+     * @param position the position of the fragment
+     * @param source the source of the content, or an empty String
+     * @param nonEmptyContent true, if non-empty content is available
+     * @param errorMessage the error message, or an empty String
+     */
+    default void trace(final EventType type,
+                       final Position position,
+                       final String source,
+                       final boolean nonEmptyContent,
+                       final String errorMessage) {
+        if (isEnabled()) {
+            trace(traceEvent(type, currentTimeMillis(), position, source, nonEmptyContent, errorMessage));
+        }
+    }
+
+    /**
+     * Processes an {@link EventType#ERROR error} caused by an exception.
+     * <p>
+     *     The message of the Throwable is only requested if the Tracer {@link #isEnabled() is enabled}.
+     * </p>
+     *
+     * @param position the position of the fragment
+     * @param source the source of the content, or an empty String
+     * @param t the exception
+     */
+    default void traceException(final Position position,
+                                final String source,
+                                final Throwable t) {
+        if (isEnabled()) {
+            trace(ERROR, position, source, false, t.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether or not the Tracer is doing anything with traced events.
+     * <p>
+     *     If false is returned, callers may skip tracing altogether.
+     * </p>
+     *
+     * @return true if events are processed, false otherwise.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Starts a {@link Span} used to trace an operation across service boundaries.
+     * <p>
+     *     By default, spans are not recorded and a {@link Span#noOpSpan() no-op span} is returned.
+     * </p>
+     *
+     * @param name the name of the span
+     * @param kind the kind of the span
+     * @param parent the parent span, or null if the span is a child of the page span
+     * @return Span
+     */
+    default Span startSpan(final String name, final Span.Kind kind, final Span parent) {
+        return noOpSpan();
+    }
+
+    /**
+     * Called by the {@link Page} after all fragments were fetched.
+     * <p>
+     *     Tracers that are buffering events, may use this callback to decide what to do with the events
+     *     of the page. By default, nothing happens.
+     * </p>
+     */
+    default void pageCompleted() {
+    }
+
     /**
      * Returns the traced events, or an empty list, of the Tracer implementation does not gather events.
      *
@@ -32,4 +124,16 @@ public interface Tracer {
      */
     Statistics getStatistics();
 
+    /**
+     * Returns the process-wide {@link Metrics} that are recorded while fetching a {@link Page}.
+     * <p>
+     *     By default, no metrics are recorded.
+     * </p>
+     *
+     * @return Metrics
+     */
+    default Metrics getMetrics() {
+        return noOpMetrics();
+    }
+
 }
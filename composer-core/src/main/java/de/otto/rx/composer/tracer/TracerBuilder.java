@@ -1,9 +1,15 @@
 package de.otto.rx.composer.tracer;
 
+import de.otto.rx.composer.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static de.otto.rx.composer.tracer.LoggingTracer.LogLevel;
+import static de.otto.rx.composer.tracer.LoggingTracer.isLogEnabled;
 import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
 import static de.otto.rx.composer.tracer.StatisticsTracer.statisticsTracer;
 
@@ -17,6 +23,13 @@ public class TracerBuilder {
     private LogLevel defaultLogLevel = LogLevel.TRACE;
     private LogLevel errorLogLevel = LogLevel.ERROR;
     private Tracer delegate = noOpTracer();
+    private Metrics metrics = null;
+    private AsyncEventWriter asyncEventWriter = null;
+    private SpanExporter spanExporter = null;
+    private String traceparent = null;
+    private int headSamplingRate = 0;
+    private long tailSamplingThresholdMillis = -1;
+    private LogLevel tailSamplingLogLevel = LogLevel.INFO;
 
     /**
      * Builds a default Tracer that is gathering {@link StatisticsTracer statistics} and logs messages
@@ -110,6 +123,20 @@ public class TracerBuilder {
         return this;
     }
 
+    /**
+     * Enables recording of {@link TraceEvent trace events} as process-wide {@link Metrics}, using a
+     * {@link MetricsTracer}.
+     * <p>
+     *     The Metrics are also available to the fetching code using {@link Tracer#getMetrics()}.
+     * </p>
+     * @param metrics the Metrics instance, normally shared by all requests.
+     * @return this
+     */
+    public TracerBuilder withMetrics(final Metrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     /**
      * Enables the {@link LoggingTracer logging} of {@link TraceEvent trace events}.
      *
@@ -120,16 +147,146 @@ public class TracerBuilder {
         return this;
     }
 
+    /**
+     * Enables recording of {@link Span spans} for the page, its fragments, HTTP requests and fallbacks, using a
+     * {@link SpanTracer}. The W3C {@code traceparent} header is sent with every HTTP request to other services.
+     * <p>
+     *     When the page is completed, the spans are exported using the {@code spanExporter}.
+     * </p>
+     * @param spanExporter the SpanExporter, normally shared by all requests.
+     * @param traceparent the traceparent header of the incoming request, or null to start a new trace.
+     * @return this
+     */
+    public TracerBuilder withSpanExport(final SpanExporter spanExporter, final String traceparent) {
+        this.spanExporter = spanExporter;
+        this.traceparent = traceparent;
+        return this;
+    }
+
+    /**
+     * Enables logging of {@link TraceEvent trace events} on the background thread of the process-wide
+     * {@link AsyncEventWriter#defaultEventWriter() AsyncEventWriter}.
+     *
+     * @return this
+     */
+    public TracerBuilder withAsyncLogging() {
+        return withAsyncLogging(AsyncEventWriter.defaultEventWriter());
+    }
+
+    /**
+     * Enables logging of {@link TraceEvent trace events} on the background thread of the given
+     * {@link AsyncEventWriter}, using an {@link AsyncLoggingTracer}.
+     *
+     * @param asyncEventWriter the AsyncEventWriter, normally shared by all requests.
+     * @return this
+     */
+    public TracerBuilder withAsyncLogging(final AsyncEventWriter asyncEventWriter) {
+        this.asyncEventWriter = asyncEventWriter;
+        this.logging = true;
+        return this;
+    }
+
+    /**
+     * Enables head-based sampling: only one in {@code oneInN} pages is logged. The decision is made randomly,
+     * when the Tracer is built.
+     * <p>
+     *     If {@link #withTailSampling(long) tail sampling} is enabled as well, pages that are not selected by head
+     *     sampling are still logged if they are slow, had errors or fallbacks.
+     * </p>
+     * <p>
+     *     Statistics and metrics are gathered for every page.
+     * </p>
+     * @param oneInN the sampling rate, 1 to log every page.
+     * @return this
+     */
+    public TracerBuilder withHeadSampling(final int oneInN) {
+        checkArgument(oneInN > 0, "oneInN must be positive");
+        this.headSamplingRate = oneInN;
+        this.logging = true;
+        return this;
+    }
+
+    /**
+     * Enables tail-based sampling using a {@link SamplingTracer}: events are buffered and only logged, if fetching
+     * the page took longer than {@code latencyThresholdMillis}, or if the page had errors or fallbacks.
+     * <p>
+     *     The events of sampled pages are logged using {@link LogLevel#INFO}, errors using the error log level.
+     *     Statistics and metrics are gathered for every page.
+     * </p>
+     * @param latencyThresholdMillis pages slower than this threshold are logged.
+     * @return this
+     */
+    public TracerBuilder withTailSampling(final long latencyThresholdMillis) {
+        return withTailSampling(latencyThresholdMillis, LogLevel.INFO);
+    }
+
+    /**
+     * Enables tail-based sampling using a {@link SamplingTracer}: events are buffered and only logged, if fetching
+     * the page took longer than {@code latencyThresholdMillis}, or if the page had errors or fallbacks.
+     * <p>
+     *     The events of sampled pages are logged using {@code logLevel}, errors using the error log level. Events
+     *     are only buffered if {@code logLevel} is enabled; otherwise, only errors are logged.
+     * </p>
+     * <p>
+     *     Statistics and metrics are gathered for every page.
+     * </p>
+     * @param latencyThresholdMillis pages slower than this threshold are logged.
+     * @param logLevel the LogLevel used to log the events of sampled pages.
+     * @return this
+     */
+    public TracerBuilder withTailSampling(final long latencyThresholdMillis, final LogLevel logLevel) {
+        checkArgument(latencyThresholdMillis >= 0, "latencyThresholdMillis must not be negative");
+        this.tailSamplingThresholdMillis = latencyThresholdMillis;
+        this.tailSamplingLogLevel = checkNotNull(logLevel, "logLevel must not be null.");
+        this.logging = true;
+        return this;
+    }
+
     /**
      * Builds the configured Tracer instance.
      *
      * @return Tracer
      */
     public Tracer build() {
-        if (logging) {
-            return new LoggingTracer(logger, defaultLogLevel, errorLogLevel, delegate);
+        final Tracer spanTracer = spanExporter != null
+                ? new SpanTracer(delegate, spanExporter, traceparent)
+                : delegate;
+        final Tracer tracer = metrics != null
+                ? new MetricsTracer(metrics, spanTracer)
+                : spanTracer;
+        if (!logging) {
+            return tracer;
+        }
+        if (isHeadSampled()) {
+            return loggingTracer(tracer, defaultLogLevel);
+        } else if (tailSamplingThresholdMillis >= 0) {
+            if (isLogEnabled(logger, tailSamplingLogLevel)) {
+                return new SamplingTracer(tracer, loggingTracer(noOpTracer(), tailSamplingLogLevel), tailSamplingThresholdMillis);
+            } else {
+                // sampled pages would not be logged, so there is no need to buffer events:
+                return loggingTracer(tracer, tailSamplingLogLevel);
+            }
+        } else {
+            return tracer;
+        }
+    }
+
+    private boolean isHeadSampled() {
+        if (headSamplingRate == 0) {
+            // no head sampling configured: log every page, unless tail sampling is enabled
+            return tailSamplingThresholdMillis < 0;
+        }
+        return headSamplingRate == 1 || ThreadLocalRandom.current().nextInt(headSamplingRate) == 0;
+    }
+
+    private Tracer loggingTracer(final Tracer tracer, final LogLevel logLevel) {
+        if (asyncEventWriter != null) {
+            return new AsyncLoggingTracer(
+                    new LoggingTracer(logger, logLevel, errorLogLevel, noOpTracer()),
+                    asyncEventWriter,
+                    tracer);
         } else {
-            return delegate;
+            return new LoggingTracer(logger, logLevel, errorLogLevel, tracer);
         }
     }
 }
@@ -0,0 +1,53 @@
+package de.otto.rx.composer.util;
+
+import org.slf4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Access to virtual threads on JDKs supporting them, while the library itself is compiled for Java 8.
+ */
+public class VirtualThreads {
+
+    private static final Logger LOG = getLogger(VirtualThreads.class);
+
+    private static final Method FACTORY_METHOD = factoryMethod();
+
+    private VirtualThreads() {}
+
+    /**
+     * @return true, if the JDK supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return FACTORY_METHOD != null;
+    }
+
+    /**
+     * Creates an ExecutorService starting a new virtual thread for every task, if virtual threads are supported.
+     *
+     * @return ExecutorService, or empty if virtual threads are not supported
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        if (FACTORY_METHOD != null) {
+            try {
+                return Optional.of((ExecutorService) FACTORY_METHOD.invoke(null));
+            } catch (final ReflectiveOperationException e) {
+                LOG.error("Unable to create virtual thread executor: " + e.getMessage(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Method factoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package de.otto.rx.composer.acceptance;
+
+import com.github.restdriver.clientdriver.ClientDriverRule;
+import de.otto.rx.composer.client.ServiceClient;
+import de.otto.rx.composer.content.Contents;
+import de.otto.rx.composer.page.Page;
+import de.otto.rx.composer.tracer.OtlpJsonSpanExporter;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static com.github.restdriver.clientdriver.ClientDriverRequest.Method.GET;
+import static com.github.restdriver.clientdriver.ClientDriverRequest.Method.POST;
+import static com.github.restdriver.clientdriver.RestClientDriver.giveEmptyResponse;
+import static com.github.restdriver.clientdriver.RestClientDriver.giveResponse;
+import static com.github.restdriver.clientdriver.RestClientDriver.onRequestTo;
+import static de.otto.rx.composer.client.HttpServiceClient.noResiliencyClient;
+import static de.otto.rx.composer.content.AbcPosition.X;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.page.Fragments.fragment;
+import static de.otto.rx.composer.page.Page.consistsOf;
+import static de.otto.rx.composer.providers.ContentProviders.contentFrom;
+import static de.otto.rx.composer.providers.ContentProviders.withSingle;
+import static de.otto.rx.composer.tracer.OtlpJsonSpanExporter.collectorExporter;
+import static de.otto.rx.composer.tracer.StatisticsTracer.statisticsTracer;
+import static de.otto.rx.composer.tracer.TracerBuilder.tracerBuilder;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class SpanExportAcceptanceTest {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    @Rule
+    public ClientDriverRule driver = new ClientDriverRule();
+
+    @Test
+    public void shouldPropagateTraceparentAndExportSpansToCollector() throws Exception {
+        // given
+        driver.addExpectation(
+                onRequestTo("/someContent")
+                        .withMethod(GET)
+                        .withHeader("traceparent", Pattern.compile("00-" + TRACE_ID + "-[0-9a-f]{16}-01")),
+                giveResponse("Hello", "text/plain"));
+        driver.addExpectation(
+                onRequestTo("/v1/traces")
+                        .withMethod(POST)
+                        .withBody(Pattern.compile(".*\"traceId\":\"" + TRACE_ID + "\".*\"name\":\"GET\".*", Pattern.DOTALL),
+                                Pattern.compile("application/json.*")),
+                giveEmptyResponse().withStatus(200));
+
+        try (final ServiceClient serviceClient = noResiliencyClient();
+             final OtlpJsonSpanExporter exporter = collectorExporter(driver.getBaseUrl() + "/v1/traces", "test")) {
+            final Page page = consistsOf(
+                    fragment(X, withSingle(contentFrom(serviceClient, driver.getBaseUrl() + "/someContent", TEXT_PLAIN)))
+            );
+            // when
+            final Contents result = page.fetchWith(emptyParameters(), tracerBuilder()
+                    .withDelegate(statisticsTracer())
+                    .withSpanExport(exporter, "00-" + TRACE_ID + "-b7ad6b7169203331-01")
+                    .build());
+            // then
+            assertThat(result.get(X).getBody(), is("Hello"));
+        }
+    }
+}
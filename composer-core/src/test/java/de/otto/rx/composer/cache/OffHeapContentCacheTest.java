@@ -0,0 +1,228 @@
+package de.otto.rx.composer.cache;
+
+import com.google.common.base.Strings;
+import de.otto.rx.composer.content.Content;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static de.otto.rx.composer.cache.OffHeapContentCache.offHeapContentCache;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.ErrorContent.errorContent;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class OffHeapContentCacheTest {
+
+    @Test
+    public void shouldReturnCachedContent() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096);
+        // when
+        cache.put("a", staticTextContent("a", A, "Hello Wörld"), 60000);
+        final Content content = cache.get("a");
+        // then
+        assertThat(content, is(instanceOf(OffHeapContent.class)));
+        assertThat(content.getSource(), is("a"));
+        assertThat(content.getPosition(), is(A));
+        assertThat(content.getBody(), is("Hello Wörld"));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void shouldReturnBodyBufferWithoutCopying() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096);
+        cache.put("a", staticTextContent("a", A, "Hello Wörld"), 60000);
+        // when
+        final ByteBuffer buffer = ((OffHeapContent) cache.get("a")).getBodyBuffer();
+        // then
+        assertThat(buffer.isDirect(), is(true));
+        assertThat(buffer.isReadOnly(), is(true));
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertThat(new String(bytes, UTF_8), is("Hello Wörld"));
+    }
+
+    @Test
+    public void shouldCompressBodies() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096).withCompression();
+        final String body = Strings.repeat("<p>Hello World</p>", 1000);
+        // when
+        cache.put("a", staticTextContent("a", A, body), 60000);
+        // then
+        assertThat(cache.get("a").getBody(), is(body));
+        assertThat(cache.getUsedBytes(), is(lessThan((long) body.length())));
+    }
+
+    @Test
+    public void shouldRejectUnavailableAndOversizedContents() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096);
+        // when
+        cache.put("a", errorContent(A, new IllegalStateException("boom"), 0L), 60000);
+        cache.put("b", staticTextContent("b", A, Strings.repeat("x", 5000)), 60000);
+        // then
+        assertThat(cache.get("a"), is(nullValue()));
+        assertThat(cache.get("b"), is(nullValue()));
+        assertThat(cache.getRejected(), is(2L));
+    }
+
+    @Test
+    public void shouldEvictContentsIfCapacityIsExhausted() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096).withGracePeriod(0);
+        final String body = Strings.repeat("x", 3000);
+        // when
+        cache.put("a", staticTextContent("a", A, body), 60000);
+        cache.put("b", staticTextContent("b", A, body), 60000);
+        cache.put("c", staticTextContent("c", A, body), 60000);
+        // then
+        assertThat(cache.get("a"), is(nullValue()));
+        assertThat(cache.get("b"), is(notNullValue()));
+        assertThat(cache.get("c"), is(notNullValue()));
+        assertThat(cache.getEvictions(), is(1L));
+        assertThat(cache.getAllocatedBytes(), is(8192L));
+    }
+
+    @Test
+    public void shouldEvictUnreadContentsWithDefaultGracePeriod() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096);
+        final String body = Strings.repeat("x", 3000);
+        // when
+        cache.put("a", staticTextContent("a", A, body), 60000);
+        cache.put("b", staticTextContent("b", A, body), 60000);
+        cache.put("c", staticTextContent("c", A, body), 60000);
+        // then
+        assertThat(cache.get("a"), is(nullValue()));
+        assertThat(cache.get("b"), is(notNullValue()));
+        assertThat(cache.get("c"), is(notNullValue()));
+        assertThat(cache.getRejected(), is(0L));
+    }
+
+    @Test
+    public void shouldNotEvictRecentlyReadContentsThatCanNotBeReused() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096);
+        final String body = Strings.repeat("x", 3000);
+        cache.put("a", staticTextContent("a", A, body), 60000);
+        cache.put("b", staticTextContent("b", A, body), 60000);
+        final Content a = cache.get("a");
+        final Content b = cache.get("b");
+        // when
+        cache.put("c", staticTextContent("c", A, body), 60000);
+        // then
+        assertThat(cache.get("c"), is(nullValue()));
+        assertThat(cache.getRejected(), is(1L));
+        assertThat(cache.getEvictions(), is(0L));
+        assertThat(a.getBody(), is(body));
+        assertThat(b.getBody(), is(body));
+    }
+
+    @Test
+    public void shouldReplaceContentsOfFullCache() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(4096).withSlabSize(4096);
+        final String body = Strings.repeat("x", 3000);
+        // when
+        cache.put("k", staticTextContent("k", A, body), 60000);
+        cache.put("k", staticTextContent("k", A, body + "y"), 60000);
+        cache.put("k", staticTextContent("k", A, body + "z"), 60000);
+        // then
+        assertThat(cache.get("k").getBody(), is(body + "z"));
+        assertThat(cache.getRejected(), is(0L));
+    }
+
+    @Test
+    public void shouldNotFailToReplaceRecentlyReadContentsOfFullCache() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(4096).withSlabSize(4096);
+        final String body = Strings.repeat("x", 3000);
+        cache.put("k", staticTextContent("k", A, body), 60000);
+        final Content content = cache.get("k");
+        // when
+        cache.put("k", staticTextContent("k", A, body + "y"), 60000);
+        cache.put("k", staticTextContent("k", A, body + "z"), 60000);
+        // then
+        assertThat(content.getBody(), is(body));
+        assertThat(cache.getRejected(), is(2L));
+    }
+
+    @Test
+    public void shouldReassignSlabsToOtherChunkClasses() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(4096).withSlabSize(4096);
+        cache.put("small", staticTextContent("small", A, "Foo"), 60000);
+        // when
+        cache.put("large", staticTextContent("large", A, Strings.repeat("x", 3000)), 60000);
+        // then
+        assertThat(cache.get("small"), is(nullValue()));
+        assertThat(cache.get("large"), is(notNullValue()));
+        assertThat(cache.getRejected(), is(0L));
+        assertThat(cache.getAllocatedBytes(), is(4096L));
+    }
+
+    @Test
+    public void shouldGiveSecondChanceToReferencedContents() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096).withGracePeriod(0);
+        final String body = Strings.repeat("x", 3000);
+        cache.put("a", staticTextContent("a", A, body), 60000);
+        cache.put("b", staticTextContent("b", A, body), 60000);
+        // when
+        cache.get("a");
+        cache.put("c", staticTextContent("c", A, body), 60000);
+        // then
+        assertThat(cache.get("a"), is(notNullValue()));
+        assertThat(cache.get("b"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldKeepEvictedContentReadableDuringGracePeriod() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096);
+        cache.put("a", staticTextContent("a", A, "Foo"), 60000);
+        final OffHeapContent content = (OffHeapContent) cache.get("a");
+        // when
+        cache.put("a", staticTextContent("a", A, "Bar"), 60000);
+        cache.put("b", staticTextContent("b", A, "Baz"), 60000);
+        // then
+        assertThat(content.isValid(), is(true));
+        assertThat(content.getBody(), is("Foo"));
+        assertThat(cache.get("a").getBody(), is("Bar"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldFailToReadReclaimedContent() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096).withGracePeriod(0);
+        cache.put("a", staticTextContent("a", A, "Foo"), 60000);
+        final OffHeapContent content = (OffHeapContent) cache.get("a");
+        // when
+        cache.put("a", staticTextContent("a", A, "Bar"), 60000);
+        cache.put("b", staticTextContent("b", A, "Baz"), 60000);
+        // then
+        assertThat(content.isValid(), is(false));
+        content.getBody();
+    }
+
+    @Test
+    public void shouldExpireContents() throws InterruptedException {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096);
+        cache.put("a", staticTextContent("a", A, "Foo"), 1);
+        // when
+        Thread.sleep(10);
+        // then
+        assertThat(cache.get("a"), is(nullValue()));
+        assertThat(cache.size(), is(0));
+    }
+}
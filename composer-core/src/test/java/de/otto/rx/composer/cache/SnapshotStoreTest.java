@@ -0,0 +1,223 @@
+package de.otto.rx.composer.cache;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Headers;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.SingleContent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+
+import static de.otto.rx.composer.cache.SnapshotStore.snapshotStore;
+import static de.otto.rx.composer.client.DefaultRef.noResiliency;
+import static de.otto.rx.composer.client.DefaultRef.singleRetry;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.ErrorContent.errorContent;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SnapshotStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReturnSnapshot() throws IOException {
+        // given
+        final SnapshotStore store = snapshotStore(snapshotFile(), 4096);
+        // when
+        store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, "Hello Wörld"));
+        final SnapshotContent content = store.get(noResiliency, "http://example.com/a", B);
+        // then
+        assertThat(content.getSource(), is("http://example.com/a"));
+        assertThat(content.getPosition(), is(B));
+        assertThat(content.getBody(), is("Hello Wörld"));
+        assertThat(content.getHeaders().get("Content-Type", ""), is("text/html"));
+        assertThat(UTF_8.decode(content.getBodyBuffer()).toString(), is("Hello Wörld"));
+    }
+
+    @Test
+    public void shouldSeparateSnapshotsByRefAndUrl() throws IOException {
+        // given
+        final SnapshotStore store = snapshotStore(snapshotFile(), 4096);
+        // when
+        store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, "Foo"));
+        store.put(singleRetry, "http://example.com/a", content("http://example.com/a", A, "Bar"));
+        // then
+        assertThat(store.get(noResiliency, "http://example.com/a", A).getBody(), is("Foo"));
+        assertThat(store.get(singleRetry, "http://example.com/a", A).getBody(), is("Bar"));
+        assertThat(store.get(noResiliency, "http://example.com/b", A), is(nullValue()));
+    }
+
+    @Test
+    public void shouldReloadSnapshotsAfterRestart() throws IOException {
+        // given
+        final Path file = snapshotFile();
+        final SnapshotStore store = snapshotStore(file, 4096);
+        store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, "Foo"));
+        store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, "Bar"));
+        store.put(noResiliency, "http://example.com/b", content("http://example.com/b", B, "Baz"));
+        store.close();
+        // when
+        final SnapshotStore reloaded = snapshotStore(file, 4096);
+        // then
+        assertThat(reloaded.size(), is(2));
+        assertThat(reloaded.get(noResiliency, "http://example.com/a", A).getBody(), is("Bar"));
+        assertThat(reloaded.get(noResiliency, "http://example.com/b", B).getBody(), is("Baz"));
+        assertThat(reloaded.getUsedBytes(), is(store.getUsedBytes()));
+    }
+
+    @Test
+    public void shouldOnlyUpdateTimestampOfUnchangedContents() throws IOException, InterruptedException {
+        // given
+        final SnapshotStore store = snapshotStore(snapshotFile(), 4096);
+        store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, "Foo"));
+        final long usedBytes = store.getUsedBytes();
+        final long firstTs = store.get(noResiliency, "http://example.com/a", A).getCompletedTs();
+        // when
+        Thread.sleep(5);
+        store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, "Foo"));
+        // then
+        assertThat(store.getUsedBytes(), is(usedBytes));
+        assertThat(store.get(noResiliency, "http://example.com/a", A).getCompletedTs(), is(greaterThanOrEqualTo(firstTs + 5)));
+    }
+
+    @Test
+    public void shouldCompactFullLog() throws IOException {
+        // given
+        final Path file = snapshotFile();
+        final SnapshotStore store = snapshotStore(file, 4096);
+        // when
+        for (int i = 0; i < 100; i++) {
+            store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, Strings.repeat("a", 200) + i));
+            store.put(noResiliency, "http://example.com/b", content("http://example.com/b", B, "Foo"));
+        }
+        store.close();
+        // then
+        assertThat(store.getUsedBytes(), is(lessThan(4096L)));
+        final SnapshotStore reloaded = snapshotStore(file, 4096);
+        assertThat(reloaded.size(), is(2));
+        assertThat(reloaded.get(noResiliency, "http://example.com/a", A).getBody(), is(Strings.repeat("a", 200) + 99));
+        assertThat(reloaded.get(noResiliency, "http://example.com/b", B).getBody(), is("Foo"));
+    }
+
+    @Test
+    public void shouldDropOldestSnapshotsIfFull() throws IOException {
+        // given
+        final SnapshotStore store = snapshotStore(snapshotFile(), 8192);
+        // when
+        for (int i = 0; i < 40; i++) {
+            store.put(noResiliency, "http://example.com/" + i, content("http://example.com/" + i, A, Strings.repeat("x", 400)));
+        }
+        // then
+        assertThat(store.get(noResiliency, "http://example.com/0", A), is(nullValue()));
+        for (int i = 35; i < 40; i++) {
+            assertThat(store.get(noResiliency, "http://example.com/" + i, A), is(notNullValue()));
+        }
+    }
+
+    @Test
+    public void shouldStoreChangedContentWithSameChecksum() throws IOException {
+        // given
+        final SnapshotStore store = snapshotStore(snapshotFile(), 4096);
+        // "gPXiOYsEXS" and "hvcmuzuUbK" have the same CRC32
+        store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, "gPXiOYsEXS"));
+        // when
+        store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, "hvcmuzuUbK"));
+        // then
+        assertThat(store.get(noResiliency, "http://example.com/a", A).getBody(), is("hvcmuzuUbK"));
+    }
+
+    @Test
+    public void shouldIgnoreCorruptedTail() throws IOException {
+        // given
+        final Path file = snapshotFile();
+        final SnapshotStore store = snapshotStore(file, 4096);
+        store.put(noResiliency, "http://example.com/a", content("http://example.com/a", A, "Foo"));
+        final long validBytes = store.getUsedBytes();
+        store.put(noResiliency, "http://example.com/b", content("http://example.com/b", B, "Bar"));
+        final long usedBytes = store.getUsedBytes();
+        store.close();
+        try (final RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(usedBytes - 1);
+            raf.write('X');
+        }
+        // when
+        final SnapshotStore reloaded = snapshotStore(file, 4096);
+        reloaded.put(noResiliency, "http://example.com/c", content("http://example.com/c", A, "Baz"));
+        // then
+        assertThat(reloaded.get(noResiliency, "http://example.com/a", A).getBody(), is("Foo"));
+        assertThat(reloaded.get(noResiliency, "http://example.com/b", B), is(nullValue()));
+        assertThat(reloaded.get(noResiliency, "http://example.com/c", A), is(notNullValue()));
+        assertThat(reloaded.getUsedBytes(), is(greaterThanOrEqualTo(validBytes)));
+    }
+
+    @Test
+    public void shouldNotStoreUnavailableContents() throws IOException {
+        // given
+        final SnapshotStore store = snapshotStore(snapshotFile(), 4096);
+        // when
+        store.put(noResiliency, "http://example.com/a", errorContent(A, new IllegalStateException("boom"), 0L));
+        store.put(noResiliency, "http://example.com/b", staticTextContent("http://example.com/b", B, ""));
+        // then
+        assertThat(store.size(), is(0));
+    }
+
+    private Path snapshotFile() throws IOException {
+        return folder.getRoot().toPath().resolve("snapshots.bin");
+    }
+
+    private static Content content(final String source, final Position position, final String body) {
+        return new SingleContent() {
+            @Override
+            public String getSource() {
+                return source;
+            }
+
+            @Override
+            public Position getPosition() {
+                return position;
+            }
+
+            @Override
+            public boolean isAvailable() {
+                return true;
+            }
+
+            @Override
+            public String getBody() {
+                return body;
+            }
+
+            @Override
+            public Headers getHeaders() {
+                return Headers.of(ImmutableMap.<String, List<String>>of("Content-Type", ImmutableList.of("text/html")));
+            }
+
+            @Override
+            public long getStartedTs() {
+                return 0L;
+            }
+
+            @Override
+            public long getCompletedTs() {
+                return 0L;
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package de.otto.rx.composer.client;
+
+import org.junit.Test;
+import rx.Observable;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static de.otto.rx.composer.client.ClientScheduler.boundedScheduler;
+import static de.otto.rx.composer.client.ClientScheduler.ioScheduler;
+import static de.otto.rx.composer.client.ClientScheduler.isVirtualThreadSupported;
+import static de.otto.rx.composer.client.ClientScheduler.virtualThreadScheduler;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static rx.Observable.fromCallable;
+
+public class ClientSchedulerTest {
+
+    @Test
+    public void shouldUseIoSchedulerByDefault() {
+        // when
+        final ClientConfig config = ClientConfig.noResiliency();
+        // then
+        assertThat(config.getScheduler(), is(ioScheduler()));
+        assertThat(config.getScheduler().getQueueSize(), is(-1));
+    }
+
+    @Test
+    public void shouldExecuteRequestsUsingBoundedScheduler() {
+        // given
+        try (final ClientScheduler scheduler = boundedScheduler("test", 2, 10)) {
+            // when
+            final String threadName = fromCallable(() -> Thread.currentThread().getName())
+                    .subscribeOn(scheduler.getScheduler())
+                    .toBlocking()
+                    .single();
+            // then
+            assertThat(threadName, startsWith("rxc-test-"));
+        }
+    }
+
+    @Test
+    public void shouldRejectRequestsIfQueueIsFull() throws InterruptedException {
+        // given
+        final CountDownLatch blocked = new CountDownLatch(1);
+        try (final ClientScheduler scheduler = boundedScheduler("test", 1, 1)) {
+            final Observable<String> blocking = fromCallable(() -> {
+                blocked.await(5, SECONDS);
+                return "Foo";
+            }).subscribeOn(scheduler.getScheduler());
+            blocking.subscribe();
+            blocking.subscribe();
+            // when
+            Throwable error = null;
+            try {
+                blocking.toBlocking().single();
+            } catch (final RejectedExecutionException e) {
+                error = e;
+            }
+            // then
+            assertThat(error, is(instanceOf(RejectedExecutionException.class)));
+            assertThat(scheduler.getRejectedRequests(), is(1L));
+            assertThat(scheduler.getQueueSize(), is(1));
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    public void shouldFallbackToIoSchedulerWithoutVirtualThreads() {
+        // when
+        final ClientScheduler scheduler = virtualThreadScheduler("virtual");
+        // then
+        if (isVirtualThreadSupported()) {
+            assertThat(scheduler, is(not(ioScheduler())));
+            assertThat(scheduler.getName(), is("virtual"));
+        } else {
+            assertThat(scheduler, is(ioScheduler()));
+        }
+        scheduler.close();
+    }
+
+    @Test
+    public void shouldCopyClientConfigWithScheduler() {
+        // given
+        try (final ClientScheduler scheduler = boundedScheduler("test", 1, 1)) {
+            // when
+            final ClientConfig config = ClientConfig.singleRetry().withScheduler(scheduler);
+            // then
+            assertThat(config.getScheduler(), is(scheduler));
+            assertThat(config.getRetries(), is(1));
+            assertThat(config.getRef(), is(DefaultRef.singleRetry));
+        }
+    }
+}
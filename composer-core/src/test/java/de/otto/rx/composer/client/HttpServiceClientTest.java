@@ -15,6 +15,8 @@ import static com.github.restdriver.clientdriver.RestClientDriver.onRequestTo;
 import static de.otto.rx.composer.client.HttpServiceClient.noRetriesClient;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 
 public class HttpServiceClientTest {
@@ -72,4 +74,23 @@ public class HttpServiceClientTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldMeasurePhasesOfRequest() throws Exception {
+        // given
+        driver.addExpectation(
+                onRequestTo("/someContent").withMethod(GET),
+                giveResponse("Hello World", "text/plain").after(100, TimeUnit.MILLISECONDS));
+
+        try (final ServiceClient serviceClient = noRetriesClient()) {
+            // when
+            final Response response = serviceClient.get(driver.getBaseUrl() + "/someContent", TEXT_PLAIN_TYPE).toBlocking().single();
+            // then
+            assertThat(response, is(instanceOf(TimedResponse.class)));
+            final TimedResponse timedResponse = (TimedResponse) response;
+            assertThat(timedResponse.getRequestSentNanos(), is(greaterThanOrEqualTo(timedResponse.getSubscribedNanos())));
+            assertThat(timedResponse.getResponseReceivedNanos() - timedResponse.getRequestSentNanos(), is(greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100))));
+            assertThat(response.readEntity(String.class), is("Hello World"));
+        }
+    }
+
+}
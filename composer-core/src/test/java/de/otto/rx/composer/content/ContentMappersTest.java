@@ -5,6 +5,8 @@ import org.junit.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ContentMappersTest {
@@ -49,4 +51,32 @@ public class ContentMappersTest {
         // then
         assertThat(mappedContent.getBody(), is("<h1>Test</h1><h1>Test</h1>"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldMemoizeExtractedBody() {
+        // given
+        final Content content = mock(Content.class);
+        when(content.getBody()).thenReturn("<body>Test</body>");
+        final Content mappedContent = ContentMappers.htmlBody(content);
+
+        // when
+        mappedContent.getBody();
+        mappedContent.getBody();
+
+        // then
+        verify(content, times(1)).getBody();
+    }
+
+    @Test
+    public void shouldExtractHead() {
+        // given
+        final Content content = mock(Content.class);
+        when(content.getBody()).thenReturn("<html><head><title>Test</title></head><body>Test</body></html>");
+
+        // when
+        final Content mappedContent = ContentMappers.htmlHead(content);
+
+        // then
+        assertThat(mappedContent.getBody(), is("<title>Test</title>"));
+    }
+}
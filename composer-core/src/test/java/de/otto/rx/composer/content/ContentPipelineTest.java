@@ -0,0 +1,155 @@
+package de.otto.rx.composer.content;
+
+import org.junit.Test;
+
+import static de.otto.rx.composer.content.ContentPipeline.contentPipeline;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContentPipelineTest {
+
+    @Test
+    public void shouldNotChangeHtmlWithEmptyPipeline() {
+        // given
+        final String html = "<html><!-- x --><body>  <a href=\"/foo\">Foo</a>  </body></html>";
+
+        // when
+        final String result = contentPipeline().apply(html);
+
+        // then
+        assertThat(result, is(html));
+    }
+
+    @Test
+    public void shouldExtractBody() {
+        // when
+        final String result = contentPipeline()
+                .extractBody()
+                .apply("<html><head><title>T</title></head><body class=\"x\"><h1>Test</h1></body></html>");
+
+        // then
+        assertThat(result, is("<h1>Test</h1>"));
+    }
+
+    @Test
+    public void shouldConcatenateMultipleBodies() {
+        // when
+        final String result = contentPipeline()
+                .extractBody()
+                .apply("<html><body>One</body></html><html><body>Two</body></html>");
+
+        // then
+        assertThat(result, is("OneTwo"));
+    }
+
+    @Test
+    public void shouldTransformWholeHtmlIfThereIsNoBody() {
+        // when
+        final String result = contentPipeline()
+                .extractBody()
+                .stripComments()
+                .apply("<div><!-- x -->Test</div>");
+
+        // then
+        assertThat(result, is("<div>Test</div>"));
+    }
+
+    @Test
+    public void shouldStripComments() {
+        // when
+        final String result = contentPipeline()
+                .stripComments()
+                .apply("<div><!-- <body> -->Test<!----></div>");
+
+        // then
+        assertThat(result, is("<div>Test</div>"));
+    }
+
+    @Test
+    public void shouldRewriteUrls() {
+        // when
+        final String result = contentPipeline()
+                .rewriteUrls(url -> url.startsWith("/") ? "http://example.com" + url : url)
+                .apply("<a class=\"x\" HREF=\"/foo\">Foo</a><img src='/bar.png' alt=\"/bar\"><form action=/baz></form>");
+
+        // then
+        assertThat(result, is("<a class=\"x\" HREF=\"http://example.com/foo\">Foo</a>" +
+                "<img src='http://example.com/bar.png' alt=\"/bar\">" +
+                "<form action=http://example.com/baz></form>"));
+    }
+
+    @Test
+    public void shouldMinifyWhitespace() {
+        // when
+        final String result = contentPipeline()
+                .minify()
+                .apply("<div>\n    <p>Some   text</p>\n\t</div>");
+
+        // then
+        assertThat(result, is("<div> <p>Some text</p> </div>"));
+    }
+
+    @Test
+    public void shouldNotTransformRawTextElements() {
+        // given
+        final String html = "<pre>  a   <!-- b --> </pre><script>if (a < b) { x = \"  \"; }</script>";
+
+        // when
+        final String result = contentPipeline()
+                .stripComments()
+                .minify()
+                .apply(html);
+
+        // then
+        assertThat(result, is(html));
+    }
+
+    @Test
+    public void shouldFuseAllSteps() {
+        // when
+        final String result = contentPipeline()
+                .extractBody()
+                .stripComments()
+                .rewriteUrls(url -> "/proxy" + url)
+                .minify()
+                .apply("<html><body>\n  <!-- nav -->\n  <a href=\"/foo\">Foo</a>\n</body></html>");
+
+        // then
+        assertThat(result, is(" <a href=\"/proxy/foo\">Foo</a> "));
+    }
+
+    @Test
+    public void shouldStoreTransformedBodyInContent() {
+        // given
+        final Content content = mock(Content.class);
+        when(content.isAvailable()).thenReturn(true);
+        when(content.getBody()).thenReturn("<body>Test</body>");
+
+        // when
+        final Content transformed = contentPipeline().extractBody().apply(content);
+        transformed.getBody();
+        transformed.getBody();
+
+        // then
+        assertThat(transformed.getBody(), is("Test"));
+        verify(content, times(1)).getBody();
+    }
+
+    @Test
+    public void shouldNotTransformUnavailableContent() {
+        // given
+        final Content content = mock(Content.class);
+        when(content.isAvailable()).thenReturn(false);
+
+        // when
+        final Content transformed = contentPipeline().extractBody().apply(content);
+
+        // then
+        assertThat(transformed, is(sameInstance(content)));
+    }
+}
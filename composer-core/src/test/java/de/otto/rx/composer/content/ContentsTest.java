@@ -3,14 +3,20 @@ package de.otto.rx.composer.content;
 
 import org.junit.Test;
 
+import static com.google.common.collect.ImmutableList.of;
 import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.AbcPosition.C;
 import static de.otto.rx.composer.content.Contents.contentsBuilder;
 import static de.otto.rx.composer.content.ErrorContent.errorContent;
+import static de.otto.rx.composer.content.PositionIndex.positionIndex;
 import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class ContentsTest {
 
@@ -86,6 +92,53 @@ public class ContentsTest {
 
     }
 
+    @Test
+    public void shouldGetIndexedAndUnindexedContents() {
+        // given
+        final Contents.Builder builder = contentsBuilder(positionIndex(of(A, B)));
+        final Content a = staticTextContent("a", A, "some content");
+        final Content c = staticTextContent("c", C, "other content");
+        // when
+        final Contents contents = builder.add(a).add(c).build();
+        // then
+        assertThat(contents.get(A), is(sameInstance(a)));
+        assertThat(contents.get("A"), is(sameInstance(a)));
+        assertThat(contents.get(C), is(sameInstance(c)));
+        assertThat(contents.get(B).isAvailable(), is(false));
+        assertThat(contents.getAll(), containsInAnyOrder(a, c));
+    }
+
+    @Test
+    public void shouldShareMissingContentOfIndexedPositions() {
+        // given
+        final PositionIndex positionIndex = positionIndex(of(A, B));
+        // when
+        final Content first = contentsBuilder(positionIndex).build().get(B);
+        final Content second = contentsBuilder(positionIndex).build().get("B");
+        // then
+        assertThat(first.isAvailable(), is(false));
+        assertThat(first.getPosition(), is(B));
+        assertThat(first, is(sameInstance(second)));
+        assertThat(first.getStartedTs(), is(0L));
+        assertThat(first.getCompletedTs(), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectDuplicatePositions() {
+        positionIndex(of(A, B, A));
+    }
+
+    @Test
+    public void shouldKeepFirstContentOfIndexedPosition() {
+        // given
+        final Contents.Builder builder = contentsBuilder(positionIndex(of(A)));
+        final Content first = staticTextContent("first", A, "first content");
+        // when
+        final Contents contents = builder.add(first).add(staticTextContent("second", A, "second content")).build();
+        // then
+        assertThat(contents.get(A), is(sameInstance(first)));
+    }
+
     private Content someContent(final String body) {
         return staticTextContent(
                 body, A, body
@@ -0,0 +1,109 @@
+package de.otto.rx.composer.content;
+
+import com.google.common.base.Strings;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static de.otto.rx.composer.content.HtmlScanner.bodyOf;
+import static de.otto.rx.composer.content.HtmlScanner.contentOf;
+import static de.otto.rx.composer.content.HtmlScanner.headOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class HtmlScannerTest {
+
+    @Test
+    public void shouldExtractBodyWithAttributes() {
+        // given
+        final String html = "<!DOCTYPE html><html><head><title>Test</title></head><body class=\"a>b\" id='x'>\n<h1>Test</h1>\n</body></html>";
+        // when
+        final String body = bodyOf(html);
+        // then
+        assertThat(body, is("\n<h1>Test</h1>\n"));
+    }
+
+    @Test
+    public void shouldReturnHtmlIfThereIsNoBody() {
+        // given
+        final String html = "<div>Some fragment with <bodyguard>nested</bodyguard> elements</div>";
+        // when
+        final String body = bodyOf(html);
+        // then
+        assertThat(body, is(html));
+    }
+
+    @Test
+    public void shouldConcatenateBodiesOnMultipleLines() {
+        // given
+        final String html = "<html><BODY>first</Body></html>\n<html><body>\nsecond</body></html>";
+        // when
+        final String body = bodyOf(html);
+        // then
+        assertThat(body, is("first\nsecond"));
+    }
+
+    @Test
+    public void shouldSkipComments() {
+        // given
+        final String html = "<!-- <body>commented</body> --><body>content<!-- </body> -->more</body>";
+        // when
+        final String body = bodyOf(html);
+        // then
+        assertThat(body, is("content<!-- </body> -->more"));
+    }
+
+    @Test
+    public void shouldReturnRemainingHtmlIfBodyIsNotClosed() {
+        // given
+        final String html = "<html><body><p>truncated";
+        // when
+        final String body = bodyOf(html);
+        // then
+        assertThat(body, is("<p>truncated"));
+    }
+
+    @Test
+    public void shouldExtractHeadAndNamedElements() {
+        // given
+        final String html = "<html><head><title>Test</title></head><body><section>a</section><section id=\"b\">b</section></body></html>";
+        // then
+        assertThat(headOf(html), is("<title>Test</title>"));
+        assertThat(headOf("<p>no head</p>"), is(""));
+        assertThat(contentOf(html, "section"), is("ab"));
+        assertThat(contentOf(html, "article"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldExtractBodyFromUtf8ByteBuffer() {
+        // given
+        final ByteBuffer html = ByteBuffer.wrap("<html><body>Grüße <b>äöü</b></body></html>".getBytes(UTF_8));
+        // when
+        final ByteBuffer body = bodyOf(html);
+        // then
+        assertThat(UTF_8.decode(body).toString(), is("Grüße <b>äöü</b>"));
+        assertThat(html.position(), is(0));
+    }
+
+    @Test
+    public void shouldConcatenateBodiesFromUtf8ByteBuffer() {
+        // given
+        final ByteBuffer html = ByteBuffer.wrap("<body>ä</body><body>ö</body>".getBytes(UTF_8));
+        // when
+        final ByteBuffer body = bodyOf(html);
+        // then
+        assertThat(UTF_8.decode(body).toString(), is("äö"));
+    }
+
+    @Test(timeout = 1000)
+    public void shouldScanMalformedHtmlInLinearTime() {
+        // given
+        final String html = Strings.repeat("<body", 200000) + Strings.repeat("<body>x<!--", 200000);
+        // when
+        final String body = bodyOf(html);
+        // then
+        assertThat(body, is("x<!--" + Strings.repeat("<body>x<!--", 199999)));
+    }
+}
@@ -12,6 +12,7 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -46,6 +47,22 @@ public class HttpContentTest {
         assertThat(content.getBody(), is("Hello Test"));
     }
 
+    @Test
+    public void shouldOnlyMeasureBodyReadPhaseOfUntimedResponses() {
+        // given
+        final Response mockResponse = mock(Response.class);
+        when(mockResponse.getStatusInfo()).thenReturn(Statuses.from(200));
+        when(mockResponse.readEntity(String.class)).thenReturn("Hello Test");
+        // when
+        final HttpContent content = (HttpContent) httpContent("http://example.com/test", A, mockResponse, 0L, System.nanoTime());
+        // then
+        final PhaseTimings timings = content.getPhaseTimings();
+        assertThat(timings.getQueueWaitNanos(), is(-1L));
+        assertThat(timings.getPoolWaitNanos(), is(-1L));
+        assertThat(timings.getServerNanos(), is(-1L));
+        assertThat(timings.getBodyReadNanos(), is(greaterThanOrEqualTo(0L)));
+    }
+
     @Test
     public void shouldBeUnavailableOnEmptyBody() {
         // given
@@ -0,0 +1,123 @@
+package de.otto.rx.composer.content;
+
+import org.junit.Test;
+import rx.subjects.PublishSubject;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.collect.ImmutableList.of;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.AbcPosition.X;
+import static de.otto.rx.composer.content.PositionIndex.positionIndex;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.content.Statistics.emptyStats;
+import static de.otto.rx.composer.content.StreamingContents.streamingContents;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static rx.Observable.fromCallable;
+
+public class StreamingContentsTest {
+
+    @Test
+    public void shouldReturnArrivedContentBeforeCompletion() {
+        // given
+        final StreamingContents contents = streamingContents(positionIndex(of(A, B)));
+        // when
+        contents.add(staticTextContent("a", A, "Foo"));
+        // then
+        assertThat(contents.getBody(A), is("Foo"));
+        assertThat(contents.isCompleted(), is(false));
+    }
+
+    @Test
+    public void shouldWaitForContentOfPosition() throws Exception {
+        // given
+        final StreamingContents contents = streamingContents(positionIndex(of(A, B)));
+        contents.add(staticTextContent("a", A, "Foo"));
+        // when
+        final CompletableFuture<String> body = CompletableFuture.supplyAsync(() -> contents.getBody(B));
+        // then
+        assertThat(isBlocked(body), is(true));
+        // when
+        contents.add(staticTextContent("b", B, "Bar"));
+        // then
+        assertThat(body.get(1, TimeUnit.SECONDS), is("Bar"));
+    }
+
+    @Test
+    public void shouldReturnMissingContentAfterCompletion() throws Exception {
+        // given
+        final StreamingContents contents = streamingContents(positionIndex(of(A, B)));
+        final CompletableFuture<Content> content = CompletableFuture.supplyAsync(() -> contents.get(B));
+        // when
+        contents.complete(emptyStats());
+        // then
+        assertThat(content.get(1, TimeUnit.SECONDS).isAvailable(), is(false));
+        assertThat(contents.isCompleted(), is(true));
+    }
+
+    @Test
+    public void shouldWaitForCompletionForUnindexedPositions() throws Exception {
+        // given
+        final StreamingContents contents = streamingContents(positionIndex(of(A)));
+        contents.add(staticTextContent("x", X, "Foo"));
+        // when
+        final CompletableFuture<String> body = CompletableFuture.supplyAsync(() -> contents.getBody(X));
+        // then
+        assertThat(isBlocked(body), is(true));
+        // when
+        contents.complete(emptyStats());
+        // then
+        assertThat(body.get(1, TimeUnit.SECONDS), is("Foo"));
+    }
+
+    @Test
+    public void shouldFetchLazyContentOnlyIfRequested() {
+        // given
+        final AtomicInteger fetched = new AtomicInteger();
+        final StreamingContents contents = streamingContents(positionIndex(of(A, B)));
+        contents.addLazy(B, fromCallable(() -> {
+            fetched.incrementAndGet();
+            return staticTextContent("b", B, "Bar");
+        }));
+        // when
+        contents.complete(emptyStats());
+        // then
+        assertThat(fetched.get(), is(0));
+        // when
+        final String body = contents.getBody(B);
+        contents.getBody(B);
+        // then
+        assertThat(body, is("Bar"));
+        assertThat(fetched.get(), is(1));
+    }
+
+    @Test
+    public void shouldPrefetchLazyContent() {
+        // given
+        final PublishSubject<Content> lazyContent = PublishSubject.create();
+        final StreamingContents contents = streamingContents(positionIndex(of(A, B)));
+        contents.addLazy(B, lazyContent);
+        // when
+        contents.prefetch(B);
+        // then
+        assertThat(lazyContent.hasObservers(), is(true));
+        // when
+        lazyContent.onCompleted();
+        // then
+        assertThat(contents.get(B).isAvailable(), is(false));
+    }
+
+    private boolean isBlocked(final CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(50, TimeUnit.MILLISECONDS);
+            return false;
+        } catch (final TimeoutException e) {
+            return true;
+        }
+    }
+}
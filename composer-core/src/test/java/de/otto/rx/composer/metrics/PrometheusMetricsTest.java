@@ -0,0 +1,202 @@
+package de.otto.rx.composer.metrics;
+
+import de.otto.rx.composer.cache.OffHeapContentCache;
+import de.otto.rx.composer.client.ClientScheduler;
+import de.otto.rx.composer.page.AdmissionController;
+import de.otto.rx.composer.page.LoadShedder;
+import org.junit.Test;
+
+import static de.otto.rx.composer.cache.OffHeapContentCache.offHeapContentCache;
+import static de.otto.rx.composer.client.ClientScheduler.boundedScheduler;
+import static de.otto.rx.composer.client.DefaultRef.singleRetry;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.PhaseTimings.phaseTimings;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.metrics.PrometheusMetrics.prometheusMetrics;
+import static de.otto.rx.composer.page.AdmissionController.admissionController;
+import static de.otto.rx.composer.page.LoadShedder.loadShedder;
+import static de.otto.rx.composer.page.RxEngine.rxEngine;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+public class PrometheusMetricsTest {
+
+    @Test
+    public void shouldExposeFragmentCounters() {
+        // given
+        final PrometheusMetrics metrics = prometheusMetrics();
+        // when
+        metrics.fragmentRequested(A);
+        metrics.fragmentRequested(A);
+        metrics.fragmentRequested(B);
+        metrics.fragmentCompleted(A, true);
+        metrics.fragmentCompleted(B, false);
+        metrics.fragmentFailed(A);
+        metrics.fallbackRequested(A);
+        metrics.fallbackCompleted(A, true);
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("# TYPE rxc_fragment_requests_total counter\n"));
+        assertThat(scraped, containsString("rxc_fragment_requests_total{position=\"A\"} 2\n"));
+        assertThat(scraped, containsString("rxc_fragment_requests_total{position=\"B\"} 1\n"));
+        assertThat(scraped, containsString("rxc_fragment_completed_total{position=\"A\",available=\"true\"} 1\n"));
+        assertThat(scraped, containsString("rxc_fragment_completed_total{position=\"B\",available=\"false\"} 1\n"));
+        assertThat(scraped, containsString("rxc_fragment_errors_total{position=\"A\"} 1\n"));
+        assertThat(scraped, containsString("rxc_fallback_requests_total{position=\"A\"} 1\n"));
+        assertThat(scraped, containsString("rxc_fallback_completed_total{position=\"A\",available=\"true\"} 1\n"));
+    }
+
+    @Test
+    public void shouldTrackRequestsInFlight() {
+        // given
+        final PrometheusMetrics metrics = prometheusMetrics();
+        // when
+        metrics.requestStarted(singleRetry);
+        metrics.requestStarted(singleRetry);
+        metrics.requestFinished(singleRetry);
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("# TYPE rxc_client_requests_in_flight gauge\n"));
+        assertThat(scraped, containsString("rxc_client_requests_in_flight{ref=\"singleRetry\"} 1\n"));
+        assertThat(scraped, containsString("rxc_client_requests_total{ref=\"singleRetry\"} 2\n"));
+    }
+
+    @Test
+    public void shouldExposeMonitoredSchedulers() {
+        // given
+        try (final ClientScheduler scheduler = boundedScheduler("someScheduler", 2, 10)) {
+            // when
+            final PrometheusMetrics metrics = prometheusMetrics().monitor(scheduler);
+            // then
+            final String scraped = metrics.scrape();
+            assertThat(scraped, containsString("# TYPE rxc_scheduler_queue_size gauge\n"));
+            assertThat(scraped, containsString("rxc_scheduler_queue_size{scheduler=\"someScheduler\"} 0\n"));
+            assertThat(scraped, containsString("rxc_scheduler_active_threads{scheduler=\"someScheduler\"} 0\n"));
+            assertThat(scraped, containsString("rxc_scheduler_rejected_total{scheduler=\"someScheduler\"} 0\n"));
+        }
+    }
+
+    @Test
+    public void shouldExposeMonitoredLoadShedder() {
+        // given
+        final LoadShedder loadShedder = loadShedder(10, 2);
+        // when
+        final PrometheusMetrics metrics = prometheusMetrics().monitor(loadShedder);
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("rxc_fragments_in_flight 0\n"));
+        assertThat(scraped, containsString("rxc_load_shedder_saturated 0\n"));
+        assertThat(scraped, containsString("rxc_fragments_shed_total{priority=\"optional\"} 0\n"));
+    }
+
+    @Test
+    public void shouldExposeMonitoredAdmissionController() {
+        // given
+        final AdmissionController admissionController = admissionController(rxEngine(), 10);
+        // when
+        final PrometheusMetrics metrics = prometheusMetrics().monitor(admissionController);
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("rxc_page_admission_limit 10\n"));
+        assertThat(scraped, containsString("rxc_pages_in_flight 0\n"));
+        assertThat(scraped, containsString("rxc_page_queue_size 0\n"));
+        assertThat(scraped, containsString("rxc_pages_rejected_total{reason=\"queue_full\"} 0\n"));
+    }
+
+    @Test
+    public void shouldExposeMonitoredOffHeapCache() {
+        // given
+        final OffHeapContentCache cache = offHeapContentCache(8192).withSlabSize(4096);
+        cache.put("a", staticTextContent("a", A, "Foo"), 60000);
+        // when
+        final PrometheusMetrics metrics = prometheusMetrics().monitor(cache);
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("rxc_offheap_cache_bytes{area=\"used\"} 1024\n"));
+        assertThat(scraped, containsString("rxc_offheap_cache_bytes{area=\"allocated\"} 4096\n"));
+        assertThat(scraped, containsString("rxc_offheap_cache_bytes{area=\"capacity\"} 8192\n"));
+        assertThat(scraped, containsString("rxc_offheap_cache_entries 1\n"));
+        assertThat(scraped, containsString("rxc_offheap_cache_evictions_total 0\n"));
+    }
+
+    @Test
+    public void shouldExposeCacheHitRatio() {
+        // given
+        final PrometheusMetrics metrics = prometheusMetrics();
+        // when
+        metrics.cacheHit("someCache");
+        metrics.cacheHit("someCache");
+        metrics.cacheHit("someCache");
+        metrics.cacheMiss("someCache");
+        metrics.cacheMiss("otherCache");
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("rxc_cache_hits_total{cache=\"someCache\"} 3\n"));
+        assertThat(scraped, containsString("rxc_cache_misses_total{cache=\"someCache\"} 1\n"));
+        assertThat(scraped, containsString("rxc_cache_hit_ratio{cache=\"someCache\"} 0.75\n"));
+        assertThat(scraped, containsString("rxc_cache_hit_ratio{cache=\"otherCache\"} 0.0\n"));
+    }
+
+    @Test
+    public void shouldExposePageLatencyHistogram() {
+        // given
+        final PrometheusMetrics metrics = prometheusMetrics(10, 100);
+        // when
+        metrics.pageFetched(MILLISECONDS.toNanos(5));
+        metrics.pageFetched(MILLISECONDS.toNanos(50));
+        metrics.pageFetched(MILLISECONDS.toNanos(500));
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("# TYPE rxc_page_fetch_seconds histogram\n"));
+        assertThat(scraped, containsString("rxc_page_fetch_seconds_bucket{le=\"0.01\"} 1\n"));
+        assertThat(scraped, containsString("rxc_page_fetch_seconds_bucket{le=\"0.1\"} 2\n"));
+        assertThat(scraped, containsString("rxc_page_fetch_seconds_bucket{le=\"+Inf\"} 3\n"));
+        assertThat(scraped, containsString("rxc_page_fetch_seconds_sum 0.555\n"));
+        assertThat(scraped, containsString("rxc_page_fetch_seconds_count 3\n"));
+    }
+
+    @Test
+    public void shouldExposeHttpPhaseHistograms() {
+        // given
+        final PrometheusMetrics metrics = prometheusMetrics();
+        // when
+        metrics.httpPhasesRecorded(singleRetry, phaseTimings(
+                MILLISECONDS.toNanos(3), -1, MILLISECONDS.toNanos(40), MILLISECONDS.toNanos(1)));
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("# TYPE rxc_http_phase_seconds histogram\n"));
+        assertThat(scraped, containsString("rxc_http_phase_seconds_bucket{ref=\"singleRetry\",phase=\"queue_wait\",le=\"0.002\"} 0\n"));
+        assertThat(scraped, containsString("rxc_http_phase_seconds_bucket{ref=\"singleRetry\",phase=\"queue_wait\",le=\"0.005\"} 1\n"));
+        assertThat(scraped, containsString("rxc_http_phase_seconds_bucket{ref=\"singleRetry\",phase=\"server\",le=\"0.05\"} 1\n"));
+        assertThat(scraped, containsString("rxc_http_phase_seconds_count{ref=\"singleRetry\",phase=\"body_read\"} 1\n"));
+        assertThat(scraped, not(containsString("phase=\"pool_wait\"")));
+    }
+
+    @Test
+    public void shouldExposeDroppedTraceEvents() {
+        // given
+        final PrometheusMetrics metrics = prometheusMetrics();
+        // when
+        metrics.traceEventDropped();
+        metrics.traceEventDropped();
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("# TYPE rxc_trace_events_dropped_total counter\n"));
+        assertThat(scraped, containsString("rxc_trace_events_dropped_total 2\n"));
+    }
+
+    @Test
+    public void shouldEscapeLabelValues() {
+        // given
+        final PrometheusMetrics metrics = prometheusMetrics();
+        // when
+        metrics.fragmentRequested(() -> "some \"quoted\" position");
+        // then
+        final String scraped = metrics.scrape();
+        assertThat(scraped, containsString("rxc_fragment_requests_total{position=\"some \\\"quoted\\\" position\"} 1\n"));
+        assertThat(scraped, not(containsString("rxc_circuit_breaker_open{")));
+    }
+}
@@ -0,0 +1,128 @@
+package de.otto.rx.composer.page;
+
+import de.otto.rx.composer.content.Contents;
+import de.otto.rx.composer.content.StreamingContents;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.content.Statistics.emptyStats;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.content.StreamingContents.streamingContents;
+import static de.otto.rx.composer.page.AdmissionController.admissionController;
+import static de.otto.rx.composer.page.Fragments.fragment;
+import static de.otto.rx.composer.page.RxEngine.rxEngine;
+import static de.otto.rx.composer.providers.ContentProviders.fallbackTo;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class AdmissionControllerTest {
+
+    private final Page page = Page.consistsOf(fragment(A, fallbackTo(staticTextContent("a", A, "Foo"))));
+
+    @Test
+    public void shouldExecuteAdmittedPages() {
+        // given
+        final AdmissionController admissionController = admissionController(rxEngine(), 1);
+        // when
+        final Contents contents = page.fetchWith(emptyParameters(), noOpTracer(), admissionController);
+        // then
+        assertThat(contents.getBody(A), is("Foo"));
+        assertThat(admissionController.getInFlight(), is(0));
+    }
+
+    @Test
+    public void shouldRejectPagesExceedingLimit() {
+        // given
+        final AdmissionController admissionController = admissionController(pendingEngine(), 1);
+        admissionController.execute(page, emptyParameters(), noOpTracer());
+        // when
+        try {
+            admissionController.execute(page, emptyParameters(), noOpTracer());
+            throw new AssertionError("Expected RejectedExecutionException");
+        } catch (final RejectedExecutionException e) {
+            // then
+            assertThat(admissionController.getRejectedQueueFull(), is(1L));
+            assertThat(admissionController.getInFlight(), is(1));
+        }
+    }
+
+    @Test
+    public void shouldDegradeRejectedPages() {
+        // given
+        final AdmissionController admissionController = admissionController(pendingEngine(), 1).degrading();
+        admissionController.execute(page, emptyParameters(), noOpTracer());
+        // when
+        final StreamingContents contents = admissionController.execute(page, emptyParameters(), noOpTracer());
+        // then
+        assertThat(contents.isCompleted(), is(true));
+        assertThat(contents.get(A).isAvailable(), is(false));
+    }
+
+    @Test
+    public void shouldAdmitQueuedPageIfRunningPageIsCompleted() throws Exception {
+        // given
+        final AdmissionController admissionController = admissionController(pendingEngine(), 1).withQueue(1, 5000);
+        final StreamingContents running = admissionController.execute(page, emptyParameters(), noOpTracer());
+        final CompletableFuture<StreamingContents> queued = supplyAsync(() -> admissionController.execute(page, emptyParameters(), noOpTracer()));
+        while (admissionController.getQueueSize() == 0) {
+            Thread.sleep(1);
+        }
+        // when
+        running.complete(emptyStats());
+        // then
+        queued.get(1, SECONDS);
+        assertThat(admissionController.getInFlight(), is(1));
+        assertThat(admissionController.getQueueSize(), is(0));
+        assertThat(admissionController.getRejectedTimeout(), is(0L));
+    }
+
+    @Test
+    public void shouldRejectPagesAfterQueueTimeout() {
+        // given
+        final AdmissionController admissionController = admissionController(pendingEngine(), 1).withQueue(1, 10);
+        admissionController.execute(page, emptyParameters(), noOpTracer());
+        // when
+        try {
+            admissionController.execute(page, emptyParameters(), noOpTracer());
+            throw new AssertionError("Expected RejectedExecutionException");
+        } catch (final RejectedExecutionException e) {
+            // then
+            assertThat(admissionController.getRejectedTimeout(), is(1L));
+            assertThat(admissionController.getQueueSize(), is(0));
+        }
+    }
+
+    @Test
+    public void shouldDecreaseAdaptiveLimitIfPagesAreSlow() throws InterruptedException {
+        // given
+        final AdmissionController admissionController = admissionController(pendingEngine(), 10).withAdaptiveLimit(1, 20, 1);
+        final StreamingContents contents = admissionController.execute(page, emptyParameters(), noOpTracer());
+        Thread.sleep(5);
+        // when
+        contents.complete(emptyStats());
+        // then
+        assertThat(admissionController.getLimit(), is(9));
+    }
+
+    @Test
+    public void shouldIncreaseAdaptiveLimitIfLimitIsUsed() {
+        // given
+        final AdmissionController admissionController = admissionController(pendingEngine(), 2).withAdaptiveLimit(1, 20, 10000);
+        final StreamingContents contents = admissionController.execute(page, emptyParameters(), noOpTracer());
+        // when
+        contents.complete(emptyStats());
+        // then
+        assertThat(admissionController.getLimit(), is(3));
+    }
+
+    private static ExecutionEngine pendingEngine() {
+        return (page, params, tracer) -> streamingContents(page.getPositionIndex());
+    }
+}
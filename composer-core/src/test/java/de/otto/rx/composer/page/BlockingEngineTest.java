@@ -0,0 +1,144 @@
+package de.otto.rx.composer.page;
+
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Contents;
+import de.otto.rx.composer.providers.ContentProvider;
+import org.junit.After;
+import org.junit.Test;
+import rx.Observable;
+
+import java.util.concurrent.CountDownLatch;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.AbcPosition.C;
+import static de.otto.rx.composer.content.AbcPosition.X;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.content.Parameters.parameters;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.page.BlockingEngine.blockingEngine;
+import static de.otto.rx.composer.page.Fragments.followedBy;
+import static de.otto.rx.composer.page.Fragments.fragment;
+import static de.otto.rx.composer.page.Fragments.lazyFragment;
+import static de.otto.rx.composer.providers.ContentProviders.fallbackTo;
+import static de.otto.rx.composer.tracer.TracerBuilder.loggingStatisticsTracer;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static rx.Observable.error;
+import static rx.Observable.just;
+
+public class BlockingEngineTest {
+
+    private final BlockingEngine engine = blockingEngine();
+
+    @After
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    public void shouldFetchFragments() {
+        // given
+        final Page page = Page.consistsOf(
+                fragment(A, fallbackTo(staticTextContent("a", A, "Foo"))),
+                fragment(B, fallbackTo(staticTextContent("b", B, "Bar")))
+        );
+        // when
+        final Contents contents = page.fetchWith(emptyParameters(), loggingStatisticsTracer(), engine);
+        // then
+        assertThat(contents.getBody(A), is("Foo"));
+        assertThat(contents.getBody(B), is("Bar"));
+    }
+
+    @Test
+    public void shouldFetchNestedFragments() {
+        // given
+        final Page page = Page.consistsOf(
+                fragment(X,
+                        fallbackTo(staticTextContent("x", X, "Foo")),
+                        followedBy(
+                                content -> parameters(of("x", content.getBody())),
+                                fragment(A, (position, tracer, params) -> just(staticTextContent("a", A, "A" + params.getString("x")))),
+                                fragment(B, (position, tracer, params) -> just(staticTextContent("b", B, "B" + params.getString("x"))))
+                        )
+                )
+        );
+        // when
+        final Contents contents = page.fetchWith(emptyParameters(), loggingStatisticsTracer(), engine);
+        // then
+        assertThat(contents.getBody(X), is("Foo"));
+        assertThat(contents.getBody(A), is("AFoo"));
+        assertThat(contents.getBody(B), is("BFoo"));
+    }
+
+    @Test
+    public void shouldIgnoreFailingFragments() {
+        // given
+        final Page page = Page.consistsOf(
+                fragment(A, (position, tracer, params) -> error(new IllegalStateException("boom"))),
+                fragment(B, fallbackTo(staticTextContent("b", B, "Bar")))
+        );
+        // when
+        final Contents contents = page.fetchWith(emptyParameters(), loggingStatisticsTracer(), engine);
+        // then
+        assertThat(contents.get(A).isAvailable(), is(false));
+        assertThat(contents.getBody(B), is("Bar"));
+    }
+
+    @Test
+    public void shouldCancelFragmentsAfterDeadline() throws InterruptedException {
+        // given
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final ContentProvider slowProvider = (position, tracer, params) -> Observable.<Content>never().doOnUnsubscribe(cancelled::countDown);
+        final Page page = Page.consistsOf(
+                fragment(A, fallbackTo(staticTextContent("a", A, "Foo"))),
+                fragment(B, slowProvider)
+        );
+        // when
+        final long started = System.currentTimeMillis();
+        final Contents contents = page.fetchWith(emptyParameters(), loggingStatisticsTracer(), engine.withDeadline(100));
+        // then
+        assertThat(System.currentTimeMillis() - started, is(lessThan(5000L)));
+        assertThat(contents.getBody(A), is("Foo"));
+        assertThat(contents.get(B).isAvailable(), is(false));
+        assertThat(cancelled.await(1, SECONDS), is(true));
+    }
+
+    @Test
+    public void shouldFetchLazyFragmentsOnlyIfRequested() {
+        // given
+        final CountDownLatch fetched = new CountDownLatch(1);
+        final Page page = Page.consistsOf(
+                fragment(A, fallbackTo(staticTextContent("a", A, "Foo"))),
+                lazyFragment(C, (position, tracer, params) -> Observable.fromCallable(() -> {
+                    fetched.countDown();
+                    return staticTextContent("c", C, "Baz");
+                }))
+        );
+        // when
+        final Contents contents = page.fetchWith(emptyParameters(), loggingStatisticsTracer(), engine);
+        // then
+        assertThat(contents.getBody(A), is("Foo"));
+        assertThat(fetched.getCount(), is(1L));
+        // when
+        final String body = page.streamWith(emptyParameters(), loggingStatisticsTracer(), engine).getBody(C);
+        // then
+        assertThat(body, is("Baz"));
+    }
+
+    @Test
+    public void shouldBeSelectableAtRuntime() {
+        // given
+        final Page page = Page.consistsOf(
+                fragment(A, fallbackTo(staticTextContent("a", A, "Foo")))
+        );
+        // when
+        final Contents blocking = page.fetchWith(emptyParameters(), loggingStatisticsTracer(), engine);
+        final Contents rx = page.fetchWith(emptyParameters(), loggingStatisticsTracer(), RxEngine.rxEngine());
+        // then
+        assertThat(blocking.getBody(A), is(rx.getBody(A)));
+    }
+}
@@ -3,6 +3,7 @@ package de.otto.rx.composer.page;
 import com.google.common.collect.ImmutableList;
 import de.otto.rx.composer.content.*;
 import de.otto.rx.composer.providers.ContentProvider;
+import de.otto.rx.composer.tracer.StatisticsTracer;
 import de.otto.rx.composer.tracer.Tracer;
 import org.junit.Test;
 
@@ -13,8 +14,10 @@ import static de.otto.rx.composer.content.Parameters.emptyParameters;
 import static de.otto.rx.composer.content.StaticTextContent.*;
 import static de.otto.rx.composer.page.Fragments.followedBy;
 import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static de.otto.rx.composer.tracer.StatisticsTracer.statisticsTracer;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -55,6 +58,26 @@ public class CompositeFragmentTest {
         verify(nestedFragment).fetchWith(tracer, emptyParameters());
     }
 
+    @Test
+    public void shouldTraceContinuation() {
+        // given
+        final StatisticsTracer tracer = statisticsTracer();
+        final ContentProvider fetchInitial = mock(ContentProvider.class);
+        when(fetchInitial.getContent(A, tracer, emptyParameters())).thenReturn(just(someContent(A)));
+        // and
+        final Fragment nestedFragment = mock(Fragment.class);
+        when(nestedFragment.getPosition()).thenReturn(B);
+        when(nestedFragment.fetchWith(tracer, emptyParameters())).thenReturn(just(someContent(B)));
+        // and
+        final Fragment compositeFragment = Fragments.fragment(A, fetchInitial, followedBy((c) -> emptyParameters(), nestedFragment));
+        // when
+        compositeFragment.fetchWith(tracer, emptyParameters()).toBlocking().last();
+        // then
+        final FragmentTiming timing = tracer.getStatistics().getTimeline().get(0);
+        assertThat(timing.getPosition(), is("B"));
+        assertThat(timing.getDependsOn(), is("A"));
+    }
+
     private Content someContent(final Position position) {
         return staticTextContent(position.name(), position, "Yes!");
     }
@@ -0,0 +1,146 @@
+package de.otto.rx.composer.page;
+
+import de.otto.rx.composer.client.ClientScheduler;
+import de.otto.rx.composer.content.Contents;
+import org.junit.Test;
+
+import static de.otto.rx.composer.client.ClientScheduler.boundedScheduler;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.AbcPosition.C;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.page.BlockingEngine.blockingEngine;
+import static de.otto.rx.composer.page.Fragments.fragment;
+import static de.otto.rx.composer.page.LoadShedder.loadShedder;
+import static de.otto.rx.composer.page.Priority.CRITICAL;
+import static de.otto.rx.composer.page.Priority.NORMAL;
+import static de.otto.rx.composer.page.Priority.OPTIONAL;
+import static de.otto.rx.composer.providers.ContentProviders.fallbackTo;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class LoadShedderTest {
+
+    @Test
+    public void shouldAdmitFragmentsIfNotSaturated() {
+        // given
+        final LoadShedder loadShedder = loadShedder(3, 1);
+        // when
+        final LoadShedder.Permit permit = loadShedder.tryAcquire(OPTIONAL);
+        // then
+        assertThat(permit, is(notNullValue()));
+        assertThat(loadShedder.getInFlight(), is(1));
+        assertThat(loadShedder.isSaturated(), is(false));
+    }
+
+    @Test
+    public void shouldReleasePermitOnlyOnce() {
+        // given
+        final LoadShedder loadShedder = loadShedder(3, 1);
+        final LoadShedder.Permit permit = loadShedder.tryAcquire(NORMAL);
+        // when
+        permit.release();
+        permit.release();
+        // then
+        assertThat(loadShedder.getInFlight(), is(0));
+    }
+
+    @Test
+    public void shouldReserveCapacityForCriticalFragments() {
+        // given
+        final LoadShedder loadShedder = loadShedder(2, 1);
+        loadShedder.tryAcquire(NORMAL);
+        // when
+        final LoadShedder.Permit normal = loadShedder.tryAcquire(NORMAL);
+        final LoadShedder.Permit optional = loadShedder.tryAcquire(OPTIONAL);
+        final LoadShedder.Permit critical = loadShedder.tryAcquire(CRITICAL);
+        // then
+        assertThat(normal, is(nullValue()));
+        assertThat(optional, is(nullValue()));
+        assertThat(critical, is(notNullValue()));
+        assertThat(loadShedder.getInFlight(), is(2));
+        assertThat(loadShedder.getShedFragments(NORMAL), is(1L));
+        assertThat(loadShedder.getShedFragments(OPTIONAL), is(1L));
+        assertThat(loadShedder.getShedFragments(CRITICAL), is(0L));
+    }
+
+    @Test
+    public void shouldSkipOptionalFragmentsIfQueueIsExceedingLimit() throws InterruptedException {
+        // given
+        try (final ClientScheduler scheduler = boundedScheduler("test", 1, 10)) {
+            final LoadShedder loadShedder = loadShedder(10, 1).withQueueLimit(scheduler, 0);
+            final Object lock = new Object();
+            synchronized (lock) {
+                scheduler.getScheduler().createWorker().schedule(() -> { synchronized (lock) { } });
+                scheduler.getScheduler().createWorker().schedule(() -> {});
+                while (scheduler.getQueueSize() == 0) {
+                    Thread.sleep(1);
+                }
+                // when
+                final LoadShedder.Permit optional = loadShedder.tryAcquire(OPTIONAL);
+                final LoadShedder.Permit normal = loadShedder.tryAcquire(NORMAL);
+                // then
+                assertThat(loadShedder.isSaturated(), is(true));
+                assertThat(optional, is(nullValue()));
+                assertThat(normal, is(notNullValue()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldSkipOptionalFragmentsIfLatencyIsExceedingThreshold() throws InterruptedException {
+        // given
+        final LoadShedder loadShedder = loadShedder(10, 1).withLatencyThreshold(1);
+        final LoadShedder.Permit slow = loadShedder.tryAcquire(NORMAL);
+        Thread.sleep(5);
+        slow.release();
+        // when
+        final LoadShedder.Permit optional = loadShedder.tryAcquire(OPTIONAL);
+        // then
+        assertThat(loadShedder.getAverageLatencyMillis() >= 1, is(true));
+        assertThat(optional, is(nullValue()));
+    }
+
+    @Test
+    public void shouldTreatSkippedFragmentsAsMissing() {
+        // given
+        final LoadShedder loadShedder = loadShedder(2, 1);
+        loadShedder.tryAcquire(NORMAL);
+        final Page page = Page.consistsOf(
+                fragment(A, fallbackTo(staticTextContent("a", A, "Foo")), CRITICAL),
+                fragment(B, fallbackTo(staticTextContent("b", B, "Bar"))),
+                fragment(C, fallbackTo(staticTextContent("c", C, "Baz")), OPTIONAL)
+        ).withLoadShedder(loadShedder);
+        // when
+        final Contents contents = page.fetchWith(emptyParameters(), noOpTracer());
+        // then
+        assertThat(contents.getBody(A), is("Foo"));
+        assertThat(contents.get(B).isAvailable(), is(false));
+        assertThat(contents.get(C).isAvailable(), is(false));
+        assertThat(loadShedder.getInFlight(), is(1));
+    }
+
+    @Test
+    public void shouldSkipFragmentsExecutedByBlockingEngine() {
+        // given
+        final LoadShedder loadShedder = loadShedder(2, 1);
+        loadShedder.tryAcquire(NORMAL);
+        final Page page = Page.consistsOf(
+                fragment(A, fallbackTo(staticTextContent("a", A, "Foo")), CRITICAL),
+                fragment(C, fallbackTo(staticTextContent("c", C, "Baz")), OPTIONAL)
+        ).withLoadShedder(loadShedder);
+        // when
+        final Contents contents;
+        try (final BlockingEngine engine = blockingEngine()) {
+            contents = page.fetchWith(emptyParameters(), noOpTracer(), engine);
+        }
+        // then
+        assertThat(contents.getBody(A), is("Foo"));
+        assertThat(contents.get(C).isAvailable(), is(false));
+        assertThat(loadShedder.getInFlight(), is(1));
+    }
+}
@@ -1,26 +1,41 @@
 package de.otto.rx.composer.page;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import de.otto.rx.composer.content.Content;
 import de.otto.rx.composer.content.Contents;
 import de.otto.rx.composer.content.Parameters;
 import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.providers.ContentProvider;
 import de.otto.rx.composer.tracer.Tracer;
 import org.junit.Test;
+import rx.subjects.PublishSubject;
 
 import static com.google.common.collect.ImmutableMap.of;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.AbcPosition.C;
 import static de.otto.rx.composer.content.AbcPosition.X;
 import static de.otto.rx.composer.content.AbcPosition.Y;
 import static de.otto.rx.composer.content.Parameters.emptyParameters;
 import static de.otto.rx.composer.content.Parameters.parameters;
 import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.page.Fragments.followedBy;
+import static de.otto.rx.composer.page.Fragments.fragment;
+import static de.otto.rx.composer.providers.ContentProviders.fallbackTo;
+import static de.otto.rx.composer.providers.ContentProviders.withAll;
+import static de.otto.rx.composer.providers.ContentProviders.withFirst;
+import static de.otto.rx.composer.providers.ContentProviders.withQuickest;
 import static de.otto.rx.composer.tracer.TracerBuilder.loggingStatisticsTracer;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -94,6 +109,22 @@ public class PageTest {
         assertThat(contents.get(X).isAvailable(), is(false));
     }
 
+    @Test(timeout = 5000)
+    public void shouldCompleteFragmentsWithoutContentProviders() {
+        // given
+        final Page page = Page.consistsOf(
+                fragment(X, withAll(ImmutableList.<ContentProvider>of())),
+                fragment(Y, withFirst(ImmutableList.<ContentProvider>of())),
+                fragment(A, withQuickest(ImmutableList.<ContentProvider>of()))
+        );
+        // when
+        final Contents contents = page.fetchWith(emptyParameters(), loggingStatisticsTracer());
+        // then
+        assertThat(contents.get(X).isAvailable(), is(false));
+        assertThat(contents.get(Y).isAvailable(), is(false));
+        assertThat(contents.get(A).isAvailable(), is(false));
+    }
+
     @Test
     public void shouldExecutePlanMultipleTimes() {
         // given
@@ -128,6 +159,118 @@ public class PageTest {
         verify(doSecond).fetchWith(any(Tracer.class), eq(someParameters));
     }
 
+    @Test
+    public void shouldIndexPositionsOfNestedFragments() {
+        // given
+        final Page page = Page.consistsOf(
+                fragment(A, fallbackTo(someContent("a", A, "Foo")),
+                        followedBy(content -> emptyParameters(),
+                                fragment(B, fallbackTo(someContent("b", B, "Bar"))))),
+                fragment(C, fallbackTo(someContent("c", C, "Baz")))
+        );
+        // when
+        final Contents contents = page.fetchWith(emptyParameters(), loggingStatisticsTracer());
+        // then
+        assertThat(page.getPositionIndex().size(), is(3));
+        assertThat(page.getPositionIndex().slotOf(B), is(1));
+        assertThat(contents.getBody(A), is("Foo"));
+        assertThat(contents.getBody(B), is("Bar"));
+        assertThat(contents.getBody(C), is("Baz"));
+    }
+
+    @Test
+    public void shouldStreamContents() {
+        // given
+        final PublishSubject<Content> first = PublishSubject.create();
+        final Fragment doFirst = mock(Fragment.class);
+        when(doFirst.getPosition()).thenReturn(X);
+        when(doFirst.fetchWith(any(Tracer.class), any(Parameters.class))).thenReturn(first);
+        final Fragment doSecond = mock(Fragment.class);
+        when(doSecond.getPosition()).thenReturn(Y);
+        when(doSecond.fetchWith(any(Tracer.class), any(Parameters.class))).thenReturn(just(someContent("test", Y, "Bar")));
+        final Page page = Page.consistsOf(doFirst, doSecond);
+        // when
+        final StreamingContents contents = page.streamWith(emptyParameters(), loggingStatisticsTracer());
+        // then
+        assertThat(contents.isCompleted(), is(false));
+        assertThat(contents.getBody(Y), is("Bar"));
+        // when
+        first.onNext(someContent("test", X, "Foo"));
+        first.onCompleted();
+        // then
+        assertThat(contents.isCompleted(), is(true));
+        assertThat(contents.getBody(X), is("Foo"));
+        assertThat(contents.awaitAll().getAll(), hasSize(2));
+    }
+
+    @Test
+    public void shouldOnlyFetchUsedPositions() {
+        // given
+        final Fragment doFirst = mock(Fragment.class);
+        when(doFirst.getPosition()).thenReturn(X);
+        final Fragment doSecond = mock(Fragment.class);
+        when(doSecond.getPosition()).thenReturn(Y);
+        when(doSecond.fetchWith(any(Tracer.class), any(Parameters.class))).thenReturn(just(someContent("test", Y, "Bar")));
+        final Page page = Page.consistsOf(doFirst, doSecond);
+        // when
+        final Page usedPage = page.withOnlyPositions(ImmutableSet.of("Y"));
+        final Contents contents = usedPage.fetchWith(emptyParameters(), loggingStatisticsTracer());
+        // then
+        verify(doFirst, never()).fetchWith(any(Tracer.class), any(Parameters.class));
+        assertThat(contents.getBody(Y), is("Bar"));
+        assertThat(page.unusedPositions(ImmutableSet.of("Y")), contains("X"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPageWithoutUsedPositions() {
+        // given
+        final Page page = Page.consistsOf(fragment(X, fallbackTo(someContent("test", X, "Foo"))));
+        // when
+        page.withOnlyPositions(ImmutableSet.of("Y"));
+    }
+
+    @Test
+    public void shouldFetchUnusedPositionsFollowedByUsedNestedPositions() {
+        // given
+        final Page page = Page.consistsOf(
+                fragment(A, fallbackTo(someContent("a", A, "Foo")),
+                        followedBy(content -> emptyParameters(),
+                                fragment(B, fallbackTo(someContent("b", B, "Bar"))),
+                                fragment(C, fallbackTo(someContent("c", C, "Baz")))))
+        );
+        // when
+        final Page usedPage = page.withOnlyPositions(ImmutableSet.of("B"));
+        final Contents contents = usedPage.fetchWith(emptyParameters(), loggingStatisticsTracer());
+        // then
+        assertThat(usedPage.getPositionIndex().size(), is(2));
+        assertThat(contents.getBody(B), is("Bar"));
+        assertThat(contents.get(C).isAvailable(), is(false));
+    }
+
+    @Test
+    public void shouldFetchLazyFragmentsOnDemand() {
+        // given
+        final Fragment lazy = mock(Fragment.class);
+        when(lazy.getPosition()).thenReturn(Y);
+        when(lazy.fetchWith(any(Tracer.class), any(Parameters.class))).thenReturn(just(someContent("test", Y, "Bar")));
+        final Page page = Page.consistsOf(
+                fragment(X, fallbackTo(someContent("test", X, "Foo"))),
+                new LazyFragment(lazy)
+        );
+        // when
+        final Contents contents = page.fetchWith(emptyParameters(), loggingStatisticsTracer());
+        final StreamingContents streamingContents = page.streamWith(emptyParameters(), loggingStatisticsTracer());
+        // then
+        assertThat(contents.getBody(X), is("Foo"));
+        assertThat(contents.get(Y).isAvailable(), is(false));
+        verify(lazy, never()).fetchWith(any(Tracer.class), any(Parameters.class));
+        // when
+        final String lazyBody = streamingContents.getBody(Y);
+        // then
+        assertThat(lazyBody, is("Bar"));
+        verify(lazy, times(1)).fetchWith(any(Tracer.class), any(Parameters.class));
+    }
+
     private Content someContent(final String source, final Position position, final String text) {
         return staticTextContent(source, position, text);
     }
@@ -5,6 +5,7 @@ import de.otto.rx.composer.content.Headers;
 import de.otto.rx.composer.content.Position;
 import de.otto.rx.composer.content.SingleContent;
 import de.otto.rx.composer.providers.ContentProvider;
+import de.otto.rx.composer.providers.SingleValuedContentProvider;
 import org.junit.Test;
 import rx.Observable;
 
@@ -51,6 +52,34 @@ public class SingleFragmentTest {
         assertThat(content.getBody(), is(""));
     }
 
+    @Test
+    public void shouldHandleExceptionsOfSingleValuedProviders() {
+        // given
+        final SingleValuedContentProvider provider = (position, tracer, parameters, callback) -> {
+            throw new IllegalStateException("Bumm!!!");
+        };
+        final Fragment fragment = fragment(X, provider);
+        // when
+        final Observable<Content> result = fragment.fetchWith(noOpTracer(), emptyParameters());
+        // then
+        final Content content = result.toBlocking().single();
+        assertThat(content.isAvailable(), is(false));
+        assertThat(content.getBody(), is(""));
+    }
+
+    @Test
+    public void shouldHandleExceptionsOfSingleValuedProvidersWhenBlocking() {
+        // given
+        final SingleValuedContentProvider provider = (position, tracer, parameters, callback) -> {
+            throw new IllegalStateException("Bumm!!!");
+        };
+        final SingleFragment fragment = (SingleFragment) fragment(X, provider);
+        // when
+        final Content content = fragment.fetchBlocking(noOpTracer(), emptyParameters());
+        // then
+        assertThat(content.isAvailable(), is(false));
+    }
+
     private Content someContent(final String body) {
         return staticTextContent(body, X, body);
     }
@@ -0,0 +1,146 @@
+package de.otto.rx.composer.providers;
+
+import com.google.common.base.Ticker;
+import de.otto.rx.composer.cache.HeapContentCache;
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.metrics.Metrics;
+import de.otto.rx.composer.tracer.Tracer;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static de.otto.rx.composer.cache.HeapContentCache.heapContentCache;
+import static de.otto.rx.composer.content.AbcPosition.X;
+import static de.otto.rx.composer.content.AbcPosition.Y;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.content.Parameters.parameters;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.providers.ContentProviders.cached;
+import static de.otto.rx.composer.providers.KeyParams.keyParams;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static de.otto.rx.composer.tracer.TracerBuilder.tracerBuilder;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static rx.Observable.error;
+import static rx.Observable.just;
+
+public class CachingContentProviderTest {
+
+    private final AtomicInteger fetched = new AtomicInteger();
+    private final ContentProvider countingProvider = (position, tracer, params) -> {
+        final int count = fetched.incrementAndGet();
+        return just(staticTextContent("test", position, params.getString("category") + count));
+    };
+
+    @Test
+    public void shouldReturnCachedContent() {
+        // given
+        final ContentProvider contentProvider = cached(countingProvider, 60000, keyParams("category"));
+        // when
+        final Content first = fetch(contentProvider, noOpTracer(), "shoes", "de");
+        final Content second = fetch(contentProvider, noOpTracer(), "shoes", "en");
+        // then
+        assertThat(first.getBody(), is("shoes1"));
+        assertThat(second.getBody(), is("shoes1"));
+        assertThat(fetched.get(), is(1));
+    }
+
+    @Test
+    public void shouldUseKeyParamsAndPositionAsKey() {
+        // given
+        final ContentProvider contentProvider = cached(countingProvider, 60000, keyParams("category"));
+        // when
+        fetch(contentProvider, noOpTracer(), "shoes", "de");
+        final Content otherCategory = fetch(contentProvider, noOpTracer(), "shirts", "de");
+        final Content otherPosition = contentProvider.getContent(Y, noOpTracer(), parameters(of("category", "shoes"))).toBlocking().single();
+        // then
+        assertThat(otherCategory.getBody(), is("shirts2"));
+        assertThat(otherPosition.getBody(), is("shoes3"));
+        assertThat(fetched.get(), is(3));
+    }
+
+    @Test
+    public void shouldExpireCachedContent() {
+        // given
+        final AtomicLong nanos = new AtomicLong();
+        final Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        final ContentProvider contentProvider = cached(countingProvider, 1000, heapContentCache(10, ticker), keyParams("category"));
+        fetch(contentProvider, noOpTracer(), "shoes", "de");
+        // when
+        nanos.addAndGet(MILLISECONDS.toNanos(1001));
+        final Content content = fetch(contentProvider, noOpTracer(), "shoes", "de");
+        // then
+        assertThat(content.getBody(), is("shoes2"));
+    }
+
+    @Test
+    public void shouldLimitNumberOfCachedContents() {
+        // given
+        final HeapContentCache cache = heapContentCache(2);
+        final ContentProvider contentProvider = cached(countingProvider, 60000, cache, keyParams("category"));
+        // when
+        fetch(contentProvider, noOpTracer(), "shoes", "de");
+        fetch(contentProvider, noOpTracer(), "shirts", "de");
+        fetch(contentProvider, noOpTracer(), "socks", "de");
+        // then
+        assertThat(cache.size(), is(2L));
+    }
+
+    @Test
+    public void shouldSeparateContentsOfProvidersSharingCache() {
+        // given
+        final HeapContentCache cache = heapContentCache(10);
+        final ContentProvider first = cached((position, tracer, params) -> just(staticTextContent("first", position, "Foo")), 60000, cache, keyParams());
+        final ContentProvider second = cached((position, tracer, params) -> just(staticTextContent("second", position, "Bar")), 60000, cache, keyParams());
+        // when
+        final Content firstContent = first.getContent(X, noOpTracer(), emptyParameters()).toBlocking().single();
+        final Content secondContent = second.getContent(X, noOpTracer(), emptyParameters()).toBlocking().single();
+        // then
+        assertThat(firstContent.getBody(), is("Foo"));
+        assertThat(secondContent.getBody(), is("Bar"));
+    }
+
+    @Test
+    public void shouldNotCacheErrors() {
+        // given
+        final AtomicInteger calls = new AtomicInteger();
+        final ContentProvider failing = (position, tracer, params) -> calls.incrementAndGet() == 1
+                ? error(new IllegalStateException("boom"))
+                : just(staticTextContent("test", position, "Foo"));
+        final ContentProvider contentProvider = cached(failing, 60000, keyParams());
+        // when
+        contentProvider.getContent(X, noOpTracer(), emptyParameters()).onErrorResumeNext(error -> just(null)).toBlocking().single();
+        final Content content = contentProvider.getContent(X, noOpTracer(), emptyParameters()).toBlocking().single();
+        // then
+        assertThat(content.getBody(), is("Foo"));
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void shouldRecordHitsAndMissesPerPosition() {
+        // given
+        final Metrics metrics = mock(Metrics.class);
+        final Tracer tracer = tracerBuilder().withMetrics(metrics).build();
+        final ContentProvider contentProvider = cached(countingProvider, 60000, keyParams("category"));
+        // when
+        fetch(contentProvider, tracer, "shoes", "de");
+        fetch(contentProvider, tracer, "shoes", "de");
+        // then
+        verify(metrics).cacheMiss(X.name());
+        verify(metrics).cacheHit(X.name());
+    }
+
+    private static Content fetch(final ContentProvider contentProvider, final Tracer tracer, final String category, final String lang) {
+        return contentProvider.getContent(X, tracer, parameters(of("category", category, "lang", lang))).toBlocking().single();
+    }
+}
@@ -4,6 +4,7 @@ import de.otto.rx.composer.client.ClientConfig;
 import de.otto.rx.composer.client.HttpServiceClient;
 import de.otto.rx.composer.client.ServiceClient;
 import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.metrics.Metrics;
 import org.glassfish.jersey.message.internal.Statuses;
 import org.junit.Test;
 import rx.observables.BlockingObservable;
@@ -11,9 +12,12 @@ import rx.observables.BlockingObservable;
 import javax.ws.rs.ServerErrorException;
 import javax.ws.rs.core.Response;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static com.damnhandy.uri.template.UriTemplate.fromTemplate;
 import static com.google.common.collect.ImmutableMap.of;
+import static de.otto.rx.composer.client.DefaultRef.noResiliency;
 import static de.otto.rx.composer.content.AbcPosition.X;
 import static de.otto.rx.composer.content.Parameters.emptyParameters;
 import static de.otto.rx.composer.content.Parameters.parameters;
@@ -21,11 +25,15 @@ import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
 import static de.otto.rx.composer.providers.ContentProviders.contentFrom;
 import static de.otto.rx.composer.providers.ContentProviders.fallbackTo;
 import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static de.otto.rx.composer.tracer.TracerBuilder.tracerBuilder;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static rx.Observable.fromCallable;
@@ -47,6 +55,60 @@ public class HttpContentProviderTest {
         assertThat(content.getBody(), is("Foo"));
     }
 
+    @Test
+    public void shouldRecordRequestsInFlight() throws Exception {
+        // given
+        final Response response = someResponse(200, "Foo");
+        final ServiceClient mockClient = someHttpClient(response, "/test");
+        final Metrics metrics = mock(Metrics.class);
+        // when
+        final ContentProvider contentProvider = contentFrom(mockClient, "/test", TEXT_PLAIN);
+        contentProvider.getContent(X, tracerBuilder().withMetrics(metrics).build(), emptyParameters()).toBlocking().single();
+        // then
+        verify(metrics).requestStarted(noResiliency);
+        verify(metrics, timeout(1000)).requestFinished(noResiliency);
+        verify(metrics).fragmentRequested(X);
+        verify(metrics).fragmentCompleted(X, true);
+    }
+
+    @Test
+    public void shouldFetchSingleValuedContent() throws Exception {
+        // given
+        final Response response = someResponse(200, "Foo");
+        final ServiceClient mockClient = someHttpClient(response, "/test");
+        final Metrics metrics = mock(Metrics.class);
+        final CompletableFuture<Content> result = new CompletableFuture<>();
+        // when
+        final SingleValuedContentProvider contentProvider = (SingleValuedContentProvider) contentFrom(mockClient, "/test", TEXT_PLAIN);
+        contentProvider.fetchContent(X, tracerBuilder().withMetrics(metrics).build(), emptyParameters(), callback(result));
+        // then
+        final Content content = result.get(1, SECONDS);
+        assertThat(content.getBody(), is("Foo"));
+        verify(metrics).requestStarted(noResiliency);
+        verify(metrics, timeout(1000)).requestFinished(noResiliency);
+        verify(metrics).fragmentCompleted(X, true);
+    }
+
+    @Test
+    public void shouldPassExceptionsToCallback() throws Exception {
+        // given
+        final ServiceClient mockClient = someHttpClient(mock(Response.class), "/test");
+        when(mockClient.get("/test", TEXT_PLAIN_TYPE)).thenReturn(fromCallable(() -> {
+            throw new IllegalStateException("KA-WUMMMM!");
+        }));
+        final CompletableFuture<Content> result = new CompletableFuture<>();
+        // when
+        final SingleValuedContentProvider contentProvider = (SingleValuedContentProvider) contentFrom(mockClient, "/test", TEXT_PLAIN);
+        contentProvider.fetchContent(X, noOpTracer(), emptyParameters(), callback(result));
+        // then
+        try {
+            result.get(1, SECONDS);
+            fail("Expected ExecutionException");
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause().getMessage(), is("KA-WUMMMM!"));
+        }
+    }
+
     @Test
     public void shouldFetchContentByUriTemplate() {
         // given
@@ -161,6 +223,20 @@ public class HttpContentProviderTest {
         contentProvider.getContent(X, noOpTracer(), emptyParameters()).toBlocking().single();
     }
 
+    private ContentCallback callback(final CompletableFuture<Content> result) {
+        return new ContentCallback() {
+            @Override
+            public void onContent(final Content content) {
+                result.complete(content);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        };
+    }
+
     private Response someResponse(final int status, final String body) {
         final Response response = mock(Response.class);
         when(response.readEntity(String.class)).thenReturn(body);
@@ -5,6 +5,8 @@ import de.otto.rx.composer.content.*;
 import de.otto.rx.composer.tracer.Tracer;
 import org.junit.Test;
 import rx.Observable;
+import rx.Subscription;
+import rx.subscriptions.Subscriptions;
 
 import java.util.Iterator;
 
@@ -19,6 +21,7 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static rx.Observable.fromCallable;
 import static rx.Observable.just;
@@ -81,6 +84,46 @@ public class QuickestWinsContentProviderTest {
         assertThat(content, is(nullValue()));
     }
 
+    @Test
+    public void shouldCancelOtherProvidersAfterSelectingContent() {
+        // given
+        final Subscription slowSubscription = mock(Subscription.class);
+        final SingleValuedContentProvider slowProvider = (position, tracer, parameters, callback) -> slowSubscription;
+        final SingleValuedContentProvider quickProvider = (position, tracer, parameters, callback) -> {
+            callback.onContent(staticTextContent("Quick", X, "Yeah!"));
+            return Subscriptions.empty();
+        };
+        final SingleValuedContentProvider fetchQuickest = (SingleValuedContentProvider) withQuickest(ImmutableList.of(
+                slowProvider, quickProvider
+        ));
+        final Content[] selected = new Content[1];
+        // when
+        fetchQuickest.fetchContent(X, noOpTracer(), emptyParameters(), new ContentCallback() {
+            @Override
+            public void onContent(final Content content) {
+                selected[0] = content;
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                throw new AssertionError(throwable);
+            }
+        });
+        // then
+        assertThat(selected[0].getBody(), is("Yeah!"));
+        verify(slowSubscription).unsubscribe();
+    }
+
+    @Test
+    public void shouldHandleEmptyListOfProviders() {
+        // given
+        final ContentProvider fetchQuickest = withQuickest(ImmutableList.<ContentProvider>of());
+        // when
+        final Observable<Content> result = fetchQuickest.getContent(X, noOpTracer(), emptyParameters());
+        // then
+        assertThat(result.toBlocking().singleOrDefault(null), is(nullValue()));
+    }
+
     private ContentProvider someContentProviderThrowing(final Exception e) {
         final ContentProvider delegate = mock(ContentProvider.class);
         when(delegate.getContent(any(Position.class), any(Tracer.class), any(Parameters.class))).thenReturn(fromCallable(() -> {
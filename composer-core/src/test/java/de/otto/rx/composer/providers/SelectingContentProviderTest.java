@@ -1,5 +1,6 @@
 package de.otto.rx.composer.providers;
 
+import com.google.common.collect.ImmutableList;
 import de.otto.rx.composer.content.*;
 import de.otto.rx.composer.tracer.Tracer;
 import org.junit.Test;
@@ -61,6 +62,80 @@ public class SelectingContentProviderTest {
         assertThat(content.getBody(), is("Bar"));
     }
 
+    @Test
+    public void shouldFetchFirstWithContentUsingCallback() {
+        // given
+        final SingleValuedContentProvider contentProvider = (SingleValuedContentProvider) withFirst(of(
+                (position, context, parameters) -> Observable.<Content>empty(),
+                (position, context, parameters) -> just(staticTextContent("", X, "Bar"))
+        ));
+        final Content[] result = new Content[1];
+        // when
+        contentProvider.fetchContent(X, noOpTracer(), emptyParameters(), new ContentCallback() {
+            @Override
+            public void onContent(final Content content) {
+                result[0] = content;
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                throw new AssertionError(throwable);
+            }
+        });
+        // then
+        assertThat(result[0].getBody(), is("Bar"));
+    }
+
+    @Test
+    public void shouldCallBackWithoutContentIfNothingMatches() {
+        // given
+        final SingleValuedContentProvider contentProvider = (SingleValuedContentProvider) withFirstMatching(
+                (content) -> content.getBody().contains("x"),
+                of(
+                        (position, context, parameters) -> just(staticTextContent("", X, "Foo")),
+                        (position, context, parameters) -> Observable.<Content>error(new IllegalStateException())
+                )
+        );
+        final boolean[] called = new boolean[1];
+        // when
+        contentProvider.fetchContent(X, noOpTracer(), emptyParameters(), new ContentCallback() {
+            @Override
+            public void onContent(final Content content) {
+                assertThat(content == null, is(true));
+                called[0] = true;
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                throw new AssertionError(throwable);
+            }
+        });
+        // then
+        assertThat(called[0], is(true));
+    }
+
+    @Test
+    public void shouldCallBackWithoutContentIfThereAreNoProviders() {
+        // given
+        final SingleValuedContentProvider contentProvider = (SingleValuedContentProvider) withAll(ImmutableList.<ContentProvider>of());
+        final boolean[] called = new boolean[1];
+        // when
+        contentProvider.fetchContent(X, noOpTracer(), emptyParameters(), new ContentCallback() {
+            @Override
+            public void onContent(final Content content) {
+                assertThat(content == null, is(true));
+                called[0] = true;
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                throw new AssertionError(throwable);
+            }
+        });
+        // then
+        assertThat(called[0], is(true));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void shouldFailToFetchAllWithDifferentPosition() {
         // given
@@ -0,0 +1,104 @@
+package de.otto.rx.composer.providers;
+
+import de.otto.rx.composer.cache.SnapshotStore;
+import de.otto.rx.composer.client.ClientConfig;
+import de.otto.rx.composer.client.HttpServiceClient;
+import de.otto.rx.composer.client.ServiceClient;
+import de.otto.rx.composer.content.Content;
+import org.glassfish.jersey.message.internal.Statuses;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+
+import static de.otto.rx.composer.cache.SnapshotStore.snapshotStore;
+import static de.otto.rx.composer.client.DefaultRef.noResiliency;
+import static de.otto.rx.composer.content.AbcPosition.X;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.providers.ContentProviders.contentFrom;
+import static de.otto.rx.composer.providers.ContentProviders.snapshotted;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static rx.Observable.error;
+import static rx.Observable.just;
+
+public class SnapshottingContentProviderTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldStoreSnapshotOfFetchedContent() throws IOException {
+        // given
+        final SnapshotStore store = snapshotStore(folder.newFile().toPath(), 4096);
+        final Response response = someResponse(200, "Foo");
+        final ServiceClient mockClient = someHttpClient();
+        when(mockClient.get("/test", TEXT_PLAIN_TYPE)).thenReturn(just(response));
+        // when
+        final ContentProvider contentProvider = snapshotted(contentFrom(mockClient, "/test", TEXT_PLAIN), store, 0);
+        final Content content = contentProvider.getContent(X, noOpTracer(), emptyParameters()).toBlocking().single();
+        // then
+        assertThat(content.getBody(), is("Foo"));
+        assertThat(store.get(noResiliency, "/test", X).getBody(), is("Foo"));
+    }
+
+    @Test
+    public void shouldReturnFreshSnapshotWithoutFetchingContent() throws IOException {
+        // given
+        final SnapshotStore store = snapshotStore(folder.newFile().toPath(), 4096);
+        store.put(noResiliency, "/test", staticTextContent("/test", X, "Foo"));
+        final ServiceClient mockClient = someHttpClient();
+        // when
+        final ContentProvider contentProvider = snapshotted(contentFrom(mockClient, "/test", TEXT_PLAIN), store, 60000);
+        final Content content = contentProvider.getContent(X, noOpTracer(), emptyParameters()).toBlocking().single();
+        // then
+        assertThat(content.getBody(), is("Foo"));
+        verify(mockClient, never()).get(anyString(), any());
+    }
+
+    @Test
+    public void shouldFallBackToSnapshotIfFetchingContentFails() throws IOException {
+        // given
+        final SnapshotStore store = snapshotStore(folder.newFile().toPath(), 4096);
+        store.put(noResiliency, "/test", staticTextContent("/test", X, "Foo"));
+        final ServiceClient mockClient = someHttpClient();
+        when(mockClient.get("/test", TEXT_PLAIN_TYPE)).thenReturn(error(new IllegalStateException("boom")));
+        // when
+        final ContentProvider contentProvider = snapshotted(contentFrom(mockClient, "/test", TEXT_PLAIN), store, 0);
+        final Content content = contentProvider.getContent(X, noOpTracer(), emptyParameters()).toBlocking().single();
+        // then
+        assertThat(content.getBody(), is("Foo"));
+        verify(mockClient).get("/test", TEXT_PLAIN_TYPE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldOnlySnapshotHttpContents() throws IOException {
+        snapshotted(ContentProviders.fallbackTo(staticTextContent("/test", X, "Foo")), snapshotStore(folder.newFile().toPath(), 4096), 0);
+    }
+
+    private Response someResponse(final int status, final String body) {
+        final Response response = mock(Response.class);
+        when(response.readEntity(String.class)).thenReturn(body);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getStatusInfo()).thenReturn(Statuses.from(status));
+        return response;
+    }
+
+    private ServiceClient someHttpClient() {
+        final HttpServiceClient mockClient = mock(HttpServiceClient.class);
+        when(mockClient.getClientConfig()).thenReturn(ClientConfig.noResiliency());
+        return mockClient;
+    }
+}
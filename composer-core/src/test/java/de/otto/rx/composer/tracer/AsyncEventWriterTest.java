@@ -0,0 +1,150 @@
+package de.otto.rx.composer.tracer;
+
+import de.otto.rx.composer.metrics.Metrics;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.tracer.AsyncEventWriter.DropPolicy.DROP_NEWEST;
+import static de.otto.rx.composer.tracer.AsyncEventWriter.DropPolicy.RESERVE_FOR_ERRORS;
+import static de.otto.rx.composer.tracer.AsyncEventWriter.asyncEventWriter;
+import static de.otto.rx.composer.tracer.EventType.COMPLETED;
+import static de.otto.rx.composer.tracer.EventType.ERROR;
+import static de.otto.rx.composer.tracer.EventType.STARTED;
+import static de.otto.rx.composer.tracer.StatisticsTracer.statisticsTracer;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AsyncEventWriterTest {
+
+    @Test
+    public void shouldForwardEventsInBatches() {
+        // given
+        final AsyncEventWriter writer = new AsyncEventWriter(8, 2, DROP_NEWEST, false);
+        final StatisticsTracer target = statisticsTracer();
+        writer.offer(target, STARTED, A, "source", false, "");
+        writer.offer(target, COMPLETED, A, "source", true, "");
+        writer.offer(target, STARTED, B, "source", false, "");
+        // when
+        final int firstBatch = writer.drain(2);
+        final int secondBatch = writer.drain(2);
+        // then
+        assertThat(firstBatch, is(2));
+        assertThat(secondBatch, is(1));
+        assertThat(target.getEvents().size(), is(3));
+        assertThat(target.getEvents().get(2).getPosition(), is(B));
+        assertThat(writer.getNumWritten(), is(3L));
+    }
+
+    @Test
+    public void shouldDropEventsIfQueueIsFull() {
+        // given
+        final AsyncEventWriter writer = new AsyncEventWriter(4, 4, DROP_NEWEST, false);
+        final StatisticsTracer target = statisticsTracer();
+        // when
+        for (int i = 0; i < 6; ++i) {
+            writer.offer(target, STARTED, A, "source-" + i, false, "");
+        }
+        writer.drain(10);
+        // then
+        assertThat(writer.getNumDropped(), is(2L));
+        assertThat(target.getEvents().size(), is(4));
+        assertThat(target.getEvents().get(3).getSource(), is("source-3"));
+    }
+
+    @Test
+    public void shouldReuseSlotsAfterDraining() {
+        // given
+        final AsyncEventWriter writer = new AsyncEventWriter(2, 2, DROP_NEWEST, false);
+        final StatisticsTracer target = statisticsTracer();
+        // when
+        for (int i = 0; i < 5; ++i) {
+            writer.offer(target, STARTED, A, "source-" + i, false, "");
+            writer.drain(1);
+        }
+        // then
+        assertThat(writer.getNumDropped(), is(0L));
+        assertThat(target.getEvents().size(), is(5));
+    }
+
+    @Test
+    public void shouldReserveCapacityForErrors() {
+        // given
+        final AsyncEventWriter writer = new AsyncEventWriter(4, 4, RESERVE_FOR_ERRORS, false);
+        final StatisticsTracer target = statisticsTracer();
+        // when
+        for (int i = 0; i < 4; ++i) {
+            writer.offer(target, STARTED, A, "source", false, "");
+        }
+        final boolean errorAccepted = writer.offer(target, ERROR, A, "source", false, "some error");
+        writer.drain(10);
+        // then
+        assertThat(errorAccepted, is(true));
+        assertThat(writer.getNumDropped(), is(1L));
+        assertThat(target.getStatistics().getNumErrors(), is(1));
+    }
+
+    @Test
+    public void shouldLogOnBackgroundThread() {
+        // given
+        final Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        try (final AsyncEventWriter writer = asyncEventWriter(16, 4, DROP_NEWEST)) {
+            final Tracer tracer = TracerBuilder.tracerBuilder()
+                    .withDefaultLogLevel(LoggingTracer.LogLevel.INFO)
+                    .withLogger(logger)
+                    .withAsyncLogging(writer)
+                    .build();
+            // when
+            tracer.trace(STARTED, A, "source", false, "");
+            // then
+            verify(logger, timeout(1000)).info("STARTED fetching content for position {} from {}", new Object[] {"A", "source"});
+        }
+    }
+
+    @Test
+    public void shouldOnlyEnqueueEventsOfEnabledLogLevels() {
+        // given
+        final Logger logger = mock(Logger.class);
+        when(logger.isErrorEnabled()).thenReturn(true);
+        final AsyncEventWriter writer = new AsyncEventWriter(4, 4, DROP_NEWEST, false);
+        final Tracer tracer = TracerBuilder.tracerBuilder()
+                .withDefaultLogLevel(LoggingTracer.LogLevel.INFO)
+                .withLogger(logger)
+                .withAsyncLogging(writer)
+                .build();
+        // when
+        tracer.trace(STARTED, A, "source", false, "");
+        tracer.trace(COMPLETED, A, "source", true, "");
+        tracer.trace(ERROR, A, "source", false, "some error");
+        // then
+        assertThat(writer.drain(10), is(1));
+        verify(logger).error("ERROR fetching content for position {} from {}: {}", new Object[] {"A", "source", "some error"});
+    }
+
+    @Test
+    public void shouldRecordDroppedEventsInMetrics() {
+        // given
+        final Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        final Metrics metrics = mock(Metrics.class);
+        final AsyncEventWriter writer = new AsyncEventWriter(2, 2, DROP_NEWEST, false);
+        final Tracer tracer = TracerBuilder.tracerBuilder()
+                .withDefaultLogLevel(LoggingTracer.LogLevel.INFO)
+                .withLogger(logger)
+                .withMetrics(metrics)
+                .withAsyncLogging(writer)
+                .build();
+        // when
+        for (int i = 0; i < 3; ++i) {
+            tracer.trace(STARTED, A, "source", false, "");
+        }
+        // then
+        verify(metrics).traceEventDropped();
+    }
+}
@@ -0,0 +1,34 @@
+package de.otto.rx.composer.tracer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.otto.rx.composer.tracer.OtlpJsonSpanExporter.toOtlpJson;
+import static de.otto.rx.composer.tracer.TraceContext.traceContext;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+public class OtlpJsonSpanExporterTest {
+
+    @Test
+    public void shouldSerializeSpansAsOtlpJson() {
+        // given
+        final List<Span> ended = new ArrayList<>();
+        final Span span = new Span("GET", Span.Kind.CLIENT,
+                traceContext("0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331", true), "00f067aa0ba902b7", ended::add);
+        span.setAttribute("http.url", "http://example.com/\"quoted\"");
+        span.endWithError("some\nerror");
+        // when
+        final String json = toOtlpJson("test-service", ended);
+        // then
+        assertThat(json, containsString("{\"key\":\"service.name\",\"value\":{\"stringValue\":\"test-service\"}}"));
+        assertThat(json, containsString("\"traceId\":\"0af7651916cd43dd8448eb211c80319c\""));
+        assertThat(json, containsString("\"spanId\":\"b7ad6b7169203331\""));
+        assertThat(json, containsString("\"parentSpanId\":\"00f067aa0ba902b7\""));
+        assertThat(json, containsString("\"kind\":3"));
+        assertThat(json, containsString("{\"key\":\"http.url\",\"value\":{\"stringValue\":\"http://example.com/\\\"quoted\\\"\"}}"));
+        assertThat(json, containsString("\"status\":{\"code\":2,\"message\":\"some\\nerror\"}"));
+    }
+}
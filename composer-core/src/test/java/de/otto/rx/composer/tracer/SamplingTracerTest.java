@@ -0,0 +1,154 @@
+package de.otto.rx.composer.tracer;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.tracer.EventType.COMPLETED;
+import static de.otto.rx.composer.tracer.EventType.ERROR;
+import static de.otto.rx.composer.tracer.EventType.FALLBACK_STARTED;
+import static de.otto.rx.composer.tracer.EventType.STARTED;
+import static de.otto.rx.composer.tracer.StatisticsTracer.statisticsTracer;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SamplingTracerTest {
+
+    @Test
+    public void shouldNotForwardEventsOfFastAndSuccessfulPages() {
+        // given
+        final StatisticsTracer delegate = statisticsTracer();
+        final StatisticsTracer target = statisticsTracer();
+        final SamplingTracer tracer = new SamplingTracer(delegate, target, 10000);
+        // when
+        tracer.trace(STARTED, A, "source", false, "");
+        tracer.trace(COMPLETED, A, "source", true, "");
+        tracer.pageCompleted();
+        // then
+        assertThat(delegate.getEvents(), hasSize(2));
+        assertThat(target.getEvents(), hasSize(0));
+    }
+
+    @Test
+    public void shouldForwardEventsOfPagesWithErrors() {
+        // given
+        final StatisticsTracer target = statisticsTracer();
+        final SamplingTracer tracer = new SamplingTracer(statisticsTracer(), target, 10000);
+        // when
+        tracer.trace(STARTED, A, "source", false, "");
+        tracer.trace(ERROR, A, "source", false, "some error");
+        tracer.pageCompleted();
+        // then
+        assertThat(target.getEvents(), hasSize(2));
+        assertThat(target.getEvents().get(1).getErrorMessage(), is("some error"));
+    }
+
+    @Test
+    public void shouldForwardEventsOfPagesWithFallbacks() {
+        // given
+        final StatisticsTracer target = statisticsTracer();
+        final SamplingTracer tracer = new SamplingTracer(statisticsTracer(), target, 10000);
+        // when
+        tracer.trace(STARTED, A, "source", false, "");
+        tracer.trace(FALLBACK_STARTED, A, "", false, "");
+        tracer.pageCompleted();
+        // then
+        assertThat(target.getEvents(), hasSize(2));
+    }
+
+    @Test
+    public void shouldForwardEventsOfSlowPages() throws InterruptedException {
+        // given
+        final StatisticsTracer target = statisticsTracer();
+        final SamplingTracer tracer = new SamplingTracer(statisticsTracer(), target, 5);
+        // when
+        tracer.trace(STARTED, A, "source", false, "");
+        Thread.sleep(20);
+        tracer.trace(COMPLETED, A, "source", true, "");
+        tracer.pageCompleted();
+        // then
+        assertThat(target.getEvents(), hasSize(2));
+    }
+
+    @Test
+    public void shouldBuildTailSamplingTracer() {
+        // when
+        final Tracer tracer = TracerBuilder.tracerBuilder()
+                .withDelegate(statisticsTracer())
+                .withTailSampling(500)
+                .build();
+        // then
+        assertThat(tracer instanceof SamplingTracer, is(true));
+    }
+
+    @Test
+    public void shouldLogEveryPageWithHeadSamplingRateOfOne() {
+        // when
+        final Tracer tracer = TracerBuilder.tracerBuilder()
+                .withHeadSampling(1)
+                .withTailSampling(500)
+                .build();
+        // then
+        assertThat(tracer instanceof LoggingTracer, is(true));
+    }
+
+    @Test
+    public void shouldLogSlowPagesAsInfo() throws InterruptedException {
+        // given
+        final Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        final Tracer tracer = TracerBuilder.tracerBuilder()
+                .withLogger(logger)
+                .withTailSampling(5)
+                .build();
+        // when
+        tracer.trace(STARTED, A, "source", false, "");
+        Thread.sleep(20);
+        tracer.pageCompleted();
+        // then
+        verify(logger).info("STARTED fetching content for position {} from {}", new Object[] {"A", "source"});
+    }
+
+    @Test
+    public void shouldLogSlowPagesUsingConfiguredLogLevel() throws InterruptedException {
+        // given
+        final Logger logger = mock(Logger.class);
+        when(logger.isWarnEnabled()).thenReturn(true);
+        final Tracer tracer = TracerBuilder.tracerBuilder()
+                .withLogger(logger)
+                .withTailSampling(5, LoggingTracer.LogLevel.WARN)
+                .build();
+        // when
+        tracer.trace(STARTED, A, "source", false, "");
+        Thread.sleep(20);
+        tracer.pageCompleted();
+        // then
+        verify(logger).warn("STARTED fetching content for position {} from {}", new Object[] {"A", "source"});
+    }
+
+    @Test
+    public void shouldOnlyLogErrorsIfSamplingLogLevelIsDisabled() {
+        // given
+        final Logger logger = mock(Logger.class);
+        when(logger.isErrorEnabled()).thenReturn(true);
+        final Tracer tracer = TracerBuilder.tracerBuilder()
+                .withLogger(logger)
+                .withTailSampling(500)
+                .build();
+        // when
+        tracer.trace(STARTED, A, "source", false, "");
+        tracer.trace(ERROR, A, "source", false, "some error");
+        tracer.pageCompleted();
+        // then
+        assertThat(tracer instanceof SamplingTracer, is(false));
+        verify(logger, never()).info(anyString(), any(Object[].class));
+        verify(logger).error("ERROR fetching content for position {} from {}: {}", new Object[] {"A", "source", "some error"});
+    }
+}
@@ -0,0 +1,46 @@
+package de.otto.rx.composer.tracer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static de.otto.rx.composer.tracer.StatisticsTracer.statisticsTracer;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class SpanTracerTest {
+
+    @Test
+    public void shouldCreateChildSpansOfPage() {
+        // given
+        final List<List<Span>> exported = new ArrayList<>();
+        final SpanTracer tracer = new SpanTracer(statisticsTracer(), new SpanExporter() {
+            @Override
+            public void export(final Collection<Span> spans) {
+                exported.add(new ArrayList<>(spans));
+            }
+
+            @Override
+            public void close() {
+            }
+        }, "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        // when
+        final Span fragment = tracer.startSpan("fragment", Span.Kind.INTERNAL, null);
+        final Span request = tracer.startSpan("GET", Span.Kind.CLIENT, fragment);
+        request.end();
+        fragment.end();
+        tracer.pageCompleted();
+        // then
+        assertThat(exported, hasSize(1));
+        assertThat(exported.get(0), hasSize(3));
+        final Span page = tracer.getPageSpan();
+        assertThat(page.getParentSpanId(), is("b7ad6b7169203331"));
+        assertThat(page.getContext().getTraceId(), is("0af7651916cd43dd8448eb211c80319c"));
+        assertThat(fragment.getParentSpanId(), is(page.getContext().getSpanId()));
+        assertThat(request.getParentSpanId(), is(fragment.getContext().getSpanId()));
+        assertThat(request.getContext().getTraceId(), is(page.getContext().getTraceId()));
+    }
+}
@@ -0,0 +1,140 @@
+package de.otto.rx.composer.tracer;
+
+import de.otto.rx.composer.content.FragmentTiming;
+import de.otto.rx.composer.content.Statistics;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.AbcPosition.C;
+import static de.otto.rx.composer.tracer.EventType.COMPLETED;
+import static de.otto.rx.composer.tracer.EventType.CONTINUED;
+import static de.otto.rx.composer.tracer.EventType.ERROR;
+import static de.otto.rx.composer.tracer.EventType.FALLBACK_COMPLETED;
+import static de.otto.rx.composer.tracer.EventType.FALLBACK_STARTED;
+import static de.otto.rx.composer.tracer.EventType.RESPONSE_RECEIVED;
+import static de.otto.rx.composer.tracer.EventType.RETRY;
+import static de.otto.rx.composer.tracer.EventType.STARTED;
+import static de.otto.rx.composer.tracer.StatisticsTracer.statisticsTracer;
+import static de.otto.rx.composer.tracer.TraceEvent.fragmentStarted;
+import static de.otto.rx.composer.tracer.TraceEvent.traceEvent;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class StatisticsTracerTest {
+
+    @Test
+    public void shouldReturnTracedEventsInOrder() {
+        // given
+        final StatisticsTracer tracer = statisticsTracer();
+        // when
+        tracer.trace(fragmentStarted(A, "source"));
+        tracer.trace(COMPLETED, A, "source", true, "");
+        tracer.trace(ERROR, B, "other", false, "some error");
+        // then
+        final List<TraceEvent> events = tracer.getEvents();
+        assertThat(events, hasSize(3));
+        assertThat(events.get(0).getType(), is(STARTED));
+        assertThat(events.get(1).getType(), is(COMPLETED));
+        assertThat(events.get(1).isNonEmptyContent(), is(true));
+        assertThat(events.get(2).getPosition(), is(B));
+        assertThat(events.get(2).getErrorMessage(), is("some error"));
+    }
+
+    @Test
+    public void shouldGatherStatistics() {
+        // given
+        final StatisticsTracer tracer = statisticsTracer();
+        // when
+        tracer.trace(STARTED, A, "source", false, "");
+        tracer.trace(STARTED, B, "other", false, "");
+        tracer.trace(COMPLETED, A, "source", true, "");
+        tracer.trace(COMPLETED, B, "other", false, "");
+        tracer.trace(ERROR, B, "other", false, "some error");
+        // then
+        final Statistics statistics = tracer.getStatistics();
+        assertThat(statistics.getNumRequested(), is(2));
+        assertThat(statistics.getNumNonEmpty(), is(1));
+        assertThat(statistics.getNumEmpty(), is(1));
+        assertThat(statistics.getNumErrors(), is(1));
+    }
+
+    @Test
+    public void shouldGrowIfCapacityIsExceeded() {
+        // given
+        final StatisticsTracer tracer = statisticsTracer(2);
+        // when
+        tracer.trace(STARTED, A, "first", false, "");
+        tracer.trace(STARTED, A, "second", false, "");
+        tracer.trace(STARTED, A, "third", false, "");
+        tracer.trace(COMPLETED, A, "first", true, "");
+        tracer.trace(ERROR, A, "second", false, "failed");
+        // then
+        assertThat(tracer.getEvents().stream().map(TraceEvent::getSource).toArray(), is(new Object[]{"first", "second", "third", "first", "second"}));
+        assertThat(tracer.getStatistics().getNumRequested(), is(3));
+        assertThat(tracer.getStatistics().getNumNonEmpty(), is(1));
+        assertThat(tracer.getStatistics().getNumErrors(), is(1));
+    }
+
+    @Test
+    public void shouldNotLoseEventsTracedConcurrently() throws InterruptedException {
+        // given
+        final StatisticsTracer tracer = statisticsTracer(4);
+        final ExecutorService executor = newFixedThreadPool(4);
+        // when
+        for (int i = 0; i < 1000; ++i) {
+            executor.execute(() -> tracer.trace(STARTED, A, "source", false, ""));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, SECONDS);
+        // then
+        assertThat(tracer.getEvents().size(), is(1000));
+        assertThat(tracer.getStatistics().getNumRequested(), is(1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectCapacityThatIsNoPowerOfTwo() {
+        statisticsTracer(3);
+    }
+
+    @Test
+    public void shouldGatherTimelineAndCriticalPath() {
+        // given
+        final StatisticsTracer tracer = statisticsTracer();
+        final long t0 = tracer.getStatistics().getStartedTs();
+        // when
+        tracer.trace(traceEvent(STARTED, t0 + 1, A, "a", false, ""));
+        tracer.trace(traceEvent(STARTED, t0 + 1, C, "c", false, ""));
+        tracer.trace(traceEvent(RESPONSE_RECEIVED, t0 + 10, A, "a", false, ""));
+        tracer.trace(traceEvent(COMPLETED, t0 + 20, A, "a", true, ""));
+        tracer.trace(traceEvent(COMPLETED, t0 + 30, C, "c", true, ""));
+        tracer.trace(traceEvent(CONTINUED, t0 + 25, B, "A", false, ""));
+        tracer.trace(traceEvent(STARTED, t0 + 25, B, "b", false, ""));
+        tracer.trace(traceEvent(RETRY, t0 + 40, B, "b", false, ""));
+        tracer.trace(traceEvent(FALLBACK_STARTED, t0 + 50, B, "", false, ""));
+        tracer.trace(traceEvent(FALLBACK_COMPLETED, t0 + 60, B, "fallback", true, ""));
+        // then
+        final Statistics statistics = tracer.getStatistics();
+        assertThat(statistics.getCriticalPath(), contains("A", "B"));
+        assertThat(statistics.getCriticalPathMillis(), is(60L));
+        final FragmentTiming a = statistics.getTimeline().get(0);
+        assertThat(a.getPosition(), is("A"));
+        assertThat(a.getStartedMillis(), is(1L));
+        assertThat(a.getFirstByteMillis(), is(10L));
+        assertThat(a.getDurationMillis(), is(19L));
+        final FragmentTiming b = statistics.getTimeline().get(2);
+        assertThat(b.getPosition(), is("B"));
+        assertThat(b.getDependsOn(), is("A"));
+        assertThat(b.getQueuedMillis(), is(5L));
+        assertThat(b.getNumRetries(), is(1));
+        assertThat(b.getFallbackMillis(), is(10L));
+        assertThat(b.isAvailable(), is(true));
+    }
+}
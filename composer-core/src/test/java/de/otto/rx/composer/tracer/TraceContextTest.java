@@ -0,0 +1,46 @@
+package de.otto.rx.composer.tracer;
+
+import org.junit.Test;
+
+import static de.otto.rx.composer.tracer.TraceContext.fromTraceparent;
+import static de.otto.rx.composer.tracer.TraceContext.newTraceContext;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+public class TraceContextTest {
+
+    @Test
+    public void shouldParseTraceparent() {
+        // when
+        final TraceContext context = fromTraceparent("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        // then
+        assertThat(context.getTraceId(), is("0af7651916cd43dd8448eb211c80319c"));
+        assertThat(context.getSpanId(), is("b7ad6b7169203331"));
+        assertThat(context.isSampled(), is(true));
+        assertThat(context.toTraceparent(), is("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"));
+    }
+
+    @Test
+    public void shouldIgnoreInvalidTraceparent() {
+        assertThat(fromTraceparent(null), is(nullValue()));
+        assertThat(fromTraceparent("foo"), is(nullValue()));
+        assertThat(fromTraceparent("00-00000000000000000000000000000000-b7ad6b7169203331-01"), is(nullValue()));
+        assertThat(fromTraceparent("00-0af7651916cd43dd8448eb211c80319c-0000000000000000-01"), is(nullValue()));
+        assertThat(fromTraceparent("ff-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"), is(nullValue()));
+        assertThat(fromTraceparent("00-0AF7651916CD43DD8448EB211C80319C-b7ad6b7169203331-01"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldCreateChildOfSameTrace() {
+        // given
+        final TraceContext parent = newTraceContext();
+        // when
+        final TraceContext child = parent.newChild();
+        // then
+        assertThat(child.getTraceId(), is(parent.getTraceId()));
+        assertThat(child.getSpanId(), is(not(parent.getSpanId())));
+        assertThat(fromTraceparent(child.toTraceparent()), is(child));
+    }
+}
@@ -1,16 +1,23 @@
 package de.otto.rx.composer.tracer;
 
+import de.otto.rx.composer.metrics.Metrics;
 import org.junit.Test;
 import org.slf4j.Logger;
 
 import static de.otto.rx.composer.content.AbcPosition.A;
 import static de.otto.rx.composer.tracer.TraceEvent.error;
+import static de.otto.rx.composer.tracer.TraceEvent.fragmentCompleted;
 import static de.otto.rx.composer.tracer.TraceEvent.fragmentStarted;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class TracerBuilderTest {
 
@@ -32,6 +39,7 @@ public class TracerBuilderTest {
     @Test
     public void shouldLogErrorsAsWarning() {
         final Logger logger = mock(Logger.class);
+        when(logger.isWarnEnabled()).thenReturn(true);
 
         final Tracer tracer = TracerBuilder.tracerBuilder()
                 .withErrorLogLevel(LoggingTracer.LogLevel.WARN)
@@ -46,6 +54,7 @@ public class TracerBuilderTest {
     @Test
     public void shouldLogTracesAsInfo() {
         final Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
 
         final Tracer tracer = TracerBuilder.tracerBuilder()
                 .withDefaultLogLevel(LoggingTracer.LogLevel.INFO)
@@ -56,4 +65,38 @@ public class TracerBuilderTest {
 
         verify(logger).info("STARTED fetching content for position {} from {}", new Object[] {"A", "source"});
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldNotLogIfLogLevelIsDisabled() {
+        final Logger logger = mock(Logger.class);
+
+        final Tracer tracer = TracerBuilder.tracerBuilder()
+                .withDefaultLogLevel(LoggingTracer.LogLevel.INFO)
+                .withLogger(logger)
+                .build();
+
+        tracer.trace(EventType.STARTED, A, "source", false, "");
+
+        assertThat(tracer.isEnabled(), is(false));
+        verify(logger, never()).info(anyString(), any(Object[].class));
+    }
+
+    @Test
+    public void shouldRecordMetrics() {
+        final Metrics metrics = mock(Metrics.class);
+
+        final Tracer tracer = TracerBuilder.tracerBuilder()
+                .withMetrics(metrics)
+                .withLogging()
+                .build();
+
+        tracer.trace(fragmentStarted(A, "source"));
+        tracer.trace(fragmentCompleted(A, "source", true));
+        tracer.trace(error(A, "source", "reason"));
+
+        assertThat(tracer.getMetrics(), is(metrics));
+        verify(metrics).fragmentRequested(A);
+        verify(metrics).fragmentCompleted(A, true);
+        verify(metrics).fragmentFailed(A);
+    }
+}
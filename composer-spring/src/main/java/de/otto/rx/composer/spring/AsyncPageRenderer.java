@@ -0,0 +1,198 @@
+package de.otto.rx.composer.spring;
+
+import de.otto.rx.composer.content.Contents;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.page.ExecutionEngine;
+import de.otto.rx.composer.page.Page;
+import de.otto.rx.composer.page.RxEngine;
+import de.otto.rx.composer.tracer.Tracer;
+import org.slf4j.Logger;
+import org.springframework.web.context.request.async.DeferredResult;
+import rx.Subscription;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static de.otto.rx.composer.page.RxEngine.rxEngine;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+import static rx.Observable.timer;
+
+/**
+ * Integrates the asynchronous execution of {@link Page pages} into Spring MVC's async request processing.
+ * <p>
+ *     Controllers return a {@link DeferredResult} or a {@link CompletionStage} instead of blocking a servlet
+ *     container thread until all fragments of the page are fetched:
+ * </p>
+ * <pre><code>
+ *     &#64;RequestMapping("/")
+ *     public DeferredResult&lt;ModelAndView&gt; getContent() {
+ *         return renderer.deferredResult(page, emptyParameters(), tracer, contents -&gt; new ModelAndView("content", "contents", contents));
+ *     }
+ * </code></pre>
+ * <p>
+ *     The timeout of the renderer is the deadline of the page: if the page is not completed in time, the view is
+ *     created using the contents that have arrived until then, and the remaining fragments are ignored. The Spring
+ *     MVC async request timeout is only used as a safety net; {@link #deferredResult(StreamingContents, Function)}
+ *     sets it to the deadline plus {@link #TIMEOUT_GRACE_MILLIS}. Using {@link CompletionStage}s, make sure that
+ *     spring.mvc.async.request-timeout is longer than the deadline.
+ * </p>
+ * <p>
+ *     Pages are executed by the {@link ExecutionEngine} configured using {@link #withEngine(ExecutionEngine)}, or by
+ *     the default {@link RxEngine}. If the engine is rejecting a page, for example an
+ *     {@link de.otto.rx.composer.page.AdmissionController}, the result is failing with the
+ *     {@link RejectedExecutionException}.
+ * </p>
+ */
+public final class AsyncPageRenderer {
+
+    private static final Logger LOG = getLogger(AsyncPageRenderer.class);
+
+    /** Time added to the deadline of the page to get the timeout of the async request. */
+    public static final long TIMEOUT_GRACE_MILLIS = 1000;
+
+    private final long deadlineMillis;
+    private final ExecutionEngine engine;
+
+    private AsyncPageRenderer(final long deadlineMillis, final ExecutionEngine engine) {
+        checkArgument(deadlineMillis > 0, "deadlineMillis must be greater than zero");
+        this.deadlineMillis = deadlineMillis;
+        this.engine = checkNotNull(engine, "engine must not be null");
+    }
+
+    /**
+     * Creates an AsyncPageRenderer.
+     *
+     * @param deadlineMillis maximum time in milliseconds to wait for the contents of a page
+     * @return AsyncPageRenderer
+     */
+    public static AsyncPageRenderer asyncPageRenderer(final long deadlineMillis) {
+        return new AsyncPageRenderer(deadlineMillis, rxEngine());
+    }
+
+    /**
+     * Returns a copy of this AsyncPageRenderer that is executing pages using the specified engine.
+     *
+     * @param engine the ExecutionEngine used to execute the pages
+     * @return AsyncPageRenderer
+     */
+    public AsyncPageRenderer withEngine(final ExecutionEngine engine) {
+        return new AsyncPageRenderer(deadlineMillis, engine);
+    }
+
+    /**
+     * @return the deadline of pages in milliseconds
+     */
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    /**
+     * Fetches the page and returns a DeferredResult that is set as soon as the page is completed, or when the
+     * deadline is exceeded.
+     *
+     * @param page the page to fetch
+     * @param params Parameters used to fetch the content
+     * @param tracer the Tracer used to trace the execution of the page
+     * @param view function used to create the result, for example a ModelAndView, from the contents of the page
+     * @param <T> the type of the result
+     * @return DeferredResult
+     */
+    public <T> DeferredResult<T> deferredResult(final Page page,
+                                                final Parameters params,
+                                                final Tracer tracer,
+                                                final Function<Contents, T> view) {
+        try {
+            return deferredResult(page.streamWith(params, tracer, engine), view);
+        } catch (final RejectedExecutionException e) {
+            final DeferredResult<T> result = new DeferredResult<>();
+            result.setErrorResult(e);
+            return result;
+        }
+    }
+
+    /**
+     * Returns a DeferredResult that is set as soon as the contents are completed, or when the deadline is exceeded.
+     *
+     * @param contents the contents of a page that is currently fetched
+     * @param view function used to create the result, for example a ModelAndView, from the contents of the page
+     * @param <T> the type of the result
+     * @return DeferredResult
+     */
+    public <T> DeferredResult<T> deferredResult(final StreamingContents contents,
+                                                final Function<Contents, T> view) {
+        final DeferredResult<T> result = new DeferredResult<>(deadlineMillis + TIMEOUT_GRACE_MILLIS);
+        completionStage(contents, view).whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.setResult(value);
+            } else {
+                result.setErrorResult(throwable);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Fetches the page and returns a CompletionStage that is completed as soon as the page is completed, or when the
+     * deadline is exceeded.
+     *
+     * @param page the page to fetch
+     * @param params Parameters used to fetch the content
+     * @param tracer the Tracer used to trace the execution of the page
+     * @param view function used to create the result, for example a ModelAndView, from the contents of the page
+     * @param <T> the type of the result
+     * @return CompletionStage
+     */
+    public <T> CompletionStage<T> completionStage(final Page page,
+                                                  final Parameters params,
+                                                  final Tracer tracer,
+                                                  final Function<Contents, T> view) {
+        try {
+            return completionStage(page.streamWith(params, tracer, engine), view);
+        } catch (final RejectedExecutionException e) {
+            final CompletableFuture<T> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+    }
+
+    /**
+     * Returns a CompletionStage that is completed as soon as the contents are completed, or when the deadline is
+     * exceeded.
+     *
+     * @param contents the contents of a page that is currently fetched
+     * @param view function used to create the result, for example a ModelAndView, from the contents of the page
+     * @param <T> the type of the result
+     * @return CompletionStage
+     */
+    public <T> CompletionStage<T> completionStage(final StreamingContents contents,
+                                                  final Function<Contents, T> view) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Subscription deadline = timer(deadlineMillis, MILLISECONDS).subscribe(t -> {
+            if (!result.isDone()) {
+                LOG.warn("Page not completed after {}ms, using the contents that have arrived so far", deadlineMillis);
+                complete(result, view, contents.snapshot());
+            }
+        });
+        contents.whenCompleted().thenAccept(completed -> {
+            deadline.unsubscribe();
+            complete(result, view, completed);
+        });
+        return result;
+    }
+
+    private static <T> void complete(final CompletableFuture<T> result,
+                                     final Function<Contents, T> view,
+                                     final Contents contents) {
+        try {
+            result.complete(view.apply(contents));
+        } catch (final RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package de.otto.rx.composer.spring;
+
+import de.otto.rx.composer.content.Contents;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.page.Page;
+import org.junit.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.ImmutableList.of;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.content.PositionIndex.positionIndex;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.content.Statistics.emptyStats;
+import static de.otto.rx.composer.content.StreamingContents.streamingContents;
+import static de.otto.rx.composer.page.Fragments.fragment;
+import static de.otto.rx.composer.page.Page.consistsOf;
+import static de.otto.rx.composer.providers.ContentProviders.fallbackTo;
+import static de.otto.rx.composer.spring.AsyncPageRenderer.asyncPageRenderer;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AsyncPageRendererTest {
+
+    @Test
+    public void shouldSetDeferredResultWhenPageIsCompleted() {
+        // given
+        final StreamingContents contents = streamingContents(positionIndex(of(A, B)));
+        final DeferredResult<String> result = asyncPageRenderer(10000).deferredResult(contents, this::view);
+
+        // when
+        contents.add(staticTextContent("a", A, "Foo"));
+        // then
+        assertThat(result.getResult(), is(nullValue()));
+
+        // when
+        contents.add(staticTextContent("b", B, "Bar"));
+        contents.complete(emptyStats());
+        // then
+        assertThat(result.getResult(), is("Foo|Bar"));
+    }
+
+    @Test
+    public void shouldUseArrivedContentsWhenDeadlineIsExceeded() throws Exception {
+        // given
+        final StreamingContents contents = streamingContents(positionIndex(of(A, B)));
+        contents.add(staticTextContent("a", A, "Foo"));
+
+        // when
+        final CompletionStage<String> result = asyncPageRenderer(50).completionStage(contents, this::view);
+
+        // then
+        assertThat(result.toCompletableFuture().get(1, TimeUnit.SECONDS), is("Foo|"));
+    }
+
+    @Test
+    public void shouldSetErrorResultIfViewFails() {
+        // given
+        final StreamingContents contents = streamingContents(positionIndex(of(A)));
+        final IllegalStateException exception = new IllegalStateException("boom");
+        final DeferredResult<String> result = asyncPageRenderer(10000).deferredResult(contents, c -> {
+            throw exception;
+        });
+
+        // when
+        contents.complete(emptyStats());
+
+        // then
+        assertThat(result.getResult(), is(exception));
+    }
+
+    @Test
+    public void shouldSetErrorResultIfPageIsRejected() {
+        // given
+        final RejectedExecutionException exception = new RejectedExecutionException("rejected");
+        final Page page = consistsOf(fragment(A, fallbackTo(staticTextContent("a", A, "Foo"))));
+        final AsyncPageRenderer renderer = asyncPageRenderer(10000).withEngine((p, params, tracer) -> {
+            throw exception;
+        });
+
+        // when
+        final DeferredResult<String> result = renderer.deferredResult(page, emptyParameters(), noOpTracer(), this::view);
+
+        // then
+        assertThat(result.getResult(), is(exception));
+    }
+
+    private String view(final Contents contents) {
+        return contents.getBody(A) + "|" + contents.getBody(B);
+    }
+}
@@ -0,0 +1,61 @@
+package de.otto.rx.composer.thymeleaf;
+
+import de.otto.rx.composer.content.StreamingContents;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.IThrottledTemplateProcessor;
+import org.thymeleaf.context.IContext;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Renders Thymeleaf templates in chunks, flushing the output after every chunk.
+ * <p>
+ *     Together with {@link StreamingContents} provided as template variable 'contents', rendering the template
+ *     overlaps with fetching the contents of a page: every &lt;rxc:fragment&gt; is only waiting for the content
+ *     of its own position, and the output rendered so far is written to the client chunk by chunk.
+ * </p>
+ * <p>
+ *     Thymeleaf is processing one markup event ahead of the throttled output, so the markup directly preceding a
+ *     fragment that is still waiting for its content is flushed together with that fragment.
+ * </p>
+ * <pre><code>
+ *     final StreamingContents contents = page.streamWith(emptyParameters(), tracer);
+ *     final Context context = new Context();
+ *     context.setVariable("contents", contents);
+ *     renderChunked(templateEngine, "content", context, response.getWriter(), DEFAULT_CHUNK_SIZE);
+ * </code></pre>
+ */
+public final class ChunkedRenderer {
+
+    /** Default maximum number of chars that are rendered before the output is flushed. */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private ChunkedRenderer() {
+    }
+
+    /**
+     * Renders the template using Thymeleaf's throttled processing, and flushes the writer after every chunk.
+     *
+     * @param templateEngine the template engine
+     * @param template the name of the template
+     * @param context the context of the template
+     * @param writer the writer used to write the output
+     * @param chunkSize maximum number of chars per chunk
+     * @throws IOException if writing the output fails
+     */
+    public static void renderChunked(final ITemplateEngine templateEngine,
+                                     final String template,
+                                     final IContext context,
+                                     final Writer writer,
+                                     final int chunkSize) throws IOException {
+        checkArgument(chunkSize > 0, "chunkSize must be greater than zero");
+        final IThrottledTemplateProcessor processor = templateEngine.processThrottled(template, context);
+        while (!processor.isFinished()) {
+            processor.process(chunkSize, writer);
+            writer.flush();
+        }
+    }
+}
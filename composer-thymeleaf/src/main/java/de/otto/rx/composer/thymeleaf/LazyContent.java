@@ -0,0 +1,46 @@
+package de.otto.rx.composer.thymeleaf;
+
+import de.otto.rx.composer.content.Content;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.StreamingContents;
+import org.thymeleaf.context.LazyContextVariable;
+
+/**
+ * A lazy Thymeleaf context variable for the {@link Content} of a single position.
+ * <p>
+ *     The content is requested from the {@link StreamingContents} the first time the template evaluates the
+ *     variable, so {@link de.otto.rx.composer.page.Fragments#lazyFragment lazy fragments} are only fetched, if the
+ *     template branch using the variable is actually rendered:
+ * </p>
+ * <pre><code>
+ *     context.setVariable("recommendations", lazyContent(contents, RECOMMENDATIONS));
+ *
+ *     &lt;div th:if="${loggedIn}" th:utext="${recommendations.body}"&gt;&lt;/div&gt;
+ * </code></pre>
+ */
+public final class LazyContent extends LazyContextVariable<Content> {
+
+    private final StreamingContents contents;
+    private final Position position;
+
+    private LazyContent(final StreamingContents contents, final Position position) {
+        this.contents = contents;
+        this.position = position;
+    }
+
+    /**
+     * Creates a lazy context variable for the content of a position.
+     *
+     * @param contents the contents of the page
+     * @param position the position
+     * @return LazyContent
+     */
+    public static LazyContent lazyContent(final StreamingContents contents, final Position position) {
+        return new LazyContent(contents, position);
+    }
+
+    @Override
+    protected Content loadValue() {
+        return contents.get(position);
+    }
+}
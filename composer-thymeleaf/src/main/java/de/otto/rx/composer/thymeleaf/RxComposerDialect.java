@@ -1,12 +1,11 @@
 package de.otto.rx.composer.thymeleaf;
 
+import com.google.common.collect.ImmutableSet;
 import org.thymeleaf.dialect.AbstractProcessorDialect;
 import org.thymeleaf.processor.IProcessor;
 
 import java.util.Set;
 
-import static java.util.Collections.singleton;
-
 public class RxComposerDialect extends AbstractProcessorDialect {
 
     public RxComposerDialect() {
@@ -15,6 +14,6 @@ public class RxComposerDialect extends AbstractProcessorDialect {
 
     @Override
     public Set<IProcessor> getProcessors(final String dialectPrefix) {
-        return singleton(new RxcFragmentElementProcessor());
+        return ImmutableSet.of(new RxcFragmentElementProcessor(), new RxcPrefetchElementProcessor());
     }
 }
@@ -1,15 +1,19 @@
 package de.otto.rx.composer.thymeleaf;
 
+import de.otto.rx.composer.content.Content;
 import de.otto.rx.composer.content.Contents;
 import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.StreamingContents;
 import org.slf4j.Logger;
-import org.thymeleaf.IEngineConfiguration;
 import org.thymeleaf.context.ITemplateContext;
 import org.thymeleaf.model.IProcessableElementTag;
 import org.thymeleaf.processor.element.AbstractElementTagProcessor;
 import org.thymeleaf.processor.element.IElementTagStructureHandler;
 import org.thymeleaf.standard.expression.IStandardExpression;
-import org.thymeleaf.standard.expression.IStandardExpressionParser;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
 
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.thymeleaf.standard.expression.StandardExpressions.getExpressionParser;
@@ -21,6 +25,17 @@ import static org.thymeleaf.templatemode.TemplateMode.HTML;
  * <pre><code>
  *     &lt;rxc:content position="A" /&gt;
  * </code></pre>
+ * <p>
+ *     The contents are either {@link Contents} or {@link StreamingContents}. Using StreamingContents, every
+ *     fragment is only waiting for the content of its own position, so the template can be rendered while the
+ *     page is still fetched (see {@link ChunkedRenderer}).
+ * </p>
+ * <p>
+ *     The values of the position and from attributes are classified and parsed only once, and then cached by the
+ *     processor: literal positions like position="A" are used as-is, without involving the expression engine.
+ *     Only values using expression preprocessing (__...__) are parsed on every render, because the parsed expression
+ *     depends on the context.
+ * </p>
  */
 public class RxcFragmentElementProcessor extends AbstractElementTagProcessor {
 
@@ -32,56 +47,70 @@ public class RxcFragmentElementProcessor extends AbstractElementTagProcessor {
     public static final String RXC_DIALECT = "rxc";
     public static final String ELEMENT_NAME = "fragment";
 
+    /** Positions matching this pattern are literals that are not evaluated by the expression engine. */
+    private static final Pattern LITERAL_POSITION = Pattern.compile("[A-Za-z0-9_]+");
+    /** Upper bound of cached expressions, so dynamically generated templates can not exhaust the heap. */
+    private static final int MAX_CACHED_EXPRESSIONS = 1024;
+
+    private final ConcurrentMap<String, CachedExpression> positionExpressions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CachedExpression> fromExpressions = new ConcurrentHashMap<>();
 
     public RxcFragmentElementProcessor() {
-        super(HTML, RXC_DIALECT, ELEMENT_NAME, true, ATTR_POSITION, false, 1000);
+        this(ELEMENT_NAME);
+    }
+
+    protected RxcFragmentElementProcessor(final String elementName) {
+        super(HTML, RXC_DIALECT, elementName, true, ATTR_POSITION, false, 1000);
     }
 
     @Override
     protected void doProcess(final ITemplateContext context,
                              final IProcessableElementTag tag,
                              final IElementTagStructureHandler structureHandler) {
-        final Contents contents = getContents(context, tag);
-        final Position pos = getPosition(context, tag);
-        if (contents.get(pos).isAvailable()) {
-            structureHandler.replaceWith(contents.get(pos).getBody(), false);
+        final Content content = getContent(context, tag, getPosition(context, tag));
+        if (content.isAvailable()) {
+            structureHandler.replaceWith(content.getBody(), false);
         } else {
             structureHandler.removeTags();
         }
     }
 
+    Position getPosition(final ITemplateContext context,
+                         final IProcessableElementTag tag) {
+        final String position = tag.getAttributeValue(ATTR_POSITION);
+        final String name = String.valueOf(cached(positionExpressions, position, context, true).evaluate(context));
+        return () -> name;
+    }
 
-    static Position getPosition(final ITemplateContext context,
-                                final IProcessableElementTag tag) {
-        String position = tag.getAttributeValue("position");
-        try {
-            final IEngineConfiguration configuration = context.getConfiguration();
-            final IStandardExpressionParser parser = getExpressionParser(configuration);
-            final IStandardExpression expression = parser.parseExpression(context, position);
-            return () -> expression.execute(context).toString();
-        } catch (final Exception e) {
-            return () -> position;
+    /**
+     * Returns the content for the position, either from {@link Contents} or from {@link StreamingContents}. In the
+     * latter case, the call is blocking until the content of the position has arrived.
+     */
+    Content getContent(final ITemplateContext context,
+                       final IProcessableElementTag tag,
+                       final Position position) {
+        final Object contents = getContents(context, tag);
+        if (contents instanceof StreamingContents) {
+            return ((StreamingContents) contents).get(position);
+        } else {
+            return ((Contents) contents).get(position);
         }
     }
 
-    static Contents getContents(final ITemplateContext context,
-                                final IProcessableElementTag tag) {
-        final Contents contents;
+    /**
+     * Returns the {@link Contents} or {@link StreamingContents} specified by the from attribute, or the
+     * 'contents' variable.
+     */
+    Object getContents(final ITemplateContext context,
+                       final IProcessableElementTag tag) {
+        final Object contents;
         final String from = tag.getAttributeValue(ATTR_FROM);
         if (from != null) {
-            final IEngineConfiguration configuration = context.getConfiguration();
-            final IStandardExpressionParser parser = getExpressionParser(configuration);
-            final IStandardExpression expression = parser.parseExpression(context, from);
-            contents = (Contents) expression.execute(context);
+            contents = cached(fromExpressions, from, context, false).evaluate(context);
         } else {
-            Object contentsVar = context.getVariable(DEFAULT_VAR_CONTENTS);
-            if (contentsVar != null) {
-                contents = (Contents) contentsVar;
-            } else {
-                contents = null;
-            }
+            contents = context.getVariable(DEFAULT_VAR_CONTENTS);
         }
-        if (contents != null) {
+        if (contents instanceof Contents || contents instanceof StreamingContents) {
             return contents;
         } else {
             throw new IllegalStateException(
@@ -91,4 +120,50 @@ public class RxcFragmentElementProcessor extends AbstractElementTagProcessor {
         }
     }
 
+    int numCachedExpressions() {
+        return positionExpressions.size() + fromExpressions.size();
+    }
+
+    private static CachedExpression cached(final ConcurrentMap<String, CachedExpression> cache,
+                                           final String value,
+                                           final ITemplateContext context,
+                                           final boolean literalFallback) {
+        final CachedExpression cachedExpression = cache.get(value);
+        if (cachedExpression != null) {
+            return cachedExpression;
+        }
+        final CachedExpression expression = classify(value, context, literalFallback);
+        if (!value.contains("__") && cache.size() < MAX_CACHED_EXPRESSIONS) {
+            cache.putIfAbsent(value, expression);
+        }
+        return expression;
+    }
+
+    private static CachedExpression classify(final String value,
+                                             final ITemplateContext context,
+                                             final boolean literalFallback) {
+        if (literalFallback && LITERAL_POSITION.matcher(value).matches()) {
+            return ctx -> value;
+        }
+        try {
+            final IStandardExpression expression = getExpressionParser(context.getConfiguration())
+                    .parseExpression(context, value);
+            return expression::execute;
+        } catch (final RuntimeException e) {
+            if (literalFallback) {
+                LOG.debug("Using '{}' as literal position: {}", value, e.getMessage());
+                return ctx -> value;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A classified and parsed attribute value.
+     */
+    @FunctionalInterface
+    private interface CachedExpression {
+        Object evaluate(ITemplateContext context);
+    }
+
 }
@@ -0,0 +1,37 @@
+package de.otto.rx.composer.thymeleaf;
+
+import de.otto.rx.composer.content.StreamingContents;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+
+/**
+ * Thymeleaf 3 element processor that starts fetching the content of a
+ * {@link de.otto.rx.composer.page.Fragments#lazyFragment lazy fragment} early, without waiting for the content:
+ * <pre><code>
+ *     &lt;rxc:prefetch th:if="${loggedIn}" position="RECOMMENDATIONS" /&gt;
+ * </code></pre>
+ * <p>
+ *     The element is removed from the output. Prefetching is only supported for {@link StreamingContents};
+ *     for other contents, or positions that are not lazy, nothing happens.
+ * </p>
+ */
+public class RxcPrefetchElementProcessor extends RxcFragmentElementProcessor {
+
+    public static final String ELEMENT_NAME = "prefetch";
+
+    public RxcPrefetchElementProcessor() {
+        super(ELEMENT_NAME);
+    }
+
+    @Override
+    protected void doProcess(final ITemplateContext context,
+                             final IProcessableElementTag tag,
+                             final IElementTagStructureHandler structureHandler) {
+        final Object contents = getContents(context, tag);
+        if (contents instanceof StreamingContents) {
+            ((StreamingContents) contents).prefetch(getPosition(context, tag));
+        }
+        structureHandler.removeElement();
+    }
+}
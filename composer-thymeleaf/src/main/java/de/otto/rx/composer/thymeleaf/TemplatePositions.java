@@ -0,0 +1,109 @@
+package de.otto.rx.composer.thymeleaf;
+
+import com.google.common.collect.ImmutableSet;
+import de.otto.rx.composer.page.Page;
+import org.slf4j.Logger;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * The positions of &lt;rxc:fragment&gt; and &lt;rxc:prefetch&gt; elements used by a Thymeleaf template and the templates it includes,
+ * as found by the {@link TemplateScanner}.
+ * <p>
+ *     If a position can not be determined statically, for example position="${someVariable}" where someVariable is not
+ *     a parameter of a fragment called with literal arguments, the TemplatePositions are not
+ *     {@link #isComplete() complete}.
+ * </p>
+ */
+public final class TemplatePositions {
+
+    private static final Logger LOG = getLogger(TemplatePositions.class);
+
+    private final String template;
+    private final ImmutableSet<String> positions;
+    private final ImmutableSet<String> unresolved;
+    private final ImmutableSet<String> scannedTemplates;
+
+    private TemplatePositions(final String template,
+                              final ImmutableSet<String> positions,
+                              final ImmutableSet<String> unresolved,
+                              final ImmutableSet<String> scannedTemplates) {
+        this.template = template;
+        this.positions = positions;
+        this.unresolved = unresolved;
+        this.scannedTemplates = scannedTemplates;
+    }
+
+    static TemplatePositions templatePositions(final String template,
+                                               final ImmutableSet<String> positions,
+                                               final ImmutableSet<String> unresolved,
+                                               final ImmutableSet<String> scannedTemplates) {
+        return new TemplatePositions(template, positions, unresolved, scannedTemplates);
+    }
+
+    /**
+     * @return the name of the scanned template
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return the names of all positions used by the template, including positions in conditionally rendered markup.
+     */
+    public ImmutableSet<String> getPositions() {
+        return positions;
+    }
+
+    /**
+     * @return position expressions and templates that could not be resolved.
+     */
+    public ImmutableSet<String> getUnresolved() {
+        return unresolved;
+    }
+
+    /**
+     * @return the names of the scanned templates, including the template itself and all included templates.
+     */
+    public ImmutableSet<String> getScannedTemplates() {
+        return scannedTemplates;
+    }
+
+    /**
+     * @return true, if all positions used by the template are known.
+     */
+    public boolean isComplete() {
+        return unresolved.isEmpty();
+    }
+
+    /**
+     * Returns a Page that is only fetching the fragments of positions used by the template.
+     * <p>
+     *     If the positions are not {@link #isComplete() complete}, the page is returned unchanged, because
+     *     skipping fragments could break the rendering of the template. Lazy fragments are never skipped, so
+     *     positions only accessed using a {@link LazyContent} variable are still available.
+     * </p>
+     *
+     * @param page the page that is rendered using the template
+     * @return Page
+     * @throws IllegalArgumentException if the template does not use any of the fragments of the page.
+     */
+    public Page applyTo(final Page page) {
+        if (isComplete()) {
+            return page.withOnlyPositions(positions);
+        } else {
+            LOG.warn("Unable to determine the positions used by template '{}': {}. All fragments are fetched.", template, unresolved);
+            return page;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TemplatePositions{" +
+                "template='" + template + '\'' +
+                ", positions=" + positions +
+                ", unresolved=" + unresolved +
+                ", scannedTemplates=" + scannedTemplates +
+                '}';
+    }
+}
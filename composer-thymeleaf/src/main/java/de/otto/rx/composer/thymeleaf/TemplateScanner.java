@@ -0,0 +1,242 @@
+package de.otto.rx.composer.thymeleaf;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Resources;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static de.otto.rx.composer.thymeleaf.TemplatePositions.templatePositions;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Scans Thymeleaf templates at startup to find the positions of all &lt;rxc:fragment&gt; and &lt;rxc:prefetch&gt;
+ * elements a template is able to render.
+ * <p>
+ *     The scan is static: all elements are found, regardless of conditions like th:if, so the result contains every
+ *     position the template <em>can</em> reference. Templates included using th:include, th:replace or th:insert
+ *     are scanned as well. Positions of fragments like
+ * </p>
+ * <pre><code>
+ *     &lt;div th:fragment="fragment(position)"&gt;&lt;rxc:fragment position="${position}" /&gt;&lt;/div&gt;
+ * </code></pre>
+ * <p>
+ *     are resolved using the literal arguments of all calls of the fragment, like
+ *     th:include="fragments :: fragment('A')". Other position expressions can not be resolved statically.
+ * </p>
+ * <p>
+ *     Positions that are only accessed using variables, like a {@link LazyContent}, can not be found. This is
+ *     fine for {@link de.otto.rx.composer.page.Fragments#lazyFragment lazy fragments}, because
+ *     {@link TemplatePositions#applyTo(de.otto.rx.composer.page.Page)} never skips them.
+ * </p>
+ * <p>
+ *     Example:
+ * </p>
+ * <pre><code>
+ *     final TemplatePositions positions = scanTemplate("content", classpathTemplates("templates/", ".html"));
+ *     final Page page = positions.applyTo(consistsOf(...));
+ * </code></pre>
+ */
+public final class TemplateScanner {
+
+    private static final Pattern COMMENT = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+    private static final Pattern RXC_ELEMENT = Pattern.compile(
+            "<rxc:(?:fragment|prefetch)\\b[^>]*?\\bposition\\s*=\\s*(\"|')(.*?)\\1", Pattern.DOTALL);
+    private static final Pattern FRAGMENT_DEFINITION = Pattern.compile(
+            "\\b(?:th|data-th):fragment\\s*=\\s*(\"|')\\s*([\\w-]+)\\s*(?:\\(([^)]*)\\))?\\s*\\1");
+    private static final Pattern FRAGMENT_CALL = Pattern.compile(
+            "\\b(?:th|data-th):(?:include|replace|insert|substituteby)\\s*=\\s*(\"|')(.*?)\\1", Pattern.DOTALL);
+    private static final Pattern FRAGMENT_EXPRESSION = Pattern.compile(
+            "^\\s*(?:~\\{)?\\s*([\\w/.-]*)\\s*::\\s*([\\w-]+)\\s*(?:\\((.*)\\))?\\s*}?\\s*$", Pattern.DOTALL);
+    private static final Pattern LITERAL_POSITION = Pattern.compile("[A-Za-z0-9_]+");
+    private static final Pattern QUOTED_LITERAL = Pattern.compile("'([A-Za-z0-9_]+)'");
+    private static final Pattern VARIABLE = Pattern.compile("\\$\\{\\s*(\\w+)\\s*}");
+    private static final Pattern NAMED_ARGUMENT = Pattern.compile("(\\w+)\\s*=\\s*(.*)", Pattern.DOTALL);
+
+    private TemplateScanner() {
+    }
+
+    /**
+     * Scans the template and all included templates.
+     *
+     * @param template the name of the template
+     * @param templateLoader function returning the source of a template by name, or null if there is no such template.
+     * @return TemplatePositions
+     */
+    public static TemplatePositions scanTemplate(final String template,
+                                                 final Function<String, String> templateLoader) {
+        final Set<String> positions = new HashSet<>();
+        final Set<String> unresolved = new HashSet<>();
+        final Set<String> scanned = new HashSet<>();
+        final Map<String, List<String>> fragmentParameters = new HashMap<>();
+        final Map<String, List<List<String>>> fragmentCalls = new HashMap<>();
+        final Map<String, Set<String>> variablePositions = new HashMap<>();
+
+        final Deque<String> templates = new ArrayDeque<>();
+        templates.add(template);
+        while (!templates.isEmpty()) {
+            final String name = templates.poll();
+            if (!scanned.add(name)) {
+                continue;
+            }
+            final String source = templateLoader.apply(name);
+            if (source == null) {
+                unresolved.add("template:" + name);
+                continue;
+            }
+            final String html = COMMENT.matcher(source).replaceAll("");
+
+            final Matcher rxcElement = RXC_ELEMENT.matcher(html);
+            while (rxcElement.find()) {
+                final String position = rxcElement.group(2).trim();
+                final Matcher quoted = QUOTED_LITERAL.matcher(position);
+                final Matcher variable = VARIABLE.matcher(position);
+                if (LITERAL_POSITION.matcher(position).matches()) {
+                    positions.add(position);
+                } else if (quoted.matches()) {
+                    positions.add(quoted.group(1));
+                } else if (variable.matches()) {
+                    variablePositions.computeIfAbsent(name, k -> new HashSet<>()).add(variable.group(1));
+                } else {
+                    unresolved.add(name + ":" + position);
+                }
+            }
+
+            final Matcher definition = FRAGMENT_DEFINITION.matcher(html);
+            while (definition.find()) {
+                fragmentParameters.put(name + "::" + definition.group(2), splitArguments(definition.group(3)));
+            }
+
+            final Matcher call = FRAGMENT_CALL.matcher(html);
+            while (call.find()) {
+                final Matcher expression = FRAGMENT_EXPRESSION.matcher(call.group(2));
+                if (expression.matches()) {
+                    final String calledTemplate = expression.group(1).isEmpty() || expression.group(1).equals("this")
+                            ? name
+                            : expression.group(1);
+                    templates.add(calledTemplate);
+                    fragmentCalls
+                            .computeIfAbsent(calledTemplate + "::" + expression.group(2), k -> new ArrayList<>())
+                            .add(splitArguments(expression.group(3)));
+                } else if (!call.group(2).contains("::")) {
+                    templates.add(call.group(2).trim());
+                }
+            }
+        }
+
+        variablePositions.forEach((name, variables) -> variables.forEach(variable ->
+                resolveVariable(name, variable, fragmentParameters, fragmentCalls, positions, unresolved)));
+
+        return templatePositions(
+                template,
+                ImmutableSet.copyOf(positions),
+                ImmutableSet.copyOf(unresolved),
+                ImmutableSet.copyOf(scanned));
+    }
+
+    /**
+     * Returns a template loader reading templates from the classpath, like Spring Boot's default
+     * classpath:/templates/*.html
+     *
+     * @param prefix prefix of the template resource, like "templates/"
+     * @param suffix suffix of the template resource, like ".html"
+     * @return template loader
+     */
+    public static Function<String, String> classpathTemplates(final String prefix, final String suffix) {
+        return name -> {
+            final URL resource = Thread.currentThread().getContextClassLoader().getResource(prefix + name + suffix);
+            if (resource == null) {
+                return null;
+            }
+            try {
+                return Resources.toString(resource, UTF_8);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Unable to read template " + name + ": " + e.getMessage(), e);
+            }
+        };
+    }
+
+    /**
+     * Resolves position="${variable}" using the literal arguments of calls of the fragments that are declaring the
+     * variable as a parameter.
+     */
+    private static void resolveVariable(final String template,
+                                        final String variable,
+                                        final Map<String, List<String>> fragmentParameters,
+                                        final Map<String, List<List<String>>> fragmentCalls,
+                                        final Set<String> positions,
+                                        final Set<String> unresolved) {
+        boolean declared = false;
+        for (final Map.Entry<String, List<String>> fragment : fragmentParameters.entrySet()) {
+            final int index = fragment.getValue().indexOf(variable);
+            if (index < 0 || !fragment.getKey().startsWith(template + "::")) {
+                continue;
+            }
+            declared = true;
+            for (final List<String> arguments : fragmentCalls.getOrDefault(fragment.getKey(), ImmutableList.of())) {
+                final String argument = argumentOf(arguments, variable, index);
+                final Matcher quoted = argument != null ? QUOTED_LITERAL.matcher(argument) : null;
+                if (quoted != null && quoted.matches()) {
+                    positions.add(quoted.group(1));
+                } else {
+                    unresolved.add(fragment.getKey() + "(" + String.join(", ", arguments) + ")");
+                }
+            }
+        }
+        if (!declared) {
+            unresolved.add(template + ":${" + variable + "}");
+        }
+    }
+
+    private static String argumentOf(final List<String> arguments, final String parameter, final int index) {
+        for (final String argument : arguments) {
+            final Matcher named = NAMED_ARGUMENT.matcher(argument);
+            if (named.matches() && !argument.startsWith("'")) {
+                if (named.group(1).equals(parameter)) {
+                    return named.group(2).trim();
+                }
+            }
+        }
+        return index < arguments.size() ? arguments.get(index) : null;
+    }
+
+    /**
+     * Splits a comma-separated list of arguments or parameters, ignoring commas in quotes or parentheses.
+     */
+    private static List<String> splitArguments(final String arguments) {
+        final List<String> result = new ArrayList<>();
+        if (arguments == null || arguments.trim().isEmpty()) {
+            return result;
+        }
+        int depth = 0;
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            final char c = arguments.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && (c == '(' || c == '{')) {
+                ++depth;
+            } else if (!quoted && (c == ')' || c == '}')) {
+                --depth;
+            } else if (!quoted && depth == 0 && c == ',') {
+                result.add(arguments.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        result.add(arguments.substring(start).trim());
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package de.otto.rx.composer.thymeleaf;
+
+import de.otto.rx.composer.content.StreamingContents;
+import org.junit.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.io.StringWriter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.ImmutableList.of;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.PositionIndex.positionIndex;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.content.Statistics.emptyStats;
+import static de.otto.rx.composer.content.StreamingContents.streamingContents;
+import static de.otto.rx.composer.thymeleaf.ChunkedRenderer.renderChunked;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ChunkedRendererTest {
+
+    @Test
+    public void shouldFlushOutputBeforeLaterFragmentsArrive() throws Exception {
+        // given
+        final TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new RxComposerDialect());
+        final StreamingContents contents = streamingContents(positionIndex(of(A, B)));
+        contents.add(staticTextContent("a", A, "Content A"));
+        final Context context = new Context();
+        context.setVariable("contents", contents);
+        final FlushRecordingWriter writer = new FlushRecordingWriter();
+
+        // when
+        final CompletableFuture<Void> rendering = CompletableFuture.runAsync(() -> {
+            try {
+                renderChunked(engine, "<div><rxc:fragment position=\"A\"/><hr/><hr/><rxc:fragment position=\"B\"/></div>", context, writer, 4);
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // then
+        assertThat(writer.awaitFlushed("Content A", 1000), is(true));
+        assertThat(rendering.isDone(), is(false));
+
+        // when
+        contents.add(staticTextContent("b", B, "Content B"));
+        contents.complete(emptyStats());
+        rendering.get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(writer.toString(), is("<div>Content A<hr/><hr/>Content B</div>"));
+    }
+
+    private static class FlushRecordingWriter extends StringWriter {
+        private volatile String flushed = "";
+
+        @Override
+        public void flush() {
+            super.flush();
+            flushed = toString();
+        }
+
+        boolean awaitFlushed(final String text, final long timeoutMillis) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (!flushed.contains(text) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            return flushed.contains(text);
+        }
+    }
+}
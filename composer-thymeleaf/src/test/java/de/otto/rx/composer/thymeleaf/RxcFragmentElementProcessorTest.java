@@ -1,19 +1,37 @@
 package de.otto.rx.composer.thymeleaf;
 
+import com.google.common.collect.ImmutableList;
 import de.otto.rx.composer.content.*;
 import org.junit.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
 import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
 import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.IProcessor;
 import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
 import static de.otto.rx.composer.content.Contents.contentsBuilder;
+import static de.otto.rx.composer.content.PositionIndex.positionIndex;
 import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.content.Statistics.emptyStats;
+import static de.otto.rx.composer.content.StreamingContents.streamingContents;
+import static de.otto.rx.composer.thymeleaf.LazyContent.lazyContent;
+import static java.util.Collections.singleton;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static rx.Observable.fromCallable;
 
 public class RxcFragmentElementProcessorTest {
 
@@ -40,6 +58,98 @@ public class RxcFragmentElementProcessorTest {
         verify(structureHandler).replaceWith("Some Content", false);
     }
 
+    @Test
+    public void shouldNotEvaluateLiteralPositions() {
+        // given
+        final ITemplateContext context = mock(ITemplateContext.class);
+        final IProcessableElementTag tag = mock(IProcessableElementTag.class);
+        when(tag.getAttributeValue("position")).thenReturn("A");
+        final RxcFragmentElementProcessor processor = new RxcFragmentElementProcessor();
+
+        // when
+        final Position first = processor.getPosition(context, tag);
+        final Position second = processor.getPosition(context, tag);
+
+        // then
+        assertThat(first.name(), is("A"));
+        assertThat(second.name(), is("A"));
+        verify(context, never()).getConfiguration();
+        assertThat(processor.numCachedExpressions(), is(1));
+    }
+
+    @Test
+    public void shouldRenderCachedExpressions() {
+        // given
+        final RxcFragmentElementProcessor processor = new RxcFragmentElementProcessor();
+        final TemplateEngine engine = templateEngineWith(processor);
+        final Context context = new Context();
+        context.setVariable("myContents", contentsBuilder()
+                .add(staticTextContent("a", A, "Content A"))
+                .add(staticTextContent("b", B, "Content B"))
+                .build());
+        context.setVariable("pos", "B");
+        final String template = "<div>" +
+                "<rxc:fragment from=\"${myContents}\" position=\"A\"/>" +
+                "<rxc:fragment from=\"${myContents}\" position=\"${pos}\"/>" +
+                "</div>";
+
+        // when
+        engine.process(template, context);
+        final String html = engine.process(template, context);
+
+        // then
+        assertThat(html, is("<div>Content AContent B</div>"));
+        assertThat(processor.numCachedExpressions(), is(3));
+    }
+
+    @Test
+    public void shouldOnlyFetchLazyContentOfRenderedBranches() {
+        // given
+        final TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new RxComposerDialect());
+        final AtomicInteger fetched = new AtomicInteger();
+        final StreamingContents contents = streamingContents(positionIndex(ImmutableList.of(A, B)));
+        contents.addLazy(A, fromCallable(() -> {
+            fetched.incrementAndGet();
+            return staticTextContent("a", A, "Content A");
+        }));
+        contents.complete(emptyStats());
+        final Context context = new Context();
+        context.setVariable("contents", contents);
+        context.setVariable("a", lazyContent(contents, A));
+        final String template = "<div><rxc:prefetch th:if=\"${show}\" position=\"A\"/>" +
+                "<p th:if=\"${show}\" th:utext=\"${a.body}\"></p></div>";
+
+        // when
+        context.setVariable("show", false);
+        final String hidden = engine.process(template, context);
+
+        // then
+        assertThat(hidden, is("<div></div>"));
+        assertThat(fetched.get(), is(0));
+
+        // when
+        context.setVariable("show", true);
+        final String shown = engine.process(template, context);
+
+        // then
+        assertThat(shown, is("<div><p>Content A</p></div>"));
+        assertThat(fetched.get(), is(1));
+    }
+
+    private TemplateEngine templateEngineWith(final RxcFragmentElementProcessor processor) {
+        final TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new AbstractProcessorDialect("test", "rxc", 10000) {
+            @Override
+            public Set<IProcessor> getProcessors(final String dialectPrefix) {
+                return singleton(processor);
+            }
+        });
+        return engine;
+    }
+
     private Content someContent(final Position position) {
         return staticTextContent(position.name(), position, "Some Content");
     }
@@ -0,0 +1,138 @@
+package de.otto.rx.composer.thymeleaf;
+
+import com.google.common.collect.ImmutableMap;
+import de.otto.rx.composer.content.Parameters;
+import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.page.Page;
+import de.otto.rx.composer.providers.ContentProvider;
+import de.otto.rx.composer.tracer.Tracer;
+import org.junit.Test;
+
+import static com.google.common.collect.ImmutableSet.of;
+import static de.otto.rx.composer.content.AbcPosition.A;
+import static de.otto.rx.composer.content.AbcPosition.B;
+import static de.otto.rx.composer.content.AbcPosition.C;
+import static de.otto.rx.composer.content.AbcPosition.X;
+import static de.otto.rx.composer.content.Parameters.emptyParameters;
+import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
+import static de.otto.rx.composer.page.Fragments.fragment;
+import static de.otto.rx.composer.page.Fragments.lazyFragment;
+import static de.otto.rx.composer.page.Page.consistsOf;
+import static de.otto.rx.composer.providers.ContentProviders.fallbackTo;
+import static de.otto.rx.composer.tracer.NoOpTracer.noOpTracer;
+import static de.otto.rx.composer.thymeleaf.TemplateScanner.scanTemplate;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class TemplateScannerTest {
+
+    @Test
+    public void shouldFindLiteralAndConditionalPositions() {
+        // given
+        final ImmutableMap<String, String> templates = ImmutableMap.of(
+                "page", "<div><rxc:fragment position=\"A\"/>" +
+                        "<div th:if=\"${debugMode}\"><rxc:fragment position='B'>fallback</rxc:fragment></div>" +
+                        "<!-- <rxc:fragment position=\"C\"/> --></div>");
+
+        // when
+        final TemplatePositions positions = scanTemplate("page", templates::get);
+
+        // then
+        assertThat(positions.getPositions(), is(of("A", "B")));
+        assertThat(positions.isComplete(), is(true));
+    }
+
+    @Test
+    public void shouldResolvePositionsOfFragmentParameters() {
+        // given
+        final ImmutableMap<String, String> templates = ImmutableMap.of(
+                "page", "<div th:include=\"fragments :: fragment('A')\"></div>" +
+                        "<div th:replace=\"~{fragments :: fragment(position='B')}\"></div>" +
+                        "<div th:replace=\"header\"></div>",
+                "fragments", "<div th:fragment=\"fragment(position)\"><rxc:fragment position=\"${position}\"/></div>",
+                "header", "<rxc:fragment position=\"HEADER\"/>");
+
+        // when
+        final TemplatePositions positions = scanTemplate("page", templates::get);
+
+        // then
+        assertThat(positions.getPositions(), is(of("A", "B", "HEADER")));
+        assertThat(positions.getScannedTemplates(), is(of("page", "fragments", "header")));
+        assertThat(positions.isComplete(), is(true));
+    }
+
+    @Test
+    public void shouldReportUnresolvedPositions() {
+        // given
+        final ImmutableMap<String, String> templates = ImmutableMap.of(
+                "page", "<rxc:fragment position=\"${somePosition}\"/>" +
+                        "<div th:include=\"fragments :: fragment(${pos})\"></div>",
+                "fragments", "<div th:fragment=\"fragment(position)\"><rxc:fragment position=\"${position}\"/></div>");
+
+        // when
+        final TemplatePositions positions = scanTemplate("page", templates::get);
+
+        // then
+        assertThat(positions.isComplete(), is(false));
+        assertThat(positions.getUnresolved(), is(of("page:${somePosition}", "fragments::fragment(${pos})")));
+    }
+
+    @Test
+    public void shouldReportMissingTemplates() {
+        // given
+        final ImmutableMap<String, String> templates = ImmutableMap.of(
+                "page", "<div th:replace=\"missing :: fragment\"></div>");
+
+        // when
+        final TemplatePositions positions = scanTemplate("page", templates::get);
+
+        // then
+        assertThat(positions.isComplete(), is(false));
+        assertThat(positions.getUnresolved(), is(of("template:missing")));
+    }
+
+    @Test
+    public void shouldFindPositionsOfPrefetchedFragments() {
+        // given
+        final ImmutableMap<String, String> templates = ImmutableMap.of(
+                "page", "<rxc:prefetch th:if=\"${loggedIn}\" position=\"A\"/><rxc:fragment position=\"A\"/>" +
+                        "<rxc:prefetch position='B'/>");
+
+        // when
+        final TemplatePositions positions = scanTemplate("page", templates::get);
+
+        // then
+        assertThat(positions.getPositions(), is(of("A", "B")));
+        assertThat(positions.isComplete(), is(true));
+    }
+
+    @Test
+    public void shouldKeepLazyFragmentsWhenApplyingPositions() {
+        // given
+        final ImmutableMap<String, String> templates = ImmutableMap.of(
+                "page", "<rxc:fragment position=\"A\"/><rxc:prefetch position=\"B\"/>" +
+                        "<div th:utext=\"${lazyC.body}\"></div>");
+        final ContentProvider unusedProvider = mock(ContentProvider.class);
+        final Page page = consistsOf(
+                fragment(A, fallbackTo(staticTextContent("a", A, "Foo"))),
+                lazyFragment(B, fallbackTo(staticTextContent("b", B, "Bar"))),
+                lazyFragment(C, fallbackTo(staticTextContent("c", C, "Baz"))),
+                fragment(X, unusedProvider));
+
+        // when
+        final Page usedPage = scanTemplate("page", templates::get).applyTo(page);
+        final StreamingContents contents = usedPage.streamWith(emptyParameters(), noOpTracer());
+
+        // then
+        assertThat(contents.getBody(A), is("Foo"));
+        assertThat(contents.getBody(B), is("Bar"));
+        assertThat(contents.getBody(C), is("Baz"));
+        assertThat(usedPage.getPositionIndex().size(), is(3));
+        verify(unusedProvider, never()).getContent(any(Position.class), any(Tracer.class), any(Parameters.class));
+    }
+}
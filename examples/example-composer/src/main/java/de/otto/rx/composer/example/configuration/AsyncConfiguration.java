@@ -0,0 +1,18 @@
+package de.otto.rx.composer.example.configuration;
+
+import de.otto.rx.composer.page.ExecutionEngine;
+import de.otto.rx.composer.spring.AsyncPageRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AsyncConfiguration {
+
+    @Bean
+    public AsyncPageRenderer asyncPageRenderer(final @Value("${rxcomposer.page.deadline-millis}") long deadlineMillis,
+                                               final ExecutionEngine executionEngine) {
+        return AsyncPageRenderer.asyncPageRenderer(deadlineMillis).withEngine(executionEngine);
+    }
+
+}
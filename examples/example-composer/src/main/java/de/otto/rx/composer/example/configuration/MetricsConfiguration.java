@@ -0,0 +1,17 @@
+package de.otto.rx.composer.example.configuration;
+
+import de.otto.rx.composer.metrics.PrometheusMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static de.otto.rx.composer.metrics.PrometheusMetrics.prometheusMetrics;
+
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public PrometheusMetrics metrics() {
+        return prometheusMetrics();
+    }
+
+}
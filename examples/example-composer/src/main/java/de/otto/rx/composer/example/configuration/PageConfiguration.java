@@ -1,9 +1,15 @@
 package de.otto.rx.composer.example.configuration;
 
+import de.otto.rx.composer.client.ClientScheduler;
 import de.otto.rx.composer.client.Ref;
 import de.otto.rx.composer.client.ServiceClients;
 import de.otto.rx.composer.content.Position;
+import de.otto.rx.composer.metrics.PrometheusMetrics;
+import de.otto.rx.composer.page.AdmissionController;
+import de.otto.rx.composer.page.ExecutionEngine;
+import de.otto.rx.composer.page.LoadShedder;
 import de.otto.rx.composer.page.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,6 +17,7 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
 import static com.damnhandy.uri.template.UriTemplate.fromTemplate;
+import static de.otto.rx.composer.client.ClientScheduler.boundedScheduler;
 import static de.otto.rx.composer.client.ClientConfig.noResiliency;
 import static de.otto.rx.composer.client.ClientConfig.noRetries;
 import static de.otto.rx.composer.client.ClientConfig.singleRetry;
@@ -19,12 +26,21 @@ import static de.otto.rx.composer.content.AbcPosition.*;
 import static de.otto.rx.composer.content.StaticTextContent.staticTextContent;
 import static de.otto.rx.composer.example.configuration.PageConfiguration.PagePosition.INTRO;
 import static de.otto.rx.composer.example.configuration.PageConfiguration.Services.*;
+import static de.otto.rx.composer.page.AdmissionController.admissionController;
+import static de.otto.rx.composer.page.BlockingEngine.blockingEngine;
 import static de.otto.rx.composer.page.Fragments.fragment;
 import static de.otto.rx.composer.page.Page.consistsOf;
+import static de.otto.rx.composer.page.Priority.CRITICAL;
+import static de.otto.rx.composer.page.Priority.OPTIONAL;
+import static de.otto.rx.composer.page.RxEngine.rxEngine;
+import static de.otto.rx.composer.providers.ContentProviders.cached;
 import static de.otto.rx.composer.providers.ContentProviders.contentFrom;
 import static de.otto.rx.composer.providers.ContentProviders.fallbackTo;
 import static de.otto.rx.composer.providers.ContentProviders.withAll;
 import static de.otto.rx.composer.providers.ContentProviders.withSingle;
+import static de.otto.rx.composer.providers.KeyParams.noKeyParams;
+import static de.otto.rx.composer.thymeleaf.TemplateScanner.classpathTemplates;
+import static de.otto.rx.composer.thymeleaf.TemplateScanner.scanTemplate;
 import static javax.ws.rs.core.MediaType.TEXT_HTML;
 
 @Configuration
@@ -38,13 +54,22 @@ public class PageConfiguration {
         introService, helloService, somethingElseService, serviceC, someMissingService, someBrokenService
     }
 
+    private final PrometheusMetrics metrics;
     private ServiceClients clients;
+    private ClientScheduler helloScheduler;
+
+    public PageConfiguration(final PrometheusMetrics metrics) {
+        this.metrics = metrics;
+    }
 
     @PostConstruct
     public void init() {
+        // the helloService is used by most fragments, so it is isolated from the other services:
+        helloScheduler = boundedScheduler(helloService.name(), 20, 100);
+        metrics.monitor(helloScheduler);
         clients = serviceClients(
                 singleRetry(introService, 5000, 2000),
-                singleRetry(helloService, 5000, 500),
+                singleRetry(helloService, 5000, 500).withScheduler(helloScheduler),
                 noResiliency(somethingElseService, 5000, 400),
                 singleRetry(serviceC, 5000, 1000),
                 singleRetry(someMissingService, 5000, 480),
@@ -57,11 +82,47 @@ public class PageConfiguration {
         clients.close();
     }
 
+    /**
+     * The engine used to execute the page, selected by property rxcomposer.page.engine: either "rx" or "blocking".
+     * <p>
+     *     At most rxcomposer.page.max-concurrent-pages are executed concurrently; the limit is adapted to the
+     *     latency of the pages. Pages that are not admitted within 50ms are rendered without fragments.
+     * </p>
+     */
+    @Bean
+    public ExecutionEngine executionEngine(final @Value("${rxcomposer.page.engine:rx}") String engine,
+                                           final @Value("${rxcomposer.page.max-concurrent-pages:100}") int maxConcurrentPages) {
+        final AdmissionController admissionController = admissionController(
+                "blocking".equals(engine) ? blockingEngine() : rxEngine(), maxConcurrentPages)
+                .withQueue(maxConcurrentPages, 50)
+                .withAdaptiveLimit(10, maxConcurrentPages, 1000)
+                .degrading();
+        metrics.monitor(admissionController);
+        return admissionController;
+    }
+
+    /**
+     * Skips optional fragments if the queue of the helloService is filling up. A tenth of the
+     * rxcomposer.page.fragment-capacity is reserved for the critical intro; normal fragments are skipped if the
+     * rest of the capacity is used by fragments in flight.
+     */
     @Bean
-    public Page page() {
-        return consistsOf(
+    public LoadShedder loadShedder(final @Value("${rxcomposer.page.fragment-capacity:200}") int capacity) {
+        final LoadShedder loadShedder = LoadShedder.loadShedder(capacity, capacity / 10).withQueueLimit(helloScheduler, 50);
+        metrics.monitor(loadShedder);
+        return loadShedder;
+    }
+
+    /**
+     * The page rendered by content.html. Fragments that are not used by the template are not fetched.
+     */
+    @Bean
+    public Page page(final LoadShedder loadShedder) {
+        return scanTemplate("content", classpathTemplates("templates/", ".html")).applyTo(consistsOf(
                 fragment(INTRO, withSingle(
-                        contentFrom(clients.getBy(introService), "http://localhost:8081/intro", TEXT_HTML))
+                        // the intro does not depend on any parameters and is cached for a minute:
+                        cached(contentFrom(clients.getBy(introService), "http://localhost:8081/intro", TEXT_HTML), 60000, noKeyParams())),
+                        CRITICAL
                 ),
                 fragment(A, withAll(
                         contentFrom(clients.getBy(helloService), fromTemplate("http://localhost:8081/hello?name=RxComposer"), TEXT_HTML),
@@ -79,14 +140,15 @@ public class PageConfiguration {
                 fragment(E, withAll(
                         contentFrom(clients.getBy(helloService), fromTemplate("http://localhost:8081/hello?name=RxComposer"), TEXT_HTML),
                         contentFrom(clients.getBy(helloService), fromTemplate("http://localhost:8081/hello?name=Otto"), TEXT_HTML),
-                        contentFrom(clients.getBy(helloService), fromTemplate("http://localhost:8081/hello{?name}"), TEXT_HTML))
+                        contentFrom(clients.getBy(helloService), fromTemplate("http://localhost:8081/hello{?name}"), TEXT_HTML)),
+                        OPTIONAL
                 ),
                 fragment(F, withSingle(
                         contentFrom(clients.getBy(someBrokenService), "http://localhost:8081/somethingBroken", TEXT_HTML,
                                 fallbackTo(
                                         staticTextContent("Fallback for http://localhost:8081/somethingBroken", F, "This is a staticTextFallback for /somethingBroken"))))
                 )
-        );
+        )).withLoadShedder(loadShedder);
     }
 
 }
@@ -1,15 +1,30 @@
 package de.otto.rx.composer.example.controller;
 
 import de.otto.rx.composer.content.Contents;
+import de.otto.rx.composer.content.StreamingContents;
+import de.otto.rx.composer.metrics.Metrics;
+import de.otto.rx.composer.page.ExecutionEngine;
 import de.otto.rx.composer.page.Page;
+import de.otto.rx.composer.spring.AsyncPageRenderer;
+import de.otto.rx.composer.tracer.Tracer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.ModelAndView;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 import static de.otto.rx.composer.content.Parameters.emptyParameters;
-import static de.otto.rx.composer.tracer.TracerBuilder.loggingStatisticsTracer;
+import static de.otto.rx.composer.thymeleaf.ChunkedRenderer.DEFAULT_CHUNK_SIZE;
+import static de.otto.rx.composer.thymeleaf.ChunkedRenderer.renderChunked;
+import static de.otto.rx.composer.tracer.StatisticsTracer.statisticsTracer;
+import static de.otto.rx.composer.tracer.TracerBuilder.tracerBuilder;
 
 /**
  * Fetches contents from some different "microservices" and renders the contents using a thymeleaf template.
@@ -18,19 +33,68 @@ import static de.otto.rx.composer.tracer.TracerBuilder.loggingStatisticsTracer;
 public class ContentController {
 
     private final Page page;
+    private final ExecutionEngine engine;
+    private final Metrics metrics;
+    private final ITemplateEngine templateEngine;
+    private final AsyncPageRenderer asyncPageRenderer;
 
     @Autowired
-    public ContentController(Page page) {
+    public ContentController(final Page page,
+                             final ExecutionEngine engine,
+                             final Metrics metrics,
+                             final ITemplateEngine templateEngine,
+                             final AsyncPageRenderer asyncPageRenderer) {
         this.page = page;
+        this.engine = engine;
+        this.metrics = metrics;
+        this.templateEngine = templateEngine;
+        this.asyncPageRenderer = asyncPageRenderer;
     }
 
     @RequestMapping("/")
     public ModelAndView getContent(final @RequestParam(defaultValue = "false") boolean debugMode) {
-        final Contents contents = page.fetchWith(emptyParameters(), loggingStatisticsTracer());
+        final Contents contents = page.fetchWith(emptyParameters(), tracer(), engine);
+        return contentView(contents, debugMode);
+    }
+
+    /**
+     * Renders the same page without blocking the request thread while the fragments are fetched. If the page is not
+     * completed before the deadline, the page is rendered using the contents that have arrived so far.
+     */
+    @RequestMapping("/async")
+    public DeferredResult<ModelAndView> getAsyncContent(final @RequestParam(defaultValue = "false") boolean debugMode) {
+        return asyncPageRenderer.deferredResult(page, emptyParameters(), tracer(), contents -> contentView(contents, debugMode));
+    }
+
+    /**
+     * Renders the same page while the fragments are still fetched: the output is flushed in chunks, and every
+     * fragment of the template is only waiting for the content of its own position.
+     */
+    @RequestMapping("/streaming")
+    public void getStreamingContent(final @RequestParam(defaultValue = "false") boolean debugMode,
+                                    final HttpServletRequest request,
+                                    final HttpServletResponse response) throws IOException {
+        final StreamingContents contents = page.streamWith(emptyParameters(), tracer(), engine);
+        final WebContext context = new WebContext(request, response, request.getServletContext(), request.getLocale());
+        context.setVariable("contents", contents);
+        context.setVariable("debugMode", debugMode);
+        response.setContentType("text/html;charset=UTF-8");
+        renderChunked(templateEngine, "content", context, response.getWriter(), DEFAULT_CHUNK_SIZE);
+    }
+
+    private ModelAndView contentView(final Contents contents, final boolean debugMode) {
         ModelAndView modelAndView = new ModelAndView("content");
         modelAndView.addObject("contents", contents);
         modelAndView.addObject("debugMode", debugMode);
         return modelAndView;
     }
 
+    private Tracer tracer() {
+        return tracerBuilder()
+                .withDelegate(statisticsTracer())
+                .withMetrics(metrics)
+                .withAsyncLogging()
+                .build();
+    }
+
 }
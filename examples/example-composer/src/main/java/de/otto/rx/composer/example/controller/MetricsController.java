@@ -0,0 +1,32 @@
+package de.otto.rx.composer.example.controller;
+
+import de.otto.rx.composer.metrics.PrometheusMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static de.otto.rx.composer.metrics.PrometheusMetrics.CONTENT_TYPE;
+
+/**
+ * Exposes the rx-composer metrics in Prometheus text format.
+ */
+@Controller
+public class MetricsController {
+
+    private final PrometheusMetrics metrics;
+
+    @Autowired
+    public MetricsController(final PrometheusMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @RequestMapping("/metrics")
+    public void getMetrics(final HttpServletResponse response) throws IOException {
+        response.setContentType(CONTENT_TYPE);
+        metrics.writeTo(response.getWriter());
+    }
+
+}
@@ -0,0 +1,46 @@
+package de.otto.rx.composer.loadtest;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Command-line arguments in the form {@code --name=value}.
+ */
+final class Arguments {
+
+    private final ImmutableMap<String, String> values;
+
+    private Arguments(final ImmutableMap<String, String> values) {
+        this.values = values;
+    }
+
+    static Arguments parse(final String[] args) {
+        final ImmutableMap.Builder<String, String> values = ImmutableMap.builder();
+        for (final String arg : args) {
+            if (arg.isEmpty()) {
+                continue;
+            }
+            final int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected argument --name=value, but got " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new Arguments(values.build());
+    }
+
+    String get(final String name, final String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(final String name, final int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    long getLong(final String name, final long defaultValue) {
+        return values.containsKey(name) ? Long.parseLong(values.get(name)) : defaultValue;
+    }
+
+    double getDouble(final String name, final double defaultValue) {
+        return values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+    }
+}
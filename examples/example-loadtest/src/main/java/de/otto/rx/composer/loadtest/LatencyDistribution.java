@@ -0,0 +1,101 @@
+package de.otto.rx.composer.loadtest;
+
+import java.util.Random;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Double.parseDouble;
+import static java.lang.Long.parseLong;
+
+/**
+ * A distribution of response latencies, used by the {@link StubFragmentServer} to simulate services.
+ * <p>
+ *     Distributions are specified on the command line as {@code <type>:<params>}, optionally followed by
+ *     {@code +spikes:<probability>,<spikeMillis>}:
+ * </p>
+ * <ul>
+ *     <li>{@code fixed:20} - always 20ms</li>
+ *     <li>{@code lognormal:20,0.5} - lognormal distribution with a median of 20ms and a sigma of 0.5</li>
+ *     <li>{@code bimodal:10,200,0.05} - lognormal modes with medians of 10ms and 200ms; 5% of the responses are slow</li>
+ *     <li>{@code lognormal:20,0.5+spikes:0.001,2000} - one in thousand responses is delayed by additional 2s</li>
+ * </ul>
+ */
+@FunctionalInterface
+interface LatencyDistribution {
+
+    /** Sigma of the modes of a bimodal distribution. */
+    double BIMODAL_SIGMA = 0.25;
+
+    /**
+     * Returns the next latency in milliseconds.
+     *
+     * @param random the source of randomness
+     * @return latency in millis
+     */
+    long nextMillis(Random random);
+
+    static LatencyDistribution fixed(final long millis) {
+        checkArgument(millis >= 0, "latency must not be negative");
+        return random -> millis;
+    }
+
+    static LatencyDistribution lognormal(final double medianMillis, final double sigma) {
+        checkArgument(medianMillis > 0, "median must be positive");
+        final double mu = Math.log(medianMillis);
+        return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    static LatencyDistribution bimodal(final double fastMedianMillis,
+                                       final double slowMedianMillis,
+                                       final double slowFraction) {
+        final LatencyDistribution fast = lognormal(fastMedianMillis, BIMODAL_SIGMA);
+        final LatencyDistribution slow = lognormal(slowMedianMillis, BIMODAL_SIGMA);
+        return random -> random.nextDouble() < slowFraction
+                ? slow.nextMillis(random)
+                : fast.nextMillis(random);
+    }
+
+    /**
+     * Returns a distribution that is adding {@code spikeMillis} to the latency of this distribution with the
+     * given probability.
+     *
+     * @param probability probability of a spike
+     * @param spikeMillis additional latency of a spike
+     * @return LatencyDistribution
+     */
+    default LatencyDistribution withTailSpikes(final double probability, final long spikeMillis) {
+        return random -> nextMillis(random) + (random.nextDouble() < probability ? spikeMillis : 0);
+    }
+
+    static LatencyDistribution parse(final String spec) {
+        final String[] parts = spec.split("\\+");
+        LatencyDistribution distribution = parseSingle(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            final String[] params = params(parts[i], "spikes", 2);
+            distribution = distribution.withTailSpikes(parseDouble(params[0]), parseLong(params[1]));
+        }
+        return distribution;
+    }
+
+    static LatencyDistribution parseSingle(final String spec) {
+        final String type = spec.contains(":") ? spec.substring(0, spec.indexOf(':')) : spec;
+        switch (type) {
+            case "fixed":
+                return fixed(parseLong(params(spec, type, 1)[0]));
+            case "lognormal":
+                final String[] lognormal = params(spec, type, 2);
+                return lognormal(parseDouble(lognormal[0]), parseDouble(lognormal[1]));
+            case "bimodal":
+                final String[] bimodal = params(spec, type, 3);
+                return bimodal(parseDouble(bimodal[0]), parseDouble(bimodal[1]), parseDouble(bimodal[2]));
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution " + spec);
+        }
+    }
+
+    static String[] params(final String spec, final String type, final int count) {
+        checkArgument(spec.startsWith(type + ":"), "Expected %s:<params>, but got %s", type, spec);
+        final String[] params = spec.substring(type.length() + 1).split(",");
+        checkArgument(params.length == count, "Expected %s parameters for %s, but got %s", count, type, spec);
+        return params;
+    }
+}
@@ -0,0 +1,172 @@
+package de.otto.rx.composer.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.*;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Generates load against a page of the composer, for example {@code example-composer}, and reports throughput and
+ * the distribution of page latencies.
+ * <p>
+ *     In {@code closed} mode, {@code concurrency} users are requesting the page in a loop, each user waiting for
+ *     the previous response. The arrival rate is adapting to the latency of the composer, so this mode is
+ *     measuring the maximum throughput.
+ * </p>
+ * <p>
+ *     In {@code open} mode, requests are sent at a fixed {@code rate} per second, independent of the latency of
+ *     the composer, using at most {@code concurrency} connections. Latencies are measured from the time a request
+ *     was supposed to be sent, so requests that are queued behind slow responses are not hiding latencies
+ *     (coordinated omission). With {@code --poisson=true}, inter-arrival times are exponentially distributed.
+ * </p>
+ * <p>
+ *     Arguments (all optional):
+ * </p>
+ * <pre><code>
+ *     --url=http://localhost:8080/
+ *     --mode=closed|open
+ *     --concurrency=16
+ *     --rate=100
+ *     --poisson=false
+ *     --duration=30
+ *     --warmup=10
+ *     --timeout=5000
+ *     --seed=42
+ * </code></pre>
+ */
+public final class LoadGenerator {
+
+    private static final Logger LOG = getLogger(LoadGenerator.class);
+
+    enum Mode {
+        closed, open
+    }
+
+    private final String url;
+    private final Mode mode;
+    private final int concurrency;
+    private final double rate;
+    private final boolean poisson;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final int timeoutMillis;
+    private final Random random;
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final AtomicLong numSucceeded = new AtomicLong();
+    private final AtomicLong numFailed = new AtomicLong();
+
+    private LoadGenerator(final Arguments arguments) {
+        this.url = arguments.get("url", "http://localhost:8080/");
+        this.mode = Mode.valueOf(arguments.get("mode", "closed"));
+        this.concurrency = arguments.getInt("concurrency", 16);
+        this.rate = arguments.getDouble("rate", 100.0);
+        this.poisson = Boolean.parseBoolean(arguments.get("poisson", "false"));
+        this.durationNanos = SECONDS.toNanos(arguments.getLong("duration", 30));
+        this.warmupNanos = SECONDS.toNanos(arguments.getLong("warmup", 10));
+        this.timeoutMillis = arguments.getInt("timeout", 5000);
+        this.random = new Random(arguments.getLong("seed", 42L));
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        final LoadGenerator loadGenerator = new LoadGenerator(Arguments.parse(args));
+        LOG.info("Running {} loop load test against {}", loadGenerator.mode, loadGenerator.url);
+        loadGenerator.run();
+        System.out.println(loadGenerator.report());
+    }
+
+    void run() throws InterruptedException {
+        final long startedNanos = nanoTime();
+        final long measuredFromNanos = startedNanos + warmupNanos;
+        final long endNanos = measuredFromNanos + durationNanos;
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        if (mode == Mode.closed) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.execute(() -> {
+                    while (nanoTime() < endNanos) {
+                        execute(nanoTime(), measuredFromNanos);
+                    }
+                });
+            }
+        } else {
+            final long intervalNanos = (long) (SECONDS.toNanos(1) / rate);
+            long intendedNanos = startedNanos;
+            while (intendedNanos < endNanos) {
+                LockSupport.parkNanos(intendedNanos - nanoTime());
+                final long scheduledNanos = intendedNanos;
+                executor.execute(() -> execute(scheduledNanos, measuredFromNanos));
+                intendedNanos += poisson
+                        ? (long) (-Math.log(1.0 - random.nextDouble()) * intervalNanos)
+                        : intervalNanos;
+            }
+        }
+        executor.shutdown();
+        executor.awaitTermination(durationNanos + MILLISECONDS.toNanos(timeoutMillis) * 2, NANOSECONDS);
+    }
+
+    String report() {
+        final double seconds = durationNanos / 1.0E9;
+        final long total = numSucceeded.get() + numFailed.get();
+        return String.format(
+                "mode=%s concurrency=%d%s duration=%.0fs%n" +
+                "requests=%d errors=%d throughput=%.1f/s%n" +
+                "latency p50=%.1fms p90=%.1fms p99=%.1fms p999=%.1fms max=%.1fms",
+                mode, concurrency, mode == Mode.open ? " rate=" + rate + "/s" : "", seconds,
+                total, numFailed.get(), total / seconds,
+                millis(latencies.getValueAtPercentile(50.0)),
+                millis(latencies.getValueAtPercentile(90.0)),
+                millis(latencies.getValueAtPercentile(99.0)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private void execute(final long intendedNanos, final long measuredFromNanos) {
+        final boolean succeeded = get();
+        if (intendedNanos >= measuredFromNanos) {
+            latencies.recordValue(NANOSECONDS.toMicros(nanoTime() - intendedNanos));
+            (succeeded ? numSucceeded : numFailed).incrementAndGet();
+        }
+    }
+
+    private boolean get() {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            final int status = connection.getResponseCode();
+            try (final InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (body != null) {
+                    final byte[] buffer = new byte[8192];
+                    while (body.read(buffer) >= 0) {
+                        // discard
+                    }
+                }
+            }
+            return status < 500;
+        } catch (final IOException e) {
+            LOG.debug("Request failed: {}", e.getMessage());
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return false;
+        }
+    }
+
+    private static double millis(final long micros) {
+        return micros / 1000.0;
+    }
+}
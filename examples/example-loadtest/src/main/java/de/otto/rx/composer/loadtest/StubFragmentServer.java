@@ -0,0 +1,141 @@
+package de.otto.rx.composer.loadtest;
+
+import com.google.common.base.Strings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * An HTTP server that is simulating the services of a page, using configurable latency distributions, error rates
+ * and body sizes.
+ * <p>
+ *     Every path is answered with a HTML fragment of {@code bodySize} bytes after a delay taken from the
+ *     {@link LatencyDistribution}. With probability {@code errorRate}, a 500 Internal Server Error is returned
+ *     instead. Draws are taken from a seeded Random, so the sequence of latencies and errors is reproducible.
+ * </p>
+ * <p>
+ *     Arguments (all optional):
+ * </p>
+ * <pre><code>
+ *     --port=8081
+ *     --latency=lognormal:20,0.5+spikes:0.001,2000
+ *     --errorRate=0.0
+ *     --bodySize=2048
+ *     --seed=42
+ * </code></pre>
+ */
+public final class StubFragmentServer implements AutoCloseable {
+
+    private static final Logger LOG = getLogger(StubFragmentServer.class);
+
+    private static final byte[] ERROR_BODY = "<p>Internal Server Error</p>".getBytes(UTF_8);
+
+    static {
+        // Without TCP_NODELAY, small responses are delayed by ~40ms (Nagle's algorithm and delayed ACKs):
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final byte[] body;
+    private final Random random;
+
+    private StubFragmentServer(final int port,
+                               final LatencyDistribution latency,
+                               final double errorRate,
+                               final int bodySize,
+                               final long seed) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.body = body(bodySize);
+        this.random = new Random(seed);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public static StubFragmentServer stubFragmentServer(final int port,
+                                                        final LatencyDistribution latency,
+                                                        final double errorRate,
+                                                        final int bodySize,
+                                                        final long seed) throws IOException {
+        return new StubFragmentServer(port, latency, errorRate, bodySize, seed);
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final Arguments arguments = Arguments.parse(args);
+        final StubFragmentServer server = stubFragmentServer(
+                arguments.getInt("port", 8081),
+                LatencyDistribution.parse(arguments.get("latency", "lognormal:20,0.5")),
+                arguments.getDouble("errorRate", 0.0),
+                arguments.getInt("bodySize", 2048),
+                arguments.getLong("seed", 42L));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        LOG.info("Stub fragment server listening on port {}", server.getPort());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final long delayMillis;
+        final boolean error;
+        synchronized (random) {
+            delayMillis = latency.nextMillis(random);
+            error = random.nextDouble() < errorRate;
+        }
+        try (final InputStream request = exchange.getRequestBody();
+             final OutputStream response = exchange.getResponseBody()) {
+            drain(request);
+            Thread.sleep(delayMillis);
+            final byte[] responseBody = error ? ERROR_BODY : body;
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(error ? 500 : 200, responseBody.length);
+            response.write(responseBody);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void drain(final InputStream inputStream) throws IOException {
+        final byte[] buffer = new byte[1024];
+        while (inputStream.read(buffer) >= 0) {
+            // discard
+        }
+    }
+
+    private static byte[] body(final int size) {
+        final String open = "<div class=\"stub\">";
+        final String close = "</div>";
+        final int contentSize = Math.max(0, size - open.length() - close.length());
+        final String content = Strings.repeat("Lorem ipsum dolor sit amet. ", contentSize / 28 + 1).substring(0, contentSize);
+        return (open + content + close).getBytes(UTF_8);
+    }
+}